@@ -0,0 +1,284 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.benchmark;
+
+import java.util.HashMap;
+import java.util.concurrent.Executor;
+
+import org.roboticsapi.facet.javarcc.JNet;
+import org.roboticsapi.facet.javarcc.JNetCreator;
+import org.roboticsapi.facet.javarcc.JPrimitive;
+import org.roboticsapi.facet.javarcc.devices.DeviceRegistry;
+import org.roboticsapi.facet.javarcc.devices.DeviceRegistry.DeviceRegistryListener;
+import org.roboticsapi.facet.javarcc.extension.JavaRccExtension;
+import org.roboticsapi.facet.javarcc.extension.JavaRccExtensionPoint;
+import org.roboticsapi.facet.javarcc.primitives.core.CoreJavaRccExtension;
+import org.roboticsapi.facet.javarcc.primitives.matrix.MatrixJavaRccExtension;
+import org.roboticsapi.facet.javarcc.primitives.world.WorldJavaRccExtension;
+import org.roboticsapi.facet.runtime.rpi.Fragment;
+import org.roboticsapi.facet.runtime.rpi.FragmentInPort;
+import org.roboticsapi.facet.runtime.rpi.RpiException;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.Clock;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleAdd;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleArray;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleMultiply;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleNetcommOut;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleValue;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.OTG;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.TimeHistory;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.TimeNet;
+import org.roboticsapi.facet.runtime.rpi.matrix.primitives.MatrixArraySet;
+import org.roboticsapi.facet.runtime.rpi.matrix.primitives.MatrixCreate;
+import org.roboticsapi.facet.runtime.rpi.matrix.primitives.MatrixSolve;
+import org.roboticsapi.facet.runtime.rpi.world.primitives.FrameTransform;
+import org.roboticsapi.facet.runtime.rpi.world.primitives.FrameValue;
+
+/**
+ * Builds the RPI nets used by the benchmarks and turns them into JavaRCC nets
+ * that can be stepped cycle by cycle without a running control core.
+ */
+public class BenchmarkNets {
+
+	private static final DeviceRegistryListener NO_LISTENER = new DeviceRegistryListener() {
+		@Override
+		public void deviceAdded(String name) {
+		}
+
+		@Override
+		public void deviceRemoved(String name) {
+		}
+
+		@Override
+		public void deviceChanged(String name) {
+		}
+	};
+
+	private static final Executor DIRECT = Runnable::run;
+
+	private static boolean registered = false;
+
+	private BenchmarkNets() {
+	}
+
+	/**
+	 * Registers the core, world and matrix primitives with the
+	 * {@link JNetCreator}, as the JavaRCC extensions would for a running control
+	 * core.
+	 */
+	public static synchronized void registerPrimitives() {
+		if (registered)
+			return;
+		final JNetCreator creator = new JNetCreator();
+		JavaRccExtensionPoint ep = new JavaRccExtensionPoint() {
+			@Override
+			public void registerPrimitive(String name, Class<? extends JPrimitive> primitive) {
+				creator.reg(name, primitive);
+			}
+
+			@Override
+			public void registerDevice(String type, DeviceFactory factory) {
+			}
+
+			@Override
+			public void registerInterface(String name, InterfaceExtractor extractor) {
+			}
+		};
+		for (JavaRccExtension extension : new JavaRccExtension[] { new CoreJavaRccExtension(),
+				new WorldJavaRccExtension(), new MatrixJavaRccExtension() }) {
+			extension.extend(ep);
+		}
+		registered = true;
+	}
+
+	/**
+	 * Creates a JavaRCC net for the given fragment.
+	 *
+	 * @param fragment fragment to convert
+	 * @param compile  true to compile the net into a flat evaluation plan
+	 * @return the created net
+	 */
+	public static JNet createNet(Fragment fragment, boolean compile) {
+		registerPrimitives();
+		JNetCreator creator = new JNetCreator();
+		creator.setCompile(compile);
+		return creator.createNet("benchmark", "", fragment, new DeviceRegistry(NO_LISTENER), DIRECT,
+				new HashMap<String, JNet>());
+	}
+
+	/**
+	 * Executes one control cycle of the given net.
+	 *
+	 * @param net net to execute
+	 */
+	public static void cycle(JNet net) {
+		net.readSensor();
+		net.updateData();
+		net.writeActuator();
+	}
+
+	/**
+	 * Creates an OTG following a moving destination.
+	 */
+	public static Fragment createOTGNet() throws RpiException {
+		Fragment net = new Fragment();
+		Clock clock = net.add(new Clock(1.0));
+		OTG otg = net.add(new OTG(1.0, 2.0));
+		otg.getInDestPos().connectTo(clock.getOutValue());
+		net.provideOutPort(otg.getOutPos(), "outPos");
+		return net;
+	}
+
+	/**
+	 * Creates a chain of frame transformations.
+	 *
+	 * @param length number of transformations in the chain
+	 */
+	public static Fragment createFrameTransformNet(int length) throws RpiException {
+		Fragment net = new Fragment();
+		FrameTransform last = null;
+		for (int i = 0; i < length; i++) {
+			FrameValue value = net.add(new FrameValue(frame(0.1 * i, 0.2, 0.3, 0.1, 0.2 * i, 0.3)));
+			FrameTransform transform = net.add(new FrameTransform());
+			if (last == null) {
+				transform.getInFirst().connectTo(net.add(new FrameValue(frame(0, 0, 0, 0, 0, 0))).getOutValue());
+			} else {
+				transform.getInFirst().connectTo(last.getOutValue());
+			}
+			transform.getInSecond().connectTo(value.getOutValue());
+			last = transform;
+		}
+		net.provideOutPort(last.getOutValue(), "outFrame");
+		return net;
+	}
+
+	/**
+	 * Creates a time history recording the net time.
+	 *
+	 * @param maxAge maximum age of recorded values (in seconds)
+	 */
+	public static Fragment createTimeHistoryNet(double maxAge) throws RpiException {
+		Fragment net = new Fragment();
+		TimeNet time = net.add(new TimeNet());
+		TimeHistory history = net.add(new TimeHistory(maxAge));
+		history.getInTime().connectTo(time.getOutValue());
+		history.getInValue().connectTo(time.getOutValue());
+		net.provideOutPort(history.getOutAge(), "outAge");
+		return net;
+	}
+
+	/**
+	 * Creates a net solving a diagonally dominant linear system.
+	 *
+	 * @param size number of unknowns
+	 */
+	public static Fragment createMatrixSolveNet(int size) throws RpiException {
+		StringBuilder values = new StringBuilder("[");
+		for (int row = 0; row < size; row++) {
+			for (int col = 0; col < size; col++) {
+				values.append(row == 0 && col == 0 ? "" : ",").append(row == col ? size : 1.0 / (1 + row + col));
+			}
+		}
+		values.append("]");
+
+		Fragment net = new Fragment();
+		MatrixCreate create = net.add(new MatrixCreate(size, size));
+		MatrixArraySet set = net.add(new MatrixArraySet(size, size, 0, 0, size, values.toString()));
+		set.getInMatrix().connectTo(create.getOutMatrix());
+		DoubleArray result = net.add(new DoubleArray(size));
+		MatrixSolve solve = net.add(new MatrixSolve(size));
+		solve.getInMatrix().connectTo(set.getOutMatrix());
+		solve.getInResult().connectTo(result.getOutArray());
+		net.provideOutPort(solve.getOutValue(), "outValue");
+		return net;
+	}
+
+	/**
+	 * Creates a net resembling a joint space motion: per joint a clock driven
+	 * destination fed into an OTG. Each joint also contains a duplicated
+	 * destination computation and an unused addition, as generated nets
+	 * typically do.
+	 *
+	 * @param joints number of joints
+	 */
+	public static Fragment createMotionNet(int joints) throws RpiException {
+		Fragment net = new Fragment();
+		Clock clock = net.add(new Clock(1.0));
+		for (int i = 0; i < joints; i++) {
+			Fragment joint = net.add(new Fragment());
+			FragmentInPort time = joint.addInPort("inTime");
+			time.connectTo(clock.getOutValue());
+
+			DoubleAdd dest = joint.add(new DoubleAdd(0.0, 0.0));
+			dest.getInFirst().connectTo(time.getInternalOutPort());
+			dest.getInSecond().connectTo(joint.add(new DoubleValue((double) i)).getOutValue());
+
+			DoubleAdd duplicate = joint.add(new DoubleAdd(0.0, 0.0));
+			duplicate.getInFirst().connectTo(time.getInternalOutPort());
+			duplicate.getInSecond().connectTo(joint.add(new DoubleValue((double) i)).getOutValue());
+
+			DoubleAdd unused = joint.add(new DoubleAdd(0.0, 0.0));
+			unused.getInFirst().connectTo(dest.getOutValue());
+
+			OTG otg = joint.add(new OTG(1.0, 2.0));
+			otg.getInDestPos().connectTo(dest.getOutValue());
+			otg.getInDestVel().connectTo(joint.add(new DoubleValue(0.0)).getOutValue());
+			otg.getInMaxVel().connectTo(duplicate.getOutValue());
+
+			net.provideOutPort(joint.provideOutPort(otg.getOutPos(), "outPos"), "outPos" + i);
+		}
+		return net;
+	}
+
+	/**
+	 * Creates a synthetic net of roughly the given number of primitives, made of
+	 * small sub fragments reading a shared clock. Each fragment contains
+	 * duplicated computations (also across fragments), a constant subexpression
+	 * and an unused branch, so that all optimizer passes have work to do.
+	 *
+	 * @param primitives approximate number of primitives
+	 */
+	public static Fragment createSyntheticNet(int primitives) throws RpiException {
+		Fragment net = new Fragment();
+		Clock clock = net.add(new Clock(1.0));
+		int blocks = Math.max(1, primitives / 12);
+		for (int i = 0; i < blocks; i++) {
+			Fragment block = net.add(new Fragment());
+			FragmentInPort time = block.addInPort("inTime");
+			time.connectTo(clock.getOutValue());
+
+			DoubleAdd first = block.add(new DoubleAdd(0.0, 0.0));
+			first.getInFirst().connectTo(time.getInternalOutPort());
+			first.getInSecond().connectTo(block.add(new DoubleValue((double) (i % 7))).getOutValue());
+			DoubleAdd duplicate = block.add(new DoubleAdd(0.0, 0.0));
+			duplicate.getInFirst().connectTo(time.getInternalOutPort());
+			duplicate.getInSecond().connectTo(block.add(new DoubleValue((double) (i % 7))).getOutValue());
+			DoubleMultiply product = block.add(new DoubleMultiply(0.0, 0.0));
+			product.getInFirst().connectTo(first.getOutValue());
+			product.getInSecond().connectTo(duplicate.getOutValue());
+
+			DoubleAdd unused = block.add(new DoubleAdd(0.0, 1.0));
+			unused.getInFirst().connectTo(product.getOutValue());
+
+			DoubleAdd offset = block.add(new DoubleAdd(0.0, 1.0));
+			offset.getInFirst().connectTo(block.add(new DoubleValue((double) i)).getOutValue());
+			DoubleMultiply scaled = block.add(new DoubleMultiply(0.0, 2.0));
+			scaled.getInFirst().connectTo(offset.getOutValue());
+
+			DoubleAdd sum = block.add(new DoubleAdd(0.0, 0.0));
+			sum.getInFirst().connectTo(product.getOutValue());
+			sum.getInSecond().connectTo(scaled.getOutValue());
+			block.add(new DoubleNetcommOut("out" + i)).getInValue().connectTo(sum.getOutValue());
+		}
+		return net;
+	}
+
+	private static String frame(double x, double y, double z, double a, double b, double c) {
+		return "{pos:{x:" + x + ",y:" + y + ",z:" + z + "},rot:{a:" + a + ",b:" + b + ",c:" + c + "}}";
+	}
+
+}
@@ -0,0 +1,69 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.roboticsapi.facet.javarcc.JNet;
+import org.roboticsapi.facet.runtime.rpi.RpiException;
+
+/**
+ * Cost of a full control cycle of a generated motion net created through
+ * {@link org.roboticsapi.facet.javarcc.JNetCreator}, both as compiled
+ * evaluation plan and as interpreted fragment hierarchy.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JNetCycleBenchmark {
+
+	@Param({ "6", "50", "200" })
+	public int joints;
+
+	@Param({ "true", "false" })
+	public boolean compile;
+
+	private JNet net;
+
+	@Setup
+	public void setup() throws RpiException {
+		net = BenchmarkNets.createNet(BenchmarkNets.createMotionNet(joints), compile);
+	}
+
+	@TearDown
+	public void tearDown() {
+		net.unload();
+	}
+
+	@Benchmark
+	public int cycle() {
+		BenchmarkNets.cycle(net);
+		return net.getCycle();
+	}
+
+	@Benchmark
+	public JNet create() throws RpiException {
+		return BenchmarkNets.createNet(BenchmarkNets.createMotionNet(joints), compile);
+	}
+
+}
@@ -0,0 +1,80 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.roboticsapi.facet.javarcc.JNet;
+import org.roboticsapi.facet.runtime.rpi.RpiException;
+
+/**
+ * Cost of a single control cycle of small nets exercising individual JavaRCC
+ * primitives (JOTG, JFrameTransform, JTimeHistoryEfficient, JMatrixSolve).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JavaRccPrimitivesBenchmark {
+
+	private JNet otg, frameTransform, timeHistory, matrixSolve;
+
+	@Setup
+	public void setup() throws RpiException {
+		otg = BenchmarkNets.createNet(BenchmarkNets.createOTGNet(), true);
+		frameTransform = BenchmarkNets.createNet(BenchmarkNets.createFrameTransformNet(10), true);
+		timeHistory = BenchmarkNets.createNet(BenchmarkNets.createTimeHistoryNet(2), true);
+		matrixSolve = BenchmarkNets.createNet(BenchmarkNets.createMatrixSolveNet(6), true);
+	}
+
+	@TearDown
+	public void tearDown() {
+		otg.unload();
+		frameTransform.unload();
+		timeHistory.unload();
+		matrixSolve.unload();
+	}
+
+	@Benchmark
+	public int otg() {
+		BenchmarkNets.cycle(otg);
+		return otg.getCycle();
+	}
+
+	@Benchmark
+	public int frameTransform() {
+		BenchmarkNets.cycle(frameTransform);
+		return frameTransform.getCycle();
+	}
+
+	@Benchmark
+	public int timeHistory() {
+		BenchmarkNets.cycle(timeHistory);
+		return timeHistory.getCycle();
+	}
+
+	@Benchmark
+	public int matrixSolve() {
+		BenchmarkNets.cycle(matrixSolve);
+		return matrixSolve.getCycle();
+	}
+
+}
@@ -0,0 +1,57 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.roboticsapi.facet.runtime.rpi.Fragment;
+import org.roboticsapi.facet.runtime.rpi.RpiException;
+import org.roboticsapi.feature.runtime.netoptimizer.NetOptimizer;
+
+/**
+ * Cost of {@link NetOptimizer#optimize(Fragment)} for generated motion nets of
+ * growing size. The optimizer modifies the net, so every invocation works on a
+ * freshly built fragment.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 20)
+@Measurement(iterations = 20)
+@Fork(1)
+public class NetOptimizerBenchmark {
+
+	@Param({ "6", "50", "200" })
+	public int joints;
+
+	private Fragment net;
+
+	@Setup(Level.Invocation)
+	public void setup() throws RpiException {
+		net = BenchmarkNets.createMotionNet(joints);
+	}
+
+	@Benchmark
+	public Fragment optimize() throws RpiException {
+		NetOptimizer.optimize(net);
+		return net;
+	}
+
+}
@@ -0,0 +1,56 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.roboticsapi.facet.runtime.rpi.Fragment;
+import org.roboticsapi.facet.runtime.rpi.RpiException;
+import org.roboticsapi.feature.runtime.netoptimizer.NetOptimizer;
+
+/**
+ * Scaling of {@link NetOptimizer#optimize(Fragment)} on synthetic nets from 1k
+ * to 100k primitives. The time per primitive should stay roughly constant.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class NetOptimizerScalingBenchmark {
+
+	@Param({ "1000", "10000", "100000" })
+	public int primitives;
+
+	private Fragment net;
+
+	@Setup(Level.Invocation)
+	public void setup() throws RpiException {
+		net = BenchmarkNets.createSyntheticNet(primitives);
+	}
+
+	@Benchmark
+	public Fragment optimize() throws RpiException {
+		NetOptimizer.optimize(net);
+		return net;
+	}
+
+}
@@ -0,0 +1,71 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.benchmark;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.roboticsapi.facet.runtime.rpi.Fragment;
+import org.roboticsapi.facet.runtime.rpi.NetParser;
+import org.roboticsapi.facet.runtime.rpi.NetSerializer;
+import org.roboticsapi.facet.runtime.rpi.RpiException;
+
+/**
+ * Parsing large serialized nets (synthetic nets from 1k to 50k primitives,
+ * about 100 bytes per primitive) with {@link NetParser}, from a string and
+ * from a UTF-8 encoded buffer, compared to the byte stream based
+ * {@link ByteStreamNetParser}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class NetParserBenchmark {
+
+	@Param({ "1000", "10000", "50000" })
+	public int primitives;
+
+	private String serialized;
+	private ByteBuffer encoded;
+
+	@Setup
+	public void setup() throws RpiException {
+		serialized = NetSerializer.serialize(BenchmarkNets.createSyntheticNet(primitives));
+		encoded = ByteBuffer.wrap(serialized.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Benchmark
+	public Fragment parseString() throws RpiException {
+		return NetParser.parse(serialized);
+	}
+
+	@Benchmark
+	public Fragment parseBuffer() throws RpiException {
+		return NetParser.parse(encoded.duplicate());
+	}
+
+	@Benchmark
+	public Fragment parseByteStream() throws RpiException {
+		return ByteStreamNetParser.parse(serialized);
+	}
+
+}
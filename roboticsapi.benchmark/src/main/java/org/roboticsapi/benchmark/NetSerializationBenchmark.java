@@ -0,0 +1,85 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.roboticsapi.facet.runtime.rpi.EncodedNet;
+import org.roboticsapi.facet.runtime.rpi.Fragment;
+import org.roboticsapi.facet.runtime.rpi.NetEncoder;
+import org.roboticsapi.facet.runtime.rpi.NetParser;
+import org.roboticsapi.facet.runtime.rpi.NetSerializer;
+import org.roboticsapi.facet.runtime.rpi.RpiException;
+import org.roboticsapi.feature.runtime.netoptimizer.NetOptimizer;
+
+/**
+ * Cost of transferring a net to a control core: serializing an optimized
+ * motion net with {@link NetSerializer}, parsing it with {@link NetParser} and
+ * the complete round trip, compared to the binary encoding created by
+ * {@link NetEncoder} (as full net and as reference to a known structure).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NetSerializationBenchmark {
+
+	@Param({ "6", "50", "200" })
+	public int joints;
+
+	private Fragment net;
+	private String serialized;
+	private EncodedNet encoded;
+
+	@Setup
+	public void setup() throws RpiException {
+		net = BenchmarkNets.createMotionNet(joints);
+		NetOptimizer.optimize(net);
+		serialized = NetSerializer.serialize(net);
+		encoded = NetEncoder.encode(net);
+	}
+
+	@Benchmark
+	public String serialize() throws RpiException {
+		return NetSerializer.serialize(net);
+	}
+
+	@Benchmark
+	public Fragment parse() throws RpiException {
+		return NetParser.parse(serialized);
+	}
+
+	@Benchmark
+	public Fragment roundTrip() throws RpiException {
+		return NetParser.parse(NetSerializer.serialize(net));
+	}
+
+	@Benchmark
+	public byte[] encode() {
+		return NetEncoder.encode(net).toBytes();
+	}
+
+	@Benchmark
+	public byte[] encodeReference() {
+		return NetEncoder.encode(net).toBytes(encoded.getParameterValues());
+	}
+
+}
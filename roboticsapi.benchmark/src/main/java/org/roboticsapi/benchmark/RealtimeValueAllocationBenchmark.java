@@ -0,0 +1,73 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.roboticsapi.core.RealtimeValue;
+import org.roboticsapi.core.realtimevalue.realtimedouble.RealtimeDouble;
+import org.roboticsapi.core.realtimevalue.realtimedouble.WritableRealtimeDouble;
+import org.roboticsapi.facet.runtime.rpi.mapping.core.IdentityRealtimeDouble;
+
+/**
+ * GC pressure of building large, short-lived {@link RealtimeValue} expression
+ * trees, as done when planning motions. Half of the trees depend on long-living
+ * writable values, which must not keep them alive. Run with
+ * <code>-prof gc</code> to see allocation rates and GC times.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+public class RealtimeValueAllocationBenchmark {
+
+	@Param({ "100", "10000" })
+	public int nodes;
+
+	private WritableRealtimeDouble writable;
+	private RealtimeDouble sensor;
+
+	@Setup
+	public void setup() {
+		writable = RealtimeDouble.createWritable(1);
+		// runtime-less value that cannot change
+		sensor = new IdentityRealtimeDouble("sensor", null);
+	}
+
+	private RealtimeDouble createTree(RealtimeDouble leaf, int nodes) {
+		RealtimeDouble ret = leaf;
+		for (int i = 0; i < nodes / 2; i++) {
+			ret = ret.multiply(leaf).add(i);
+		}
+		return ret;
+	}
+
+	@Benchmark
+	public RealtimeDouble buildWithWritableLeaf() {
+		return createTree(writable, nodes);
+	}
+
+	@Benchmark
+	public RealtimeDouble buildWithSensorLeaf() {
+		return createTree(sensor, nodes);
+	}
+
+}
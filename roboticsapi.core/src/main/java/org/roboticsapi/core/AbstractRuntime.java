@@ -8,6 +8,7 @@
 package org.roboticsapi.core;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -16,6 +17,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.Vector;
 
+import org.roboticsapi.configuration.ConfigurationProperty;
 import org.roboticsapi.core.exception.RoboticsException;
 import org.roboticsapi.core.realtimevalue.realtimeboolean.RealtimeBoolean;
 
@@ -26,9 +28,11 @@ import org.roboticsapi.core.realtimevalue.realtimeboolean.RealtimeBoolean;
 public abstract class AbstractRuntime extends RoboticsRuntime {
 	private final List<CommandHook> commandHooks = new Vector<CommandHook>();
 	private final List<CommandFilter> commandFilters = new Vector<CommandFilter>();
-	private CommandHandle sensorListenerHandle;
-	private CommandResult sensorListenerResult;
+	private final List<ObserverShard> observerShards = new ArrayList<ObserverShard>();
+	private int sensorListenerShardSize = 0;
 	private final Map<RealtimeValue<?>, RealtimeValueListenerList<?>> sensorListeners = new HashMap<RealtimeValue<?>, RealtimeValueListenerList<?>>();
+	/** listener lists without listeners whose values are still observed */
+	private final Map<RealtimeValue<?>, RealtimeValueListenerList<?>> unlistenedSensors = new HashMap<RealtimeValue<?>, RealtimeValueListenerList<?>>();
 
 	public AbstractRuntime() {
 
@@ -86,7 +90,7 @@ public abstract class AbstractRuntime extends RoboticsRuntime {
 	@Override
 	public synchronized void addRelatimeValueListeners(List<RealtimeValueListenerRegistration<?>> listeners)
 			throws RoboticsException {
-		boolean needsCommandUpdate = false;
+		List<RealtimeValue<?>> newSensors = new ArrayList<RealtimeValue<?>>();
 
 		for (RealtimeValueListenerRegistration<?> reg : listeners) {
 
@@ -95,34 +99,45 @@ public abstract class AbstractRuntime extends RoboticsRuntime {
 						"Can only add sensor listeners with the Sensor having the right RoboticsRuntime");
 			}
 
-			needsCommandUpdate = addToListenerList(needsCommandUpdate, reg);
+			if (addToListenerList(reg)) {
+				newSensors.add(reg.getSensor());
+			}
 		}
 
-		if (needsCommandUpdate && isPresent()) {
-			updateObserverCommand();
+		if (!newSensors.isEmpty() && isPresent()) {
+			if (sensorListenerShardSize > 0) {
+				addObserverShards(newSensors);
+			} else {
+				updateObserverCommand();
+			}
 		}
 
 	}
 
 	@SuppressWarnings("unchecked")
-	private <U, T extends U> boolean addToListenerList(boolean needsCommandUpdate,
-			RealtimeValueListenerRegistration<T> reg) {
+	private <U, T extends U> boolean addToListenerList(RealtimeValueListenerRegistration<T> reg) {
 		RealtimeValueListenerList<U> listenerList = (RealtimeValueListenerList<U>) sensorListeners.get(reg.getSensor());
+		boolean newSensor = false;
 
 		if (listenerList == null) {
-			listenerList = new RealtimeValueListenerList<U>();
+			// keep the last value of a value that is still observed
+			listenerList = (RealtimeValueListenerList<U>) unlistenedSensors.remove(reg.getSensor());
+			if (listenerList == null) {
+				listenerList = new RealtimeValueListenerList<U>();
+			}
 
 			sensorListeners.put(reg.getSensor(), listenerList);
 
-			needsCommandUpdate = true;
+			newSensor = true;
 		}
 		listenerList.add((RealtimeValueListener<U>) reg.getListener());
-		return needsCommandUpdate;
+		return newSensor;
 	}
 
 	@Override
-	public void removeRealtimeValueListeners(List<RealtimeValueListenerRegistration<?>> listeners)
+	public synchronized void removeRealtimeValueListeners(List<RealtimeValueListenerRegistration<?>> listeners)
 			throws RoboticsException {
+		Set<ObserverShard> changedShards = new HashSet<ObserverShard>();
 		boolean needsCommandUpdate = false;
 
 		for (RealtimeValueListenerRegistration<?> reg : listeners) {
@@ -143,95 +158,265 @@ public abstract class AbstractRuntime extends RoboticsRuntime {
 			if (listenerList.isEmpty()) {
 				sensorListeners.remove(reg.getSensor());
 				needsCommandUpdate = true;
+				for (ObserverShard shard : observerShards) {
+					if (shard.removeSensor(reg.getSensor())) {
+						changedShards.add(shard);
+						if (sensorListenerShardSize > 0) {
+							unlistenedSensors.put(reg.getSensor(), listenerList);
+						}
+					}
+				}
 			}
 		}
 
-		if (needsCommandUpdate) {
+		if (sensorListenerShardSize > 0) {
+			for (ObserverShard shard : changedShards) {
+				shard.compact();
+			}
+		} else if (needsCommandUpdate) {
 			updateObserverCommand();
 		}
 
 	}
 
+	/**
+	 * Sets the maximum number of observed values per sensor listener command. If
+	 * set to 0 (default), all sensor listeners are observed by a single command
+	 * that is replaced whenever a listener for a new value is added or the last
+	 * listener of a value is removed. Otherwise, the values whose listeners are
+	 * added together are observed by separate commands of at most the given
+	 * size, so that adding or removing listeners only reloads the affected
+	 * commands.
+	 *
+	 * @param shardSize maximum number of values per observer command, or 0 to use
+	 *                  a single command
+	 */
+	@ConfigurationProperty(Optional = true)
+	public synchronized void setSensorListenerShardSize(int shardSize) {
+		if (shardSize < 0) {
+			throw new IllegalArgumentException("Shard size must not be negative");
+		}
+		this.sensorListenerShardSize = shardSize;
+	}
+
+	public int getSensorListenerShardSize() {
+		return sensorListenerShardSize;
+	}
+
+	/**
+	 * Retrieves the number of commands currently observing values with sensor
+	 * listeners
+	 *
+	 * @return number of observer commands
+	 */
+	public synchronized int getObserverCommandCount() {
+		return observerShards.size();
+	}
+
 	private synchronized void updateObserverCommand() throws RoboticsException {
-		if (sensorListeners.isEmpty()) {
-			if (sensorListenerHandle != null) {
-				try {
-					sensorListenerHandle.cancel();
-				} catch (RoboticsException ex) {
-				}
+		unlistenedSensors.clear();
+		Set<RealtimeValue<?>> unobserved = new HashSet<RealtimeValue<?>>(sensorListeners.keySet());
+		for (ObserverShard shard : new ArrayList<ObserverShard>(observerShards)) {
+			if (sensorListenerShardSize > 0) {
+				shard.sensors.retainAll(unobserved);
+			} else if (shard == observerShards.get(0)) {
+				shard.sensors.addAll(unobserved);
+				shard.sensors.retainAll(unobserved);
+			} else {
+				shard.sensors.clear();
+			}
+			shard.removedSensors = 0;
+			unobserved.removeAll(shard.sensors);
+
+			if (shard.sensors.isEmpty()) {
+				observerShards.remove(shard);
+				shard.cancel();
+			} else {
+				shard.update();
 			}
-			sensorListenerHandle = null;
-			sensorListenerResult = null;
-			return;
 		}
 
-		final Set<RealtimeValue<?>> absentSensors = new HashSet<RealtimeValue<?>>();
+		if (sensorListenerShardSize > 0) {
+			addObserverShards(new ArrayList<RealtimeValue<?>>(unobserved));
+		} else if (!unobserved.isEmpty()) {
+			ObserverShard shard = new ObserverShard(unobserved);
+			observerShards.add(shard);
+			shard.update();
+		}
+	}
 
-		Command observer = createWaitCommand(getName() + ":SensorListeners");
-		observer.addCompletionResult("Cancelled", observer.getCancelState(), true);
-		CommandResult takeoverResult = observer.addTakeoverResult("Takeover", RealtimeBoolean.TRUE, false);
-		for (final RealtimeValue<?> s : sensorListeners.keySet()) {
-			if (!s.isAvailable()) {
-				absentSensors.add(s);
-			} else {
-				try {
-					addObserver(observer, s);
-				} catch (RoboticsException ex) {
-					ex.printStackTrace();
-				}
+	private void addObserverShards(List<RealtimeValue<?>> sensors) throws RoboticsException {
+		// values whose last listener was removed are still observed until their
+		// shard is compacted, so observe them there instead of a second time
+		sensors = new ArrayList<RealtimeValue<?>>(sensors);
+		for (ObserverShard shard : observerShards) {
+			sensors.removeIf(shard::readdSensor);
+		}
+		for (int i = 0; i < sensors.size(); i += sensorListenerShardSize) {
+			ObserverShard shard = new ObserverShard(
+					sensors.subList(i, Math.min(sensors.size(), i + sensorListenerShardSize)));
+			observerShards.add(shard);
+			shard.update();
+		}
+	}
+
+	private boolean isObserved(RealtimeValue<?> sensor) {
+		for (ObserverShard shard : observerShards) {
+			if (shard.sensors.contains(sensor)) {
+				return true;
 			}
 		}
+		return false;
+	}
 
-		if (sensorListenerResult != null) {
-			sensorListenerHandle = observer.scheduleAfter(sensorListenerResult);
-		} else {
-			sensorListenerHandle = observer.start();
+	/**
+	 * A command observing a subset of the values with sensor listeners
+	 */
+	private class ObserverShard {
+		private final Set<RealtimeValue<?>> sensors;
+		private int removedSensors = 0;
+		private CommandHandle handle;
+		private CommandResult result;
+
+		public ObserverShard(Collection<RealtimeValue<?>> sensors) {
+			this.sensors = new HashSet<RealtimeValue<?>>(sensors);
 		}
-		sensorListenerResult = takeoverResult;
 
-		// when the observer command dies, retry...
-		final CommandHandle handle = sensorListenerHandle;
-		sensorListenerHandle.addStatusListener(new CommandStatusListener() {
-			@Override
-			public void statusChanged(CommandStatus newStatus) {
-				if (newStatus == CommandStatus.ERROR) {
-					sensorListenerHandle = null;
-					try {
-						updateObserverCommand();
-					} catch (RoboticsException e) {
-					}
-				} else if (newStatus == CommandStatus.TERMINATED) {
+		public boolean removeSensor(RealtimeValue<?> sensor) {
+			if (!sensors.contains(sensor)) {
+				return false;
+			}
+			removedSensors++;
+			return true;
+		}
+
+		/**
+		 * Observes a value again whose listeners have been removed, but that is
+		 * still observed because the shard has not been compacted yet.
+		 *
+		 * @return true if the shard still observes the value
+		 */
+		public boolean readdSensor(RealtimeValue<?> sensor) {
+			if (!sensors.contains(sensor)) {
+				return false;
+			}
+			removedSensors = Math.max(0, removedSensors - 1);
+			return true;
+		}
+
+		/**
+		 * Cancels the command when no observed value is used any more, and reloads
+		 * it if most observed values are unused.
+		 */
+		public void compact() throws RoboticsException {
+			synchronized (AbstractRuntime.this) {
+				if (removedSensors * 2 < sensors.size()) {
+					return;
+				}
+				sensors.retainAll(sensorListeners.keySet());
+				unlistenedSensors.keySet().removeIf(sensor -> !isObserved(sensor));
+				removedSensors = 0;
+				if (sensors.isEmpty()) {
+					observerShards.remove(this);
+					cancel();
+				} else {
+					update();
+				}
+			}
+		}
+
+		public void cancel() {
+			synchronized (AbstractRuntime.this) {
+				if (handle != null) {
 					try {
-						handle.unload();
-					} catch (CommandException e) {
+						handle.cancel();
+					} catch (RoboticsException ex) {
 					}
 				}
+				handle = null;
+				result = null;
 			}
-		});
+		}
 
-		// while we have absent sensors, search for ones that appear
-		if (absentSensors.size() > 0) {
-			final CommandHandle listenerHandle = sensorListenerHandle;
-			new Thread(new Runnable() {
-				@Override
-				public void run() {
-					while (sensorListenerHandle == listenerHandle) {
-						for (RealtimeValue<?> s : absentSensors) {
-							if (s.isAvailable()) {
-								try {
-									updateObserverCommand();
-								} catch (RoboticsException e) {
+		public void update() throws RoboticsException {
+			synchronized (AbstractRuntime.this) {
+				if (!observerShards.contains(this)) {
+					return;
+				}
+
+				final Set<RealtimeValue<?>> absentSensors = new HashSet<RealtimeValue<?>>();
+
+				Command observer = createWaitCommand(getName() + ":SensorListeners");
+				observer.addCompletionResult("Cancelled", observer.getCancelState(), true);
+				CommandResult takeoverResult = observer.addTakeoverResult("Takeover", RealtimeBoolean.TRUE, false);
+				for (final RealtimeValue<?> s : sensors) {
+					if (!s.isAvailable()) {
+						absentSensors.add(s);
+					} else {
+						try {
+							addObserver(observer, s);
+						} catch (RoboticsException ex) {
+							ex.printStackTrace();
+						}
+					}
+				}
+
+				if (result != null) {
+					handle = observer.scheduleAfter(result);
+				} else {
+					handle = observer.start();
+				}
+				result = takeoverResult;
+
+				// when the observer command dies, retry...
+				final CommandHandle listenerHandle = handle;
+				handle.addStatusListener(new CommandStatusListener() {
+					@Override
+					public void statusChanged(CommandStatus newStatus) {
+						if (newStatus == CommandStatus.ERROR) {
+							synchronized (AbstractRuntime.this) {
+								if (handle == listenerHandle) {
+									handle = null;
+									result = null;
 								}
-								return;
 							}
-						}
-						try {
-							Thread.sleep(1000);
-						} catch (InterruptedException e) {
+							try {
+								update();
+							} catch (RoboticsException e) {
+							}
+						} else if (newStatus == CommandStatus.TERMINATED) {
+							try {
+								listenerHandle.unload();
+							} catch (CommandException e) {
+							}
 						}
 					}
+				});
+
+				// while we have absent sensors, search for ones that appear
+				if (absentSensors.size() > 0) {
+					new Thread(new Runnable() {
+						@Override
+						public void run() {
+							while (handle == listenerHandle) {
+								for (RealtimeValue<?> s : absentSensors) {
+									if (s.isAvailable()) {
+										try {
+											update();
+										} catch (RoboticsException e) {
+										}
+										return;
+									}
+								}
+								try {
+									Thread.sleep(1000);
+								} catch (InterruptedException e) {
+								}
+							}
+						}
+					}).start();
 				}
-			}).start();
+			}
 		}
 	}
 
@@ -241,6 +426,9 @@ public abstract class AbstractRuntime extends RoboticsRuntime {
 			@Override
 			public void onValueChanged(T newValue) {
 				RealtimeValueListenerList<T> sensorListenerList = (RealtimeValueListenerList<T>) sensorListeners.get(s);
+				if (sensorListenerList == null) {
+					sensorListenerList = (RealtimeValueListenerList<T>) unlistenedSensors.get(s);
+				}
 				if (sensorListenerList == null) {
 					return;
 				}
@@ -281,14 +469,13 @@ public abstract class AbstractRuntime extends RoboticsRuntime {
 
 	@Override
 	protected void beforeUninitialization() {
-		sensorListeners.clear();
-		if (sensorListenerHandle != null) {
-			try {
-				sensorListenerHandle.cancel();
-			} catch (CommandException e) {
-				// ignore that
+		synchronized (this) {
+			sensorListeners.clear();
+			unlistenedSensors.clear();
+			for (ObserverShard shard : observerShards) {
+				shard.cancel();
 			}
-			sensorListenerHandle = null;
+			observerShards.clear();
 		}
 
 		super.beforeUninitialization();
@@ -21,6 +21,7 @@ import java.util.Vector;
 import java.util.logging.Level;
 
 import org.roboticsapi.core.RoboticsRuntime.CommandHook;
+import org.roboticsapi.core.exception.ErrorStack;
 import org.roboticsapi.core.exception.RoboticsException;
 import org.roboticsapi.core.realtimevalue.Assignment;
 import org.roboticsapi.core.realtimevalue.realtimeboolean.CommandRealtimeBoolean;
@@ -411,16 +412,16 @@ public abstract class Command {
 	 * This involves creating default EventHandlers for unhandled errors and
 	 * creating EventHandlers for command completion.
 	 *
-	 * @param errorStack
+	 * @param errorStack call site to report for errors of this Command
 	 *
 	 * @throws RoboticsException if sealing failed
 	 */
-	public void seal(StackTraceElement[] errorStack) throws RoboticsException {
+	public void seal(ErrorStack errorStack) throws RoboticsException {
 		if (sealed) {
 			return;
 		}
 
-		errorStackTrace = errorStack;
+		this.errorStack = errorStack;
 		for (CommandHook hook : getRuntime().getCommandHooks()) {
 			hook.commandSealHook(this);
 		}
@@ -456,7 +457,7 @@ public abstract class Command {
 			hook.commandLoadHook(this);
 		}
 
-		seal(new Exception().getStackTrace());
+		seal(ErrorStack.capture(0));
 
 		CommandHandle handle = createHandle();
 
@@ -467,7 +468,7 @@ public abstract class Command {
 		return handle;
 	}
 
-	private StackTraceElement[] errorStackTrace = null;
+	private ErrorStack errorStack = ErrorStack.NONE;
 
 	protected abstract CommandHandle createHandle() throws RoboticsException;
 
@@ -483,10 +484,10 @@ public abstract class Command {
 		}
 
 		final UnhandledErrorsException ex = new UnhandledErrorsException();
-		ex.setStackTrace(errorStackTrace);
+		ex.setErrorStack(errorStack);
 		RealtimeBoolean cond = RealtimeBoolean.FALSE;
 		for (final CommandRealtimeException error : new ArrayList<CommandRealtimeException>(getExceptions())) {
-			error.setStackTrace(errorStackTrace);
+			error.setErrorStack(errorStack);
 			error.setCommand(this);
 			addObserver(getExceptionState(error), new RealtimeValueListener<Boolean>() {
 				@Override
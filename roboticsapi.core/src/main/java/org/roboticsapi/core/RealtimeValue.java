@@ -8,16 +8,23 @@
 package org.roboticsapi.core;
 
 import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.roboticsapi.core.exception.RoboticsException;
 import org.roboticsapi.core.realtimevalue.RealtimeValueReadException;
+import org.roboticsapi.core.realtimevalue.WritableRealtimeValue;
 import org.roboticsapi.core.realtimevalue.realtimeboolean.RealtimeBoolean;
 import org.roboticsapi.core.realtimevalue.realtimedouble.ConsistentTimeRealtimeDouble;
 import org.roboticsapi.core.realtimevalue.realtimedouble.DataAgeForTimeRealtimeDouble;
@@ -35,6 +42,10 @@ public abstract class RealtimeValue<T> {
 
 	private T cheapValue = null;
 
+	/** memoized structural hash code, see {@link #getStructuralHash()} */
+	private volatile int structuralHash;
+	private volatile boolean structuralHashKnown = false;
+
 	/**
 	 * Returns {@code true} if this {@link RealtimeValue} is constant over time,
 	 * {@code false} otherwise.
@@ -54,23 +65,13 @@ public abstract class RealtimeValue<T> {
 		return new Observer<T>(this, listener, condition, async);
 	}
 
-	private final RealtimeValueListener<Object> innerListener = new InnerRealtimeValueListener(this);
-
-	private static class InnerRealtimeValueListener implements RealtimeValueListener<Object> {
-		WeakReference<RealtimeValue<?>> outer;
-
-		public InnerRealtimeValueListener(RealtimeValue<?> value) {
-			outer = new WeakReference<RealtimeValue<?>>(value);
-		}
-
-		@Override
-		public void onValueChanged(Object newValue) {
-			RealtimeValue<?> value = outer.get();
-			if (value != null) {
-				value.notifyCheapValueChanged();
-			}
-		}
-	}
+	/**
+	 * values depending on this value, referenced weakly (so that a long living
+	 * writable value does not keep all expressions using it alive)
+	 */
+	private List<WeakReference<RealtimeValue<?>>> dependents = null;
+	private int dependentsLimit = 8;
+	private boolean changeable = this instanceof WritableRealtimeValue;
 
 	public RealtimeValue(RealtimeValue<?>... values) {
 		Command scope = null;
@@ -174,6 +175,52 @@ public abstract class RealtimeValue<T> {
 		return runtime.getRealtimeValue(this);
 	}
 
+	/**
+	 * Retrieves the current values of a list of RealtimeValues. Values of the same
+	 * runtime are read together, which is considerably cheaper than calling
+	 * getCurrentValue() for each of them.
+	 *
+	 * @param values the RealtimeValues to read
+	 * @return the current values, in the order of the given RealtimeValues
+	 * @throws RealtimeValueReadException if an error occurs when communicating
+	 *                                    with the sensors.
+	 */
+	public static List<Object> getCurrentValues(List<? extends RealtimeValue<?>> values)
+			throws RealtimeValueReadException {
+		Object[] ret = new Object[values.size()];
+		Map<RoboticsRuntime, List<Integer>> runtimeMap = new HashMap<RoboticsRuntime, List<Integer>>();
+
+		for (int i = 0; i < ret.length; i++) {
+			RealtimeValue<?> value = values.get(i);
+			if (value.getCheapValue() != null) {
+				ret[i] = value.getCheapValue();
+			} else if (value.getScope() != null) {
+				throw new RealtimeValueReadException(
+						"RealtimeValue in only valid in a command and cannot be read from outside");
+			} else if (value.getRuntime() == null) {
+				throw new RealtimeValueReadException(
+						"RealtimeValue has neither cheap value nor runtime - check implementation");
+			} else {
+				List<Integer> indices = runtimeMap.get(value.getRuntime());
+				if (indices == null) {
+					indices = new ArrayList<Integer>();
+					runtimeMap.put(value.getRuntime(), indices);
+				}
+				indices.add(i);
+			}
+		}
+
+		for (Entry<RoboticsRuntime, List<Integer>> entry : runtimeMap.entrySet()) {
+			List<RealtimeValue<?>> runtimeValues = new ArrayList<RealtimeValue<?>>();
+			for (int index : entry.getValue())
+				runtimeValues.add(values.get(index));
+			List<Object> results = entry.getKey().getRealtimeValues(runtimeValues);
+			for (int i = 0; i < results.size(); i++)
+				ret[entry.getValue().get(i)] = results.get(i);
+		}
+		return Arrays.asList(ret);
+	}
+
 	/**
 	 * Adds a RealtimeValueListener to this Sensor that is notified regularly about
 	 * the current Sensor data value.
@@ -213,6 +260,9 @@ public abstract class RealtimeValue<T> {
 
 	protected void notifyCheapValueChanged() {
 		cheapValue = null;
+		for (RealtimeValue<?> dependent : getDependents()) {
+			dependent.notifyCheapValueChanged();
+		}
 		for (RealtimeValueListener<? super T> listener : listeners) {
 			listener.onValueChanged(getCheapValue());
 		}
@@ -360,26 +410,54 @@ public abstract class RealtimeValue<T> {
 			}
 			innerSensors.add(sensor);
 
-			if (sensor.getRuntime() == null) {
-				try {
-					sensor.addListener(innerListener);
-				} catch (RoboticsException e) {
-				}
+			// only propagate changes of cheap values that can change at all
+			if (sensor.getRuntime() == null && sensor.getScope() == null && sensor.isChangeable()) {
+				sensor.addDependent(this);
+				changeable = true;
 			}
 		}
 	}
 
-	@Override
-	protected void finalize() throws Throwable {
-		for (RealtimeValue<?> sensor : innerSensors) {
-			if (sensor.getRuntime() == null) {
-				try {
-					sensor.removeListener(innerListener);
-				} catch (RoboticsException e) {
+	/**
+	 * Checks if the cheap value of this {@link RealtimeValue} can change, i.e. if
+	 * it is a {@link WritableRealtimeValue} or depends on one without a runtime.
+	 * Only such values notify their dependent values and listeners about changes.
+	 *
+	 * @return true if the cheap value can change
+	 */
+	protected boolean isChangeable() {
+		return changeable;
+	}
+
+	private synchronized void addDependent(RealtimeValue<?> dependent) {
+		if (dependents == null) {
+			dependents = new ArrayList<WeakReference<RealtimeValue<?>>>(2);
+		} else if (dependents.size() >= dependentsLimit) {
+			// expunge dependents that have been garbage collected
+			for (Iterator<WeakReference<RealtimeValue<?>>> it = dependents.iterator(); it.hasNext();) {
+				if (it.next().get() == null) {
+					it.remove();
 				}
 			}
+			dependentsLimit = Math.max(8, 2 * dependents.size());
+		}
+		dependents.add(new WeakReference<RealtimeValue<?>>(dependent));
+	}
+
+	private synchronized List<RealtimeValue<?>> getDependents() {
+		if (dependents == null) {
+			return Collections.emptyList();
 		}
-		super.finalize();
+		List<RealtimeValue<?>> ret = new ArrayList<RealtimeValue<?>>(dependents.size());
+		for (Iterator<WeakReference<RealtimeValue<?>>> it = dependents.iterator(); it.hasNext();) {
+			RealtimeValue<?> dependent = it.next().get();
+			if (dependent == null) {
+				it.remove();
+			} else {
+				ret.add(dependent);
+			}
+		}
+		return ret;
 	}
 
 	/**
@@ -416,7 +494,7 @@ public abstract class RealtimeValue<T> {
 
 	/**
 	 * Calculates a hash code from the given hash code and the given further
-	 * objects.
+	 * objects. {@link RealtimeValue}s contribute their memoized structural hash.
 	 *
 	 * @param haseCode starting hash code
 	 * @param children further objects to include
@@ -424,7 +502,13 @@ public abstract class RealtimeValue<T> {
 	 */
 	protected final int hash(int hashCode, Object... children) {
 		for (Object child : children) {
-			hashCode = HashCodeUtil.hash(hashCode, child);
+			if (child instanceof RealtimeValue) {
+				hashCode = HashCodeUtil.hash(hashCode, ((RealtimeValue<?>) child).getStructuralHash());
+			} else if (child instanceof Object[]) {
+				hashCode = hash(hashCode, (Object[]) child);
+			} else {
+				hashCode = HashCodeUtil.hash(hashCode, child);
+			}
 		}
 		return hashCode;
 	}
@@ -601,17 +685,49 @@ public abstract class RealtimeValue<T> {
 	 *         {@link RealtimeValue}
 	 */
 	public boolean contains(RealtimeValue<?> other) {
-		if (innerSensors.contains(other)) {
-			return true;
-		}
-		for (RealtimeValue<?> inner : innerSensors) {
-			if (inner.contains(other)) {
-				return true;
+		Set<RealtimeValue<?>> visited = Collections.newSetFromMap(new IdentityHashMap<RealtimeValue<?>, Boolean>());
+		Deque<RealtimeValue<?>> todo = new ArrayDeque<RealtimeValue<?>>(innerSensors);
+		while (!todo.isEmpty()) {
+			RealtimeValue<?> inner = todo.pop();
+			if (visited.add(inner)) {
+				if (inner.equals(other)) {
+					return true;
+				}
+				todo.addAll(inner.innerSensors);
 			}
 		}
 		return false;
 	}
 
+	/**
+	 * Retrieves the structural hash code of this {@link RealtimeValue}, i.e. its
+	 * {@link #hashCode()}. The hash code is computed once, so that hashing composed
+	 * values does not traverse their dependencies again.
+	 *
+	 * @return the hash code
+	 */
+	public final int getStructuralHash() {
+		if (!structuralHashKnown) {
+			structuralHash = hashCode();
+			structuralHashKnown = true;
+		}
+		return structuralHash;
+	}
+
+	/**
+	 * Checks if the given object is known to be equal to this object without
+	 * comparing their structure, i.e. if it is the same object or has been mapped
+	 * to the same value as this object by the {@link RealtimeValueInterner}
+	 * currently interning.
+	 *
+	 * @param other other object
+	 * @return true if other is known to be equal, false if unknown
+	 */
+	protected final boolean sameAs(Object other) {
+		return other == this || other instanceof RealtimeValue
+				&& RealtimeValueInterner.knownEqual(this, (RealtimeValue<?>) other);
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		if (obj == null) {
@@ -620,13 +736,16 @@ public abstract class RealtimeValue<T> {
 		if (!obj.getClass().equals(getClass())) {
 			return false;
 		}
+		if (sameAs(obj)) {
+			return true;
+		}
 		RealtimeValue<?> val = (RealtimeValue<?>) obj;
 		return val.scope == scope && val.runtime == runtime && val.innerSensors.equals(innerSensors);
 	}
 
 	@Override
 	public int hashCode() {
-		return HashCodeUtil.hash(HashCodeUtil.hash(HashCodeUtil.hash(HashCodeUtil.SEED, scope), runtime), innerSensors);
+		return hash(HashCodeUtil.hash(HashCodeUtil.hash(HashCodeUtil.SEED, scope), runtime), innerSensors.toArray());
 	}
 
 }
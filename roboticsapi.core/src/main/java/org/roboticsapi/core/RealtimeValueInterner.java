@@ -0,0 +1,124 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.core;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hash-consing of {@link RealtimeValue} expressions. Interning a value interns
+ * all its dependencies first (bottom up, visiting each shared sub-expression
+ * once) and maps every value to the first equal value seen by this interner.
+ * While interning, values mapped to the same value are known to be equal, so
+ * comparing structurally equal expressions built from equal sub-expressions
+ * only compares their top level.
+ *
+ * The mapping is only kept by the interner, so values do not reference each
+ * other and the mapping is discarded together with the interner.
+ */
+public class RealtimeValueInterner {
+
+	/** interner currently interning on this thread */
+	private static final ThreadLocal<RealtimeValueInterner> active = new ThreadLocal<RealtimeValueInterner>();
+
+	private final Map<RealtimeValue<?>, RealtimeValue<?>> values = new HashMap<RealtimeValue<?>, RealtimeValue<?>>();
+	private final Map<RealtimeValue<?>, RealtimeValue<?>> interned = new IdentityHashMap<RealtimeValue<?>, RealtimeValue<?>>();
+
+	/**
+	 * Interns a value and its dependencies
+	 *
+	 * @param value value to intern
+	 * @return the first value equal to the given value interned by this interner
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> RealtimeValue<T> intern(RealtimeValue<T> value) {
+		RealtimeValue<?> ret = interned.get(value);
+		if (ret != null) {
+			return (RealtimeValue<T>) ret;
+		}
+
+		RealtimeValueInterner previous = active.get();
+		active.set(this);
+		try {
+			internDependencies(value);
+		} finally {
+			active.set(previous);
+		}
+		return (RealtimeValue<T>) interned.get(value);
+	}
+
+	/**
+	 * Checks if two values are equal by interning them
+	 *
+	 * @param first  first value
+	 * @param second second value
+	 * @return true if both values are equal
+	 */
+	public boolean equal(RealtimeValue<?> first, RealtimeValue<?> second) {
+		return intern(first) == intern(second);
+	}
+
+	/**
+	 * Checks if two values are known to be equal by the interner currently
+	 * interning on this thread, i.e. if both have been mapped to the same value.
+	 *
+	 * @param first  first value
+	 * @param second second value
+	 * @return true if both values are known to be equal, false if unknown
+	 */
+	static boolean knownEqual(RealtimeValue<?> first, RealtimeValue<?> second) {
+		RealtimeValueInterner interner = active.get();
+		if (interner == null) {
+			return false;
+		}
+		RealtimeValue<?> ret = interner.interned.get(first);
+		return ret != null && ret == interner.interned.get(second);
+	}
+
+	private void internDependencies(RealtimeValue<?> value) {
+		// post order traversal of the dependencies not interned yet
+		Deque<RealtimeValue<?>> todo = new ArrayDeque<RealtimeValue<?>>();
+		Deque<Integer> next = new ArrayDeque<Integer>();
+		Set<RealtimeValue<?>> visiting = Collections.newSetFromMap(new IdentityHashMap<RealtimeValue<?>, Boolean>());
+		todo.push(value);
+		visiting.add(value);
+		next.push(0);
+		while (!todo.isEmpty()) {
+			RealtimeValue<?> current = todo.peek();
+			List<RealtimeValue<?>> dependencies = current.getDependencies();
+			int index = next.pop();
+			while (index < dependencies.size() && (interned.containsKey(dependencies.get(index))
+					|| visiting.contains(dependencies.get(index)))) {
+				index++;
+			}
+			if (index < dependencies.size()) {
+				next.push(index + 1);
+				todo.push(dependencies.get(index));
+				visiting.add(dependencies.get(index));
+				next.push(0);
+				continue;
+			}
+			visiting.remove(todo.pop());
+			if (!interned.containsKey(current)) {
+				RealtimeValue<?> existing = values.get(current);
+				if (existing == null) {
+					values.put(current, current);
+					existing = current;
+				}
+				interned.put(current, existing);
+			}
+		}
+	}
+
+}
@@ -254,6 +254,23 @@ public abstract class RoboticsRuntime extends AbstractOnlineObject {
 	 */
 	public abstract <T> T getRealtimeValue(RealtimeValue<T> value) throws RealtimeValueReadException;
 
+	/**
+	 * Retrieves the current values of a list of realtime values of this
+	 * RoboticsRuntime. Runtimes should override this to read all values in a
+	 * single evaluation, so that the values belong to the same cycle.
+	 *
+	 * @param values realtime values to get the values for
+	 * @return current values, in the order of the given realtime values
+	 * @throws RealtimeValueReadException thrown if a value cannot be determined
+	 */
+	public List<Object> getRealtimeValues(List<? extends RealtimeValue<?>> values)
+			throws RealtimeValueReadException {
+		List<Object> ret = new ArrayList<Object>();
+		for (RealtimeValue<?> value : values)
+			ret.add(getRealtimeValue(value));
+		return ret;
+	}
+
 	/**
 	 * Removes a list of (previously added) SensorListeners for Sensors.
 	 *
@@ -17,6 +17,7 @@ import java.util.Set;
 
 import org.roboticsapi.core.Device;
 import org.roboticsapi.core.activity.ActivityHandle.Status;
+import org.roboticsapi.core.exception.ErrorStack;
 import org.roboticsapi.core.exception.RoboticsException;
 import org.roboticsapi.core.realtimevalue.realtimeboolean.RealtimeBoolean;
 import org.roboticsapi.core.runtime.CommandRealtimeException;
@@ -45,15 +46,7 @@ public abstract class AbstractActivity implements Activity {
 	 */
 	@Override
 	public void execute() throws RoboticsException {
-		beginExecute(createStackTrace()).endExecute();
-	}
-
-	private StackTraceElement[] createStackTrace() {
-		StackTraceElement[] stackTrace = new Exception().getStackTrace();
-		StackTraceElement[] newStackTrace = new StackTraceElement[stackTrace.length - 2];
-		for (int i = 0; i < newStackTrace.length; i++)
-			newStackTrace[i] = stackTrace[i + stackTrace.length - newStackTrace.length];
-		return newStackTrace;
+		beginExecute(ErrorStack.capture(1)).endExecute();
 	}
 
 	/*
@@ -63,10 +56,10 @@ public abstract class AbstractActivity implements Activity {
 	 */
 	@Override
 	public ActivityHandle beginExecute() throws RoboticsException {
-		return beginExecute(createStackTrace());
+		return beginExecute(ErrorStack.capture(1));
 	}
 
-	private ActivityHandle beginExecute(StackTraceElement[] errorStack) throws RoboticsException {
+	private ActivityHandle beginExecute(ErrorStack errorStack) throws RoboticsException {
 		ActivityResults results = null;
 		Map<ActivityResults, Set<Device>> devicesForResults = new HashMap<>();
 		for (Device device : getDevices()) {
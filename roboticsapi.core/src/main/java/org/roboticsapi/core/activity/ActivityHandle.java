@@ -9,11 +9,14 @@ package org.roboticsapi.core.activity;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Consumer;
 
 import org.roboticsapi.core.Device;
 import org.roboticsapi.core.Predicate;
 import org.roboticsapi.core.UnhandledErrorsException;
+import org.roboticsapi.core.exception.ErrorStack;
 import org.roboticsapi.core.exception.RoboticsException;
 import org.roboticsapi.core.util.RAPILogger;
 
@@ -31,6 +34,8 @@ public abstract class ActivityHandle {
 	private final List<Runnable> whenCancelled = new ArrayList<>();
 	private volatile boolean cancelled = false;
 	private final ActivityResultContainer results = new ActivityResultContainer();
+	private final Object activationLock = new Object();
+	private CompletableFuture<?> activations = CompletableFuture.completedFuture(null);
 
 	public ActivityHandle(Activity activity) throws RoboticsException {
 		this.activity = activity;
@@ -102,28 +107,59 @@ public abstract class ActivityHandle {
 		}
 	}
 
-	void bind(ActivityResults predecessor, StackTraceElement[] errorStack) throws RoboticsException {
+	void bind(ActivityResults predecessor, ErrorStack errorStack) throws RoboticsException {
 		for (Device d : getActivity().getDevices()) {
 			ActivityScheduler.getInstance().setResults(d, this, results);
 		}
 
 		if (predecessor == null) {
 			if(!prepareAndActivate(null, errorStack)) {
-				failureReason.setStackTrace(errorStack);
+				failureReason.setErrorStack(errorStack);
 				fail(failureReason);
 			}
 			return;
 		}
 
+		// schedules for all results are prepared in parallel, but activated in order
 		predecessor.provide(result -> {
-			if (result == null && !hasSchedules) {
-				notifyNotValidInThisContext(errorStack, predecessor);
+			if (result != null && result.getStatus() == ActivityResult.Status.IMPOSSIBLE) {
 				return;
 			}
-			if (result.getStatus() == ActivityResult.Status.IMPOSSIBLE) {
+			CompletableFuture<ActivitySchedule> prepared = result == null ? CompletableFuture.completedFuture(null)
+					: getPreparer().prepare(this, result, errorStack);
+			synchronized (activationLock) {
+				activations = activations.thenCompose(previous -> prepared).handle((schedule, error) -> {
+					activatePrepared(result, schedule, error, predecessor, errorStack);
+					return null;
+				});
+			}
+		});
+		if (getException() != null)
+			throw getException();
+	}
+
+	ActivityPreparer getPreparer() {
+		return ActivityPreparer.getInstance();
+	}
+
+	private void activatePrepared(ActivityResult result, ActivitySchedule schedule, Throwable error,
+			ActivityResults predecessor, ErrorStack errorStack) {
+		try {
+			if (result == null) {
+				if (!hasSchedules) {
+					notifyNotValidInThisContext(errorStack, predecessor);
+				}
 				return;
 			}
-			if (!prepareAndActivate(result, errorStack) && result.isCompletedWhenActive()) {
+			if (error instanceof CompletionException) {
+				error = error.getCause();
+			}
+			if (error instanceof RoboticsException) {
+				failureReason = (RoboticsException) error;
+			} else if (error != null) {
+				throw new RoboticsException("Preparing the activity failed", error);
+			}
+			if (!activate(schedule) && result.isCompletedWhenActive()) {
 				result.observeStatus(status -> {
 					if (status == ActivityResult.Status.ACTIVE
 							&& (getStatus() == Status.BOUND || getStatus() == Status.LOADED)) {
@@ -133,14 +169,16 @@ public abstract class ActivityHandle {
 					}
 				}, this::fail);
 			}
-		}, this::fail);
-		if (getException() != null)
-			throw getException();
+		} catch (RoboticsException e) {
+			fail(e);
+		} catch (RuntimeException e) {
+			fail(new RoboticsException("Activating the activity failed", e));
+		}
 	}
 
-	private void notifyNotValidInThisContext(StackTraceElement[] errorStack, ActivityResults predecessor) {
+	private void notifyNotValidInThisContext(ErrorStack errorStack, ActivityResults predecessor) {
 		RoboticsException err = new RoboticsException("The Activity cannot be executed in this context", failureReason);
-		err.setStackTrace(errorStack);
+		err.setErrorStack(errorStack);
 		fail(err);
 		for (Device d : getActivity().getDevices()) {
 			ActivityScheduler.getInstance().setResults(d, this, predecessor);
@@ -149,7 +187,7 @@ public abstract class ActivityHandle {
 
 	private boolean hasSchedules = false;
 
-	private boolean prepareAndActivate(ActivityResult result, StackTraceElement[] errorStack) throws RoboticsException {
+	private boolean prepareAndActivate(ActivityResult result, ErrorStack errorStack) throws RoboticsException {
 		ActivitySchedule schedule = null;
 		try {
 			schedule = prepare(result, errorStack);
@@ -157,6 +195,10 @@ public abstract class ActivityHandle {
 			failureReason = e;
 			return false;
 		}
+		return activate(schedule);
+	}
+
+	private boolean activate(ActivitySchedule schedule) throws RoboticsException {
 		if (schedule == null) {
 			return false;
 		}
@@ -176,7 +218,7 @@ public abstract class ActivityHandle {
 		return true;
 	}
 
-	public abstract ActivitySchedule prepare(ActivityResult result, StackTraceElement[] errorStack)
+	public abstract ActivitySchedule prepare(ActivityResult result, ErrorStack errorStack)
 			throws RoboticsException;
 
 	public ActivityResults getResults() {
@@ -0,0 +1,121 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.core.activity;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.roboticsapi.core.RoboticsRuntime;
+import org.roboticsapi.core.exception.ErrorStack;
+import org.roboticsapi.core.exception.RoboticsException;
+
+/**
+ * Prepares activity schedules in the background. When an activity is started,
+ * the schedules for all possible results of its predecessor are prepared (and
+ * loaded) in parallel on a bounded pool, while they are still activated one
+ * after another in the order of the results.
+ *
+ * The number of threads is configured using the system property
+ * <code>org.roboticsapi.activity.preparationThreads</code> (a value below 2
+ * prepares all schedules on the calling thread), the number of commands loaded
+ * to a runtime at the same time using
+ * <code>org.roboticsapi.activity.loadsPerRuntime</code>.
+ */
+public class ActivityPreparer {
+
+	/** The singleton instance */
+	private static ActivityPreparer theInstance = new ActivityPreparer(
+			Integer.getInteger("org.roboticsapi.activity.preparationThreads",
+					Runtime.getRuntime().availableProcessors()),
+			Integer.getInteger("org.roboticsapi.activity.loadsPerRuntime", 2));
+
+	private final ThreadPoolExecutor pool;
+	private final int loadsPerRuntime;
+	private final Map<RoboticsRuntime, Semaphore> loads = Collections
+			.synchronizedMap(new WeakHashMap<RoboticsRuntime, Semaphore>());
+
+	ActivityPreparer(int threads, int loadsPerRuntime) {
+		this.loadsPerRuntime = Math.max(1, loadsPerRuntime);
+		if (threads < 2) {
+			pool = null;
+			return;
+		}
+		pool = new ThreadPoolExecutor(threads, threads, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), task -> {
+			Thread thread = new Thread(task, "Activity preparation");
+			thread.setDaemon(true);
+			return thread;
+		});
+		pool.allowCoreThreadTimeOut(true);
+	}
+
+	public static ActivityPreparer getInstance() {
+		return theInstance;
+	}
+
+	/**
+	 * Prepares and loads the schedule of an activity for a predecessor result
+	 *
+	 * @param handle     activity handle to prepare
+	 * @param result     predecessor result to prepare the schedule for
+	 * @param errorStack call site to report for errors
+	 * @return the schedule (null if the activity cannot be executed after the
+	 *         result), completed exceptionally with a {@link RoboticsException}
+	 *         if preparing failed
+	 */
+	public CompletableFuture<ActivitySchedule> prepare(ActivityHandle handle, ActivityResult result,
+			ErrorStack errorStack) {
+		CompletableFuture<ActivitySchedule> ret = new CompletableFuture<>();
+		Runnable task = () -> {
+			try {
+				ActivitySchedule schedule = handle.prepare(result, errorStack);
+				if (schedule != null) {
+					try {
+						schedule.load();
+					} catch (RuntimeException e) {
+						// the schedule is loaded again (and fails) when activated
+					}
+				}
+				ret.complete(schedule);
+			} catch (RoboticsException | RuntimeException e) {
+				ret.completeExceptionally(e);
+			}
+		};
+		if (pool == null) {
+			task.run();
+		} else {
+			pool.execute(task);
+		}
+		return ret;
+	}
+
+	/**
+	 * Waits until another command may be loaded to the given runtime. Every call
+	 * has to be followed by {@link #endLoad(RoboticsRuntime)}.
+	 *
+	 * @param runtime runtime the command is loaded to
+	 */
+	public void beginLoad(RoboticsRuntime runtime) {
+		loads.computeIfAbsent(runtime, r -> new Semaphore(loadsPerRuntime)).acquireUninterruptibly();
+	}
+
+	/**
+	 * Notifies that a command has been loaded to the given runtime
+	 *
+	 * @param runtime runtime the command has been loaded to
+	 */
+	public void endLoad(RoboticsRuntime runtime) {
+		loads.get(runtime).release();
+	}
+
+}
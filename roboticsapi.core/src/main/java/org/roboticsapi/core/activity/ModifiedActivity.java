@@ -12,6 +12,7 @@ import java.util.List;
 
 import org.roboticsapi.core.Command;
 import org.roboticsapi.core.Device;
+import org.roboticsapi.core.exception.ErrorStack;
 import org.roboticsapi.core.exception.RoboticsException;
 import org.roboticsapi.core.realtimevalue.realtimeboolean.RealtimeBoolean;
 import org.roboticsapi.core.runtime.CommandRealtimeException;
@@ -36,7 +37,7 @@ public abstract class ModifiedActivity<T extends Activity> extends AbstractActiv
 		ActivityHandle handle = instance.createHandle();
 		return new ActivityHandle(this) {
 			@Override
-			public ActivitySchedule prepare(ActivityResult result, StackTraceElement[] errorStack)
+			public ActivitySchedule prepare(ActivityResult result, ErrorStack errorStack)
 					throws RoboticsException {
 				ActivitySchedule schedule = handle.prepare(result, errorStack);
 				return modifySchedule(schedule);
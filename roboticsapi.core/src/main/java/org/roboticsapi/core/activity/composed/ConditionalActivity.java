@@ -14,6 +14,7 @@ import org.roboticsapi.core.activity.Activity;
 import org.roboticsapi.core.activity.ActivityHandle;
 import org.roboticsapi.core.activity.ActivityResult;
 import org.roboticsapi.core.activity.ActivitySchedule;
+import org.roboticsapi.core.exception.ErrorStack;
 import org.roboticsapi.core.exception.RoboticsException;
 
 public class ConditionalActivity extends AbstractActivity {
@@ -36,7 +37,7 @@ public class ConditionalActivity extends AbstractActivity {
 
 		return new ActivityHandle(this) {
 			@Override
-			public ActivitySchedule prepare(ActivityResult result, StackTraceElement[] errorStack)
+			public ActivitySchedule prepare(ActivityResult result, ErrorStack errorStack)
 					throws RoboticsException {
 				if (condition.test(result)) {
 					return trueHandle.prepare(result, errorStack);
@@ -12,6 +12,7 @@ import org.roboticsapi.core.activity.Activity;
 import org.roboticsapi.core.activity.ActivityHandle;
 import org.roboticsapi.core.activity.ActivityResult;
 import org.roboticsapi.core.activity.ActivitySchedule;
+import org.roboticsapi.core.exception.ErrorStack;
 import org.roboticsapi.core.exception.RoboticsException;
 
 public class ParallelActivity extends AbstractActivity {
@@ -38,7 +39,7 @@ public class ParallelActivity extends AbstractActivity {
 
 		return new ActivityHandle(this) {
 			@Override
-			public ActivitySchedule prepare(ActivityResult result, StackTraceElement[] errorStack)
+			public ActivitySchedule prepare(ActivityResult result, ErrorStack errorStack)
 					throws RoboticsException {
 				ActivitySchedule firstSchedule = firstHandle.prepare(result, errorStack);
 				ActivitySchedule secondSchedule = secondHandle.prepare(result, errorStack);
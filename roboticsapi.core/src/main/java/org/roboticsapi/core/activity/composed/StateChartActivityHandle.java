@@ -20,6 +20,7 @@ import org.roboticsapi.core.activity.ActivityResult;
 import org.roboticsapi.core.activity.ActivityResultContainer;
 import org.roboticsapi.core.activity.ActivitySchedule;
 import org.roboticsapi.core.activity.composed.StateChartActivity.Transition;
+import org.roboticsapi.core.exception.ErrorStack;
 import org.roboticsapi.core.exception.RoboticsException;
 import org.roboticsapi.core.util.RAPILogger;
 
@@ -33,7 +34,8 @@ public class StateChartActivityHandle extends ActivityHandle {
 	}
 
 	@Override
-	public ActivitySchedule prepare(ActivityResult result, StackTraceElement[] errorStack) throws RoboticsException {
+	public synchronized ActivitySchedule prepare(ActivityResult result, ErrorStack errorStack)
+			throws RoboticsException {
 		return prepareTransition(result, null, new Transition(null, null, stateChart.getInitialState(), true),
 				errorStack);
 	}
@@ -41,7 +43,7 @@ public class StateChartActivityHandle extends ActivityHandle {
 	private Map<ActivityHandle, Map<Activity, ActivityHandle>> handles = new HashMap<>();
 
 	private ActivitySchedule prepareTransition(ActivityResult triggeringResult, ActivityHandle from,
-			Transition transition, StackTraceElement[] errorStack) throws RoboticsException {
+			Transition transition, ErrorStack errorStack) throws RoboticsException {
 		if (handles.get(from) == null)
 			handles.put(from, new HashMap<>());
 		try {
@@ -13,6 +13,7 @@ import org.roboticsapi.core.activity.ActivityHandle;
 import org.roboticsapi.core.activity.ActivityResult;
 import org.roboticsapi.core.activity.ActivityResultContainer;
 import org.roboticsapi.core.activity.ActivitySchedule;
+import org.roboticsapi.core.exception.ErrorStack;
 import org.roboticsapi.core.exception.RoboticsException;
 
 public class StrictlySequentialActivity extends AbstractActivity {
@@ -39,7 +40,7 @@ public class StrictlySequentialActivity extends AbstractActivity {
 		return new ActivityHandle(this) {
 
 			@Override
-			public ActivitySchedule prepare(ActivityResult result, StackTraceElement[] errorStack)
+			public ActivitySchedule prepare(ActivityResult result, ErrorStack errorStack)
 					throws RoboticsException {
 				ActivitySchedule firstSchedule = firstHandle.prepare(result, errorStack);
 				if (firstSchedule == null) {
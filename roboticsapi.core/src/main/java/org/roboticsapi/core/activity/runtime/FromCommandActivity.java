@@ -22,6 +22,7 @@ import org.roboticsapi.core.activity.ActivityHandle;
 import org.roboticsapi.core.activity.ActivityResult;
 import org.roboticsapi.core.activity.ActivityResultContainer;
 import org.roboticsapi.core.activity.ActivitySchedule;
+import org.roboticsapi.core.exception.ErrorStack;
 import org.roboticsapi.core.exception.RoboticsException;
 
 public class FromCommandActivity extends AbstractActivity {
@@ -121,7 +122,7 @@ public class FromCommandActivity extends AbstractActivity {
 		Command command = this.command.get();
 		return new ActivityHandle(this) {
 			@Override
-			public ActivitySchedule prepare(ActivityResult result, StackTraceElement[] errorStack)
+			public ActivitySchedule prepare(ActivityResult result, ErrorStack errorStack)
 					throws RoboticsException {
 				command.seal(errorStack);
 				ActivityResultContainer results = commandErrorActivityResultSet(command);
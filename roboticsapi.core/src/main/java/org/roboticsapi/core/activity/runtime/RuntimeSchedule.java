@@ -22,6 +22,7 @@ import org.roboticsapi.core.CommandSchedule.CommandScheduleStatus;
 import org.roboticsapi.core.Device;
 import org.roboticsapi.core.RoboticsRuntime;
 import org.roboticsapi.core.activity.ActivityHandle;
+import org.roboticsapi.core.activity.ActivityPreparer;
 import org.roboticsapi.core.activity.ActivityResult;
 import org.roboticsapi.core.activity.ActivityResults;
 import org.roboticsapi.core.activity.ActivitySchedule;
@@ -68,10 +69,13 @@ public class RuntimeSchedule extends ActivitySchedule {
 	@Override
 	protected void doLoad() {
 		for (Command c : startCommands) {
+			ActivityPreparer.getInstance().beginLoad(c.getRuntime());
 			try {
 				c.load();
 			} catch (RoboticsException e) {
 				throw new IllegalArgumentException(e);
+			} finally {
+				ActivityPreparer.getInstance().endLoad(c.getRuntime());
 			}
 		}
 	}
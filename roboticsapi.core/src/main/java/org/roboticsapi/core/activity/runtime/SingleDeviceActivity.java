@@ -29,6 +29,7 @@ import org.roboticsapi.core.activity.ActivityProperty;
 import org.roboticsapi.core.activity.ActivityResult;
 import org.roboticsapi.core.activity.ActivityResultContainer;
 import org.roboticsapi.core.activity.ActivitySchedule;
+import org.roboticsapi.core.exception.ErrorStack;
 import org.roboticsapi.core.exception.RoboticsException;
 
 public abstract class SingleDeviceActivity extends AbstractActivity {
@@ -62,7 +63,7 @@ public abstract class SingleDeviceActivity extends AbstractActivity {
 	public ActivityHandle createHandle() throws RoboticsException {
 		return new ActivityHandle(this) {
 			@Override
-			public ActivitySchedule prepare(ActivityResult result, StackTraceElement[] errorStack)
+			public ActivitySchedule prepare(ActivityResult result, ErrorStack errorStack)
 					throws RoboticsException {
 				return prepareForResult(this, result, errorStack);
 			}
@@ -70,7 +71,7 @@ public abstract class SingleDeviceActivity extends AbstractActivity {
 	}
 
 	public ActivitySchedule prepareForResult(ActivityHandle handle, ActivityResult result,
-			StackTraceElement[] errorStack) throws RoboticsException {
+			ErrorStack errorStack) throws RoboticsException {
 		if (!driver.isPresent()) {
 			throw new RoboticsException("The device " + driver.getDevice() + " is not present.");
 		}
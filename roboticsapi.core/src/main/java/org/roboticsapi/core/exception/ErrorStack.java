@@ -0,0 +1,100 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.core.exception;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Call site of an operation (e.g. executing an activity), used as stack trace
+ * of errors occurring later on. The stack trace elements are only created if an
+ * error is reported.
+ *
+ * The capture mode is configured using the system property
+ * <code>org.roboticsapi.errorstack</code>:
+ * <ul>
+ * <li><code>full</code>: the complete stack trace is created at once</li>
+ * <li><code>lazy</code> (default): the first frames (system property
+ * <code>org.roboticsapi.errorstack.depth</code>, 32 by default) are created if
+ * needed</li>
+ * <li><code>sampled</code>: like lazy, but only for every n-th call (system
+ * property <code>org.roboticsapi.errorstack.sampling</code>, 100 by
+ * default)</li>
+ * <li><code>off</code>: errors keep the stack trace of their creation</li>
+ * </ul>
+ */
+public final class ErrorStack {
+
+	public enum Mode {
+		FULL, LAZY, SAMPLED, OFF
+	}
+
+	/** Call site that is not known */
+	public static final ErrorStack NONE = new ErrorStack(null, 0, 0);
+
+	private static final Mode MODE = getMode(System.getProperty("org.roboticsapi.errorstack", "lazy"));
+	private static final int DEPTH = Integer.getInteger("org.roboticsapi.errorstack.depth", 32);
+	private static final int SAMPLING = Integer.getInteger("org.roboticsapi.errorstack.sampling", 100);
+	private static final AtomicInteger calls = new AtomicInteger();
+
+	private final Throwable capture;
+	private final int skip;
+	private final int depth;
+	private StackTraceElement[] stackTrace = null;
+
+	private ErrorStack(Throwable capture, int skip, int depth) {
+		this.capture = capture;
+		this.skip = skip;
+		this.depth = depth;
+	}
+
+	/**
+	 * Captures the call site of the calling method
+	 *
+	 * @param skip number of frames to omit (0 to start with the calling method)
+	 * @return the call site
+	 */
+	public static ErrorStack capture(int skip) {
+		return capture(MODE, DEPTH, SAMPLING, skip + 1);
+	}
+
+	static ErrorStack capture(Mode mode, int depth, int sampling, int skip) {
+		if (mode == Mode.OFF
+				|| mode == Mode.SAMPLED && sampling > 1 && calls.getAndIncrement() % sampling != 0) {
+			return NONE;
+		}
+		ErrorStack ret = new ErrorStack(new Throwable(), skip + 1, mode == Mode.FULL ? Integer.MAX_VALUE : depth);
+		if (mode == Mode.FULL) {
+			ret.getStackTrace();
+		}
+		return ret;
+	}
+
+	/**
+	 * Retrieves the stack trace of the call site
+	 *
+	 * @return the stack trace, or null if the call site is not known
+	 */
+	public synchronized StackTraceElement[] getStackTrace() {
+		if (stackTrace == null && capture != null) {
+			StackTraceElement[] frames = capture.getStackTrace();
+			int from = Math.min(skip, frames.length);
+			stackTrace = Arrays.copyOfRange(frames, from, from + Math.min(frames.length - from, depth));
+		}
+		return stackTrace;
+	}
+
+	private static Mode getMode(String mode) {
+		try {
+			return Mode.valueOf(mode.trim().toUpperCase());
+		} catch (IllegalArgumentException e) {
+			return Mode.LAZY;
+		}
+	}
+
+}
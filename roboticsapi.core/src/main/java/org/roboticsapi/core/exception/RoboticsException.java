@@ -7,6 +7,9 @@
 
 package org.roboticsapi.core.exception;
 
+import java.io.PrintStream;
+import java.io.PrintWriter;
+
 /**
  * An exception that occurred somewhere in the robotics layer
  */
@@ -24,4 +27,50 @@ public class RoboticsException extends Exception {
 	public RoboticsException(final Throwable innerException) {
 		super(innerException);
 	}
+
+	private transient ErrorStack errorStack = null;
+
+	/**
+	 * Sets the call site to report as stack trace of this exception. The stack
+	 * trace is only created when it is retrieved or printed.
+	 *
+	 * @param errorStack call site of the operation that failed
+	 */
+	public void setErrorStack(ErrorStack errorStack) {
+		synchronized (this) {
+			this.errorStack = errorStack;
+		}
+	}
+
+	private void resolveErrorStack() {
+		ErrorStack stack;
+		synchronized (this) {
+			stack = errorStack;
+			errorStack = null;
+		}
+		if (stack != null && stack.getStackTrace() != null) {
+			setStackTrace(stack.getStackTrace());
+		}
+		if (getCause() instanceof RoboticsException) {
+			((RoboticsException) getCause()).resolveErrorStack();
+		}
+	}
+
+	@Override
+	public StackTraceElement[] getStackTrace() {
+		resolveErrorStack();
+		return super.getStackTrace();
+	}
+
+	@Override
+	public void printStackTrace(PrintStream s) {
+		resolveErrorStack();
+		super.printStackTrace(s);
+	}
+
+	@Override
+	public void printStackTrace(PrintWriter s) {
+		resolveErrorStack();
+		super.printStackTrace(s);
+	}
 }
@@ -71,7 +71,7 @@ public class RealtimeDerivedValue<T, U> extends RealtimeValue<T> {
 	@SuppressWarnings("unchecked")
 	@Override
 	public final boolean equals(Object obj) {
-		return classEqual(obj) && innerValue.equals(((RealtimeDerivedValue<T, U>) obj).innerValue);
+		return sameAs(obj) || classEqual(obj) && innerValue.equals(((RealtimeDerivedValue<T, U>) obj).innerValue);
 	}
 
 	@Override
@@ -76,7 +76,7 @@ public class ConditionalRealtimeBoolean extends RealtimeBoolean {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && condition.equals(((ConditionalRealtimeBoolean) obj).condition)
+		return sameAs(obj) || classEqual(obj) && condition.equals(((ConditionalRealtimeBoolean) obj).condition)
 				&& ifTrue.equals(((ConditionalRealtimeBoolean) obj).ifTrue)
 				&& ifFalse.equals(((ConditionalRealtimeBoolean) obj).ifFalse);
 	}
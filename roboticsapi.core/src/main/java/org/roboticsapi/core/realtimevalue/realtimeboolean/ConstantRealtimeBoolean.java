@@ -57,7 +57,7 @@ public final class ConstantRealtimeBoolean extends RealtimeBoolean {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && value == ((ConstantRealtimeBoolean) obj).value;
+		return sameAs(obj) || classEqual(obj) && value == ((ConstantRealtimeBoolean) obj).value;
 	}
 
 	@Override
@@ -42,7 +42,8 @@ public abstract class DriverBasedRealtimeBoolean<D extends DeviceDriver> extends
 	@SuppressWarnings("unchecked")
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && driver.equals(((DriverBasedRealtimeBoolean<D>) obj).driver) && equals2(obj);
+		return sameAs(obj) || classEqual(obj)
+				&& driver.equals(((DriverBasedRealtimeBoolean<D>) obj).driver) && equals2(obj);
 	}
 
 	protected boolean equals2(Object obj) {
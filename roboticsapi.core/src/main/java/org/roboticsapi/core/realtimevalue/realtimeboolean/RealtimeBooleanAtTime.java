@@ -36,7 +36,7 @@ public final class RealtimeBooleanAtTime extends RealtimeBoolean {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && value.equals(((RealtimeBooleanAtTime) obj).value)
+		return sameAs(obj) || classEqual(obj) && value.equals(((RealtimeBooleanAtTime) obj).value)
 				&& age.equals(((RealtimeBooleanAtTime) obj).age) && maxAge == ((RealtimeBooleanAtTime) obj).maxAge;
 	}
 
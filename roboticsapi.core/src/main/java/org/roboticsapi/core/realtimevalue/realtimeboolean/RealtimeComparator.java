@@ -82,7 +82,7 @@ public abstract class RealtimeComparator<T> extends RealtimeBoolean {
 
 	@Override
 	public final boolean equals(Object obj) {
-		return classEqual(obj) && left.equals(((RealtimeComparator<?>) obj).left)
+		return sameAs(obj) || classEqual(obj) && left.equals(((RealtimeComparator<?>) obj).left)
 				&& right.equals(((RealtimeComparator<?>) obj).right) && equals2(obj);
 	}
 
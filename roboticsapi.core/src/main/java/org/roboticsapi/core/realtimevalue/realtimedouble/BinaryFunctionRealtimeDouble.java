@@ -84,7 +84,7 @@ public abstract class BinaryFunctionRealtimeDouble extends RealtimeDouble {
 
 	@Override
 	public final boolean equals(Object obj) {
-		return classEqual(obj) && value1.equals(((BinaryFunctionRealtimeDouble) obj).value1)
+		return sameAs(obj) || classEqual(obj) && value1.equals(((BinaryFunctionRealtimeDouble) obj).value1)
 				&& value2.equals(((BinaryFunctionRealtimeDouble) obj).value2);
 	}
 
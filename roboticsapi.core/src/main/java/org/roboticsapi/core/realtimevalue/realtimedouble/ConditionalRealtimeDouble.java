@@ -58,7 +58,7 @@ public final class ConditionalRealtimeDouble extends RealtimeDouble {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && condition.equals(((ConditionalRealtimeDouble) obj).condition)
+		return sameAs(obj) || classEqual(obj) && condition.equals(((ConditionalRealtimeDouble) obj).condition)
 				&& ifTrue.equals(((ConditionalRealtimeDouble) obj).ifTrue)
 				&& ifFalse.equals(((ConditionalRealtimeDouble) obj).ifFalse);
 	}
@@ -56,7 +56,7 @@ public final class ConstantRealtimeDouble extends RealtimeDouble {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && value == ((ConstantRealtimeDouble) obj).value;
+		return sameAs(obj) || classEqual(obj) && value == ((ConstantRealtimeDouble) obj).value;
 	}
 
 	@Override
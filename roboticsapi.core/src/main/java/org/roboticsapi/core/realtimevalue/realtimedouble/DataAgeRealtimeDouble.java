@@ -31,7 +31,7 @@ public final class DataAgeRealtimeDouble extends RealtimeDouble {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && sensor.equals(((DataAgeRealtimeDouble) obj).sensor);
+		return sameAs(obj) || classEqual(obj) && sensor.equals(((DataAgeRealtimeDouble) obj).sensor);
 	}
 
 	@Override
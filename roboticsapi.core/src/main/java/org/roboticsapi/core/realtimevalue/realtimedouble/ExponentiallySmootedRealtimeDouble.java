@@ -33,7 +33,7 @@ public final class ExponentiallySmootedRealtimeDouble extends RealtimeDouble {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && halfLife == ((ExponentiallySmootedRealtimeDouble) obj).halfLife
+		return sameAs(obj) || classEqual(obj) && halfLife == ((ExponentiallySmootedRealtimeDouble) obj).halfLife
 				&& other.equals(((ExponentiallySmootedRealtimeDouble) obj).other);
 	}
 
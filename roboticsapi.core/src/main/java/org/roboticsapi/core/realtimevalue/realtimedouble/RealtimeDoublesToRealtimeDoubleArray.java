@@ -28,7 +28,7 @@ public final class RealtimeDoublesToRealtimeDoubleArray extends RealtimeDoubleAr
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && doubles.equals(((RealtimeDoublesToRealtimeDoubleArray) obj).doubles);
+		return sameAs(obj) || classEqual(obj) && doubles.equals(((RealtimeDoublesToRealtimeDoubleArray) obj).doubles);
 	}
 
 	@Override
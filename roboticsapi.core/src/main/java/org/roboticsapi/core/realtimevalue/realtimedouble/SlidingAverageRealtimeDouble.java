@@ -42,7 +42,7 @@ public final class SlidingAverageRealtimeDouble extends RealtimeDouble {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && duration == ((SlidingAverageRealtimeDouble) obj).duration
+		return sameAs(obj) || classEqual(obj) && duration == ((SlidingAverageRealtimeDouble) obj).duration
 				&& other.equals(((SlidingAverageRealtimeDouble) obj).other);
 	}
 
@@ -59,7 +59,7 @@ public abstract class UnaryFunctionRealtimeDouble<T> extends RealtimeDouble {
 
 	@Override
 	public final boolean equals(Object obj) {
-		return classEqual(obj) && inner.equals(((UnaryFunctionRealtimeDouble<?>) obj).inner)
+		return sameAs(obj) || classEqual(obj) && inner.equals(((UnaryFunctionRealtimeDouble<?>) obj).inner)
 				&& equals2((UnaryFunctionRealtimeDouble<?>) obj);
 	}
 
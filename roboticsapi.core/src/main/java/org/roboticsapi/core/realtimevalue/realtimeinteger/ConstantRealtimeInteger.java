@@ -56,7 +56,7 @@ public final class ConstantRealtimeInteger extends RealtimeInteger {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && value == ((ConstantRealtimeInteger) obj).value;
+		return sameAs(obj) || classEqual(obj) && value == ((ConstantRealtimeInteger) obj).value;
 	}
 
 	@Override
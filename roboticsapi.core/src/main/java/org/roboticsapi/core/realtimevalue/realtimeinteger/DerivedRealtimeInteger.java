@@ -59,6 +59,9 @@ public abstract class DerivedRealtimeInteger extends RealtimeInteger {
 
 	@Override
 	public final boolean equals(Object obj) {
+		if (sameAs(obj)) {
+			return true;
+		}
 		if (!classEqual(obj)) {
 			return false;
 		}
@@ -42,7 +42,8 @@ public abstract class DriverBasedRealtimeInteger<D extends DeviceDriver> extends
 	@SuppressWarnings("unchecked")
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && driver.equals(((DriverBasedRealtimeInteger<D>) obj).driver) && equals2(obj);
+		return sameAs(obj) || classEqual(obj)
+				&& driver.equals(((DriverBasedRealtimeInteger<D>) obj).driver) && equals2(obj);
 	}
 
 	protected boolean equals2(Object obj) {
@@ -0,0 +1,95 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.core.util;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Runs cleanup actions after objects have become unreachable (replacing
+ * {@link Object#finalize()}, similar to <code>java.lang.ref.Cleaner</code>).
+ * Cleanup actions are run by a single daemon thread, and must not refer to the
+ * object they clean up after - otherwise the object will never become
+ * unreachable.
+ */
+public final class ReferenceCleaner {
+
+	/**
+	 * Registered cleanup action
+	 */
+	public interface Cleanable {
+		/**
+		 * Runs the cleanup action (if it has not been run before) and unregisters
+		 * it
+		 */
+		void clean();
+	}
+
+	private static final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+	private static final Set<CleanableReference> registered = Collections
+			.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<CleanableReference, Boolean>()));
+
+	static {
+		Thread thread = new Thread(ReferenceCleaner::run, "RoboticsAPI reference cleaner");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private ReferenceCleaner() {
+	}
+
+	private static class CleanableReference extends PhantomReference<Object> implements Cleanable {
+		private final Runnable action;
+
+		public CleanableReference(Object referent, Runnable action) {
+			super(referent, queue);
+			this.action = action;
+		}
+
+		@Override
+		public void clean() {
+			if (registered.remove(this)) {
+				clear();
+				action.run();
+			}
+		}
+	}
+
+	/**
+	 * Registers a cleanup action for an object
+	 *
+	 * @param object object to clean up after
+	 * @param action action to run once the object has become unreachable
+	 * @return the registered action, which may be run earlier by calling
+	 *         {@link Cleanable#clean()}
+	 */
+	public static Cleanable register(Object object, Runnable action) {
+		if (object == null || action == null) {
+			throw new IllegalArgumentException("Object and action must not be null.");
+		}
+		CleanableReference ret = new CleanableReference(object, action);
+		registered.add(ret);
+		return ret;
+	}
+
+	private static void run() {
+		while (true) {
+			try {
+				((CleanableReference) queue.remove()).clean();
+			} catch (InterruptedException e) {
+				// keep cleaning
+			} catch (RuntimeException e) {
+				RAPILogger.logException(ReferenceCleaner.class, e);
+			}
+		}
+	}
+
+}
@@ -7,9 +7,9 @@
 
 package org.roboticsapi.core.world;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Hashtable;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -353,33 +353,47 @@ public class Frame extends AbstractRoboticsEntity implements RoboticsEntity {
 
 		// check if we found a way between the two frames
 		if (way != null) {
-			// case: this == to
-			if (way.isEmpty()) {
-				return RealtimeTransformation.createfromConstant(Transformation.IDENTITY);
-			}
+			return getRealtimeTransformationAlong(way, topology);
+		}
+		return null;
+	}
 
-			RealtimeTransformation ret = null;
-			Frame cur = this;
+	/**
+	 * Retrieves the {@link RealtimeTransformation} at the end of a given path of
+	 * {@link Relation}s starting at this {@link Frame}.
+	 *
+	 * @param way      relations on the way to the destination frame, as returned
+	 *                 by {@link #getRelationsTo(Frame, FrameTopology)}
+	 * @param topology frame topology providing the relations' transformations
+	 * @return {@link RealtimeTransformation} of the destination frame relative to
+	 *         this {@link Frame}
+	 */
+	public RealtimeTransformation getRealtimeTransformationAlong(List<Relation> way, FrameTopology topology) {
+		// case: this == to
+		if (way.isEmpty()) {
+			return RealtimeTransformation.createfromConstant(Transformation.IDENTITY);
+		}
 
-			for (Relation curRel : way) {
-				cur = curRel.getOther(cur);
-				RealtimeTransformation toCur;
+		RealtimeTransformation ret = null;
+		Frame cur = this;
 
-				// check relation map
-				toCur = topology.getRealtimeTransformation(curRel);
-				if (curRel.getTo() != cur) {
-					toCur = toCur.invert();
-				}
+		for (Relation curRel : way) {
+			cur = curRel.getOther(cur);
+			RealtimeTransformation toCur;
 
-				if (ret == null) {
-					ret = toCur;
-				} else {
-					ret = ret.multiply(toCur);
-				}
+			// check relation map
+			toCur = topology.getRealtimeTransformation(curRel);
+			if (curRel.getTo() != cur) {
+				toCur = toCur.invert();
+			}
+
+			if (ret == null) {
+				ret = toCur;
+			} else {
+				ret = ret.multiply(toCur);
 			}
-			return ret;
 		}
-		return null;
+		return ret;
 	}
 
 	/**
@@ -560,11 +574,10 @@ public class Frame extends AbstractRoboticsEntity implements RoboticsEntity {
 
 		// dictionary keeping the relation leading to (forward) or from
 		// (backward) a given frame (also encodes "seen" information)
-		final Hashtable<Frame, Relation> wayTo = new Hashtable<Frame, Relation>(),
-				wayFrom = new Hashtable<Frame, Relation>();
+		final Map<Frame, Relation> wayTo = new HashMap<Frame, Relation>(), wayFrom = new HashMap<Frame, Relation>();
 
 		// queue of frames yet to scan
-		final Queue<Frame> forwardList = new LinkedList<Frame>(), backwardList = new LinkedList<Frame>();
+		final Queue<Frame> forwardList = new ArrayDeque<Frame>(), backwardList = new ArrayDeque<Frame>();
 		forwardList.add(this);
 		backwardList.add(to);
 
@@ -7,8 +7,12 @@
 
 package org.roboticsapi.core.world.estimation;
 
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -110,12 +114,23 @@ public class TimeAwareEstimator extends AbstractEstimator {
 	}
 
 	private Set<RealtimeValue<?>> collectInnerValues(RealtimeValue<?> realtimeValue) {
+		// collect the leaves, visiting shared sub-expressions only once
 		Set<RealtimeValue<?>> ret = new HashSet<RealtimeValue<?>>();
-		for (RealtimeValue<?> v : realtimeValue.getDependencies()) {
-			ret.addAll(collectInnerValues(v));
-		}
-		if (ret.isEmpty()) {
-			ret.add(realtimeValue);
+		Set<RealtimeValue<?>> visited = Collections.newSetFromMap(new IdentityHashMap<RealtimeValue<?>, Boolean>());
+		Deque<RealtimeValue<?>> todo = new ArrayDeque<RealtimeValue<?>>();
+		todo.push(realtimeValue);
+		while (!todo.isEmpty()) {
+			RealtimeValue<?> current = todo.pop();
+			if (!visited.add(current)) {
+				continue;
+			}
+			List<RealtimeValue<?>> dependencies = current.getDependencies();
+			if (dependencies.isEmpty()) {
+				ret.add(current);
+			}
+			for (RealtimeValue<?> v : dependencies) {
+				todo.push(v);
+			}
 		}
 		return ret;
 	}
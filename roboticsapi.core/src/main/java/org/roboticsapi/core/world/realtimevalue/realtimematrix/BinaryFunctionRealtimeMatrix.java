@@ -54,7 +54,7 @@ public abstract class BinaryFunctionRealtimeMatrix<S, T> extends RealtimeMatrix
 
 	@Override
 	public final boolean equals(Object obj) {
-		return classEqual(obj) && operand1.equals(((BinaryFunctionRealtimeMatrix<?, ?>) obj).operand1)
+		return sameAs(obj) || classEqual(obj) && operand1.equals(((BinaryFunctionRealtimeMatrix<?, ?>) obj).operand1)
 				&& operand2.equals(((BinaryFunctionRealtimeMatrix<?, ?>) obj).operand2)
 				&& equals2((BinaryFunctionRealtimeMatrix<?, ?>) obj);
 	}
@@ -45,7 +45,7 @@ public abstract class UnaryFunctionRealtimeMatrix extends RealtimeMatrix {
 
 	@Override
 	public final boolean equals(Object obj) {
-		return classEqual(obj) && inner.equals(((UnaryFunctionRealtimeMatrix) obj).inner)
+		return sameAs(obj) || classEqual(obj) && inner.equals(((UnaryFunctionRealtimeMatrix) obj).inner)
 				&& equals2((UnaryFunctionRealtimeMatrix) obj);
 	}
 
@@ -62,7 +62,7 @@ public final class ABCToRealtimeRotation extends RealtimeRotation {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && aComponent.equals(((ABCToRealtimeRotation) obj).aComponent)
+		return sameAs(obj) || classEqual(obj) && aComponent.equals(((ABCToRealtimeRotation) obj).aComponent)
 				&& bComponent.equals(((ABCToRealtimeRotation) obj).bComponent)
 				&& cComponent.equals(((ABCToRealtimeRotation) obj).cComponent);
 	}
@@ -42,7 +42,7 @@ public final class AxisAngleToRealtimeRotation extends RealtimeRotation {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && axis.equals(((AxisAngleToRealtimeRotation) obj).axis)
+		return sameAs(obj) || classEqual(obj) && axis.equals(((AxisAngleToRealtimeRotation) obj).axis)
 				&& angle.equals(((AxisAngleToRealtimeRotation) obj).angle);
 	}
 
@@ -50,7 +50,7 @@ public final class ConstantRealtimeRotation extends RealtimeRotation {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && value.equals(((ConstantRealtimeRotation) obj).value);
+		return sameAs(obj) || classEqual(obj) && value.equals(((ConstantRealtimeRotation) obj).value);
 	}
 
 	@Override
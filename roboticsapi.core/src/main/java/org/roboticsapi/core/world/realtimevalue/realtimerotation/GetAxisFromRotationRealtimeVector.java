@@ -36,7 +36,7 @@ public final class GetAxisFromRotationRealtimeVector extends RealtimeVector {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && rotation.equals(((GetAxisFromRotationRealtimeVector) obj).rotation);
+		return sameAs(obj) || classEqual(obj) && rotation.equals(((GetAxisFromRotationRealtimeVector) obj).rotation);
 	}
 
 	@Override
@@ -89,7 +89,7 @@ public final class GetFromRotationRealtimeDouble extends RealtimeDouble {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && component == ((GetFromRotationRealtimeDouble) obj).component
+		return sameAs(obj) || classEqual(obj) && component == ((GetFromRotationRealtimeDouble) obj).component
 				&& rotationo.equals(((GetFromRotationRealtimeDouble) obj).rotationo);
 	}
 
@@ -22,7 +22,7 @@ public final class InvertedRealtimeRotation extends RealtimeRotation {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && other.equals(((InvertedRealtimeRotation) obj).other);
+		return sameAs(obj) || classEqual(obj) && other.equals(((InvertedRealtimeRotation) obj).other);
 	}
 
 	@Override
@@ -46,7 +46,7 @@ public final class MultipliedRealtimeRotation extends RealtimeRotation {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && right.equals(((MultipliedRealtimeRotation) obj).right)
+		return sameAs(obj) || classEqual(obj) && right.equals(((MultipliedRealtimeRotation) obj).right)
 				&& left.equals(((MultipliedRealtimeRotation) obj).left);
 	}
 
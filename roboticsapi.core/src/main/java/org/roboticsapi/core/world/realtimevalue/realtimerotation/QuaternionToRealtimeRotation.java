@@ -75,7 +75,7 @@ public final class QuaternionToRealtimeRotation extends RealtimeRotation {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && xComponent.equals(((QuaternionToRealtimeRotation) obj).xComponent)
+		return sameAs(obj) || classEqual(obj) && xComponent.equals(((QuaternionToRealtimeRotation) obj).xComponent)
 				&& yComponent.equals(((QuaternionToRealtimeRotation) obj).yComponent)
 				&& zComponent.equals(((QuaternionToRealtimeRotation) obj).zComponent)
 				&& wComponent.equals(((QuaternionToRealtimeRotation) obj).wComponent);
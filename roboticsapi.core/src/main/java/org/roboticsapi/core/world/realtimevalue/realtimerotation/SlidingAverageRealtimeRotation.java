@@ -47,7 +47,7 @@ public class SlidingAverageRealtimeRotation extends RealtimeRotation {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && duration == ((SlidingAverageRealtimeRotation) obj).duration
+		return sameAs(obj) || classEqual(obj) && duration == ((SlidingAverageRealtimeRotation) obj).duration
 				&& other.equals(((SlidingAverageRealtimeRotation) obj).other);
 	}
 
@@ -69,7 +69,7 @@ public final class ConditionalRealtimeTransformation extends RealtimeTransformat
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && condition.equals(((ConditionalRealtimeTransformation) obj).condition)
+		return sameAs(obj) || classEqual(obj) && condition.equals(((ConditionalRealtimeTransformation) obj).condition)
 				&& ifTrue.equals(((ConditionalRealtimeTransformation) obj).ifTrue)
 				&& ifFalse.equals(((ConditionalRealtimeTransformation) obj).ifFalse);
 	}
@@ -50,7 +50,8 @@ public final class ConstantRealtimeTransformation extends RealtimeTransformation
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && transformation.equals(((ConstantRealtimeTransformation) obj).transformation);
+		return sameAs(obj) || classEqual(obj)
+				&& transformation.equals(((ConstantRealtimeTransformation) obj).transformation);
 	}
 
 	@Override
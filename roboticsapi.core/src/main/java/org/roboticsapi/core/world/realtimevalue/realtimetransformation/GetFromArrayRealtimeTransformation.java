@@ -79,7 +79,7 @@ public final class GetFromArrayRealtimeTransformation extends RealtimeTransforma
 
 	@Override
 	public final boolean equals(Object obj) {
-		return classEqual(obj) && inner.equals(((GetFromArrayRealtimeTransformation) obj).inner)
+		return sameAs(obj) || classEqual(obj) && inner.equals(((GetFromArrayRealtimeTransformation) obj).inner)
 				&& index == ((GetFromArrayRealtimeTransformation) obj).index;
 	}
 
@@ -40,7 +40,7 @@ public final class GetTranslationFromTransformationRealtimeVector extends Realti
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj)
+		return sameAs(obj) || classEqual(obj)
 				&& transformation.equals(((GetTranslationFromTransformationRealtimeVector) obj).transformation);
 	}
 
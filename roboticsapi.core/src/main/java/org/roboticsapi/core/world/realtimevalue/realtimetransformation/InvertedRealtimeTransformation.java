@@ -43,7 +43,7 @@ public final class InvertedRealtimeTransformation extends RealtimeTransformation
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && other.equals(((InvertedRealtimeTransformation) obj).other);
+		return sameAs(obj) || classEqual(obj) && other.equals(((InvertedRealtimeTransformation) obj).other);
 	}
 
 	@Override
@@ -44,7 +44,7 @@ public class MergedRealtimeTransformationArray extends RealtimeTransformationArr
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && values.equals(((MergedRealtimeTransformationArray) obj).values);
+		return sameAs(obj) || classEqual(obj) && values.equals(((MergedRealtimeTransformationArray) obj).values);
 	}
 
 	@Override
@@ -66,7 +66,7 @@ public final class MultipliedRealtimeTransformation extends RealtimeTransformati
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && first.equals(((MultipliedRealtimeTransformation) obj).first)
+		return sameAs(obj) || classEqual(obj) && first.equals(((MultipliedRealtimeTransformation) obj).first)
 				&& second.equals(((MultipliedRealtimeTransformation) obj).second);
 	}
 
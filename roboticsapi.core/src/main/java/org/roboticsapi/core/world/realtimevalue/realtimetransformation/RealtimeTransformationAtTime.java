@@ -45,7 +45,8 @@ public final class RealtimeTransformationAtTime extends RealtimeTransformation {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && transformation.equals(((RealtimeTransformationAtTime) obj).transformation)
+		return sameAs(obj) || classEqual(obj)
+				&& transformation.equals(((RealtimeTransformationAtTime) obj).transformation)
 				&& age.equals(((RealtimeTransformationAtTime) obj).age)
 				&& maxAge == ((RealtimeTransformationAtTime) obj).maxAge;
 	}
@@ -40,7 +40,8 @@ public final class TransformationToRealtimeRotation extends RealtimeRotation {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && transformation.equals(((TransformationToRealtimeRotation) obj).transformation);
+		return sameAs(obj) || classEqual(obj)
+				&& transformation.equals(((TransformationToRealtimeRotation) obj).transformation);
 	}
 
 	@Override
@@ -77,7 +77,7 @@ public class XYZABCToRealtimeTransformation extends RealtimeTransformation {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && rotation.equals(((XYZABCToRealtimeTransformation) obj).rotation)
+		return sameAs(obj) || classEqual(obj) && rotation.equals(((XYZABCToRealtimeTransformation) obj).rotation)
 				&& translation.equals(((XYZABCToRealtimeTransformation) obj).translation);
 	}
 
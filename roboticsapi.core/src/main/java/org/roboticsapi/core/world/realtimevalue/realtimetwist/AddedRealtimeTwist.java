@@ -46,7 +46,7 @@ public final class AddedRealtimeTwist extends RealtimeTwist {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && left.equals(((AddedRealtimeTwist) obj).left)
+		return sameAs(obj) || classEqual(obj) && left.equals(((AddedRealtimeTwist) obj).left)
 				&& right.equals(((AddedRealtimeTwist) obj).right);
 	}
 
@@ -66,7 +66,7 @@ public final class ConditionalRealtimeTwist extends RealtimeTwist {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && condition.equals(((ConditionalRealtimeTwist) obj).condition)
+		return sameAs(obj) || classEqual(obj) && condition.equals(((ConditionalRealtimeTwist) obj).condition)
 				&& ifTrue.equals(((ConditionalRealtimeTwist) obj).ifTrue)
 				&& ifFalse.equals(((ConditionalRealtimeTwist) obj).ifFalse);
 	}
@@ -38,7 +38,7 @@ public final class ConstantRealtimeTwist extends RealtimeTwist {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && constantValue.equals(((ConstantRealtimeTwist) obj).constantValue);
+		return sameAs(obj) || classEqual(obj) && constantValue.equals(((ConstantRealtimeTwist) obj).constantValue);
 	}
 
 	@Override
@@ -32,7 +32,7 @@ public final class GetAngularVelocityFromTwistRealtimeVector extends RealtimeVec
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && twist.equals(((GetAngularVelocityFromTwistRealtimeVector) obj).twist);
+		return sameAs(obj) || classEqual(obj) && twist.equals(((GetAngularVelocityFromTwistRealtimeVector) obj).twist);
 	}
 
 	@Override
@@ -32,7 +32,7 @@ public final class GetLinearVelocityFromTwistRealtimeVector extends RealtimeVect
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && twist.equals(((GetLinearVelocityFromTwistRealtimeVector) obj).twist);
+		return sameAs(obj) || classEqual(obj) && twist.equals(((GetLinearVelocityFromTwistRealtimeVector) obj).twist);
 	}
 
 	@Override
@@ -23,7 +23,7 @@ public final class InvertedRealtimeTwist extends RealtimeTwist {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && other.equals(((InvertedRealtimeTwist) obj).other);
+		return sameAs(obj) || classEqual(obj) && other.equals(((InvertedRealtimeTwist) obj).other);
 	}
 
 	@Override
@@ -41,7 +41,7 @@ public final class OrientationAdaptedRealtimeTwist extends RealtimeTwist {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && other.equals(((OrientationAdaptedRealtimeTwist) obj).other)
+		return sameAs(obj) || classEqual(obj) && other.equals(((OrientationAdaptedRealtimeTwist) obj).other)
 				&& orientationChange.equals(((OrientationAdaptedRealtimeTwist) obj).orientationChange);
 	}
 
@@ -41,7 +41,7 @@ public final class PivotAdaptedRealtimeTwist extends RealtimeTwist {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && other.equals(((PivotAdaptedRealtimeTwist) obj).other)
+		return sameAs(obj) || classEqual(obj) && other.equals(((PivotAdaptedRealtimeTwist) obj).other)
 				&& getPivotChange().equals(((PivotAdaptedRealtimeTwist) obj).getPivotChange());
 	}
 
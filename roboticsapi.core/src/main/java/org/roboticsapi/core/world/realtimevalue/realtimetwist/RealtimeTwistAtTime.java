@@ -36,7 +36,7 @@ public final class RealtimeTwistAtTime extends RealtimeTwist {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && other.equals(((RealtimeTwistAtTime) obj).other)
+		return sameAs(obj) || classEqual(obj) && other.equals(((RealtimeTwistAtTime) obj).other)
 				&& age.equals(((RealtimeTwistAtTime) obj).age) && maxAge == ((RealtimeTwistAtTime) obj).maxAge;
 	}
 
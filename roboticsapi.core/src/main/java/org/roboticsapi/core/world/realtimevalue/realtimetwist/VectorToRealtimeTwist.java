@@ -45,7 +45,7 @@ public final class VectorToRealtimeTwist extends RealtimeTwist {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && rotationVelocity.equals(((VectorToRealtimeTwist) obj).rotationVelocity)
+		return sameAs(obj) || classEqual(obj) && rotationVelocity.equals(((VectorToRealtimeTwist) obj).rotationVelocity)
 				&& translationVelocity.equals(((VectorToRealtimeTwist) obj).translationVelocity);
 	}
 
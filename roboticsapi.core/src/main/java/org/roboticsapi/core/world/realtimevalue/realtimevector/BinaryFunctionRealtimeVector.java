@@ -84,7 +84,7 @@ public abstract class BinaryFunctionRealtimeVector extends RealtimeVector {
 
 	@Override
 	public final boolean equals(Object obj) {
-		return classEqual(obj) && value1.equals(((BinaryFunctionRealtimeVector) obj).value1)
+		return sameAs(obj) || classEqual(obj) && value1.equals(((BinaryFunctionRealtimeVector) obj).value1)
 				&& value2.equals(((BinaryFunctionRealtimeVector) obj).value2);
 	}
 
@@ -73,7 +73,7 @@ public final class ConstantRealtimeVector extends RealtimeVector {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && value.equals(((ConstantRealtimeVector) obj).value);
+		return sameAs(obj) || classEqual(obj) && value.equals(((ConstantRealtimeVector) obj).value);
 	}
 
 	@Override
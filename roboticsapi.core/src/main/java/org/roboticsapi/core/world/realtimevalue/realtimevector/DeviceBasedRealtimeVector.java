@@ -41,7 +41,8 @@ public abstract class DeviceBasedRealtimeVector<T extends DeviceDriver> extends
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && driver.equals(((DeviceBasedRealtimeVector<?>) obj).driver) && equals2(obj);
+		return sameAs(obj) || classEqual(obj)
+				&& driver.equals(((DeviceBasedRealtimeVector<?>) obj).driver) && equals2(obj);
 	}
 
 	protected boolean equals2(Object obj) {
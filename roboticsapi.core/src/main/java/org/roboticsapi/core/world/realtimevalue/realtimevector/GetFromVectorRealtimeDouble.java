@@ -80,7 +80,7 @@ public final class GetFromVectorRealtimeDouble extends RealtimeDouble {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && vector.equals(((GetFromVectorRealtimeDouble) obj).vector)
+		return sameAs(obj) || classEqual(obj) && vector.equals(((GetFromVectorRealtimeDouble) obj).vector)
 				&& component == ((GetFromVectorRealtimeDouble) obj).component;
 	}
 
@@ -36,7 +36,7 @@ public final class RealtimeVectorAtTime extends RealtimeVector {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && vector.equals(((RealtimeVectorAtTime) obj).vector)
+		return sameAs(obj) || classEqual(obj) && vector.equals(((RealtimeVectorAtTime) obj).vector)
 				&& age.equals(((RealtimeVectorAtTime) obj).age) && maxAge == ((RealtimeVectorAtTime) obj).maxAge;
 	}
 
@@ -44,7 +44,8 @@ public class RotatedRealtimeVector extends RealtimeVector {
 
 	@Override
 	public boolean equals(Object obj) {
-		return obj instanceof RotatedRealtimeVector && rotation.equals(((RotatedRealtimeVector) obj).rotation)
+		return sameAs(obj) || obj instanceof RotatedRealtimeVector
+				&& rotation.equals(((RotatedRealtimeVector) obj).rotation)
 				&& vector.equals(((RotatedRealtimeVector) obj).vector);
 	}
 
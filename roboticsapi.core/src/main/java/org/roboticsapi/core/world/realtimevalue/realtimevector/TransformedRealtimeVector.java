@@ -46,7 +46,7 @@ public final class TransformedRealtimeVector extends RealtimeVector {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && vector.equals(((TransformedRealtimeVector) obj).vector)
+		return sameAs(obj) || classEqual(obj) && vector.equals(((TransformedRealtimeVector) obj).vector)
 				&& transformation.equals(((TransformedRealtimeVector) obj).transformation);
 	}
 
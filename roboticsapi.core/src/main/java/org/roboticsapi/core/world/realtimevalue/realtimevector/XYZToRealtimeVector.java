@@ -74,7 +74,7 @@ public final class XYZToRealtimeVector extends RealtimeVector {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && xComponent.equals(((XYZToRealtimeVector) obj).xComponent)
+		return sameAs(obj) || classEqual(obj) && xComponent.equals(((XYZToRealtimeVector) obj).xComponent)
 				&& yComponent.equals(((XYZToRealtimeVector) obj).yComponent)
 				&& zComponent.equals(((XYZToRealtimeVector) obj).zComponent);
 	}
@@ -7,6 +7,7 @@
 
 package org.roboticsapi.core.world.util;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -18,12 +19,16 @@ import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 
+import org.roboticsapi.core.RoboticsRuntime;
+import org.roboticsapi.core.realtimevalue.RealtimeValueReadException;
+import org.roboticsapi.core.util.ReferenceCleaner;
 import org.roboticsapi.core.world.Frame;
 import org.roboticsapi.core.world.FrameTopology;
 import org.roboticsapi.core.world.Relation;
 import org.roboticsapi.core.world.RelationListener;
+import org.roboticsapi.core.world.Rotation;
 import org.roboticsapi.core.world.Transformation;
-import org.roboticsapi.core.world.TransformationException;
+import org.roboticsapi.core.world.Vector;
 import org.roboticsapi.core.world.World;
 import org.roboticsapi.core.world.realtimevalue.realtimetransformation.RealtimeTransformation;
 
@@ -120,20 +125,38 @@ public class FrameGraph {
 
 	private final List<FrameGraphListener> listeners = new ArrayList<FrameGraphListener>();
 	private final Object monitor = new Object();
+	private FramePathIndex pathIndex = null;
 
-	private final RelationListener relationListener = new RelationListener() {
+	private final RelationListener relationListener = new GraphRelationListener(this);
+
+	/**
+	 * Relation listener referring to its graph weakly, so that the frames it is
+	 * registered at do not keep the graph alive.
+	 */
+	private static class GraphRelationListener implements RelationListener {
+		private final WeakReference<FrameGraph> graph;
+
+		public GraphRelationListener(FrameGraph graph) {
+			this.graph = new WeakReference<FrameGraph>(graph);
+		}
 
 		@Override
 		public void relationAdded(Relation relation, Frame child) {
-			addRelation(relation);
+			FrameGraph graph = this.graph.get();
+			if (graph != null) {
+				graph.addRelation(relation);
+			}
 		}
 
 		@Override
 		public void relationRemoved(Relation relation, Frame child) {
-			removeRelation(relation);
+			FrameGraph graph = this.graph.get();
+			if (graph != null) {
+				graph.removeRelation(relation);
+			}
 		}
 
-	};
+	}
 
 	private Set<Relation> getRelationList(Frame frame) {
 		if (!relations.containsKey(frame)) {
@@ -175,6 +198,21 @@ public class FrameGraph {
 
 		topology.addRelationListener(root, relationListener);
 		addRelations(topology.getRelations(root));
+
+		// the cleanup must not refer to this graph, otherwise it would never run
+		final Map<Frame, Set<Relation>> relations = this.relations;
+		final Object monitor = this.monitor;
+		final RelationListener relationListener = this.relationListener;
+		ReferenceCleaner.register(this, () -> {
+			synchronized (monitor) {
+				for (Frame frame : relations.keySet()) {
+					if (frame != null) {
+						topology.removeRelationListener(frame, relationListener);
+					}
+				}
+				topology.removeRelationListener(root, relationListener);
+			}
+		});
 	}
 
 	/**
@@ -195,6 +233,10 @@ public class FrameGraph {
 	}
 
 	public RealtimeTransformation getRealtimeTransformation(Frame from, Frame to) {
+		List<Relation> way = getRelations(from, to);
+		if (way != null && isCompatible(way)) {
+			return from.getRealtimeTransformationAlong(way, topology);
+		}
 		return from.getRealtimeTransformationTo(to, topology);
 	}
 
@@ -203,23 +245,64 @@ public class FrameGraph {
 	}
 
 	public Transformation getTransformation(Frame from, Frame to) {
+		if (from == to) {
+			return new Transformation(new Rotation(0, 0, 0), new Vector(0, 0, 0));
+		}
+		RealtimeTransformation transformation = getRealtimeTransformation(from, to);
+		if (transformation == null) {
+			return null;
+		}
 		try {
-			return from.getTransformationTo(to, topology);
-		} catch (TransformationException e) {
+			return transformation.getCurrentValue();
+		} catch (RealtimeValueReadException e) {
 			return null;
 		}
 	}
 
-	@Override
-	protected void finalize() throws Throwable {
+	/**
+	 * Retrieves the shortest relation path between two frames of this graph,
+	 * using the graph's {@link FramePathIndex}.
+	 *
+	 * @param from start frame
+	 * @param to   destination frame
+	 * @return read-only list of relations on the way from the start to the
+	 *         destination frame, or <code>null</code> if one of the frames is not
+	 *         part of the graph
+	 */
+	public List<Relation> getRelations(Frame from, Frame to) {
+		return getPathIndex().getRelations(from, to);
+	}
+
+	/**
+	 * Retrieves the path index of this graph, creating it on first use.
+	 *
+	 * @return the {@link FramePathIndex} of this graph
+	 */
+	public FramePathIndex getPathIndex() {
 		synchronized (monitor) {
-			for (Frame frame : relations.keySet()) {
-				if (frame != null) {
-					topology.removeRelationListener(frame, relationListener);
+			if (pathIndex == null) {
+				pathIndex = new FramePathIndex(this);
+			}
+			return pathIndex;
+		}
+	}
+
+	private boolean isCompatible(List<Relation> way) {
+		// same conditions as Frame.getRealtimeTransformationTo(Frame, FrameTopology)
+		RoboticsRuntime runtime = null;
+		for (Relation r : way) {
+			RealtimeTransformation transformation = topology.getRealtimeTransformation(r);
+			if (transformation == null) {
+				return false;
+			}
+			if (transformation.getRuntime() != null) {
+				if (runtime != null && runtime != transformation.getRuntime()) {
+					return false;
 				}
+				runtime = transformation.getRuntime();
 			}
-			topology.removeRelationListener(root, relationListener);
 		}
+		return true;
 	}
 
 	protected void addRelation(Relation relation) {
@@ -0,0 +1,460 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.core.world.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.roboticsapi.core.RealtimeValue;
+import org.roboticsapi.core.RealtimeValueListenerRegistration;
+import org.roboticsapi.core.RoboticsRuntime;
+import org.roboticsapi.core.exception.RoboticsException;
+import org.roboticsapi.core.util.RAPILogger;
+import org.roboticsapi.core.world.Frame;
+import org.roboticsapi.core.world.Relation;
+import org.roboticsapi.core.world.Transformation;
+import org.roboticsapi.core.world.util.FrameGraph.FrameGraphAdapter;
+import org.roboticsapi.core.world.util.FrameGraph.FrameGraphListener;
+import org.roboticsapi.core.world.realtimevalue.realtimetransformation.RealtimeTransformation;
+import org.roboticsapi.core.world.realtimevalue.realtimetransformation.RealtimeTransformationArray;
+
+/**
+ * Publishes the poses of many frames relative to the root of a
+ * {@link FrameGraph} together, instead of observing each frame (or relation)
+ * separately. The poses of all subscribed frames are computed in one
+ * {@link RealtimeTransformationArray} per runtime, built along the frame graph
+ * from the root, so that the transformation of a common path prefix is shared
+ * by all frames below it.
+ *
+ * Each subscribed frame gets a slot, and snapshots are published as a flat
+ * array containing {@link #STRIDE} values (x, y, z, a, b, c) per slot. Slots of
+ * unsubscribed frames or of frames whose pose is unknown contain
+ * {@link Double#NaN}.
+ */
+public class FrameGraphSnapshot {
+
+	/** number of values per frame in a snapshot (x, y, z, a, b, c) */
+	public static final int STRIDE = 6;
+
+	/**
+	 * Listener for snapshots of the frame poses
+	 */
+	public interface SnapshotListener {
+		/**
+		 * Called when a new snapshot is available
+		 *
+		 * @param poses the poses of all slots, frame in slot i at index i *
+		 *              {@link FrameGraphSnapshot#STRIDE} (the array is not modified
+		 *              afterwards)
+		 */
+		void onSnapshot(double[] poses);
+	}
+
+	private final FrameGraph graph;
+	/** protects the subscriptions and the published poses */
+	private final Object monitor = new Object();
+	/** serializes the updates of the observed transformations */
+	private final Object rebuildMonitor = new Object();
+
+	private final Map<Frame, Integer> slots = new HashMap<Frame, Integer>();
+	private final Map<Frame, Integer> subscriptions = new HashMap<Frame, Integer>();
+	private final List<Integer> freeSlots = new ArrayList<Integer>();
+	private int slotCount = 0;
+
+	private final List<SnapshotListener> listeners = new ArrayList<SnapshotListener>();
+	/** listeners not informed about the current snapshot yet */
+	private final List<SnapshotListener> newListeners = new ArrayList<SnapshotListener>();
+	private List<RealtimeValueListenerRegistration<?>> registrations = Collections.emptyList();
+	private double[] poses = new double[0];
+	private int generation = 0;
+	/** number of the last published and of the last delivered snapshot */
+	private long published = 0, delivered = 0;
+	/** whether a thread is currently informing the listeners */
+	private boolean delivering = false;
+
+	private final FrameGraphListener graphListener = new FrameGraphAdapter() {
+		@Override
+		public void onFrameGraphUpdated() {
+			synchronized (monitor) {
+				if (slots.isEmpty()) {
+					return;
+				}
+			}
+			rebuild();
+		}
+	};
+
+	/**
+	 * Creates a snapshot service for a frame graph
+	 *
+	 * @param graph frame graph providing the frames and the root
+	 */
+	public FrameGraphSnapshot(FrameGraph graph) {
+		if (graph == null) {
+			throw new IllegalArgumentException("Frame graph must be not null.");
+		}
+		this.graph = graph;
+		WeakFrameGraphListener.add(graph, graphListener);
+	}
+
+	public FrameGraph getFrameGraph() {
+		return graph;
+	}
+
+	/**
+	 * Subscribes to the pose of a frame. Frames may be subscribed multiple times,
+	 * and keep their slot until they have been unsubscribed as often.
+	 *
+	 * @param frame frame to subscribe to
+	 * @return the slot of the frame
+	 */
+	public int subscribe(Frame frame) {
+		return subscribe(Collections.singletonList(frame)).get(0);
+	}
+
+	/**
+	 * Subscribes to the poses of multiple frames, updating the computation only
+	 * once.
+	 *
+	 * @param frames frames to subscribe to
+	 * @return the slots of the frames, in the given order
+	 */
+	public List<Integer> subscribe(Collection<? extends Frame> frames) {
+		List<Integer> ret = new ArrayList<Integer>();
+		boolean changed = false;
+		synchronized (monitor) {
+			for (Frame frame : frames) {
+				Integer count = subscriptions.get(frame);
+				subscriptions.put(frame, count == null ? 1 : count + 1);
+				if (count == null) {
+					slots.put(frame, freeSlots.isEmpty() ? slotCount++ : freeSlots.remove(freeSlots.size() - 1));
+					changed = true;
+				}
+				ret.add(slots.get(frame));
+			}
+		}
+		if (changed) {
+			rebuild();
+		}
+		return ret;
+	}
+
+	/**
+	 * Removes a subscription of a frame
+	 *
+	 * @param frame frame to unsubscribe from
+	 */
+	public void unsubscribe(Frame frame) {
+		unsubscribe(Collections.singletonList(frame));
+	}
+
+	/**
+	 * Removes subscriptions of multiple frames, updating the computation only once
+	 *
+	 * @param frames frames to unsubscribe from
+	 */
+	public void unsubscribe(Collection<? extends Frame> frames) {
+		boolean changed = false;
+		synchronized (monitor) {
+			for (Frame frame : frames) {
+				Integer count = subscriptions.get(frame);
+				if (count == null) {
+					continue;
+				} else if (count > 1) {
+					subscriptions.put(frame, count - 1);
+				} else {
+					subscriptions.remove(frame);
+					freeSlots.add(slots.remove(frame));
+					changed = true;
+				}
+			}
+		}
+		if (changed) {
+			rebuild();
+		}
+	}
+
+	/**
+	 * Retrieves the slot of a subscribed frame
+	 *
+	 * @param frame frame
+	 * @return slot of the frame, or -1 if the frame is not subscribed
+	 */
+	public int getSlot(Frame frame) {
+		synchronized (monitor) {
+			Integer ret = slots.get(frame);
+			return ret == null ? -1 : ret;
+		}
+	}
+
+	/**
+	 * Retrieves the pose of a subscribed frame from a snapshot
+	 *
+	 * @param poses snapshot
+	 * @param slot  slot of the frame
+	 * @return pose of the frame relative to the root, or null if unknown
+	 */
+	public static Transformation getTransformation(double[] poses, int slot) {
+		int offset = slot * STRIDE;
+		if (slot < 0 || offset + STRIDE > poses.length || Double.isNaN(poses[offset])) {
+			return null;
+		}
+		return new Transformation(poses[offset], poses[offset + 1], poses[offset + 2], poses[offset + 3],
+				poses[offset + 4], poses[offset + 5]);
+	}
+
+	/**
+	 * Retrieves the last published snapshot
+	 *
+	 * @return the poses of all slots
+	 */
+	public double[] getSnapshot() {
+		synchronized (monitor) {
+			return poses;
+		}
+	}
+
+	/**
+	 * Adds a listener, which is informed about the current snapshot immediately
+	 * (or by the thread currently informing the listeners)
+	 *
+	 * @param listener listener to add
+	 */
+	public void addSnapshotListener(SnapshotListener listener) {
+		synchronized (monitor) {
+			listeners.add(listener);
+			newListeners.add(listener);
+		}
+		deliver();
+	}
+
+	public void removeSnapshotListener(SnapshotListener listener) {
+		synchronized (monitor) {
+			listeners.remove(listener);
+			newListeners.remove(listener);
+		}
+	}
+
+	/**
+	 * Stops observing the frame poses (until frames are subscribed again)
+	 */
+	public void dispose() {
+		synchronized (monitor) {
+			subscriptions.clear();
+			slots.clear();
+			freeSlots.clear();
+			slotCount = 0;
+		}
+		rebuild();
+	}
+
+	/**
+	 * Creates the transformations of the subscribed frames and replaces the
+	 * observed transformation arrays
+	 */
+	private void rebuild() {
+		synchronized (rebuildMonitor) {
+			final int generation;
+			Map<Frame, Integer> slots;
+			synchronized (monitor) {
+				generation = ++this.generation;
+				slots = new HashMap<Frame, Integer>(this.slots);
+
+				// keep the poses of frames still subscribed until new values arrive
+				double[] poses = new double[slotCount * STRIDE];
+				Arrays.fill(poses, Double.NaN);
+				for (int slot : slots.values()) {
+					if ((slot + 1) * STRIDE <= this.poses.length) {
+						System.arraycopy(this.poses, slot * STRIDE, poses, slot * STRIDE, STRIDE);
+					}
+				}
+				this.poses = poses;
+			}
+
+			Frame root = graph.getRoot();
+			Map<Frame, RealtimeTransformation> known = new HashMap<Frame, RealtimeTransformation>();
+			Map<RoboticsRuntime, Map<Integer, RealtimeTransformation>> runtimes = new LinkedHashMap<>();
+			List<Integer> unknown = new ArrayList<Integer>();
+			for (Entry<Frame, Integer> slot : slots.entrySet()) {
+				RealtimeTransformation pose = getPose(root, slot.getKey(), known);
+				if (pose == null) {
+					unknown.add(slot.getValue());
+					continue;
+				}
+				Map<Integer, RealtimeTransformation> group = runtimes.get(pose.getRuntime());
+				if (group == null) {
+					group = new LinkedHashMap<Integer, RealtimeTransformation>();
+					runtimes.put(pose.getRuntime(), group);
+				}
+				group.put(slot.getValue(), pose);
+			}
+
+			List<RealtimeValueListenerRegistration<?>> old = registrations;
+			registrations = new ArrayList<RealtimeValueListenerRegistration<?>>();
+			for (Map<Integer, RealtimeTransformation> group : runtimes.values()) {
+				final int[] groupSlots = new int[group.size()];
+				int i = 0;
+				for (int slot : group.keySet()) {
+					groupSlots[i++] = slot;
+				}
+				RealtimeTransformationArray array = RealtimeTransformationArray
+						.fromSensors(group.values().toArray(new RealtimeTransformation[group.size()]));
+				registrations.add(array.createListenerRegistration(value -> update(generation, groupSlots, value)));
+			}
+
+			try {
+				RealtimeValue.removeListeners(old);
+			} catch (RoboticsException e) {
+				RAPILogger.logException(this, e);
+			}
+			try {
+				RealtimeValue.addListeners(registrations);
+			} catch (RoboticsException e) {
+				RAPILogger.logException(this, e);
+			}
+
+			synchronized (monitor) {
+				if (generation == this.generation && !unknown.isEmpty()) {
+					poses = Arrays.copyOf(poses, poses.length);
+					for (int slot : unknown) {
+						Arrays.fill(poses, slot * STRIDE, (slot + 1) * STRIDE, Double.NaN);
+					}
+				}
+				publish();
+			}
+		}
+		deliver();
+	}
+
+	/**
+	 * Retrieves the transformation of a frame relative to the root, extending the
+	 * transformations of frames on its way
+	 */
+	private RealtimeTransformation getPose(Frame root, Frame frame, Map<Frame, RealtimeTransformation> known) {
+		List<Relation> way = graph.getRelations(root, frame);
+		if (way == null) {
+			return null;
+		}
+		if (way.isEmpty()) {
+			return RealtimeTransformation.createfromConstant(Transformation.IDENTITY);
+		}
+
+		RealtimeTransformation ret = null;
+		Frame cur = root;
+		for (Relation relation : way) {
+			cur = relation.getOther(cur);
+			RealtimeTransformation next = known.get(cur);
+			if (next == null) {
+				RealtimeTransformation step = graph.getTopology().getRealtimeTransformation(relation);
+				if (step == null) {
+					return graph.getRealtimeTransformationTo(frame);
+				}
+				if (relation.getTo() != cur) {
+					step = step.invert();
+				}
+				try {
+					next = ret == null ? step : ret.multiply(step);
+				} catch (IllegalArgumentException e) {
+					// different runtimes on the way, cannot be computed along the graph
+					return graph.getRealtimeTransformationTo(frame);
+				}
+				known.put(cur, next);
+			}
+			ret = next;
+		}
+		return ret;
+	}
+
+	private void update(int generation, int[] slots, Transformation[] value) {
+		synchronized (monitor) {
+			if (generation != this.generation) {
+				return;
+			}
+			double[] poses = Arrays.copyOf(this.poses, this.poses.length);
+			for (int i = 0; i < slots.length; i++) {
+				int offset = slots[i] * STRIDE;
+				Transformation t = value == null ? null : value[i];
+				if (t == null) {
+					Arrays.fill(poses, offset, offset + STRIDE, Double.NaN);
+				} else {
+					poses[offset] = t.getX();
+					poses[offset + 1] = t.getY();
+					poses[offset + 2] = t.getZ();
+					poses[offset + 3] = t.getA();
+					poses[offset + 4] = t.getB();
+					poses[offset + 5] = t.getC();
+				}
+			}
+			this.poses = poses;
+			publish();
+		}
+		deliver();
+	}
+
+	/**
+	 * Marks the current poses as a new snapshot. Has to be called while holding
+	 * the monitor, and followed by {@link #deliver()} after releasing all locks.
+	 */
+	private void publish() {
+		published++;
+	}
+
+	/**
+	 * Informs the listeners about the newest snapshot without holding any lock, as
+	 * listeners may call back into the snapshot. Only one thread informs the
+	 * listeners at a time, and it continues until the listeners have seen the
+	 * newest snapshot, so that snapshots published concurrently cannot reach the
+	 * listeners out of order. Other threads return immediately, as do updates
+	 * during a rebuild, which delivers after releasing its lock.
+	 */
+	private void deliver() {
+		if (Thread.holdsLock(rebuildMonitor)) {
+			return;
+		}
+		synchronized (monitor) {
+			if (delivering) {
+				return;
+			}
+			delivering = true;
+		}
+		boolean done = false;
+		try {
+			while (!done) {
+				double[] poses;
+				List<SnapshotListener> targets;
+				synchronized (monitor) {
+					poses = this.poses;
+					targets = new ArrayList<SnapshotListener>(delivered == published ? newListeners : listeners);
+					delivered = published;
+					newListeners.clear();
+					done = targets.isEmpty();
+					if (done) {
+						delivering = false;
+					}
+				}
+				for (SnapshotListener listener : targets) {
+					listener.onSnapshot(poses);
+				}
+			}
+		} finally {
+			if (!done) {
+				synchronized (monitor) {
+					delivering = false;
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,320 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.core.world.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+import org.roboticsapi.core.world.Frame;
+import org.roboticsapi.core.world.Relation;
+import org.roboticsapi.core.world.util.FrameGraph.FrameGraphListener;
+
+/**
+ * Index answering relation path queries between {@link Frame}s of a
+ * {@link FrameGraph}.
+ *
+ * The index keeps a breadth-first spanning tree of the graph, so that as long
+ * as the graph does not contain cycles, the (unique) path between two frames is
+ * found by walking up to their lowest common ancestor in O(depth). If the graph
+ * contains cycles, shortest paths are searched in the graph and cached. The
+ * index is updated incrementally through the {@link FrameGraphListener}
+ * interface of the graph.
+ */
+public class FramePathIndex {
+
+	private static final int CACHE_SIZE = 1024;
+
+	private final FrameGraph graph;
+
+	private final Map<Frame, Set<Relation>> relations = new HashMap<>();
+	private final Map<Frame, Relation> parents = new HashMap<>();
+	private final Map<Frame, Integer> depths = new HashMap<>();
+	private int cycles = 0;
+	private boolean treeValid = true;
+
+	private final Map<List<Frame>, List<Relation>> paths = new LinkedHashMap<List<Frame>, List<Relation>>(16, 0.75f,
+			true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<List<Frame>, List<Relation>> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+
+	private final Object monitor = new Object();
+
+	private final FrameGraphListener listener = new FrameGraphListener() {
+
+		@Override
+		public void onRelationAdded(Relation relation) {
+			synchronized (monitor) {
+				boolean fromKnown = isKnown(relation.getFrom()), toKnown = isKnown(relation.getTo());
+				getRelationList(relation.getFrom()).add(relation);
+				getRelationList(relation.getTo()).add(relation);
+
+				if (fromKnown && toKnown) {
+					// closes a cycle, so cached paths may not be the shortest ones any more
+					cycles++;
+					paths.clear();
+				} else if (fromKnown) {
+					attach(relation.getTo(), relation);
+				} else if (toKnown) {
+					attach(relation.getFrom(), relation);
+				} else {
+					treeValid = false;
+				}
+			}
+		}
+
+		@Override
+		public void onRelationRemoved(Relation relation) {
+			synchronized (monitor) {
+				getRelationList(relation.getFrom()).remove(relation);
+				getRelationList(relation.getTo()).remove(relation);
+
+				if (parents.get(relation.getFrom()) == relation || parents.get(relation.getTo()) == relation) {
+					// the subtree has to be reattached or is removed
+					treeValid = false;
+				} else {
+					cycles--;
+				}
+
+				// other paths stay the shortest ones when a relation disappears
+				for (Iterator<List<Relation>> it = paths.values().iterator(); it.hasNext();) {
+					if (it.next().contains(relation)) {
+						it.remove();
+					}
+				}
+			}
+		}
+
+		@Override
+		public void onFrameRemoved(Frame frame) {
+			synchronized (monitor) {
+				relations.remove(frame);
+				parents.remove(frame);
+				depths.remove(frame);
+			}
+		}
+
+		@Override
+		public void onFrameAdded(Frame frame) {
+			// do nothing
+		}
+
+		@Override
+		public void onFrameGraphUpdating() {
+			// do nothing
+		}
+
+		@Override
+		public void onFrameGraphUpdated() {
+			// do nothing
+		}
+
+		private void attach(Frame frame, Relation relation) {
+			if (!treeValid) {
+				return;
+			}
+			parents.put(frame, relation);
+			depths.put(frame, depths.get(relation.getOther(frame)) + 1);
+		}
+
+	};
+
+	/**
+	 * Creates a path index for the given frame graph.
+	 *
+	 * @param graph the frame graph to index
+	 */
+	public FramePathIndex(FrameGraph graph) {
+		if (graph == null) {
+			throw new IllegalArgumentException("Frame graph must be not null.");
+		}
+		this.graph = graph;
+		depths.put(graph.getRoot(), 0);
+
+		WeakFrameGraphListener.add(this.graph, listener);
+	}
+
+	/**
+	 * Retrieves the frame graph this index is based on.
+	 *
+	 * @return the indexed frame graph
+	 */
+	public FrameGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Checks whether the given frame is part of the indexed frame graph.
+	 *
+	 * @param frame frame to check
+	 * @return true if the frame is connected to the graph's root
+	 */
+	public boolean contains(Frame frame) {
+		synchronized (monitor) {
+			return isKnown(frame);
+		}
+	}
+
+	/**
+	 * Retrieves the shortest relation path between two frames of the frame graph.
+	 *
+	 * @param from start frame
+	 * @param to   destination frame
+	 * @return read-only list of relations on the way from the start to the
+	 *         destination frame, or <code>null</code> if one of the frames is not
+	 *         part of the graph
+	 */
+	public List<Relation> getRelations(Frame from, Frame to) {
+		synchronized (monitor) {
+			if (!isKnown(from) || !isKnown(to)) {
+				return null;
+			}
+			if (from == to) {
+				return Collections.emptyList();
+			}
+			if (!treeValid) {
+				rebuildTree();
+			}
+			if (cycles == 0) {
+				return getTreePath(from, to);
+			}
+
+			List<Frame> key = new ArrayList<>(2);
+			key.add(from);
+			key.add(to);
+			List<Relation> path = paths.get(key);
+			if (path == null) {
+				path = searchPath(from, to);
+				paths.put(key, path);
+			}
+			return path;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "Frame path index with root '" + this.graph.getRoot().getName() + "'";
+	}
+
+	private boolean isKnown(Frame frame) {
+		return frame == graph.getRoot() || relations.containsKey(frame);
+	}
+
+	private Set<Relation> getRelationList(Frame frame) {
+		if (!relations.containsKey(frame)) {
+			relations.put(frame, new HashSet<>());
+		}
+		return relations.get(frame);
+	}
+
+	private List<Relation> getTreePath(Frame from, Frame to) {
+		List<Relation> up = new ArrayList<>(), down = new ArrayList<>();
+		int fromDepth = depths.get(from), toDepth = depths.get(to);
+
+		// walk up to the lowest common ancestor
+		while (fromDepth > toDepth) {
+			Relation r = parents.get(from);
+			up.add(r);
+			from = r.getOther(from);
+			fromDepth--;
+		}
+		while (toDepth > fromDepth) {
+			Relation r = parents.get(to);
+			down.add(r);
+			to = r.getOther(to);
+			toDepth--;
+		}
+		while (from != to) {
+			Relation r = parents.get(from);
+			up.add(r);
+			from = r.getOther(from);
+			r = parents.get(to);
+			down.add(r);
+			to = r.getOther(to);
+		}
+
+		Collections.reverse(down);
+		up.addAll(down);
+		return Collections.unmodifiableList(up);
+	}
+
+	private List<Relation> searchPath(Frame from, Frame to) {
+		Map<Frame, Relation> wayTo = new HashMap<>();
+		Queue<Frame> todo = new ArrayDeque<>();
+		todo.add(from);
+		wayTo.put(from, null);
+
+		while (!todo.isEmpty()) {
+			Frame frame = todo.poll();
+			for (Relation r : relations.get(frame)) {
+				Frame other = r.getOther(frame);
+				if (wayTo.containsKey(other)) {
+					continue;
+				}
+				wayTo.put(other, r);
+				if (other == to) {
+					List<Relation> ret = new ArrayList<>();
+					for (Frame cur = to; cur != from; cur = wayTo.get(cur).getOther(cur)) {
+						ret.add(wayTo.get(cur));
+					}
+					Collections.reverse(ret);
+					return Collections.unmodifiableList(ret);
+				}
+				todo.add(other);
+			}
+		}
+		// both frames are connected to the root, so this cannot happen
+		throw new IllegalStateException("No path between frames of the frame graph");
+	}
+
+	private void rebuildTree() {
+		parents.clear();
+		depths.clear();
+		depths.put(graph.getRoot(), 0);
+		cycles = 0;
+
+		Queue<Frame> todo = new ArrayDeque<>();
+		Set<Relation> seen = new HashSet<>();
+		todo.add(graph.getRoot());
+		while (!todo.isEmpty()) {
+			Frame frame = todo.poll();
+			Set<Relation> list = relations.get(frame);
+			if (list == null) {
+				continue;
+			}
+			for (Relation r : list) {
+				if (!seen.add(r)) {
+					continue;
+				}
+				Frame other = r.getOther(frame);
+				if (depths.containsKey(other)) {
+					cycles++;
+				} else {
+					parents.put(other, r);
+					depths.put(other, depths.get(frame) + 1);
+					todo.add(other);
+				}
+			}
+		}
+		treeValid = true;
+	}
+
+}
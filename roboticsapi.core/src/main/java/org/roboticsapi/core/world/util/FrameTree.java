@@ -229,7 +229,7 @@ public class FrameTree {
 		}
 		this.graph = graph;
 
-		this.graph.addFrameGraphListener(listener);
+		WeakFrameGraphListener.add(this.graph, listener);
 	}
 
 	public Collection<Relation> getSpanningTreeEdges() {
@@ -240,13 +240,6 @@ public class FrameTree {
 		return parents.keySet();
 	}
 
-	@Override
-	protected void finalize() throws Throwable {
-		synchronized (monitor) {
-			this.graph.removeFrameGraphListener(listener);
-		}
-	}
-
 	public void addSpanningTreeListener(SpanningTreeListener l) {
 		synchronized (monitor) {
 			listeners.add(l);
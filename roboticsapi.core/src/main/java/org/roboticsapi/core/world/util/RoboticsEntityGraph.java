@@ -7,6 +7,7 @@
 
 package org.roboticsapi.core.world.util;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -18,6 +19,7 @@ import java.util.Set;
 import org.roboticsapi.core.Property;
 import org.roboticsapi.core.PropertyListener;
 import org.roboticsapi.core.RoboticsEntity;
+import org.roboticsapi.core.util.ReferenceCleaner;
 import org.roboticsapi.core.util.RoboticsEntityUtils;
 import org.roboticsapi.core.world.Frame;
 import org.roboticsapi.core.world.Relation;
@@ -101,7 +103,7 @@ public class RoboticsEntityGraph {
 	private final List<RoboticsEntityGraphListener> listeners = new ArrayList<RoboticsEntityGraphListener>();
 
 	private final Object monitor = new Object();
-	private final FrameGraphObserver observer = new FrameGraphObserver();
+	private final FrameGraphObserver observer = new FrameGraphObserver(this);
 
 	/**
 	 * Constructs a new entity graph based on a root frame.
@@ -120,6 +122,19 @@ public class RoboticsEntityGraph {
 	public RoboticsEntityGraph(FrameGraph graph) {
 		this.graph = graph;
 		this.graph.addFrameGraphListener(observer);
+
+		// the cleanup must not refer to this graph, otherwise it would never run
+		final FrameGraphObserver observer = this.observer;
+		final Map<RoboticsEntity, Set<RoboticsEntity>> knownEntities = this.knownEntities;
+		final Object monitor = this.monitor;
+		ReferenceCleaner.register(this, () -> {
+			graph.removeFrameGraphListener(observer, false);
+			synchronized (monitor) {
+				for (RoboticsEntity entity : knownEntities.keySet()) {
+					entity.removePropertyListener(observer);
+				}
+			}
+		});
 	}
 
 	/**
@@ -225,11 +240,6 @@ public class RoboticsEntityGraph {
 		return results;
 	}
 
-	@Override
-	protected void finalize() throws Throwable {
-		this.getFrameGraph().removeFrameGraphListener(observer);
-	}
-
 	private void addEntitiesOf(RoboticsEntity entity) {
 		synchronized (monitor) {
 			addRecursively(RoboticsEntityUtils.getParent(entity), entity);
@@ -318,16 +328,32 @@ public class RoboticsEntityGraph {
 		}
 	}
 
-	private class FrameGraphObserver implements FrameGraphListener, PropertyListener {
+	/**
+	 * Observer referring to its entity graph weakly, so that the frame graph and
+	 * entities it is registered at do not keep the entity graph alive.
+	 */
+	private static class FrameGraphObserver implements FrameGraphListener, PropertyListener {
+
+		private final WeakReference<RoboticsEntityGraph> graph;
+
+		public FrameGraphObserver(RoboticsEntityGraph graph) {
+			this.graph = new WeakReference<RoboticsEntityGraph>(graph);
+		}
 
 		@Override
 		public void onPropertyAdded(RoboticsEntity entity, Property p) {
-			notifyListenersOnPropertyAdded(entity, p);
+			RoboticsEntityGraph graph = this.graph.get();
+			if (graph != null) {
+				graph.notifyListenersOnPropertyAdded(entity, p);
+			}
 		}
 
 		@Override
 		public void onFrameAdded(Frame frame) {
-			addEntitiesOf(frame);
+			RoboticsEntityGraph graph = this.graph.get();
+			if (graph != null) {
+				graph.addEntitiesOf(frame);
+			}
 		}
 
 		@Override
@@ -336,7 +362,10 @@ public class RoboticsEntityGraph {
 
 		@Override
 		public void onFrameRemoved(Frame frame) {
-			removeEntitiesOf(frame);
+			RoboticsEntityGraph graph = this.graph.get();
+			if (graph != null) {
+				graph.removeEntitiesOf(frame);
+			}
 		}
 
 		@Override
@@ -345,12 +374,18 @@ public class RoboticsEntityGraph {
 
 		@Override
 		public void onFrameGraphUpdating() {
-			notifyListenersOnEntitiesUpdating();
+			RoboticsEntityGraph graph = this.graph.get();
+			if (graph != null) {
+				graph.notifyListenersOnEntitiesUpdating();
+			}
 		}
 
 		@Override
 		public void onFrameGraphUpdated() {
-			notifyListenersOnEntitiesUpdated();
+			RoboticsEntityGraph graph = this.graph.get();
+			if (graph != null) {
+				graph.notifyListenersOnEntitiesUpdated();
+			}
 		}
 
 	}
@@ -0,0 +1,92 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.core.world.util;
+
+import java.lang.ref.WeakReference;
+
+import org.roboticsapi.core.util.ReferenceCleaner;
+import org.roboticsapi.core.world.Frame;
+import org.roboticsapi.core.world.Relation;
+import org.roboticsapi.core.world.util.FrameGraph.FrameGraphListener;
+
+/**
+ * {@link FrameGraphListener} forwarding to a listener it refers to weakly, so
+ * that a frame graph does not keep the objects listening to it alive. The
+ * forwarding listener is removed from the graph once the listener has become
+ * unreachable.
+ */
+class WeakFrameGraphListener implements FrameGraphListener {
+
+	private final WeakReference<FrameGraphListener> listener;
+
+	private WeakFrameGraphListener(FrameGraphListener listener) {
+		this.listener = new WeakReference<FrameGraphListener>(listener);
+	}
+
+	/**
+	 * Adds a listener to a frame graph, without the graph keeping the listener
+	 * alive
+	 *
+	 * @param graph    frame graph to listen to
+	 * @param listener listener to add (has to be kept alive by its owner)
+	 */
+	static void add(FrameGraph graph, FrameGraphListener listener) {
+		WeakFrameGraphListener ret = new WeakFrameGraphListener(listener);
+		graph.addFrameGraphListener(ret);
+		ReferenceCleaner.register(listener, () -> graph.removeFrameGraphListener(ret, false));
+	}
+
+	@Override
+	public void onFrameGraphUpdating() {
+		FrameGraphListener listener = this.listener.get();
+		if (listener != null) {
+			listener.onFrameGraphUpdating();
+		}
+	}
+
+	@Override
+	public void onFrameAdded(Frame frame) {
+		FrameGraphListener listener = this.listener.get();
+		if (listener != null) {
+			listener.onFrameAdded(frame);
+		}
+	}
+
+	@Override
+	public void onRelationAdded(Relation relation) {
+		FrameGraphListener listener = this.listener.get();
+		if (listener != null) {
+			listener.onRelationAdded(relation);
+		}
+	}
+
+	@Override
+	public void onFrameRemoved(Frame frame) {
+		FrameGraphListener listener = this.listener.get();
+		if (listener != null) {
+			listener.onFrameRemoved(frame);
+		}
+	}
+
+	@Override
+	public void onRelationRemoved(Relation relation) {
+		FrameGraphListener listener = this.listener.get();
+		if (listener != null) {
+			listener.onRelationRemoved(relation);
+		}
+	}
+
+	@Override
+	public void onFrameGraphUpdated() {
+		FrameGraphListener listener = this.listener.get();
+		if (listener != null) {
+			listener.onFrameGraphUpdated();
+		}
+	}
+
+}
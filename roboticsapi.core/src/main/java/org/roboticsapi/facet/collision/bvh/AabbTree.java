@@ -0,0 +1,479 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.collision.bvh;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Dynamic bounding volume hierarchy of axis aligned bounding boxes.
+ *
+ * Leaves store boxes that are enlarged by a margin, so that small movements of
+ * an object do not change the tree at all. If an object leaves its enlarged
+ * box, only its leaf is removed and reinserted, refitting the boxes of its
+ * ancestors. The tree is kept balanced by tree rotations.
+ *
+ * Boxes are given as <code>double[6]</code> arrays containing the minimum
+ * followed by the maximum coordinates.
+ *
+ * @param <E> type of data stored in the leaves
+ */
+class AabbTree<E> {
+
+	static final int NULL = -1;
+
+	private final double margin;
+
+	private double[] bounds;
+	private int[] parent;
+	private int[] child1;
+	private int[] child2;
+	private int[] height;
+	private Object[] data;
+
+	private int root = NULL;
+	private int freeList = NULL;
+	private int leafCount = 0;
+
+	private int[] stack = new int[64];
+
+	/**
+	 * Creates a new, empty tree.
+	 *
+	 * @param margin enlargement of the boxes stored in the leaves
+	 */
+	AabbTree(double margin) {
+		this.margin = margin;
+		allocate(16);
+	}
+
+	private void allocate(int capacity) {
+		int oldCapacity = parent == null ? 0 : parent.length;
+		bounds = bounds == null ? new double[6 * capacity] : Arrays.copyOf(bounds, 6 * capacity);
+		parent = parent == null ? new int[capacity] : Arrays.copyOf(parent, capacity);
+		child1 = child1 == null ? new int[capacity] : Arrays.copyOf(child1, capacity);
+		child2 = child2 == null ? new int[capacity] : Arrays.copyOf(child2, capacity);
+		height = height == null ? new int[capacity] : Arrays.copyOf(height, capacity);
+		data = data == null ? new Object[capacity] : Arrays.copyOf(data, capacity);
+
+		// link the new nodes into the free list
+		for (int i = capacity - 1; i >= oldCapacity; i--) {
+			child1[i] = freeList;
+			height[i] = -1;
+			freeList = i;
+		}
+	}
+
+	private int allocateNode() {
+		if (freeList == NULL) {
+			allocate(parent.length * 2);
+		}
+		int node = freeList;
+		freeList = child1[node];
+		parent[node] = NULL;
+		child1[node] = NULL;
+		child2[node] = NULL;
+		height[node] = 0;
+		return node;
+	}
+
+	private void freeNode(int node) {
+		child1[node] = freeList;
+		height[node] = -1;
+		data[node] = null;
+		freeList = node;
+	}
+
+	/**
+	 * Inserts a new leaf.
+	 *
+	 * @param box   the (tight) box of the object
+	 * @param value data stored in the leaf
+	 * @return the proxy identifying the new leaf
+	 */
+	int insert(double[] box, E value) {
+		int leaf = allocateNode();
+		setFat(leaf, box);
+		data[leaf] = value;
+		insertLeaf(leaf);
+		leafCount++;
+		return leaf;
+	}
+
+	/**
+	 * Removes a leaf.
+	 *
+	 * @param proxy the proxy of the leaf to remove
+	 */
+	void remove(int proxy) {
+		removeLeaf(proxy);
+		freeNode(proxy);
+		leafCount--;
+	}
+
+	/**
+	 * Updates the box of a leaf. The tree is only changed if the box leaves the
+	 * enlarged box stored in the leaf.
+	 *
+	 * @param proxy the proxy of the leaf to move
+	 * @param box   the new (tight) box of the object
+	 * @return true if the leaf has been reinserted with a new enlarged box
+	 */
+	boolean move(int proxy, double[] box) {
+		int o = 6 * proxy;
+		if (bounds[o] <= box[0] && bounds[o + 1] <= box[1] && bounds[o + 2] <= box[2] && bounds[o + 3] >= box[3]
+				&& bounds[o + 4] >= box[4] && bounds[o + 5] >= box[5]) {
+			return false;
+		}
+		removeLeaf(proxy);
+		setFat(proxy, box);
+		insertLeaf(proxy);
+		return true;
+	}
+
+	@SuppressWarnings("unchecked")
+	E get(int proxy) {
+		return (E) data[proxy];
+	}
+
+	int size() {
+		return leafCount;
+	}
+
+	int getHeight() {
+		return root == NULL ? 0 : height[root];
+	}
+
+	/**
+	 * Checks whether the enlarged box of a leaf overlaps a given box.
+	 *
+	 * @param proxy the proxy of the leaf
+	 * @param box   box to check
+	 * @return true if both boxes overlap
+	 */
+	boolean overlaps(int proxy, double[] box) {
+		return overlaps(bounds, 6 * proxy, box, 0);
+	}
+
+	/**
+	 * Copies the enlarged box of a leaf.
+	 *
+	 * @param proxy the proxy of the leaf
+	 * @param box   array receiving the box
+	 */
+	void getFatBox(int proxy, double[] box) {
+		System.arraycopy(bounds, 6 * proxy, box, 0, 6);
+	}
+
+	/**
+	 * Reports all leaves whose enlarged box overlaps the given box.
+	 *
+	 * @param box     box to query
+	 * @param visitor called for each overlapping proxy, returns false to stop
+	 *                the query
+	 */
+	void query(double[] box, IntPredicate visitor) {
+		if (root == NULL) {
+			return;
+		}
+		int[] stack = this.stack;
+		int top = 0;
+		stack[top++] = root;
+		while (top > 0) {
+			int node = stack[--top];
+			if (!overlaps(bounds, 6 * node, box, 0)) {
+				continue;
+			}
+			if (child1[node] == NULL) {
+				if (!visitor.test(node)) {
+					return;
+				}
+			} else {
+				if (top + 2 > stack.length) {
+					stack = this.stack = Arrays.copyOf(stack, stack.length * 2);
+				}
+				stack[top++] = child1[node];
+				stack[top++] = child2[node];
+			}
+		}
+	}
+
+	/**
+	 * Reports all leaves whose enlarged box is hit by a ray segment.
+	 *
+	 * @param origin    start of the ray
+	 * @param direction direction of the ray
+	 * @param maxT      maximum ray parameter
+	 * @param visitor   called for each hit proxy, returns false to stop the query
+	 */
+	void rayCast(double[] origin, double[] direction, double maxT, IntPredicate visitor) {
+		if (root == NULL) {
+			return;
+		}
+		int[] stack = this.stack;
+		int top = 0;
+		stack[top++] = root;
+		while (top > 0) {
+			int node = stack[--top];
+			if (!rayHits(6 * node, origin, direction, maxT)) {
+				continue;
+			}
+			if (child1[node] == NULL) {
+				if (!visitor.test(node)) {
+					return;
+				}
+			} else {
+				if (top + 2 > stack.length) {
+					stack = this.stack = Arrays.copyOf(stack, stack.length * 2);
+				}
+				stack[top++] = child1[node];
+				stack[top++] = child2[node];
+			}
+		}
+	}
+
+	private boolean rayHits(int o, double[] origin, double[] direction, double maxT) {
+		double tMin = 0, tMax = maxT;
+		for (int i = 0; i < 3; i++) {
+			double d = direction[i];
+			if (Math.abs(d) < 1e-15) {
+				if (origin[i] < bounds[o + i] || origin[i] > bounds[o + 3 + i]) {
+					return false;
+				}
+			} else {
+				double t1 = (bounds[o + i] - origin[i]) / d, t2 = (bounds[o + 3 + i] - origin[i]) / d;
+				if (t1 > t2) {
+					double t = t1;
+					t1 = t2;
+					t2 = t;
+				}
+				tMin = Math.max(tMin, t1);
+				tMax = Math.min(tMax, t2);
+				if (tMin > tMax) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private void setFat(int node, double[] box) {
+		int o = 6 * node;
+		for (int i = 0; i < 3; i++) {
+			bounds[o + i] = box[i] - margin;
+			bounds[o + 3 + i] = box[3 + i] + margin;
+		}
+	}
+
+	private static boolean overlaps(double[] a, int oa, double[] b, int ob) {
+		return a[oa] <= b[ob + 3] && a[oa + 3] >= b[ob] && a[oa + 1] <= b[ob + 4] && a[oa + 4] >= b[ob + 1]
+				&& a[oa + 2] <= b[ob + 5] && a[oa + 5] >= b[ob + 2];
+	}
+
+	private double area(int node) {
+		int o = 6 * node;
+		return area(bounds[o + 3] - bounds[o], bounds[o + 4] - bounds[o + 1], bounds[o + 5] - bounds[o + 2]);
+	}
+
+	private double unionArea(int a, int b) {
+		int oa = 6 * a, ob = 6 * b;
+		double dx = Math.max(bounds[oa + 3], bounds[ob + 3]) - Math.min(bounds[oa], bounds[ob]);
+		double dy = Math.max(bounds[oa + 4], bounds[ob + 4]) - Math.min(bounds[oa + 1], bounds[ob + 1]);
+		double dz = Math.max(bounds[oa + 5], bounds[ob + 5]) - Math.min(bounds[oa + 2], bounds[ob + 2]);
+		return area(dx, dy, dz);
+	}
+
+	private static double area(double dx, double dy, double dz) {
+		return 2 * (dx * dy + dy * dz + dz * dx);
+	}
+
+	private void union(int target, int a, int b) {
+		int o = 6 * target, oa = 6 * a, ob = 6 * b;
+		for (int i = 0; i < 3; i++) {
+			bounds[o + i] = Math.min(bounds[oa + i], bounds[ob + i]);
+			bounds[o + 3 + i] = Math.max(bounds[oa + 3 + i], bounds[ob + 3 + i]);
+		}
+	}
+
+	private void insertLeaf(int leaf) {
+		if (root == NULL) {
+			root = leaf;
+			parent[root] = NULL;
+			return;
+		}
+
+		// find the best sibling using the surface area heuristic
+		int index = root;
+		while (child1[index] != NULL) {
+			int c1 = child1[index], c2 = child2[index];
+			double area = area(index);
+			double combinedArea = unionArea(index, leaf);
+
+			// cost of creating a new parent for this node and the new leaf
+			double cost = 2 * combinedArea;
+			// minimum cost of pushing the leaf further down the tree
+			double inheritanceCost = 2 * (combinedArea - area);
+
+			double cost1 = unionArea(leaf, c1) + inheritanceCost;
+			if (child1[c1] != NULL) {
+				cost1 -= area(c1);
+			}
+			double cost2 = unionArea(leaf, c2) + inheritanceCost;
+			if (child1[c2] != NULL) {
+				cost2 -= area(c2);
+			}
+
+			if (cost < cost1 && cost < cost2) {
+				break;
+			}
+			index = cost1 < cost2 ? c1 : c2;
+		}
+
+		int sibling = index;
+		int oldParent = parent[sibling];
+		int newParent = allocateNode();
+		parent[newParent] = oldParent;
+		union(newParent, leaf, sibling);
+		height[newParent] = height[sibling] + 1;
+
+		if (oldParent != NULL) {
+			if (child1[oldParent] == sibling) {
+				child1[oldParent] = newParent;
+			} else {
+				child2[oldParent] = newParent;
+			}
+		} else {
+			root = newParent;
+		}
+		child1[newParent] = sibling;
+		child2[newParent] = leaf;
+		parent[sibling] = newParent;
+		parent[leaf] = newParent;
+
+		refit(parent[leaf]);
+	}
+
+	private void removeLeaf(int leaf) {
+		if (leaf == root) {
+			root = NULL;
+			return;
+		}
+
+		int p = parent[leaf];
+		int grandParent = parent[p];
+		int sibling = child1[p] == leaf ? child2[p] : child1[p];
+
+		if (grandParent != NULL) {
+			if (child1[grandParent] == p) {
+				child1[grandParent] = sibling;
+			} else {
+				child2[grandParent] = sibling;
+			}
+			parent[sibling] = grandParent;
+			freeNode(p);
+			refit(grandParent);
+		} else {
+			root = sibling;
+			parent[sibling] = NULL;
+			freeNode(p);
+		}
+	}
+
+	private void refit(int index) {
+		while (index != NULL) {
+			index = balance(index);
+			int c1 = child1[index], c2 = child2[index];
+			height[index] = 1 + Math.max(height[c1], height[c2]);
+			union(index, c1, c2);
+			index = parent[index];
+		}
+	}
+
+	/**
+	 * Performs a left or right rotation if node a is imbalanced.
+	 *
+	 * @return the new root of the subtree
+	 */
+	private int balance(int a) {
+		if (child1[a] == NULL || height[a] < 2) {
+			return a;
+		}
+
+		int b = child1[a], c = child2[a];
+		int balance = height[c] - height[b];
+
+		if (balance > 1) {
+			// rotate c up
+			int f = child1[c], g = child2[c];
+			child1[c] = a;
+			parent[c] = parent[a];
+			parent[a] = c;
+			replaceChild(parent[c], a, c);
+
+			if (height[f] > height[g]) {
+				child2[c] = f;
+				child2[a] = g;
+				parent[g] = a;
+				union(a, b, g);
+				union(c, a, f);
+				height[a] = 1 + Math.max(height[b], height[g]);
+				height[c] = 1 + Math.max(height[a], height[f]);
+			} else {
+				child2[c] = g;
+				child2[a] = f;
+				parent[f] = a;
+				union(a, b, f);
+				union(c, a, g);
+				height[a] = 1 + Math.max(height[b], height[f]);
+				height[c] = 1 + Math.max(height[a], height[g]);
+			}
+			return c;
+		}
+
+		if (balance < -1) {
+			// rotate b up
+			int d = child1[b], e = child2[b];
+			child1[b] = a;
+			parent[b] = parent[a];
+			parent[a] = b;
+			replaceChild(parent[b], a, b);
+
+			if (height[d] > height[e]) {
+				child2[b] = d;
+				child1[a] = e;
+				parent[e] = a;
+				union(a, c, e);
+				union(b, a, d);
+				height[a] = 1 + Math.max(height[c], height[e]);
+				height[b] = 1 + Math.max(height[a], height[d]);
+			} else {
+				child2[b] = e;
+				child1[a] = d;
+				parent[d] = a;
+				union(a, c, d);
+				union(b, a, e);
+				height[a] = 1 + Math.max(height[c], height[d]);
+				height[b] = 1 + Math.max(height[a], height[e]);
+			}
+			return b;
+		}
+
+		return a;
+	}
+
+	private void replaceChild(int node, int oldChild, int newChild) {
+		if (node == NULL) {
+			root = newChild;
+		} else if (child1[node] == oldChild) {
+			child1[node] = newChild;
+		} else {
+			child2[node] = newChild;
+		}
+	}
+
+}
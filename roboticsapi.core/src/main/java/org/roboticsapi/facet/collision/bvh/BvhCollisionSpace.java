@@ -0,0 +1,530 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.collision.bvh;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+
+import org.roboticsapi.core.world.PhysicalObject;
+import org.roboticsapi.core.world.Transformation;
+import org.roboticsapi.core.world.Vector;
+import org.roboticsapi.facet.collision.Collision;
+import org.roboticsapi.facet.collision.CollisionSpace;
+import org.roboticsapi.facet.collision.RayTestResult;
+import org.roboticsapi.facet.collision.properties.CollisionShapeProperty;
+import org.roboticsapi.facet.collision.shapes.Shape;
+
+/**
+ * Pure Java {@link CollisionSpace} based on bounding volume hierarchies.
+ *
+ * Static and kinematic objects are kept in two dynamic AABB trees. Kinematic
+ * objects are stored with enlarged boxes, so that small movements do not touch
+ * the tree, and the potentially colliding pairs found in the broadphase are
+ * cached and only updated for objects that left their enlarged box. Pairs are
+ * checked exactly using the GJK distance algorithm on the object's
+ * {@link Shape}s.
+ *
+ * @param <T> type of the collision objects
+ */
+public class BvhCollisionSpace<T> implements CollisionSpace<T> {
+
+	/** Default enlargement of the bounding boxes of kinematic objects [m] */
+	public static final double DEFAULT_MARGIN = 0.02;
+
+	private static final double RAY_TOLERANCE = 1e-6;
+	private static final int RAY_ITERATIONS = 64;
+
+	private static final class Entry<T> {
+		final int id;
+		final T object;
+		final boolean kinematic;
+		final ConvexShape[] shapes;
+		final double[] transformation;
+		final double[] box = new double[6];
+		final Set<Long> pairs = new HashSet<>();
+		int proxy;
+
+		Entry(int id, T object, boolean kinematic, ConvexShape[] shapes, double[] transformation) {
+			this.id = id;
+			this.object = object;
+			this.kinematic = kinematic;
+			this.shapes = shapes;
+			this.transformation = transformation;
+		}
+
+		void place() {
+			if (shapes.length == 0) {
+				for (int i = 0; i < 3; i++) {
+					box[i] = box[3 + i] = transformation[9 + i];
+				}
+				return;
+			}
+			for (int i = 0; i < 3; i++) {
+				box[i] = Double.POSITIVE_INFINITY;
+				box[3 + i] = Double.NEGATIVE_INFINITY;
+			}
+			for (ConvexShape shape : shapes) {
+				shape.place(transformation);
+				double[] b = shape.getBox();
+				for (int i = 0; i < 3; i++) {
+					box[i] = Math.min(box[i], b[i]);
+					box[3 + i] = Math.max(box[3 + i], b[3 + i]);
+				}
+			}
+		}
+	}
+
+	private static final class Pair<T> {
+		final Entry<T> a, b;
+
+		Pair(Entry<T> a, Entry<T> b) {
+			this.a = a;
+			this.b = b;
+		}
+	}
+
+	private final Function<T, Shape[]> shapeProvider;
+	private final AabbTree<Entry<T>> staticTree = new AabbTree<>(0);
+	private final AabbTree<Entry<T>> kinematicTree;
+
+	private final Map<T, Entry<T>> entries = new HashMap<>();
+	private final Map<T, Set<T>> ignored = new HashMap<>();
+	private final Map<Long, Pair<T>> pairs = new HashMap<>();
+	private final Set<Entry<T>> moved = new LinkedHashSet<>();
+	private int nextId = 0;
+
+	private final Gjk gjk = new Gjk();
+	private final ConvexShape rayPoint = ConvexShape.point(0);
+	private final double[] fatBox = new double[6];
+
+	/**
+	 * Creates a new collision space using the default margin for kinematic
+	 * objects.
+	 *
+	 * @param shapeProvider function retrieving the shapes of a collision object
+	 *                      (relative to the object's transformation)
+	 */
+	public BvhCollisionSpace(Function<T, Shape[]> shapeProvider) {
+		this(shapeProvider, DEFAULT_MARGIN);
+	}
+
+	/**
+	 * Creates a new collision space.
+	 *
+	 * @param shapeProvider function retrieving the shapes of a collision object
+	 *                      (relative to the object's transformation)
+	 * @param margin        enlargement of the bounding boxes of kinematic objects;
+	 *                      kinematic objects moving less than this distance do not
+	 *                      cause updates of the bounding volume hierarchy
+	 */
+	public BvhCollisionSpace(Function<T, Shape[]> shapeProvider, double margin) {
+		if (shapeProvider == null) {
+			throw new IllegalArgumentException("Shape provider must be not null.");
+		}
+		if (margin < 0) {
+			throw new IllegalArgumentException("Margin must be non-negative.");
+		}
+		this.shapeProvider = shapeProvider;
+		this.kinematicTree = new AabbTree<>(margin);
+	}
+
+	/**
+	 * Creates a collision space for {@link PhysicalObject}s, using the shapes given
+	 * by their {@link CollisionShapeProperty}s.
+	 *
+	 * @return the collision space
+	 */
+	public static BvhCollisionSpace<PhysicalObject> createForPhysicalObjects() {
+		return new BvhCollisionSpace<PhysicalObject>(object -> {
+			List<Shape> shapes = new ArrayList<Shape>();
+			for (CollisionShapeProperty property : object.getProperties(CollisionShapeProperty.class)) {
+				Collections.addAll(shapes, property.shapes);
+			}
+			return shapes.toArray(new Shape[shapes.size()]);
+		});
+	}
+
+	@Override
+	public synchronized boolean addStaticObject(T staticObject, Transformation position) {
+		Entry<T> entry = add(staticObject, position, false);
+		if (entry == null) {
+			return false;
+		}
+		// static objects are only paired with kinematic objects
+		moved.add(entry);
+		return true;
+	}
+
+	@Override
+	public synchronized boolean addKinematicObject(T kinematicObject, Transformation initialPosition) {
+		Entry<T> entry = add(kinematicObject, initialPosition, true);
+		if (entry == null) {
+			return false;
+		}
+		moved.add(entry);
+		return true;
+	}
+
+	private Entry<T> add(T object, Transformation position, boolean kinematic) {
+		if (object == null || position == null || entries.containsKey(object)) {
+			return null;
+		}
+		Shape[] shapes = shapeProvider.apply(object);
+		ConvexShape[] convexShapes = new ConvexShape[shapes == null ? 0 : shapes.length];
+		for (int i = 0; i < convexShapes.length; i++) {
+			convexShapes[i] = new ConvexShape(shapes[i]);
+		}
+
+		Entry<T> entry = new Entry<T>(nextId++, object, kinematic, convexShapes, ConvexShape.toArray(position));
+		entry.place();
+		entry.proxy = getTree(entry).insert(entry.box, entry);
+		entries.put(object, entry);
+		return entry;
+	}
+
+	@Override
+	public synchronized boolean removeCollisionObject(T object) {
+		Entry<T> entry = entries.remove(object);
+		if (entry == null) {
+			return false;
+		}
+		getTree(entry).remove(entry.proxy);
+		for (Long key : entry.pairs) {
+			Pair<T> pair = pairs.remove(key);
+			getOther(pair, entry).pairs.remove(key);
+		}
+		moved.remove(entry);
+
+		Set<T> ignoredObjects = ignored.remove(object);
+		if (ignoredObjects != null) {
+			for (T other : ignoredObjects) {
+				Set<T> set = ignored.get(other);
+				set.remove(object);
+				if (set.isEmpty()) {
+					ignored.remove(other);
+				}
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public synchronized boolean updateTransformation(T kinematicObject, Transformation newPosition) {
+		Entry<T> entry = entries.get(kinematicObject);
+		if (entry == null || newPosition == null) {
+			return false;
+		}
+		System.arraycopy(ConvexShape.toArray(newPosition), 0, entry.transformation, 0, 12);
+		entry.place();
+		if (getTree(entry).move(entry.proxy, entry.box)) {
+			moved.add(entry);
+		}
+		return true;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public synchronized boolean ignoreCollisions(T... objects) {
+		boolean changed = false;
+		for (int i = 0; i < objects.length; i++) {
+			for (int j = i + 1; j < objects.length; j++) {
+				if (objects[i].equals(objects[j])) {
+					continue;
+				}
+				changed |= getIgnored(objects[i]).add(objects[j]);
+				changed |= getIgnored(objects[j]).add(objects[i]);
+			}
+		}
+		return changed;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public synchronized boolean unignoreCollisions(T... objects) {
+		boolean changed = false;
+		for (int i = 0; i < objects.length; i++) {
+			for (int j = 0; j < objects.length; j++) {
+				Set<T> set = ignored.get(objects[i]);
+				if (i != j && set != null) {
+					changed |= set.remove(objects[j]);
+					if (set.isEmpty()) {
+						ignored.remove(objects[i]);
+					}
+				}
+			}
+		}
+		return changed;
+	}
+
+	private Set<T> getIgnored(T object) {
+		Set<T> ret = ignored.get(object);
+		if (ret == null) {
+			ret = new HashSet<T>();
+			ignored.put(object, ret);
+		}
+		return ret;
+	}
+
+	private boolean isIgnored(T a, T b) {
+		Set<T> set = ignored.get(a);
+		return set != null && set.contains(b);
+	}
+
+	@Override
+	public synchronized Set<T> getStaticObjects() {
+		return getObjects(false);
+	}
+
+	@Override
+	public synchronized Set<T> getKinematicObjects() {
+		return getObjects(true);
+	}
+
+	private Set<T> getObjects(boolean kinematic) {
+		Set<T> ret = new HashSet<T>();
+		for (Entry<T> entry : entries.values()) {
+			if (entry.kinematic == kinematic) {
+				ret.add(entry.object);
+			}
+		}
+		return Collections.unmodifiableSet(ret);
+	}
+
+	@Override
+	public synchronized Set<T> getIgnoredObjects(T object) {
+		Set<T> ret = ignored.get(object);
+		if (ret == null) {
+			return Collections.emptySet();
+		}
+		return Collections.unmodifiableSet(new HashSet<T>(ret));
+	}
+
+	@Override
+	public synchronized Set<Collision<T>> checkCollisions() {
+		updatePairs();
+
+		Set<Collision<T>> ret = new HashSet<Collision<T>>();
+		for (Pair<T> pair : pairs.values()) {
+			Entry<T> a = pair.a, b = pair.b;
+			if (!overlaps(a.box, b.box) || isIgnored(a.object, b.object)) {
+				continue;
+			}
+			Collision<T> collision = collide(a, b);
+			if (collision != null) {
+				ret.add(collision);
+			}
+		}
+		return ret;
+	}
+
+	private Collision<T> collide(Entry<T> a, Entry<T> b) {
+		for (ConvexShape shapeA : a.shapes) {
+			for (ConvexShape shapeB : b.shapes) {
+				if (!overlaps(shapeA.getBox(), shapeB.getBox())) {
+					continue;
+				}
+				if (gjk.distance(shapeA, shapeB) <= 0) {
+					return new Collision<T>(a.object, b.object, ConvexShape.toLocal(a.transformation, gjk.getPointA()),
+							ConvexShape.toLocal(b.transformation, gjk.getPointB()));
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Updates the cached broadphase pairs for all objects that have been added or
+	 * reinserted into their tree since the last update.
+	 */
+	private void updatePairs() {
+		for (Entry<T> entry : moved) {
+			AabbTree<Entry<T>> tree = getTree(entry);
+			tree.getFatBox(entry.proxy, fatBox);
+
+			// drop pairs that are not overlapping any more
+			for (Iterator<Long> it = entry.pairs.iterator(); it.hasNext();) {
+				Long key = it.next();
+				Entry<T> other = getOther(pairs.get(key), entry);
+				if (!getTree(other).overlaps(other.proxy, fatBox)) {
+					it.remove();
+					pairs.remove(key);
+					other.pairs.remove(key);
+				}
+			}
+
+			kinematicTree.query(fatBox, proxy -> {
+				addPair(entry, kinematicTree.get(proxy));
+				return true;
+			});
+			if (entry.kinematic) {
+				staticTree.query(fatBox, proxy -> {
+					addPair(entry, staticTree.get(proxy));
+					return true;
+				});
+			}
+		}
+		moved.clear();
+	}
+
+	private void addPair(Entry<T> a, Entry<T> b) {
+		if (a == b) {
+			return;
+		}
+		Long key = a.id < b.id ? ((long) a.id << 32) | b.id : ((long) b.id << 32) | a.id;
+		if (pairs.containsKey(key)) {
+			return;
+		}
+		pairs.put(key, new Pair<T>(a, b));
+		a.pairs.add(key);
+		b.pairs.add(key);
+	}
+
+	private static <T> Entry<T> getOther(Pair<T> pair, Entry<T> entry) {
+		return pair.a == entry ? pair.b : pair.a;
+	}
+
+	private AabbTree<Entry<T>> getTree(Entry<T> entry) {
+		return entry.kinematic ? kinematicTree : staticTree;
+	}
+
+	private static boolean overlaps(double[] a, double[] b) {
+		return a[0] <= b[3] && a[3] >= b[0] && a[1] <= b[4] && a[4] >= b[1] && a[2] <= b[5] && a[5] >= b[2];
+	}
+
+	/**
+	 * Checks a set of shapes against the objects of the collision space.
+	 *
+	 * @return map containing the colliding objects for each shape that collides
+	 *         with at least one object
+	 */
+	@Override
+	public synchronized Map<Shape, Set<T>> checkShapes(Transformation globalTransformation, Set<T> ignoredObjects,
+			Shape... shapes) {
+		Map<Shape, Set<T>> ret = new HashMap<Shape, Set<T>>();
+		double[] transformation = ConvexShape.toArray(globalTransformation);
+
+		for (Shape shape : shapes) {
+			ConvexShape convex = new ConvexShape(shape);
+			convex.place(transformation);
+			Set<T> colliding = new HashSet<T>();
+			ShapeQuery visitor = new ShapeQuery(convex, ignoredObjects, colliding);
+			visitor.tree = staticTree;
+			staticTree.query(convex.getBox(), visitor);
+			visitor.tree = kinematicTree;
+			kinematicTree.query(convex.getBox(), visitor);
+			if (!colliding.isEmpty()) {
+				ret.put(shape, colliding);
+			}
+		}
+		return ret;
+	}
+
+	private final class ShapeQuery implements IntPredicate {
+		private final ConvexShape shape;
+		private final Set<T> ignoredObjects;
+		private final Set<T> colliding;
+		AabbTree<Entry<T>> tree;
+
+		ShapeQuery(ConvexShape shape, Set<T> ignoredObjects, Set<T> colliding) {
+			this.shape = shape;
+			this.ignoredObjects = ignoredObjects;
+			this.colliding = colliding;
+		}
+
+		@Override
+		public boolean test(int proxy) {
+			Entry<T> entry = tree.get(proxy);
+			if (ignoredObjects != null && ignoredObjects.contains(entry.object)) {
+				return true;
+			}
+			if (!overlaps(shape.getBox(), entry.box)) {
+				return true;
+			}
+			for (ConvexShape other : entry.shapes) {
+				if (overlaps(shape.getBox(), other.getBox()) && gjk.distance(shape, other) <= 0) {
+					colliding.add(entry.object);
+					break;
+				}
+			}
+			return true;
+		}
+	}
+
+	@Override
+	public synchronized List<RayTestResult<T>> rayTest(Vector start, Vector goal) {
+		double[] origin = { start.getX(), start.getY(), start.getZ() };
+		double[] direction = { goal.getX() - start.getX(), goal.getY() - start.getY(), goal.getZ() - start.getZ() };
+		double length = Math.sqrt(direction[0] * direction[0] + direction[1] * direction[1]
+				+ direction[2] * direction[2]);
+		List<RayTestResult<T>> ret = new ArrayList<RayTestResult<T>>();
+		if (length == 0) {
+			return ret;
+		}
+		for (int i = 0; i < 3; i++) {
+			direction[i] /= length;
+		}
+
+		rayCast(staticTree, origin, direction, length, ret);
+		rayCast(kinematicTree, origin, direction, length, ret);
+		ret.sort((r1, r2) -> Double.compare(r1.getDistance(), r2.getDistance()));
+		return ret;
+	}
+
+	private void rayCast(AabbTree<Entry<T>> tree, double[] origin, double[] direction, double length,
+			List<RayTestResult<T>> results) {
+		tree.rayCast(origin, direction, length, proxy -> {
+			Entry<T> entry = tree.get(proxy);
+			RayTestResult<T> best = null;
+			for (ConvexShape shape : entry.shapes) {
+				RayTestResult<T> result = rayTest(entry.object, shape, origin, direction, length);
+				if (result != null && (best == null || result.getDistance() < best.getDistance())) {
+					best = result;
+				}
+			}
+			if (best != null) {
+				results.add(best);
+			}
+			return true;
+		});
+	}
+
+	/**
+	 * Casts a ray against a single shape using conservative advancement.
+	 */
+	private RayTestResult<T> rayTest(T object, ConvexShape shape, double[] origin, double[] direction,
+			double length) {
+		double t = 0;
+		for (int iteration = 0; iteration < RAY_ITERATIONS && t <= length; iteration++) {
+			rayPoint.moveTo(origin[0] + t * direction[0], origin[1] + t * direction[1], origin[2] + t * direction[2]);
+			double distance = gjk.distance(rayPoint, shape);
+			if (distance <= RAY_TOLERANCE) {
+				double[] n = gjk.getNormal();
+				Vector normal = distance > 0 || t > 0 ? new Vector(-n[0], -n[1], -n[2])
+						: new Vector(-direction[0], -direction[1], -direction[2]);
+				if (normal.getLength() == 0) {
+					normal = new Vector(-direction[0], -direction[1], -direction[2]);
+				}
+				return new RayTestResult<T>(object, t, normal,
+						new Vector(origin[0] + t * direction[0], origin[1] + t * direction[1],
+								origin[2] + t * direction[2]));
+			}
+			t += distance;
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,293 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.collision.bvh;
+
+import org.roboticsapi.core.world.Transformation;
+import org.roboticsapi.core.world.Vector;
+import org.roboticsapi.facet.collision.shapes.BoxShape;
+import org.roboticsapi.facet.collision.shapes.CapsuleShape;
+import org.roboticsapi.facet.collision.shapes.CylinderShape;
+import org.roboticsapi.facet.collision.shapes.Shape;
+import org.roboticsapi.facet.collision.shapes.SphereShape;
+
+/**
+ * A {@link Shape} placed in the world, described by the support function of its
+ * convex core and a margin (radius) around the core. Spheres and capsules are
+ * represented by a point or segment core, boxes and cylinders by their exact
+ * volume. Other shapes use the convex hull of their vertices.
+ *
+ * Transformations are stored as <code>double[12]</code> arrays containing the
+ * row-major rotation matrix followed by the translation.
+ */
+final class ConvexShape {
+
+	private static final int POINT = 0, BOX = 1, SEGMENT = 2, CYLINDER = 3, HULL = 4;
+
+	private final Shape shape;
+	private final int kind;
+	private final double margin;
+	private final double[] extents = new double[3];
+	private final double[] hull;
+
+	private final double[] local;
+	private final double[] world = new double[12];
+	private final double[] box = new double[6];
+
+	private final double[] tmp = new double[3];
+
+	ConvexShape(Shape shape) {
+		this.shape = shape;
+		if (shape instanceof BoxShape) {
+			Vector halfExtents = ((BoxShape) shape).getBoxHalfExtents();
+			kind = BOX;
+			margin = 0;
+			extents[0] = halfExtents.getX();
+			extents[1] = halfExtents.getY();
+			extents[2] = halfExtents.getZ();
+			hull = null;
+			local = toArray(shape.getLocalTransformation());
+		} else if (shape instanceof SphereShape) {
+			kind = POINT;
+			margin = shape.getRadius();
+			hull = null;
+			local = toArray(shape.getLocalTransformation());
+		} else if (shape instanceof CapsuleShape) {
+			kind = SEGMENT;
+			margin = shape.getRadius();
+			extents[2] = ((CapsuleShape) shape).getHeight() / 2;
+			hull = null;
+			local = toArray(shape.getLocalTransformation());
+		} else if (shape instanceof CylinderShape) {
+			kind = CYLINDER;
+			margin = 0;
+			extents[0] = ((CylinderShape) shape).getRadius();
+			extents[2] = ((CylinderShape) shape).getzHalfExtent();
+			hull = null;
+			local = toArray(shape.getLocalTransformation());
+		} else {
+			// vertices already contain the local transformation
+			Vector[] vertices = shape.getVertices();
+			kind = HULL;
+			margin = shape.getRadius();
+			hull = new double[3 * vertices.length];
+			for (int i = 0; i < vertices.length; i++) {
+				hull[3 * i] = vertices[i].getX();
+				hull[3 * i + 1] = vertices[i].getY();
+				hull[3 * i + 2] = vertices[i].getZ();
+			}
+			local = toArray(Transformation.IDENTITY);
+		}
+		place(toArray(Transformation.IDENTITY));
+	}
+
+	private ConvexShape(double margin) {
+		this.shape = null;
+		this.kind = POINT;
+		this.margin = margin;
+		this.hull = null;
+		this.local = toArray(Transformation.IDENTITY);
+		place(local);
+	}
+
+	/**
+	 * Creates a point (or sphere around a point), e.g. for ray tests.
+	 *
+	 * @param margin radius around the point
+	 * @return the point shape, located at the origin until placed otherwise
+	 */
+	static ConvexShape point(double margin) {
+		return new ConvexShape(margin);
+	}
+
+	Shape getShape() {
+		return shape;
+	}
+
+	double getMargin() {
+		return margin;
+	}
+
+	/**
+	 * Retrieves the bounding box of the placed shape (including the margin).
+	 *
+	 * @return the box, which must not be modified
+	 */
+	double[] getBox() {
+		return box;
+	}
+
+	/**
+	 * Retrieves the world position of the shape's origin.
+	 *
+	 * @param out array receiving the position
+	 */
+	void getCenter(double[] out) {
+		out[0] = world[9];
+		out[1] = world[10];
+		out[2] = world[11];
+	}
+
+	/**
+	 * Places the shape relative to a given object transformation.
+	 *
+	 * @param object transformation of the object the shape belongs to
+	 */
+	void place(double[] object) {
+		multiply(object, local, world);
+		updateBox();
+	}
+
+	/**
+	 * Moves a point shape to the given position.
+	 *
+	 * @param x x coordinate
+	 * @param y y coordinate
+	 * @param z z coordinate
+	 */
+	void moveTo(double x, double y, double z) {
+		world[9] = x;
+		world[10] = y;
+		world[11] = z;
+		updateBox();
+	}
+
+	private void updateBox() {
+		double[] r = world;
+		for (int i = 0; i < 3; i++) {
+			double c = r[9 + i], e;
+			switch (kind) {
+			case BOX:
+				e = Math.abs(r[3 * i]) * extents[0] + Math.abs(r[3 * i + 1]) * extents[1]
+						+ Math.abs(r[3 * i + 2]) * extents[2];
+				break;
+			case SEGMENT:
+				e = Math.abs(r[3 * i + 2]) * extents[2];
+				break;
+			case CYLINDER:
+				double axis = r[3 * i + 2];
+				e = Math.abs(axis) * extents[2] + extents[0] * Math.sqrt(Math.max(0, 1 - axis * axis));
+				break;
+			case HULL:
+				double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+				for (int v = 0; v < hull.length; v += 3) {
+					double p = r[3 * i] * hull[v] + r[3 * i + 1] * hull[v + 1] + r[3 * i + 2] * hull[v + 2];
+					min = Math.min(min, p);
+					max = Math.max(max, p);
+				}
+				if (hull.length == 0) {
+					min = max = 0;
+				}
+				c += (min + max) / 2;
+				e = (max - min) / 2;
+				break;
+			default:
+				e = 0;
+			}
+			box[i] = c - e - margin;
+			box[3 + i] = c + e + margin;
+		}
+	}
+
+	/**
+	 * Computes the point of the core of the shape that is furthest in the given
+	 * direction.
+	 *
+	 * @param dx  x component of the direction
+	 * @param dy  y component of the direction
+	 * @param dz  z component of the direction
+	 * @param out array receiving the support point in world coordinates
+	 */
+	void support(double dx, double dy, double dz, double[] out) {
+		double[] r = world;
+		// direction in shape coordinates
+		double lx = r[0] * dx + r[3] * dy + r[6] * dz;
+		double ly = r[1] * dx + r[4] * dy + r[7] * dz;
+		double lz = r[2] * dx + r[5] * dy + r[8] * dz;
+		double[] p = tmp;
+
+		switch (kind) {
+		case BOX:
+			p[0] = lx >= 0 ? extents[0] : -extents[0];
+			p[1] = ly >= 0 ? extents[1] : -extents[1];
+			p[2] = lz >= 0 ? extents[2] : -extents[2];
+			break;
+		case SEGMENT:
+			p[0] = 0;
+			p[1] = 0;
+			p[2] = lz >= 0 ? extents[2] : -extents[2];
+			break;
+		case CYLINDER:
+			double radial = Math.sqrt(lx * lx + ly * ly);
+			if (radial > 1e-12) {
+				p[0] = extents[0] * lx / radial;
+				p[1] = extents[0] * ly / radial;
+			} else {
+				p[0] = 0;
+				p[1] = 0;
+			}
+			p[2] = lz >= 0 ? extents[2] : -extents[2];
+			break;
+		case HULL:
+			double best = Double.NEGATIVE_INFINITY;
+			p[0] = p[1] = p[2] = 0;
+			for (int v = 0; v < hull.length; v += 3) {
+				double dot = lx * hull[v] + ly * hull[v + 1] + lz * hull[v + 2];
+				if (dot > best) {
+					best = dot;
+					p[0] = hull[v];
+					p[1] = hull[v + 1];
+					p[2] = hull[v + 2];
+				}
+			}
+			break;
+		default:
+			p[0] = p[1] = p[2] = 0;
+		}
+
+		out[0] = r[0] * p[0] + r[1] * p[1] + r[2] * p[2] + r[9];
+		out[1] = r[3] * p[0] + r[4] * p[1] + r[5] * p[2] + r[10];
+		out[2] = r[6] * p[0] + r[7] * p[1] + r[8] * p[2] + r[11];
+	}
+
+	static double[] toArray(Transformation transformation) {
+		double[] ret = new double[12];
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				ret[3 * i + j] = transformation.getRotation().get(i, j);
+			}
+		}
+		Vector translation = transformation.getTranslation();
+		ret[9] = translation.getX();
+		ret[10] = translation.getY();
+		ret[11] = translation.getZ();
+		return ret;
+	}
+
+	static void multiply(double[] a, double[] b, double[] out) {
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				out[3 * i + j] = a[3 * i] * b[j] + a[3 * i + 1] * b[3 + j] + a[3 * i + 2] * b[6 + j];
+			}
+			out[9 + i] = a[3 * i] * b[9] + a[3 * i + 1] * b[10] + a[3 * i + 2] * b[11] + a[9 + i];
+		}
+	}
+
+	/**
+	 * Transforms a world point into the coordinates of the given transformation.
+	 *
+	 * @param t transformation
+	 * @param p point in world coordinates
+	 * @return point relative to the transformation
+	 */
+	static Vector toLocal(double[] t, double[] p) {
+		double x = p[0] - t[9], y = p[1] - t[10], z = p[2] - t[11];
+		return new Vector(t[0] * x + t[3] * y + t[6] * z, t[1] * x + t[4] * y + t[7] * z,
+				t[2] * x + t[5] * y + t[8] * z);
+	}
+
+}
@@ -0,0 +1,331 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.collision.bvh;
+
+/**
+ * Distance computation between two {@link ConvexShape}s using the
+ * Gilbert-Johnson-Keerthi algorithm on the cores of the shapes. The margins of
+ * the shapes are accounted for afterwards, so that spheres and capsules are
+ * handled exactly.
+ *
+ * Instances keep their working memory between calls and must not be used by
+ * multiple threads concurrently.
+ */
+final class Gjk {
+
+	private static final int MAX_ITERATIONS = 64;
+	private static final double EPSILON = 1e-10;
+
+	// simplex vertices (Minkowski difference and support points of both shapes)
+	private final double[][] w = new double[4][3];
+	private final double[][] a = new double[4][3];
+	private final double[][] b = new double[4][3];
+	private final double[] lambda = new double[4];
+	private final double[] faceLambda = new double[4];
+	private int count;
+
+	private final double[] v = new double[3];
+	private final double[] sa = new double[3];
+	private final double[] sb = new double[3];
+
+	private final double[] pointA = new double[3];
+	private final double[] pointB = new double[3];
+	private final double[] normal = new double[3];
+
+	/**
+	 * Computes the distance between two shapes.
+	 *
+	 * @param shapeA first shape
+	 * @param shapeB second shape
+	 * @return the distance between the surfaces of both shapes, or a value less
+	 *         or equal to zero if the shapes overlap
+	 */
+	double distance(ConvexShape shapeA, ConvexShape shapeB) {
+		shapeA.getCenter(sa);
+		shapeB.getCenter(sb);
+		v[0] = sa[0] - sb[0];
+		v[1] = sa[1] - sb[1];
+		v[2] = sa[2] - sb[2];
+		if (dot(v, v) < EPSILON) {
+			v[0] = 1;
+			v[1] = v[2] = 0;
+		}
+		count = 0;
+
+		boolean overlap = false;
+		for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+			shapeA.support(-v[0], -v[1], -v[2], sa);
+			shapeB.support(v[0], v[1], v[2], sb);
+			double wx = sa[0] - sb[0], wy = sa[1] - sb[1], wz = sa[2] - sb[2];
+
+			double vv = dot(v, v);
+			double vw = v[0] * wx + v[1] * wy + v[2] * wz;
+			if (count > 0 && vv - vw <= EPSILON * vv) {
+				break;
+			}
+			if (contains(wx, wy, wz)) {
+				break;
+			}
+
+			set(w[count], wx, wy, wz);
+			set(a[count], sa[0], sa[1], sa[2]);
+			set(b[count], sb[0], sb[1], sb[2]);
+			count++;
+
+			if (!reduce()) {
+				overlap = true;
+				break;
+			}
+			if (dot(v, v) <= EPSILON * EPSILON) {
+				overlap = true;
+				break;
+			}
+		}
+
+		// witness points on the cores
+		pointA[0] = pointA[1] = pointA[2] = 0;
+		pointB[0] = pointB[1] = pointB[2] = 0;
+		for (int i = 0; i < count; i++) {
+			for (int j = 0; j < 3; j++) {
+				pointA[j] += lambda[i] * a[i][j];
+				pointB[j] += lambda[i] * b[i][j];
+			}
+		}
+
+		double margin = shapeA.getMargin() + shapeB.getMargin();
+		if (overlap) {
+			normal[0] = normal[1] = normal[2] = 0;
+			return -margin;
+		}
+
+		double dist = Math.sqrt(dot(v, v));
+		// v points from B to A, so the normal pointing from A to B is -v
+		for (int j = 0; j < 3; j++) {
+			normal[j] = -v[j] / dist;
+			pointA[j] += normal[j] * shapeA.getMargin();
+			pointB[j] -= normal[j] * shapeB.getMargin();
+		}
+		return dist - margin;
+	}
+
+	/**
+	 * Retrieves the closest point on the first shape of the last distance query.
+	 * For overlapping shapes, this is a point inside both shapes.
+	 *
+	 * @return the point, which must not be modified
+	 */
+	double[] getPointA() {
+		return pointA;
+	}
+
+	/**
+	 * Retrieves the closest point on the second shape of the last distance query.
+	 *
+	 * @return the point, which must not be modified
+	 */
+	double[] getPointB() {
+		return pointB;
+	}
+
+	/**
+	 * Retrieves the direction from the first to the second shape of the last
+	 * distance query.
+	 *
+	 * @return the unit direction, or a zero vector for overlapping shapes
+	 */
+	double[] getNormal() {
+		return normal;
+	}
+
+	private boolean contains(double x, double y, double z) {
+		for (int i = 0; i < count; i++) {
+			double dx = w[i][0] - x, dy = w[i][1] - y, dz = w[i][2] - z;
+			if (dx * dx + dy * dy + dz * dz < EPSILON * EPSILON) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Computes the point of the current simplex closest to the origin, removes
+	 * all vertices not needed to describe that point and updates v.
+	 *
+	 * @return false if the origin lies inside the simplex
+	 */
+	private boolean reduce() {
+		switch (count) {
+		case 1:
+			lambda[0] = 1;
+			break;
+		case 2:
+			closestOnSegment(0, 1, lambda);
+			break;
+		case 3:
+			closestOnTriangle(0, 1, 2, lambda);
+			break;
+		default:
+			if (!closestOnTetrahedron()) {
+				return false;
+			}
+		}
+
+		// compact the simplex
+		int n = 0;
+		for (int i = 0; i < count; i++) {
+			if (lambda[i] > 0) {
+				if (i != n) {
+					System.arraycopy(w[i], 0, w[n], 0, 3);
+					System.arraycopy(a[i], 0, a[n], 0, 3);
+					System.arraycopy(b[i], 0, b[n], 0, 3);
+					lambda[n] = lambda[i];
+				}
+				n++;
+			}
+		}
+		count = n;
+
+		v[0] = v[1] = v[2] = 0;
+		for (int i = 0; i < count; i++) {
+			v[0] += lambda[i] * w[i][0];
+			v[1] += lambda[i] * w[i][1];
+			v[2] += lambda[i] * w[i][2];
+		}
+		return true;
+	}
+
+	private double closestOnSegment(int i, int j, double[] out) {
+		double[] p = w[i], q = w[j];
+		double dx = q[0] - p[0], dy = q[1] - p[1], dz = q[2] - p[2];
+		double len = dx * dx + dy * dy + dz * dz;
+		double t = len < EPSILON * EPSILON ? 0 : -(p[0] * dx + p[1] * dy + p[2] * dz) / len;
+		t = Math.max(0, Math.min(1, t));
+		clear(out);
+		out[i] = 1 - t;
+		out[j] = t;
+		double x = p[0] + t * dx, y = p[1] + t * dy, z = p[2] + t * dz;
+		return x * x + y * y + z * z;
+	}
+
+	private double closestOnTriangle(int i, int j, int k, double[] out) {
+		double[] pa = w[i], pb = w[j], pc = w[k];
+		double abx = pb[0] - pa[0], aby = pb[1] - pa[1], abz = pb[2] - pa[2];
+		double acx = pc[0] - pa[0], acy = pc[1] - pa[1], acz = pc[2] - pa[2];
+		clear(out);
+
+		double d1 = -(abx * pa[0] + aby * pa[1] + abz * pa[2]);
+		double d2 = -(acx * pa[0] + acy * pa[1] + acz * pa[2]);
+		if (d1 <= 0 && d2 <= 0) {
+			out[i] = 1;
+			return dot(pa, pa);
+		}
+
+		double d3 = -(abx * pb[0] + aby * pb[1] + abz * pb[2]);
+		double d4 = -(acx * pb[0] + acy * pb[1] + acz * pb[2]);
+		if (d3 >= 0 && d4 <= d3) {
+			out[j] = 1;
+			return dot(pb, pb);
+		}
+
+		double vc = d1 * d4 - d3 * d2;
+		if (vc <= 0 && d1 >= 0 && d3 <= 0) {
+			return closestOnSegment(i, j, out);
+		}
+
+		double d5 = -(abx * pc[0] + aby * pc[1] + abz * pc[2]);
+		double d6 = -(acx * pc[0] + acy * pc[1] + acz * pc[2]);
+		if (d6 >= 0 && d5 <= d6) {
+			out[k] = 1;
+			return dot(pc, pc);
+		}
+
+		double vb = d5 * d2 - d1 * d6;
+		if (vb <= 0 && d2 >= 0 && d6 <= 0) {
+			return closestOnSegment(i, k, out);
+		}
+
+		double va = d3 * d6 - d5 * d4;
+		if (va <= 0 && d4 - d3 >= 0 && d5 - d6 >= 0) {
+			return closestOnSegment(j, k, out);
+		}
+
+		double sum = va + vb + vc;
+		if (Math.abs(sum) < EPSILON * EPSILON) {
+			// degenerate triangle
+			return closestOnSegment(i, j, out);
+		}
+		double lb = vb / sum, lc = vc / sum;
+		out[i] = 1 - lb - lc;
+		out[j] = lb;
+		out[k] = lc;
+		double x = pa[0] + lb * abx + lc * acx, y = pa[1] + lb * aby + lc * acy, z = pa[2] + lb * abz + lc * acz;
+		return x * x + y * y + z * z;
+	}
+
+	private boolean closestOnTetrahedron() {
+		int[][] faces = FACES;
+		double best = Double.POSITIVE_INFINITY;
+		boolean outside = false;
+		double volume = signedVolume(0, 1, 2, 3);
+		boolean degenerate = Math.abs(volume) < EPSILON * EPSILON;
+
+		for (int[] f : faces) {
+			// origin on the other side of the face than the remaining vertex?
+			if (!degenerate && signedVolume(f[0], f[1], f[2], -1) * signedVolume(f[0], f[1], f[2], f[3]) >= 0) {
+				continue;
+			}
+			outside = true;
+			double d = closestOnTriangle(f[0], f[1], f[2], faceLambda);
+			if (d < best) {
+				best = d;
+				System.arraycopy(faceLambda, 0, lambda, 0, 4);
+			}
+		}
+		if (!outside) {
+			// barycentric coordinates of the origin, used for the witness points
+			for (int[] f : faces) {
+				lambda[f[3]] = signedVolume(f[0], f[1], f[2], -1) / signedVolume(f[0], f[1], f[2], f[3]);
+			}
+		}
+		return outside;
+	}
+
+	private static final int[][] FACES = { { 0, 1, 2, 3 }, { 0, 1, 3, 2 }, { 0, 2, 3, 1 }, { 1, 2, 3, 0 } };
+
+	private double signedVolume(int i, int j, int k, int l) {
+		double[] p = w[i];
+		double ux = w[j][0] - p[0], uy = w[j][1] - p[1], uz = w[j][2] - p[2];
+		double vx = w[k][0] - p[0], vy = w[k][1] - p[1], vz = w[k][2] - p[2];
+		double tx, ty, tz;
+		if (l < 0) {
+			tx = -p[0];
+			ty = -p[1];
+			tz = -p[2];
+		} else {
+			tx = w[l][0] - p[0];
+			ty = w[l][1] - p[1];
+			tz = w[l][2] - p[2];
+		}
+		return tx * (uy * vz - uz * vy) + ty * (uz * vx - ux * vz) + tz * (ux * vy - uy * vx);
+	}
+
+	private static void clear(double[] out) {
+		out[0] = out[1] = out[2] = out[3] = 0;
+	}
+
+	private static void set(double[] out, double x, double y, double z) {
+		out[0] = x;
+		out[1] = y;
+		out[2] = z;
+	}
+
+	private static double dot(double[] p, double[] q) {
+		return p[0] * q[0] + p[1] * q[1] + p[2] * q[2];
+	}
+
+}
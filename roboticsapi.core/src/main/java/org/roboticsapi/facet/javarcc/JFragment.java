@@ -15,6 +15,7 @@ import java.util.Set;
 
 import org.roboticsapi.facet.javarcc.JNet.JNetcommListener;
 import org.roboticsapi.facet.javarcc.devices.JDevice;
+import org.roboticsapi.facet.runtime.rpi.Type;
 import org.roboticsapi.facet.runtime.rpi.core.types.RPIbool;
 
 public class JFragment extends JPrimitive {
@@ -111,14 +112,6 @@ public class JFragment extends JPrimitive {
 		}
 	}
 
-	@Override
-	public void recordDebugValues(Map<JInPort<?>, String[]> debug) {
-		super.recordDebugValues(debug);
-		for (JPrimitive child : children) {
-			child.recordDebugValues(debug);
-		}
-	}
-
 	@Override
 	public void checkParameters() throws IllegalArgumentException {
 		for (JPrimitive child : children)
@@ -140,7 +133,7 @@ public class JFragment extends JPrimitive {
 	}
 
 	@Override
-	protected void addValuesToReport(Map<JNetcommListener, String> map) {
+	protected void addValuesToReport(Map<JNetcommListener, Type> map) {
 		super.addValuesToReport(map);
 		for (JPrimitive child : children)
 			child.addValuesToReport(map);
@@ -21,6 +21,14 @@ public class JFragmentInPort<T> extends JInPort<T> {
 			else
 				return getSource().getWriteCycle();
 		}
+
+		@Override
+		protected JOutPort<T> resolve() {
+			if (getSource() == null)
+				return null;
+			else
+				return getSource().resolve();
+		}
 	};
 
 	protected void setPrimitive(String name, JPrimitive primitive) {
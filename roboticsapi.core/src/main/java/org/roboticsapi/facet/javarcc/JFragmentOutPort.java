@@ -32,6 +32,13 @@ public class JFragmentOutPort<T> extends JOutPort<T> {
 		return -1;
 	}
 
+	@Override
+	protected JOutPort<T> resolve() {
+		if (innerPort.getSource() != null)
+			return innerPort.getSource().resolve();
+		return null;
+	}
+
 	@Override
 	public void set(T value) {
 		throw new IllegalArgumentException("FragmentOutPorts cannot be written.");
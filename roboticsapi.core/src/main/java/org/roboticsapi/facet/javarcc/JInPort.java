@@ -11,6 +11,8 @@ public class JInPort<T> {
 	private JOutPort<T> source;
 	private JPrimitive primitive;
 	protected String name;
+	private JNetPlan plan = null;
+	private int slot = -1;
 
 	@Override
 	public String toString() {
@@ -18,6 +20,8 @@ public class JInPort<T> {
 	}
 
 	public T get() {
+		if (plan != null)
+			return plan.read(slot);
 		if (getSource() == null)
 			return null;
 		if (getCurrentCycle() == getSource().getWriteCycle())
@@ -40,6 +44,13 @@ public class JInPort<T> {
 
 	public void connectTo(JOutPort<T> source) {
 		this.source = source;
+		this.plan = null;
+		this.slot = -1;
+	}
+
+	void bind(JNetPlan plan, int slot) {
+		this.plan = plan;
+		this.slot = slot;
 	}
 
 	public JPrimitive getPrimitive() {
@@ -7,14 +7,18 @@
 
 package org.roboticsapi.facet.javarcc;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executor;
 
+import org.roboticsapi.core.util.RAPILogger;
 import org.roboticsapi.facet.javarcc.devices.DeviceRegistry;
 import org.roboticsapi.facet.javarcc.devices.JDevice;
+import org.roboticsapi.facet.javarcc.telemetry.TelemetryRecorder;
 import org.roboticsapi.facet.runtime.rpi.Type;
 import org.roboticsapi.facet.runtime.rpi.core.types.RPIbool;
 
@@ -26,6 +30,16 @@ public class JNet {
 	public interface JNetcommListener {
 		void valueChanged(String value);
 
+		/**
+		 * Notifies about a changed value without converting it to a string. The
+		 * given value is a snapshot and is not modified by the net afterwards.
+		 *
+		 * @param value new value
+		 */
+		default void valueChanged(Type value) {
+			valueChanged(value.toString());
+		}
+
 		void updatePerformed();
 	}
 
@@ -33,6 +47,7 @@ public class JNet {
 	private JNetListener listener = null;
 	private Map<String, JNetcommData<?>> netcomm = new HashMap<>();
 	private JFragment root;
+	private JNetPlan plan = null;
 	private String description;
 	private double cycleTime = 0.025;
 
@@ -41,18 +56,19 @@ public class JNet {
 	private boolean killed = false;
 	private int cycle = 0;
 	private long time = -1;
+	private long startTime = -1;
 	private String name;
 	private Executor executor;
-	private Map<JInPort<?>, String[]> debug;
+	private TelemetryRecorder telemetry = null;
+	private volatile List<JDevice> sensors = null;
+	private volatile List<JDevice> actuators = null;
 
-	public JNet(String name, String description, JFragment root, DeviceRegistry devices, Executor netcommExecutor,
-			Map<JInPort<?>, String[]> debug) {
+	public JNet(String name, String description, JFragment root, DeviceRegistry devices, Executor netcommExecutor) {
 		this.name = name;
 		this.description = description;
 		this.root = root;
 		this.devices = devices;
 		this.executor = netcommExecutor;
-		this.debug = debug;
 		root.setNet(this);
 	}
 
@@ -73,27 +89,90 @@ public class JNet {
 		return cycle;
 	}
 
+	/**
+	 * Compiles the net into a flat evaluation plan that is used for all further
+	 * cycles.
+	 */
+	public void compile() {
+		if (root != null)
+			plan = JNetPlan.compile(root);
+	}
+
+	public JNetPlan getPlan() {
+		return plan;
+	}
+
 	public double getCycleTime() {
 		return cycleTime;
 	}
 
+	/**
+	 * Sets the recorder for the values of debugged ports, which is called after
+	 * each cycle and closed when the net is unloaded.
+	 *
+	 * @param telemetry recorder for debugged ports
+	 */
+	public void setTelemetry(TelemetryRecorder telemetry) {
+		this.telemetry = telemetry;
+	}
+
+	public TelemetryRecorder getTelemetry() {
+		return telemetry;
+	}
+
 	public void readSensor() {
-		root.readSensor();
+		if (plan != null)
+			plan.readSensor();
+		else
+			root.readSensor();
+	}
+
+	/**
+	 * Accounts for cycles the executor has skipped due to an overrun, so the
+	 * time of the net keeps up with the wall clock. Nets that have not started
+	 * yet are not affected.
+	 *
+	 * @param count number of skipped cycles
+	 */
+	public void skipCycles(int count) {
+		if (cycle > 0)
+			cycle += count;
+	}
+
+	/**
+	 * Prepares evaluating the net again from its first cycle, reporting all
+	 * netcomm values again. The state of the primitives is kept, as between two
+	 * cycles.
+	 */
+	public void restart() {
+		cycle = 0;
+		lastReport.clear();
+		lastReportTime = 0;
 	}
 
 	public void updateData() {
 		if (cycle == 0) {
-			time = System.currentTimeMillis();
+			startTime = time = System.currentTimeMillis();
 		} else {
-			time += getCycleTime() * 1000;
+			time = startTime + Math.round(cycle * getCycleTime() * 1000);
 		}
+		long nanoTime = startTime * 1000000 + Math.round(cycle * getCycleTime() * 1e9);
 		cycle++;
-		root.updateData();
-		root.recordDebugValues(debug);
+		if (plan != null) {
+			plan.setCycle(cycle);
+			plan.updateData();
+		} else {
+			root.updateData();
+		}
+		if (telemetry != null)
+			telemetry.record(nanoTime);
 	}
 
 	public void writeActuator() {
-		root.writeActuator();
+		if (plan != null)
+			plan.writeActuator();
+		else
+			root.writeActuator();
 		if (root.getOutPort("outTerminate") != null && root.getOutPort("outTerminate").get() != null
 				&& ((RPIbool) root.getOutPort("outTerminate").get()).get()) {
 			completed = true;
@@ -101,7 +180,7 @@ public class JNet {
 		}
 	}
 
-	private Map<JNetcommListener, String> lastReport = new HashMap<>();
+	private Map<JNetcommListener, Type> lastReport = new HashMap<>();
 	private long lastReportTime = 0;
 	private final int MIN_REPORT_DELAY = 20;
 
@@ -112,13 +191,13 @@ public class JNet {
 		if (root == null)
 			return;
 
-		Map<JNetcommListener, String> valuesToReport = new HashMap<>();
-		Map<JNetcommListener, String> update = new HashMap<>();
+		Map<JNetcommListener, Type> valuesToReport = new HashMap<>();
+		Map<JNetcommListener, Type> update = new HashMap<>();
 		List<JNetcommListener> listeners = new ArrayList<>();
 		root.addValuesToReport(valuesToReport);
 		root.addListenersToReport(listeners);
-		for (Map.Entry<JNetcommListener, String> entry : valuesToReport.entrySet()) {
-			if (!lastReport.containsKey(entry.getKey()) || !lastReport.get(entry.getKey()).equals(entry.getValue())) {
+		for (Map.Entry<JNetcommListener, Type> entry : valuesToReport.entrySet()) {
+			if (!lastReport.containsKey(entry.getKey()) || !lastReport.get(entry.getKey()).isEqual(entry.getValue())) {
 				update.put(entry.getKey(), entry.getValue());
 			}
 		}
@@ -126,13 +205,13 @@ public class JNet {
 		if (update.isEmpty())
 			return;
 
-		for (Map.Entry<JNetcommListener, String> entry : update.entrySet()) {
+		for (Map.Entry<JNetcommListener, Type> entry : update.entrySet()) {
 			lastReport.put(entry.getKey(), entry.getValue());
 		}
 		lastReportTime = System.currentTimeMillis();
 
 		executor.execute(() -> {
-			for (Map.Entry<JNetcommListener, String> entry : update.entrySet()) {
+			for (Map.Entry<JNetcommListener, Type> entry : update.entrySet()) {
 				entry.getKey().valueChanged(entry.getValue());
 			}
 			for (JNetcommListener listener : listeners) {
@@ -202,24 +281,66 @@ public class JNet {
 		return cycle > 0;
 	}
 
+	/**
+	 * Retrieves the devices read by the net. They are collected once, after the
+	 * parameters of the net have been checked.
+	 *
+	 * @return devices read by the net
+	 */
+	public List<JDevice> getSensors() {
+		collectDevices();
+		return sensors;
+	}
+
+	/**
+	 * Retrieves the devices controlled by the net. They are collected once, after
+	 * the parameters of the net have been checked.
+	 *
+	 * @return devices controlled by the net
+	 */
+	public List<JDevice> getActuators() {
+		collectDevices();
+		return actuators;
+	}
+
+	/**
+	 * Collects the devices read and controlled by the net, if not done yet.
+	 */
+	void collectDevices() {
+		if (actuators == null) {
+			JFragment root = this.root;
+			if (root == null) {
+				sensors = Collections.emptyList();
+				actuators = Collections.emptyList();
+			} else {
+				sensors = Collections.unmodifiableList(new ArrayList<>(root.getSensors()));
+				actuators = Collections.unmodifiableList(new ArrayList<>(root.getActuators()));
+			}
+		}
+	}
+
 	public void lockSensors() {
-		for (JDevice d : root.getSensors())
-			d.lock();
+		List<JDevice> sensors = getSensors();
+		for (int i = 0; i < sensors.size(); i++)
+			sensors.get(i).lock();
 	}
 
 	public void unlockSensors() {
-		for (JDevice d : root.getSensors())
-			d.unlock();
+		List<JDevice> sensors = getSensors();
+		for (int i = 0; i < sensors.size(); i++)
+			sensors.get(i).unlock();
 	}
 
 	public void lockActuators() {
-		for (JDevice d : root.getActuators())
-			d.lock();
+		List<JDevice> actuators = getActuators();
+		for (int i = 0; i < actuators.size(); i++)
+			actuators.get(i).lock();
 	}
 
 	public void unlockActuators() {
-		for (JDevice d : root.getActuators())
-			d.unlock();
+		List<JDevice> actuators = getActuators();
+		for (int i = 0; i < actuators.size(); i++)
+			actuators.get(i).unlock();
 	}
 
 	public <T extends JDevice> T getDevice(String type, Class<T> clazz) {
@@ -231,8 +352,16 @@ public class JNet {
 	}
 
 	public void unload() {
+		if (telemetry != null) {
+			try {
+				telemetry.close();
+			} catch (IOException e) {
+				RAPILogger.logException(this, e);
+			}
+		}
 		if (root != null)
 			root.cleanup();
 		root = null;
+		plan = null;
 	}
 }
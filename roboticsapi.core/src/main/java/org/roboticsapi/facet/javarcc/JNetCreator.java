@@ -7,15 +7,22 @@
 
 package org.roboticsapi.facet.javarcc;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.concurrent.Executor;
+import java.util.function.DoubleSupplier;
 
+import org.roboticsapi.core.util.RAPILogger;
 import org.roboticsapi.facet.javarcc.devices.DeviceRegistry;
 import org.roboticsapi.facet.javarcc.primitives.generic.JGenericInterNetcommIn;
 import org.roboticsapi.facet.javarcc.primitives.generic.JGenericInterNetcommOut;
 import org.roboticsapi.facet.javarcc.primitives.generic.JGenericNetcommIn;
 import org.roboticsapi.facet.javarcc.primitives.generic.JGenericNetcommOut;
+import org.roboticsapi.facet.javarcc.telemetry.TelemetryRecorder;
 import org.roboticsapi.facet.runtime.rpi.Fragment;
 import org.roboticsapi.facet.runtime.rpi.FragmentOutPort;
 import org.roboticsapi.facet.runtime.rpi.InPort;
@@ -25,25 +32,85 @@ import org.roboticsapi.facet.runtime.rpi.OutPort;
 import org.roboticsapi.facet.runtime.rpi.Parameter;
 import org.roboticsapi.facet.runtime.rpi.Primitive;
 import org.roboticsapi.facet.runtime.rpi.Type;
+import org.roboticsapi.facet.runtime.rpi.core.types.RPIbool;
+import org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble;
+import org.roboticsapi.facet.runtime.rpi.core.types.RPIint;
 
 public class JNetCreator {
 	private static Map<String, Class<? extends JPrimitive>> primitives = new HashMap<String, Class<? extends JPrimitive>>();
+	private boolean compile = true;
 
 	public void reg(String name, Class<? extends JPrimitive> primitive) {
 		primitives.put(name, primitive);
 	}
 
+	/**
+	 * Configures whether created nets are compiled into a flat evaluation plan
+	 * (see {@link JNetPlan}) or executed by walking the fragment hierarchy.
+	 *
+	 * @param compile true to compile created nets (default)
+	 */
+	public void setCompile(boolean compile) {
+		this.compile = compile;
+	}
+
 	public JNet createNet(String name, String description, Fragment fragment, DeviceRegistry devices,
 			Executor netcommExecutor, Map<String, JNet> previousNets) {
-		Map<JInPort<?>, String[]> debug = new HashMap<>();
+		Map<JInPort<?>, InPort> debug = new LinkedHashMap<>();
 		JFragment root = convert(fragment, previousNets, debug);
-		JNet ret = new JNet(name, description, root, devices, netcommExecutor, debug);
+		JNet ret = new JNet(name, description, root, devices, netcommExecutor);
+		if (!debug.isEmpty())
+			ret.setTelemetry(createTelemetry(name, ret.getCycleTime(), debug));
 		root.checkParameters();
+		ret.collectDevices();
+		if (compile)
+			ret.compile();
+		return ret;
+	}
+
+	/**
+	 * Creates a recorder for the values of all debugged ports, keeping them in
+	 * memory for the requested duration. If the system property
+	 * <code>org.roboticsapi.javarcc.telemetry</code> names a directory, all values
+	 * are also written to a telemetry file in this directory.
+	 */
+	private TelemetryRecorder createTelemetry(String name, double cycleTime, Map<JInPort<?>, InPort> debug) {
+		String[] names = new String[debug.size()];
+		DoubleSupplier[] sources = new DoubleSupplier[debug.size()];
+		double duration = 0;
+		int i = 0;
+		for (Entry<JInPort<?>, InPort> entry : debug.entrySet()) {
+			JInPort<?> port = entry.getKey();
+			names[i] = entry.getValue().getPrimitiveName() + "." + entry.getValue().getName();
+			sources[i++] = () -> toDouble(port.get());
+			duration = Math.max(duration, entry.getValue().getDebug());
+		}
+		TelemetryRecorder ret = new TelemetryRecorder(names, sources, (int) Math.ceil(duration / cycleTime));
+
+		String directory = System.getProperty("org.roboticsapi.javarcc.telemetry");
+		if (directory != null) {
+			try {
+				ret.spillTo(new File(directory,
+						name.replaceAll("[^A-Za-z0-9_.-]", "_") + "-" + System.currentTimeMillis() + ".rtlm"));
+			} catch (IOException e) {
+				RAPILogger.logException(this, e);
+			}
+		}
 		return ret;
 	}
 
+	private static double toDouble(Object value) {
+		if (value instanceof RPIdouble)
+			return ((RPIdouble) value).get();
+		if (value instanceof RPIint)
+			return ((RPIint) value).get();
+		if (value instanceof RPIbool)
+			return ((RPIbool) value).get() ? 1 : 0;
+		return Double.NaN;
+	}
+
 	@SuppressWarnings({ "unchecked", "rawtypes" })
-	private JFragment convert(Fragment fragment, Map<String, JNet> previousNets, Map<JInPort<?>, String[]> debug) {
+	private JFragment convert(Fragment fragment, Map<String, JNet> previousNets, Map<JInPort<?>, InPort> debug) {
 		JFragment ret = new JFragment();
 		Map<String, JPrimitive> primMap = new HashMap<String, JPrimitive>();
 		for (Primitive prim : fragment.getPrimitives()) {
@@ -138,7 +205,7 @@ public class JNetCreator {
 							inPort.connectTo(findPort(primMap, connectedPort));
 					}
 					if (port.getDebug() > 0) {
-						debug.put(inPort, new String[(int) (port.getDebug() * 40)]);
+						debug.put(inPort, port);
 					}
 				}
 			}
@@ -0,0 +1,203 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.javarcc;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.roboticsapi.facet.runtime.rpi.core.types.RPIbool;
+
+/**
+ * Compiled evaluation plan of a {@link JNet}. The nested fragments of the net
+ * are flattened into a linear array of primitive steps, where each fragment is
+ * replaced by a gate that skips the fragment's range while its
+ * <code>inActive</code> port is false. All out ports of the net are stored in a
+ * shared slot table, and each in port is bound to the slot of the out port it
+ * finally reads from, so that port accesses do not have to follow fragment
+ * ports or the owning net.
+ */
+public class JNetPlan {
+	private final JPrimitive[] steps;
+	private final JFragment[] gates;
+	private final int[] skip;
+	private final JPrimitive[] leaves;
+
+	private final Object[] values;
+	private final int[] writeCycles;
+	private int cycle = 0;
+
+	private JNetPlan(List<JPrimitive> steps, List<JFragment> gates, List<Integer> skip, List<JPrimitive> leaves,
+			int slots) {
+		this.steps = steps.toArray(new JPrimitive[steps.size()]);
+		this.gates = gates.toArray(new JFragment[gates.size()]);
+		this.skip = new int[skip.size()];
+		for (int i = 0; i < this.skip.length; i++)
+			this.skip[i] = skip.get(i);
+		this.leaves = leaves.toArray(new JPrimitive[leaves.size()]);
+		this.values = new Object[slots];
+		this.writeCycles = new int[slots];
+	}
+
+	/**
+	 * Compiles the given root fragment. The fragment must already be attached to
+	 * its net, so that its children are sorted.
+	 *
+	 * @param root root fragment of the net
+	 * @return the compiled plan, with all ports of the net bound to it
+	 */
+	public static JNetPlan compile(JFragment root) {
+		List<JPrimitive> steps = new ArrayList<>();
+		List<JFragment> gates = new ArrayList<>();
+		List<Integer> skip = new ArrayList<>();
+		List<JPrimitive> leaves = new ArrayList<>();
+		flatten(root, steps, gates, skip, leaves);
+
+		Map<JOutPort<?>, Integer> slots = new IdentityHashMap<>();
+		for (JPrimitive leaf : leaves)
+			for (JOutPort<?> port : leaf.outPorts.values())
+				slots.put(port, slots.size());
+
+		JNetPlan ret = new JNetPlan(steps, gates, skip, leaves, slots.size());
+		for (Map.Entry<JOutPort<?>, Integer> slot : slots.entrySet())
+			slot.getKey().bind(ret, slot.getValue());
+		bindInPorts(root, ret, slots);
+		return ret;
+	}
+
+	private static void flatten(JFragment fragment, List<JPrimitive> steps, List<JFragment> gates,
+			List<Integer> skip, List<JPrimitive> leaves) {
+		int gate = steps.size();
+		steps.add(null);
+		gates.add(fragment);
+		skip.add(-1);
+		for (JPrimitive child : fragment.sortedChildren) {
+			if (child instanceof JFragment) {
+				flatten((JFragment) child, steps, gates, skip, leaves);
+			} else {
+				steps.add(child);
+				gates.add(null);
+				skip.add(-1);
+				leaves.add(child);
+			}
+		}
+		skip.set(gate, steps.size());
+	}
+
+	private static void bindInPorts(JPrimitive primitive, JNetPlan plan, Map<JOutPort<?>, Integer> slots) {
+		for (JInPort<?> port : primitive.inPorts.values()) {
+			if (!(port instanceof JFragmentInPort))
+				bindInPort(port, plan, slots);
+		}
+		if (primitive instanceof JFragment) {
+			for (JOutPort<?> port : primitive.outPorts.values()) {
+				if (port instanceof JFragmentOutPort)
+					bindInPort(((JFragmentOutPort<?>) port).getInnerPort(), plan, slots);
+			}
+			for (JPrimitive child : ((JFragment) primitive).children)
+				bindInPorts(child, plan, slots);
+		}
+	}
+
+	private static void bindInPort(JInPort<?> port, JNetPlan plan, Map<JOutPort<?>, Integer> slots) {
+		if (port.getSource() == null)
+			return;
+		JOutPort<?> source = port.getSource().resolve();
+		Integer slot = source == null ? null : slots.get(source);
+		port.bind(plan, slot == null ? -1 : slot);
+	}
+
+	private boolean isActive(JFragment fragment) {
+		RPIbool active = fragment.inActive.get();
+		return active == null || active.get();
+	}
+
+	void setCycle(int cycle) {
+		this.cycle = cycle;
+	}
+
+	@SuppressWarnings("unchecked")
+	<T> T read(int slot) {
+		if (slot < 0 || writeCycles[slot] != cycle)
+			return null;
+		return (T) values[slot];
+	}
+
+	@SuppressWarnings("unchecked")
+	<T> T value(int slot) {
+		return (T) values[slot];
+	}
+
+	int writeCycle(int slot) {
+		return writeCycles[slot];
+	}
+
+	void write(int slot, Object value) {
+		write(slot, value, cycle);
+	}
+
+	void write(int slot, Object value, int writeCycle) {
+		values[slot] = value;
+		writeCycles[slot] = writeCycle;
+	}
+
+	public void readSensor() {
+		for (JPrimitive leaf : leaves)
+			leaf.readSensor();
+	}
+
+	public void updateData() {
+		int i = 0;
+		while (i < steps.length) {
+			JFragment gate = gates[i];
+			if (gate == null) {
+				steps[i].updateData();
+				i++;
+			} else if (isActive(gate)) {
+				i++;
+			} else {
+				i = skip[i];
+			}
+		}
+	}
+
+	public void writeActuator() {
+		int i = 0;
+		while (i < steps.length) {
+			JFragment gate = gates[i];
+			if (gate == null) {
+				steps[i].writeActuator();
+				i++;
+			} else if (isActive(gate)) {
+				i++;
+			} else {
+				i = skip[i];
+			}
+		}
+	}
+
+	/**
+	 * Retrieves the number of primitive steps in the plan (excluding fragment
+	 * gates)
+	 *
+	 * @return number of primitives executed per cycle
+	 */
+	public int getPrimitiveCount() {
+		return leaves.length;
+	}
+
+	/**
+	 * Retrieves the number of out port slots in the plan
+	 *
+	 * @return number of slots
+	 */
+	public int getSlotCount() {
+		return values.length;
+	}
+}
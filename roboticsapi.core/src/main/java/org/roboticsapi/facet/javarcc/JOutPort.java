@@ -12,6 +12,8 @@ public class JOutPort<T> {
 	private JPrimitive primitive;
 	private int cycle;
 	private String name;
+	private JNetPlan plan = null;
+	private int slot = -1;
 
 	@Override
 	public String toString() {
@@ -19,11 +21,17 @@ public class JOutPort<T> {
 	}
 
 	public void set(T value) {
+		if (plan != null) {
+			plan.write(slot, value);
+			return;
+		}
 		this.value = value;
 		cycle = primitive.getNet().getCycle();
 	}
 
 	protected T get() {
+		if (plan != null)
+			return plan.value(slot);
 		return value;
 	}
 
@@ -37,6 +45,24 @@ public class JOutPort<T> {
 	}
 
 	protected int getWriteCycle() {
+		if (plan != null)
+			return plan.writeCycle(slot);
 		return cycle;
 	}
+
+	/**
+	 * Retrieves the port that finally provides the value of this port, following
+	 * fragment port forwarding.
+	 *
+	 * @return the providing port, or null if the port is not connected
+	 */
+	protected JOutPort<T> resolve() {
+		return this;
+	}
+
+	void bind(JNetPlan plan, int slot) {
+		plan.write(slot, value, cycle);
+		this.plan = plan;
+		this.slot = slot;
+	}
 }
@@ -103,14 +103,6 @@ public abstract class JPrimitive {
 	public void writeActuator() {
 	}
 
-	public void recordDebugValues(Map<JInPort<?>, String[]> debug) {
-		for (JInPort<?> port : inPorts.values()) {
-			if (debug.containsKey(port)) {
-				debug.get(port)[getNet().getCycle() % debug.get(port).length] = "" + port.get();
-			}
-		}
-	}
-
 	public Set<JDevice> getActuators() {
 		return Collections.emptySet();
 	}
@@ -144,7 +136,7 @@ public abstract class JPrimitive {
 		return outPorts.get(name);
 	}
 
-	protected void addValuesToReport(Map<JNetcommListener, String> map) {
+	protected void addValuesToReport(Map<JNetcommListener, Type> map) {
 	}
 
 	protected void addListenersToReport(List<JNetcommListener> listeners) {
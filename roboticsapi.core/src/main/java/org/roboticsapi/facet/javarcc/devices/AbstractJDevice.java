@@ -17,9 +17,6 @@ import org.roboticsapi.core.util.RAPILogger;
 
 public abstract class AbstractJDevice implements JDevice {
 
-	private int locks = 0;
-	private boolean critical = false;
-	private Object lockObject = new Object();
 	private boolean stopNow = false;
 	private List<CyclicTask> tasks = new ArrayList<>();
 
@@ -77,50 +74,22 @@ public abstract class AbstractJDevice implements JDevice {
 		}
 	}
 
+	/**
+	 * Does nothing: device tasks and nets do not exclude each other, but exchange
+	 * their data using {@link DeviceDataBuffer}s. Subclasses may take a snapshot of
+	 * the device data for the net here.
+	 */
 	@Override
 	public void lock() {
-		synchronized (lockObject) {
-			while (critical)
-				waitForLock();
-			locks++;
-		}
 	}
 
+	/**
+	 * Does nothing: device tasks and nets do not exclude each other, but exchange
+	 * their data using {@link DeviceDataBuffer}s. Subclasses may publish the data
+	 * written by the net here.
+	 */
 	@Override
 	public void unlock() {
-		synchronized (lockObject) {
-			locks--;
-			if (locks == 0)
-				lockObject.notify();
-		}
-	}
-
-	private void waitForLock() {
-		try {
-			lockObject.wait();
-		} catch (InterruptedException e) {
-		}
-	}
-
-	protected boolean isLocked() {
-		synchronized (lockObject) {
-			return locks > 0;
-		}
-	}
-
-	protected void enterCriticalSection() {
-		synchronized (lockObject) {
-			while (isLocked())
-				waitForLock();
-			critical = true;
-		}
-	}
-
-	protected void leaveCriticalSection() {
-		synchronized (lockObject) {
-			critical = false;
-			lockObject.notify();
-		}
 	}
 
 }
@@ -0,0 +1,116 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.javarcc.devices;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Buffer for exchanging data between a device task and the nets of the Java
+ * RCC. Readers copy the data optimistically (see
+ * {@link StampedLock#tryOptimisticRead()}) and retry if the writer has
+ * published new data in the meantime, so they usually do not block the writer.
+ * Only if optimistic reads keep failing, a reader takes the read lock for one
+ * copy.
+ *
+ * Only one thread may write at a time, any number of threads may read.
+ *
+ * @param <T> type of the exchanged data
+ */
+public class DeviceDataBuffer<T> {
+
+	private static final int OPTIMISTIC_READS = 16;
+
+	private final StampedLock lock = new StampedLock();
+	private final T buffer;
+	private final BiConsumer<T, T> copy;
+	/** number of published writes, guarded by the lock */
+	private long version = 0;
+
+	/**
+	 * Creates a buffer
+	 *
+	 * @param factory creates an empty data object
+	 * @param copy    copies the first data object into the second one
+	 */
+	public DeviceDataBuffer(Supplier<T> factory, BiConsumer<T, T> copy) {
+		buffer = factory.get();
+		this.copy = copy;
+	}
+
+	/**
+	 * Creates a buffer for an array of doubles
+	 *
+	 * @param length length of the array
+	 * @return the buffer
+	 */
+	public static DeviceDataBuffer<double[]> ofDoubles(int length) {
+		return new DeviceDataBuffer<double[]>(() -> new double[length],
+				(from, to) -> System.arraycopy(from, 0, to, 0, length));
+	}
+
+	/**
+	 * Publishes new data (copied into the buffer)
+	 *
+	 * @param data data to publish
+	 */
+	public void write(T data) {
+		long stamp = lock.writeLock();
+		try {
+			copy.accept(data, buffer);
+			version++;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Retrieves the number of writes published so far
+	 *
+	 * @return number of published writes
+	 */
+	public long getVersion() {
+		long stamp = lock.tryOptimisticRead();
+		long ret = version;
+		if (lock.validate(stamp))
+			return ret;
+		stamp = lock.readLock();
+		try {
+			return version;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Retrieves the most recently published data
+	 *
+	 * @param target data object to copy the data into
+	 * @return number of writes published up to the retrieved data
+	 */
+	public long read(T target) {
+		for (int i = 0; i < OPTIMISTIC_READS; i++) {
+			long stamp = lock.tryOptimisticRead();
+			if (stamp == 0)
+				continue;
+			long ret = version;
+			copy.accept(buffer, target);
+			if (lock.validate(stamp))
+				return ret;
+		}
+		long stamp = lock.readLock();
+		try {
+			copy.accept(buffer, target);
+			return version;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+}
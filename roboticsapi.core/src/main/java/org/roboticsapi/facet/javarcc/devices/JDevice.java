@@ -12,17 +12,17 @@ import org.roboticsapi.facet.javarcc.JPrimitive;
 public interface JDevice {
 
 	/**
-	 * Lock access to the device (i.e. don't change internal data until
-	 * {@link JDevice} is unlocked. This method is called before {@link JPrimitive}s
-	 * execute their {@link JPrimitive#readSensor()} or
-	 * {@link JPrimitive#writeActuator()} method.
+	 * Prepare access of a net to the device (e.g. take a consistent snapshot of
+	 * the device data). This method is called before {@link JPrimitive}s execute
+	 * their {@link JPrimitive#readSensor()} or {@link JPrimitive#writeActuator()}
+	 * method. It must not block the tasks of the device.
 	 */
 	public void lock();
 
 	/**
-	 * Unlock access to the device (Internal data may again be updated, e.g. through
-	 * communication with the physical or simulation device). This method is called
-	 * after {@link JPrimitive#readSensor()} and {@link JPrimitive#writeActuator()}.
+	 * Finish access of a net to the device (e.g. publish the data written by the
+	 * net to the tasks of the device). This method is called after
+	 * {@link JPrimitive#readSensor()} and {@link JPrimitive#writeActuator()}.
 	 */
 	public void unlock();
 
@@ -7,29 +7,51 @@
 
 package org.roboticsapi.facet.javarcc.devices;
 
+import org.roboticsapi.facet.javarcc.executor.CycleTimer;
+
 /**
  * A task that is executed periodically (doPeriodicTask will be called with the
  * given cycle time).
  */
 public abstract class PeriodicTask extends CyclicTask {
 
-	private double cycleTime;
-	Long nextTime = null;
+	private final long period;
+	private final CycleTimer timer;
+	private boolean started = false;
 
 	public PeriodicTask(double cycleTime) {
-		this.cycleTime = cycleTime;
+		this(cycleTime, CycleTimer.create());
+	}
+
+	/**
+	 * Creates a periodic task using the given timing strategy.
+	 *
+	 * @param cycleTime cycle time in seconds
+	 * @param timer     timer determining the start of each cycle
+	 */
+	public PeriodicTask(double cycleTime, CycleTimer timer) {
+		this.period = (long) (cycleTime * 1e9);
+		this.timer = timer;
 	}
 
 	@Override
 	public final void doCyclicTask() throws InterruptedException {
+		if (!started) {
+			started = true;
+			timer.start();
+		}
 		doPeriodicTask();
+		timer.awaitNextCycle(period);
+	}
 
-		if (nextTime == null)
-			nextTime = System.nanoTime();
-		nextTime += (long) (1000000000L * cycleTime);
-		long dur = nextTime - System.nanoTime();
-		if (dur > 0)
-			Thread.sleep(dur / 1000000L, (int) (dur % 1000000));
+	/**
+	 * Retrieves the timer of the task, providing the jitter and overruns of its
+	 * cycles.
+	 *
+	 * @return the cycle timer
+	 */
+	public CycleTimer getTimer() {
+		return timer;
 	}
 
 	/**
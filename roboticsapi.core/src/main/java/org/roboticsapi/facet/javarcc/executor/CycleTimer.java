@@ -0,0 +1,186 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.javarcc.executor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Timing of a cyclic task (the net executor or a periodic device task). Cycles
+ * start at absolute deadlines based on {@link System#nanoTime()}, so waiting
+ * inaccuracies do not accumulate. How to wait for a deadline is determined by a
+ * {@link WaitStrategy}, what to do if a cycle took longer than its period by an
+ * {@link OverrunPolicy}. The deviations of the cycle starts from their
+ * deadlines are recorded in a {@link JitterHistogram}.
+ *
+ * The timers created by {@link #create()} are configured using the system
+ * properties <code>org.roboticsapi.javarcc.timing</code> (<code>sleep</code>
+ * (default), <code>hybrid</code> or <code>spin</code>),
+ * <code>org.roboticsapi.javarcc.timing.spin</code> (time to spin before a
+ * deadline in hybrid mode, in microseconds, 200 by default) and
+ * <code>org.roboticsapi.javarcc.timing.overrun</code> (<code>catchup</code>
+ * (default) or <code>skip</code>).
+ */
+public class CycleTimer {
+
+	/**
+	 * Strategy for waiting until a deadline
+	 */
+	public interface WaitStrategy {
+		/**
+		 * Waits until the given deadline
+		 *
+		 * @param deadline deadline (as returned by {@link System#nanoTime()})
+		 * @throws InterruptedException if the thread has been interrupted
+		 */
+		void waitUntil(long deadline) throws InterruptedException;
+	}
+
+	/**
+	 * Behavior if a cycle took longer than its period
+	 */
+	public enum OverrunPolicy {
+		/** start the following cycles immediately, until the timer is in time again */
+		CATCH_UP,
+		/** skip the missed cycles, and start the next cycle at its deadline */
+		SKIP
+	}
+
+	/** Parks the thread until the deadline (accuracy depends on the OS timer) */
+	public static final WaitStrategy SLEEP = deadline -> {
+		long remaining;
+		while ((remaining = deadline - System.nanoTime()) > 0) {
+			LockSupport.parkNanos(remaining);
+			if (Thread.interrupted())
+				throw new InterruptedException();
+		}
+	};
+
+	/** Busy waits until the deadline (occupies a processor) */
+	public static final WaitStrategy SPIN = hybrid(Long.MAX_VALUE);
+
+	/**
+	 * Creates a strategy parking the thread until shortly before the deadline and
+	 * busy waiting afterwards
+	 *
+	 * @param spinNanos time to busy wait before the deadline, in nanoseconds
+	 * @return the wait strategy
+	 */
+	public static WaitStrategy hybrid(long spinNanos) {
+		return deadline -> {
+			long remaining;
+			while ((remaining = deadline - System.nanoTime()) > spinNanos) {
+				LockSupport.parkNanos(remaining - spinNanos);
+				if (Thread.interrupted())
+					throw new InterruptedException();
+			}
+			while (deadline - System.nanoTime() > 0) {
+				if (Thread.interrupted())
+					throw new InterruptedException();
+			}
+		};
+	}
+
+	private final WaitStrategy wait;
+	private final OverrunPolicy overrun;
+	private final LongSupplier clock;
+	private final JitterHistogram jitter = new JitterHistogram();
+	private final AtomicLong overruns = new AtomicLong(), skipped = new AtomicLong();
+	private long deadline;
+
+	public CycleTimer(WaitStrategy wait, OverrunPolicy overrun) {
+		this(wait, overrun, System::nanoTime);
+	}
+
+	CycleTimer(WaitStrategy wait, OverrunPolicy overrun, LongSupplier clock) {
+		this.wait = wait;
+		this.overrun = overrun;
+		this.clock = clock;
+		start();
+	}
+
+	/**
+	 * Creates a timer configured by the system properties
+	 *
+	 * @return the timer
+	 */
+	public static CycleTimer create() {
+		String mode = System.getProperty("org.roboticsapi.javarcc.timing", "sleep");
+		WaitStrategy wait = SLEEP;
+		if ("hybrid".equalsIgnoreCase(mode))
+			wait = hybrid(Integer.getInteger("org.roboticsapi.javarcc.timing.spin", 200) * 1000L);
+		else if ("spin".equalsIgnoreCase(mode))
+			wait = SPIN;
+		OverrunPolicy overrun = "skip".equalsIgnoreCase(
+				System.getProperty("org.roboticsapi.javarcc.timing.overrun", "catchup")) ? OverrunPolicy.SKIP
+						: OverrunPolicy.CATCH_UP;
+		return new CycleTimer(wait, overrun);
+	}
+
+	/**
+	 * Starts the first cycle now
+	 */
+	public void start() {
+		deadline = clock.getAsLong();
+	}
+
+	/**
+	 * Waits for the start of the next cycle
+	 *
+	 * @param period cycle time in nanoseconds
+	 * @return time by which the finished cycle has exceeded its period, in
+	 *         nanoseconds (negative if it has finished in time)
+	 * @throws InterruptedException if the thread has been interrupted
+	 */
+	public long awaitNextCycle(long period) throws InterruptedException {
+		deadline += period;
+		long late = clock.getAsLong() - deadline;
+		if (late > 0) {
+			overruns.incrementAndGet();
+			if (overrun == OverrunPolicy.CATCH_UP) {
+				jitter.record(late);
+				return late;
+			}
+			long missed = late / period + 1;
+			skipped.addAndGet(missed);
+			deadline += missed * period;
+		}
+		wait.waitUntil(deadline);
+		jitter.record(clock.getAsLong() - deadline);
+		return late;
+	}
+
+	/**
+	 * Retrieves the deviations of the cycle starts from their deadlines
+	 *
+	 * @return the jitter histogram
+	 */
+	public JitterHistogram getJitter() {
+		return jitter;
+	}
+
+	/**
+	 * Retrieves the number of cycles that took longer than their period
+	 *
+	 * @return number of overruns
+	 */
+	public long getOverruns() {
+		return overruns.get();
+	}
+
+	/**
+	 * Retrieves the number of cycles skipped due to overruns
+	 *
+	 * @return number of skipped cycles
+	 */
+	public long getSkippedCycles() {
+		return skipped.get();
+	}
+
+}
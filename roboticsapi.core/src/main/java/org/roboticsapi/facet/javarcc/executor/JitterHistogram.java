@@ -0,0 +1,117 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.javarcc.executor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of the deviations of cycle starts from their deadlines. Bucket 0
+ * counts deviations below 1 microsecond, bucket i (i &gt; 0) deviations from
+ * 2^(i-1) up to 2^i microseconds. Deviations are recorded by one thread, but
+ * may be read by any thread.
+ */
+public class JitterHistogram {
+
+	/** number of buckets, the last one counts all deviations above 2^30 us */
+	public static final int BUCKETS = 32;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records the deviation of a cycle start
+	 *
+	 * @param nanos deviation from the deadline in nanoseconds (negative if the
+	 *              cycle started early)
+	 */
+	public void record(long nanos) {
+		long micros = Math.abs(nanos) / 1000;
+		int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+		counts.incrementAndGet(bucket);
+		if (Math.abs(nanos) > max.get())
+			max.set(Math.abs(nanos));
+	}
+
+	/**
+	 * Retrieves the number of deviations in a bucket
+	 *
+	 * @param bucket bucket (0 to {@link #BUCKETS} - 1)
+	 * @return number of recorded deviations in the bucket
+	 */
+	public long getCount(int bucket) {
+		return counts.get(bucket);
+	}
+
+	/**
+	 * Retrieves the upper bound of a bucket
+	 *
+	 * @param bucket bucket (0 to {@link #BUCKETS} - 1)
+	 * @return deviation (in microseconds) above all deviations in the bucket
+	 */
+	public static long getUpperBound(int bucket) {
+		return bucket == BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+	}
+
+	/**
+	 * Retrieves the total number of recorded deviations
+	 *
+	 * @return number of recorded cycles
+	 */
+	public long getCount() {
+		long ret = 0;
+		for (int i = 0; i < BUCKETS; i++)
+			ret += counts.get(i);
+		return ret;
+	}
+
+	/**
+	 * Retrieves the largest recorded deviation
+	 *
+	 * @return largest deviation in nanoseconds
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Retrieves the deviation not exceeded by the given fraction of cycles
+	 *
+	 * @param fraction fraction of cycles (e.g. 0.99)
+	 * @return upper bound (in microseconds) of the bucket containing the quantile
+	 */
+	public long getQuantile(double fraction) {
+		long count = getCount(), sum = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			sum += counts.get(i);
+			if (sum > 0 && sum >= fraction * count)
+				return getUpperBound(i);
+		}
+		return 0;
+	}
+
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++)
+			counts.set(i, 0);
+		max.set(0);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder ret = new StringBuilder("cycles: ").append(getCount()).append(", max: ")
+				.append(getMax() / 1000).append(" us");
+		for (int i = 0; i < BUCKETS; i++) {
+			long count = counts.get(i);
+			if (count > 0)
+				ret.append(", <").append(i == BUCKETS - 1 ? "inf" : getUpperBound(i) + " us").append(": ")
+						.append(count);
+		}
+		return ret.toString();
+	}
+
+}
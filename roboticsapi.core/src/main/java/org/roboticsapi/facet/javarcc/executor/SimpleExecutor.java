@@ -9,8 +9,16 @@ package org.roboticsapi.facet.javarcc.executor;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.roboticsapi.core.util.RAPILogger;
 import org.roboticsapi.facet.javarcc.JNet;
@@ -26,10 +34,58 @@ public class SimpleExecutor implements Runnable {
 	private Thread thread = null;
 	private Object syncObject = new Object();
 	private Executor notifyExecutor;
+	private final int workers;
+	private ExecutorService workerPool = null;
+	private final Set<Thread> workerThreads = ConcurrentHashMap.newKeySet();
+	private List<JNet> groupedNets = null;
+	private List<List<JNet>> netGroups = null;
+	private final CycleTimer timer;
 
 	public SimpleExecutor(ControlCore owner, Executor notifyExecutor) {
+		this(owner, notifyExecutor, 1);
+	}
+
+	/**
+	 * Creates an executor that steps independent nets on a pool of worker threads.
+	 * Nets sharing an actuator are always stepped by the same worker, and all
+	 * workers are joined before the scheduling rules are checked, so rules fire
+	 * at the same point of the cycle as in sequential mode.
+	 *
+	 * @param owner          control core owning the executor
+	 * @param notifyExecutor executor for rule status notifications
+	 * @param workers        number of threads stepping nets (1 for sequential
+	 *                       execution)
+	 */
+	public SimpleExecutor(ControlCore owner, Executor notifyExecutor, int workers) {
+		this(owner, notifyExecutor, workers, CycleTimer.create());
+	}
+
+	/**
+	 * Creates an executor using the given timing strategy.
+	 *
+	 * @param owner          control core owning the executor
+	 * @param notifyExecutor executor for rule status notifications
+	 * @param workers        number of threads stepping nets (1 for sequential
+	 *                       execution)
+	 * @param timer          timer determining the start of each cycle
+	 */
+	public SimpleExecutor(ControlCore owner, Executor notifyExecutor, int workers, CycleTimer timer) {
+		if (workers < 1)
+			throw new IllegalArgumentException("workers");
 		this.owner = owner;
 		this.notifyExecutor = notifyExecutor;
+		this.workers = workers;
+		this.timer = timer;
+	}
+
+	/**
+	 * Retrieves the timer of the executor, providing the jitter and overruns of
+	 * its cycles.
+	 *
+	 * @return the cycle timer
+	 */
+	public CycleTimer getTimer() {
+		return timer;
 	}
 
 	public void addRule(JSchedulingRule rule) {
@@ -50,30 +106,22 @@ public class SimpleExecutor implements Runnable {
 	}
 
 	public void run() {
+		timer.start();
 		while (true) {
-			for (JNet net : activeNets) {
-				if (net == null || net.isUnloaded())
-					continue;
-				net.lockSensors();
-				net.readSensor();
-				net.unlockSensors();
-				net.updateData();
-				net.lockActuators();
-				net.writeActuator();
-				net.unlockActuators();
-				net.sendNetcomm();
-				net.notifyListener();
-
-				if (net.isCompleted()) {
-					RAPILogger.getLogger(this).fine("Completed " + net);
-					List<JNet> activeNets = new ArrayList<>(this.activeNets);
-					activeNets.remove(net);
-					this.activeNets = activeNets;
-				} else if (net.isKilled()) {
-					RAPILogger.getLogger(this).fine("Aborted " + net);
-					List<JNet> activeNets = new ArrayList<>(this.activeNets);
-					activeNets.remove(net);
-					this.activeNets = activeNets;
+			List<JNet> nets = activeNets;
+			if (workers > 1 && nets.size() > 1) {
+				try {
+					stepParallel(getNetGroups(nets));
+				} catch (InterruptedException e) {
+					e.printStackTrace();
+					return;
+				}
+				for (JNet net : nets)
+					retireIfFinished(net);
+			} else {
+				for (JNet net : nets) {
+					step(net);
+					retireIfFinished(net);
 				}
 			}
 
@@ -87,22 +135,23 @@ public class SimpleExecutor implements Runnable {
 
 			try {
 				JNet net = activeNets.get(0);
-				long cur = net.getTime();
-				if (cur == -1)
-					cur = System.currentTimeMillis();
-				long sleep = cur + (long) (net.getCycleTime() * 1000) - System.currentTimeMillis();
-				if (sleep > 0) {
+				long skipped = timer.getSkippedCycles();
+				long late = timer.awaitNextCycle((long) (net.getCycleTime() * 1e9));
+				skipped = timer.getSkippedCycles() - skipped;
+				if (skipped > 0) {
+					for (JNet activeNet : activeNets)
+						activeNet.skipCycles((int) skipped);
+				}
+				if (late <= 0) {
 					if (timeWarn) {
 						timeWarn = false;
-						RAPILogger.getLogger(this)
-								.warning(owner + ": RPI executor caught up with time: " + sleep + " ms");
+						RAPILogger.getLogger(this).warning(owner + ": RPI executor caught up with time");
 					}
-					Thread.sleep(sleep);
-				} else if (sleep < -500) {
+				} else if (late > 500000000L) {
 					if (!timeWarn) {
 						timeWarn = true;
-						RAPILogger.getLogger(this)
-								.warning(owner + ": RPI executor cannot hold up with time: " + (-sleep) + " ms");
+						RAPILogger.getLogger(this).warning(
+								owner + ": RPI executor cannot hold up with time: " + late / 1000000 + " ms");
 					}
 				}
 			} catch (InterruptedException e) {
@@ -114,6 +163,119 @@ public class SimpleExecutor implements Runnable {
 
 	boolean timeWarn = false;
 
+	private void step(JNet net) {
+		if (net == null || net.isUnloaded())
+			return;
+		net.lockSensors();
+		net.readSensor();
+		net.unlockSensors();
+		net.updateData();
+		net.lockActuators();
+		net.writeActuator();
+		net.unlockActuators();
+		net.sendNetcomm();
+		net.notifyListener();
+	}
+
+	private void retireIfFinished(JNet net) {
+		if (net == null || net.isUnloaded())
+			return;
+		if (net.isCompleted()) {
+			RAPILogger.getLogger(this).fine("Completed " + net);
+			List<JNet> activeNets = new ArrayList<>(this.activeNets);
+			activeNets.remove(net);
+			this.activeNets = activeNets;
+		} else if (net.isKilled()) {
+			RAPILogger.getLogger(this).fine("Aborted " + net);
+			List<JNet> activeNets = new ArrayList<>(this.activeNets);
+			activeNets.remove(net);
+			this.activeNets = activeNets;
+		}
+	}
+
+	private void stepParallel(List<List<JNet>> groups) throws InterruptedException {
+		CountDownLatch barrier = new CountDownLatch(groups.size() - 1);
+		AtomicReference<RuntimeException> failure = new AtomicReference<>();
+		for (int i = 1; i < groups.size(); i++) {
+			List<JNet> group = groups.get(i);
+			getWorkerPool().execute(() -> {
+				try {
+					for (JNet net : group)
+						step(net);
+				} catch (RuntimeException e) {
+					failure.compareAndSet(null, e);
+				} finally {
+					barrier.countDown();
+				}
+			});
+		}
+		for (JNet net : groups.get(0))
+			step(net);
+		barrier.await();
+		if (failure.get() != null)
+			throw failure.get();
+	}
+
+	/**
+	 * Partitions the given nets into at most {@code workers} groups, keeping nets
+	 * with overlapping actuator sets in the same group. The result is cached until
+	 * the list of active nets changes.
+	 */
+	List<List<JNet>> getNetGroups(List<JNet> nets) {
+		if (groupedNets == nets)
+			return netGroups;
+
+		Map<JDevice, List<JNet>> owners = new HashMap<>();
+		List<List<JNet>> components = new ArrayList<>();
+		for (JNet net : nets) {
+			if (net == null || net.isUnloaded())
+				continue;
+			List<JNet> component = new ArrayList<>();
+			component.add(net);
+			for (JDevice device : net.getActuators()) {
+				List<JNet> other = owners.get(device);
+				if (other != null && other != component) {
+					component.addAll(other);
+					components.remove(other);
+					for (JNet moved : other)
+						for (JDevice movedDevice : moved.getActuators())
+							owners.put(movedDevice, component);
+				}
+				owners.put(device, component);
+			}
+			components.add(component);
+		}
+
+		List<List<JNet>> groups = new ArrayList<>();
+		for (int i = 0; i < components.size(); i++) {
+			if (i < workers)
+				groups.add(new ArrayList<>());
+			groups.get(i % workers).addAll(components.get(i));
+		}
+		if (groups.isEmpty())
+			groups.add(new ArrayList<>());
+
+		groupedNets = nets;
+		netGroups = groups;
+		return groups;
+	}
+
+	ExecutorService getWorkerPool() {
+		ExecutorService workerPool = this.workerPool;
+		if (workerPool == null || workerPool.isShutdown()) {
+			workerPool = Executors.newFixedThreadPool(workers - 1, task -> {
+				Thread thread = new Thread(() -> {
+					workerThreads.add(Thread.currentThread());
+					task.run();
+				}, owner.toString() + " worker");
+				thread.setDaemon(true);
+				return thread;
+			});
+			this.workerPool = workerPool;
+		}
+		return workerPool;
+	}
+
 	private void checkRules() {
 		for (JSchedulingRule rule : rules) {
 			if (rule == null)
@@ -127,9 +289,9 @@ public class SimpleExecutor implements Runnable {
 				List<JDevice> occupiedActuators = new ArrayList<>();
 				for (JNet net : activeNets)
 					if (!rule.getKillNets().contains(net))
-						occupiedActuators.addAll(net.getFragment().getActuators());
+						occupiedActuators.addAll(net.getActuators());
 				for (JNet net : rule.getStartNets())
-					for (JDevice device : net.getFragment().getActuators())
+					for (JDevice device : net.getActuators())
 						allowed &= !occupiedActuators.contains(device);
 
 				if (!allowed) {
@@ -183,10 +345,14 @@ public class SimpleExecutor implements Runnable {
 	public void shutdown() {
 		rules = new ArrayList<>();
 		activeNets = new ArrayList<>();
+		ExecutorService workerPool = this.workerPool;
+		this.workerPool = null;
+		if (workerPool != null)
+			workerPool.shutdown();
 	}
 
 	public void checkBlockEventHandlerThread() throws RpiException {
-		if (Thread.currentThread() == thread)
+		if (Thread.currentThread() == thread || workerThreads.contains(Thread.currentThread()))
 			throw new RpiException(
 					"Illegal thread access - don't use blocking RAPI calls in synchronous EventHandlers / Listeners!");
 	}
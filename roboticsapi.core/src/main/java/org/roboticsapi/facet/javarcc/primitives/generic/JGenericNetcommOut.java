@@ -50,11 +50,11 @@ public class JGenericNetcommOut<T extends Type> extends JPrimitive {
 	}
 
 	@Override
-	protected synchronized void addValuesToReport(Map<JNetcommListener, String> map) {
+	protected synchronized void addValuesToReport(Map<JNetcommListener, Type> map) {
 		super.addValuesToReport(map);
 
 		if (propReport.get().get() && data.getData() != null) {
-			String report = data.getData().toString();
+			Type report = data.getData().copy();
 			for (JNetcommListener listener : listeners)
 				map.put(listener, report);
 		}
@@ -92,6 +92,15 @@ public class JGenericNetcommOut<T extends Type> extends JPrimitive {
 				}
 			}
 
+			@Override
+			public void valueChanged(Type value) {
+				try {
+					netcommValue.setValue(value);
+				} catch (RuntimeException e) {
+					e.printStackTrace();
+				}
+			}
+
 			@Override
 			public void updatePerformed() {
 				try {
@@ -44,11 +44,9 @@ public class JMatrixApply extends JPrimitive {
 		MutableMatrix matrix = inMatrix.get();
 		double[] vec = new double[inVector.get().getSize()];
 		double[] applied = new double[propSize.get().get()];
-		for (int i = 0; i < vec.length; i++)
-			vec[i] = inVector.get().get(i).get();
+		inVector.get().copyTo(vec);
 		matrix.applyTo(vec, applied);
-		for (int i = 0; i < applied.length; i++)
-			result.get(i).set(applied[i]);
+		result.copyFrom(applied);
 		outValue.set(result);
 	}
 
@@ -49,7 +49,7 @@ public class JMatrixArrayGet extends JPrimitive {
 	public void updateData() {
 		MutableMatrix matrix = inMatrix.get();
 		for (int i = 0; i < propSize.get().get(); i++) {
-			array.get(i).set(matrix.get(propStartRow.get().get() + (i / propBlockWidth.get().get()),
+			array.setValue(i, matrix.get(propStartRow.get().get() + (i / propBlockWidth.get().get()),
 					propStartCol.get().get() + (i % propBlockWidth.get().get())));
 		}
 		outArray.set(array);
@@ -60,7 +60,7 @@ public class JMatrixArraySet extends JPrimitive {
 		inMatrix.get().copyTo(ret);
 		for (int i = 0; i < array.getSize(); i++) {
 			ret.set(propStartCol.get().get() + (i / propBlockWidth.get().get()),
-					propStartCol.get().get() + (i % propBlockWidth.get().get()), array.get(i).get());
+					propStartCol.get().get() + (i % propBlockWidth.get().get()), array.getValue(i));
 		}
 		outMatrix.set(ret);
 	}
@@ -33,21 +33,22 @@ public class JMatrixSolve extends JPrimitive {
 	final JParameter<RPIint> propSize = add("Size", new JParameter<RPIint>(new RPIint("0")));
 
 	private RPIdoubleArray result;
+	private double[] value = new double[0], solved;
 
 	@Override
 	public void checkParameters() throws IllegalArgumentException {
 		result = new RPIdoubleArray(propSize.get().get());
+		solved = new double[propSize.get().get()];
 	}
 
 	@Override
 	public void updateData() {
-		double[] value = new double[inResult.get().getSize()];
-		for (int i = 0; i < value.length; i++)
-			value[i] = inResult.get().get(i).get();
-		double[] solved = new double[propSize.get().get()];
+		RPIdoubleArray in = inResult.get();
+		if (value.length != in.getSize())
+			value = new double[in.getSize()];
+		in.copyTo(value);
 		if (inMatrix.get().solveTo(value, solved)) {
-			for (int i = 0; i < solved.length; i++)
-				result.get(i).set(solved[i]);
+			result.copyFrom(solved);
 			outValue.set(result);
 		} else {
 			outValue.set(null);
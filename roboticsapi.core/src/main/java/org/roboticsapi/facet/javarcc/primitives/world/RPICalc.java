@@ -69,15 +69,13 @@ public class RPICalc {
 	public static void rpiToTwist(RPITwist twist, MutableTwist ret) {
 		RPIVector vel = twist.getVel();
 		RPIVector rot = twist.getRot();
-		ret.set(vel.getX().get(), vel.getY().get(), vel.getZ().get(), rot.getX().get(), rot.getY().get(),
-				rot.getZ().get());
+		ret.set(vel.get(0), vel.get(1), vel.get(2), rot.get(0), rot.get(1), rot.get(2));
 	}
 
 	public static Twist rpiToTwist(RPITwist twist) {
 		RPIVector vel = twist.getVel();
 		RPIVector rot = twist.getRot();
-		return new Twist(vel.getX().get(), vel.getY().get(), vel.getZ().get(), rot.getX().get(), rot.getY().get(),
-				rot.getZ().get());
+		return new Twist(vel.get(0), vel.get(1), vel.get(2), rot.get(0), rot.get(1), rot.get(2));
 	}
 
 	public static void twistToRpi(Twist t, RPITwist ret) {
@@ -90,63 +88,59 @@ public class RPICalc {
 		vectorToRpi(t.getRotation(), ret.getRot());
 	}
 
+	// RPI frames, vectors and rotations are flat, so components are accessed by
+	// index instead of through their RPIdouble views
 	public static Transformation rpiToFrame(RPIFrame frame) {
-		return new Transformation(rpiToRotation(frame.getRot()), rpiToVector(frame.getPos()));
+		return new Transformation(new Rotation(frame.get(3), frame.get(4), frame.get(5)),
+				new Vector(frame.get(0), frame.get(1), frame.get(2)));
 	}
 
 	public static void rpiToFrame(RPIFrame frame, MutableTransformation ret) {
-		rpiToVector(frame.getPos(), ret.getTranslation());
-		rpiToRotation(frame.getRot(), ret.getRotation());
+		ret.setVectorEuler(frame.get(0), frame.get(1), frame.get(2), frame.get(3), frame.get(4), frame.get(5));
 	}
 
 	public static void frameToRpi(MutableTransformation frame, RPIFrame ret) {
-		vectorToRpi(frame.getTranslation(), ret.getPos());
-		rotationToRpi(frame.getRotation(), ret.getRot());
+		MutableVector t = frame.getTranslation();
+		MutableRotation r = frame.getRotation();
+		ret.set(t.getX(), t.getY(), t.getZ(), r.getA(), r.getB(), r.getC());
 	}
 
 	public static void frameToRpi(Transformation frame, RPIFrame ret) {
-		vectorToRpi(frame.getTranslation(), ret.getPos());
-		rotationToRpi(frame.getRotation(), ret.getRot());
+		Vector t = frame.getTranslation();
+		Rotation r = frame.getRotation();
+		ret.set(t.getX(), t.getY(), t.getZ(), r.getA(), r.getB(), r.getC());
 	}
 
 	public static Rotation rpiToRotation(RPIRotation r) {
-		return new Rotation(r.getA().get(), r.getB().get(), r.getC().get());
+		return new Rotation(r.get(0), r.get(1), r.get(2));
 	}
 
 	public static void rpiToRotation(RPIRotation r, MutableRotation ret) {
-		ret.setEuler(r.getA().get(), r.getB().get(), r.getC().get());
+		ret.setEuler(r.get(0), r.get(1), r.get(2));
 	}
 
 	public static void rotationToRpi(Rotation r, RPIRotation ret) {
-		ret.getA().set(r.getA());
-		ret.getB().set(r.getB());
-		ret.getC().set(r.getC());
+		ret.set(r.getA(), r.getB(), r.getC());
 	}
 
 	public static void rotationToRpi(MutableRotation r, RPIRotation ret) {
-		ret.getA().set(r.getA());
-		ret.getB().set(r.getB());
-		ret.getC().set(r.getC());
+		ret.set(r.getA(), r.getB(), r.getC());
 	}
 
 	public static Vector rpiToVector(RPIVector v) {
-		return new Vector(v.getX().get(), v.getY().get(), v.getZ().get());
+		return new Vector(v.get(0), v.get(1), v.get(2));
 	}
 
 	public static void rpiToVector(RPIVector v, MutableVector ret) {
-		ret.set(v.getX().get(), v.getY().get(), v.getZ().get());
+		ret.set(v.get(0), v.get(1), v.get(2));
 	}
 
 	public static void vectorToRpi(Vector v, RPIVector ret) {
-		ret.getX().set(v.getX());
-		ret.getY().set(v.getY());
-		ret.getZ().set(v.getZ());
+		ret.set(v.getX(), v.getY(), v.getZ());
 	}
 
 	public static void vectorToRpi(MutableVector v, RPIVector ret) {
-		ret.getX().set(v.getX());
-		ret.getY().set(v.getY());
-		ret.getZ().set(v.getZ());
+		ret.set(v.getX(), v.getY(), v.getZ());
 	}
 
 	public static void doubleToRpi(double a, RPIdouble ret) {
@@ -0,0 +1,104 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.javarcc.telemetry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Layout of telemetry files (all numbers big endian).
+ *
+ * The header consists of the magic number, the format version, the number of
+ * recorded rows (updated after each written block), the number of columns, the
+ * number of rows per block and the column names (modified UTF-8), padded to a
+ * multiple of 8 bytes.
+ *
+ * The header is followed by blocks of a fixed size. Each block starts with the
+ * number of rows it contains, the minimum and maximum value of each column in
+ * the block (for fast decimation), followed by the times of all rows and the
+ * values of each column. All blocks except the last one are full.
+ */
+final class TelemetryFormat {
+
+	static final int MAGIC = 0x52544c4d;
+	static final int VERSION = 1;
+	static final int ROWS_OFFSET = 8;
+
+	final List<String> names;
+	final int columns;
+	final int blockSize;
+	final int headerSize;
+	final int blockBytes;
+
+	TelemetryFormat(List<String> names, int blockSize, int headerSize) {
+		this.names = Collections.unmodifiableList(new ArrayList<String>(names));
+		this.columns = names.size();
+		this.blockSize = blockSize;
+		this.headerSize = headerSize;
+		this.blockBytes = 8 + 16 * columns + 8 * blockSize * (1 + columns);
+	}
+
+	int minOffset(int column) {
+		return 8 + 8 * column;
+	}
+
+	int maxOffset(int column) {
+		return 8 + 8 * (columns + column);
+	}
+
+	int timeOffset(int row) {
+		return 8 + 16 * columns + 8 * row;
+	}
+
+	int valueOffset(int column, int row) {
+		return 8 + 16 * columns + 8 * blockSize * (1 + column) + 8 * row;
+	}
+
+	long blockPosition(long block) {
+		return headerSize + block * blockBytes;
+	}
+
+	static byte[] writeHeader(List<String> names, int blockSize) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeLong(0);
+		out.writeInt(names.size());
+		out.writeInt(blockSize);
+		for (String name : names)
+			out.writeUTF(name);
+		while (out.size() % 8 != 0)
+			out.writeByte(0);
+		out.close();
+		return bytes.toByteArray();
+	}
+
+	static TelemetryFormat readHeader(InputStream stream) throws IOException {
+		DataInputStream in = new DataInputStream(stream);
+		if (in.readInt() != MAGIC)
+			throw new IOException("Not a telemetry file");
+		int version = in.readInt();
+		if (version != VERSION)
+			throw new IOException("Unsupported telemetry file version " + version);
+		in.readLong();
+		int columns = in.readInt();
+		int blockSize = in.readInt();
+		List<String> names = new ArrayList<String>();
+		for (int i = 0; i < columns; i++)
+			names.add(in.readUTF());
+		return new TelemetryFormat(names, blockSize, writeHeader(names, blockSize).length);
+	}
+
+}
@@ -0,0 +1,282 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.javarcc.telemetry;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.List;
+
+/**
+ * Reads telemetry files written by a {@link TelemetryRecorder}. The file is
+ * memory-mapped, so recordings of multiple hours can be paged through without
+ * loading them completely.
+ */
+public class TelemetryReader implements Closeable {
+
+	private static final long SEGMENT_BYTES = 1 << 30;
+
+	/**
+	 * Minimum and maximum values of a column in consecutive ranges of rows
+	 */
+	public static class Decimation {
+		private final long[] times;
+		private final double[] min, max;
+
+		Decimation(int size) {
+			times = new long[size];
+			min = new double[size];
+			max = new double[size];
+		}
+
+		public int getSize() {
+			return times.length;
+		}
+
+		/**
+		 * Retrieves the time of the first row of a range
+		 *
+		 * @param index index of the range
+		 * @return time of the first row (in nanoseconds)
+		 */
+		public long getTime(int index) {
+			return times[index];
+		}
+
+		/**
+		 * Retrieves the minimum value in a range
+		 *
+		 * @param index index of the range
+		 * @return minimum value, or NaN if the range has no values
+		 */
+		public double getMin(int index) {
+			return min[index];
+		}
+
+		/**
+		 * Retrieves the maximum value in a range
+		 *
+		 * @param index index of the range
+		 * @return maximum value, or NaN if the range has no values
+		 */
+		public double getMax(int index) {
+			return max[index];
+		}
+	}
+
+	private final RandomAccessFile file;
+	private final TelemetryFormat format;
+	private final long rowCount;
+	private final int segmentBlocks;
+	private final ByteBuffer[] segments;
+
+	/**
+	 * Opens a telemetry file. Rows written after opening are not visible.
+	 *
+	 * @param file telemetry file
+	 * @throws IOException if the file cannot be read
+	 */
+	public TelemetryReader(File file) throws IOException {
+		this.file = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = this.file.getChannel();
+			format = TelemetryFormat.readHeader(Channels.newInputStream(channel.position(0)));
+			rowCount = channel.map(MapMode.READ_ONLY, 0, format.headerSize).getLong(TelemetryFormat.ROWS_OFFSET);
+			long blocks = (rowCount + format.blockSize - 1) / format.blockSize;
+			if (format.blockPosition(blocks) > channel.size())
+				throw new IOException("Telemetry file is truncated");
+			segmentBlocks = (int) Math.max(1, SEGMENT_BYTES / format.blockBytes);
+			segments = new ByteBuffer[(int) ((blocks + segmentBlocks - 1) / segmentBlocks)];
+			for (int i = 0; i < segments.length; i++) {
+				long position = format.blockPosition((long) i * segmentBlocks);
+				long size = Math.min((long) segmentBlocks * format.blockBytes, format.blockPosition(blocks) - position);
+				segments[i] = channel.map(MapMode.READ_ONLY, position, size);
+			}
+		} catch (IOException | RuntimeException e) {
+			this.file.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Checks whether a file is a telemetry file
+	 *
+	 * @param file file to check
+	 * @return true if the file starts like a telemetry file
+	 */
+	public static boolean isTelemetryFile(File file) {
+		try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+			return in.readInt() == TelemetryFormat.MAGIC;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	public List<String> getColumnNames() {
+		return format.names;
+	}
+
+	public int getColumnCount() {
+		return format.columns;
+	}
+
+	public long getRowCount() {
+		return rowCount;
+	}
+
+	private ByteBuffer block(long row) {
+		if (row < 0 || row >= rowCount)
+			throw new IndexOutOfBoundsException("Row " + row + " is not available");
+		long block = row / format.blockSize;
+		ByteBuffer segment = segments[(int) (block / segmentBlocks)].duplicate();
+		segment.position((int) (block % segmentBlocks) * format.blockBytes);
+		return segment.slice();
+	}
+
+	/**
+	 * Retrieves the time of a row
+	 *
+	 * @param row index of the row
+	 * @return time of the row (in nanoseconds)
+	 */
+	public long getTime(long row) {
+		return block(row).getLong(format.timeOffset((int) (row % format.blockSize)));
+	}
+
+	/**
+	 * Retrieves a recorded value
+	 *
+	 * @param column index of the column
+	 * @param row    index of the row
+	 * @return recorded value (NaN if the value was not numeric)
+	 */
+	public double getValue(int column, long row) {
+		return block(row).getDouble(format.valueOffset(column, (int) (row % format.blockSize)));
+	}
+
+	/**
+	 * Reads the times of consecutive rows
+	 *
+	 * @param fromRow index of the first row to read
+	 * @param dst     array to write the times to
+	 * @return number of rows read
+	 */
+	public int readTimes(long fromRow, long[] dst) {
+		int count = (int) Math.min(dst.length, rowCount - fromRow);
+		ByteBuffer block = null;
+		for (int i = 0; i < count; i++) {
+			int pos = (int) ((fromRow + i) % format.blockSize);
+			if (block == null || pos == 0)
+				block = block(fromRow + i);
+			dst[i] = block.getLong(format.timeOffset(pos));
+		}
+		return count;
+	}
+
+	/**
+	 * Reads values of a column in consecutive rows
+	 *
+	 * @param column  index of the column
+	 * @param fromRow index of the first row to read
+	 * @param dst     array to write the values to
+	 * @return number of rows read
+	 */
+	public int read(int column, long fromRow, double[] dst) {
+		int count = (int) Math.min(dst.length, rowCount - fromRow);
+		ByteBuffer block = null;
+		for (int i = 0; i < count; i++) {
+			int pos = (int) ((fromRow + i) % format.blockSize);
+			if (block == null || pos == 0)
+				block = block(fromRow + i);
+			dst[i] = block.getDouble(format.valueOffset(column, pos));
+		}
+		return count;
+	}
+
+	/**
+	 * Finds the first row recorded at or after the given time
+	 *
+	 * @param time time to look for (in nanoseconds)
+	 * @return index of the row, or the number of rows if all rows are older
+	 */
+	public long findRow(long time) {
+		long low = 0, high = rowCount;
+		while (low < high) {
+			long mid = (low + high) >>> 1;
+			if (getTime(mid) < time)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+
+	/**
+	 * Decimates the values of a column for display, splitting the given rows
+	 * into equally sized ranges and determining the minimum and maximum value in
+	 * each range. Ranges covering complete blocks use the block summaries stored
+	 * in the file, so decimating long recordings only reads a fraction of the
+	 * file.
+	 *
+	 * @param column  index of the column
+	 * @param fromRow index of the first row
+	 * @param toRow   index after the last row
+	 * @param ranges  maximum number of ranges
+	 * @return minimum and maximum values in each range
+	 */
+	public Decimation decimate(int column, long fromRow, long toRow, int ranges) {
+		fromRow = Math.max(0, fromRow);
+		toRow = Math.min(rowCount, toRow);
+		long rows = Math.max(0, toRow - fromRow);
+		Decimation ret = new Decimation((int) Math.min(ranges, rows));
+		for (int i = 0; i < ret.getSize(); i++) {
+			long start = fromRow + rows * i / ret.getSize(), end = fromRow + rows * (i + 1) / ret.getSize();
+			double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+			long row = start;
+			while (row < end) {
+				ByteBuffer block = block(row);
+				int pos = (int) (row % format.blockSize);
+				int count = (int) Math.min(format.blockSize, rowCount - row + pos);
+				if (pos == 0 && row + count <= end) {
+					double blockMin = block.getDouble(format.minOffset(column));
+					double blockMax = block.getDouble(format.maxOffset(column));
+					if (blockMin < min)
+						min = blockMin;
+					if (blockMax > max)
+						max = blockMax;
+					row += count;
+					continue;
+				}
+				for (; pos < count && row < end; pos++, row++) {
+					double value = block.getDouble(format.valueOffset(column, pos));
+					if (value < min)
+						min = value;
+					if (value > max)
+						max = value;
+				}
+			}
+			ret.times[i] = getTime(start);
+			ret.min[i] = min > max ? Double.NaN : min;
+			ret.max[i] = min > max ? Double.NaN : max;
+		}
+		return ret;
+	}
+
+	@Override
+	public void close() throws IOException {
+		file.close();
+	}
+
+}
@@ -0,0 +1,192 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.javarcc.telemetry;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Records numeric values once per cycle into preallocated, columnar ring
+ * buffers. Recording does not allocate memory, so it can be done in the
+ * realtime thread of the Java RCC.
+ *
+ * Optionally, all recorded rows are continuously written to a memory-mapped
+ * telemetry file (see {@link TelemetryReader}) by a background thread.
+ *
+ * Rows must be recorded by a single thread, while recorded rows may be read
+ * concurrently.
+ */
+public class TelemetryRecorder implements Closeable {
+
+	/** number of rows written to telemetry files at once */
+	public static final int BLOCK_SIZE = 256;
+
+	private final List<String> names;
+	private final DoubleSupplier[] sources;
+	private final int capacity;
+	private final long[] times;
+	private final double[][] values;
+	private volatile long rows = 0;
+	private TelemetrySpill spill;
+
+	/**
+	 * Creates a recorder
+	 *
+	 * @param names    names of the recorded columns
+	 * @param sources  sources of the values of each column
+	 * @param capacity minimum number of rows to keep in memory
+	 */
+	public TelemetryRecorder(String[] names, DoubleSupplier[] sources, int capacity) {
+		if (names.length != sources.length)
+			throw new IllegalArgumentException("Number of names and sources differ");
+		this.names = Collections.unmodifiableList(Arrays.asList(names.clone()));
+		this.sources = sources.clone();
+		this.capacity = Math.max(4, (capacity + BLOCK_SIZE - 1) / BLOCK_SIZE) * BLOCK_SIZE;
+		this.times = new long[this.capacity];
+		this.values = new double[sources.length][this.capacity];
+	}
+
+	public List<String> getColumnNames() {
+		return names;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Records the current value of all columns
+	 *
+	 * @param time time of the row (in nanoseconds)
+	 */
+	public void record(long time) {
+		long row = rows;
+		int pos = (int) (row % capacity);
+		times[pos] = time;
+		for (int i = 0; i < sources.length; i++)
+			values[i][pos] = sources[i].getAsDouble();
+		rows = row + 1;
+	}
+
+	/**
+	 * Retrieves the number of rows recorded so far
+	 *
+	 * @return number of recorded rows
+	 */
+	public long getRowCount() {
+		return rows;
+	}
+
+	/**
+	 * Retrieves the oldest row that is still available in memory. A block of rows
+	 * is kept as safety margin, so that the returned row cannot be overwritten
+	 * while it is being read.
+	 *
+	 * @return index of the oldest available row
+	 */
+	public long getFirstRow() {
+		return Math.max(0, rows - capacity + BLOCK_SIZE);
+	}
+
+	/**
+	 * Retrieves the time of a row
+	 *
+	 * @param row index of the row
+	 * @return time of the row (in nanoseconds)
+	 * @throws IndexOutOfBoundsException if the row is no longer available
+	 */
+	public long getTime(long row) {
+		checkRow(row);
+		long ret = times[(int) (row % capacity)];
+		checkRow(row);
+		return ret;
+	}
+
+	/**
+	 * Reads values of a column
+	 *
+	 * @param column  index of the column
+	 * @param fromRow index of the first row to read
+	 * @param dst     array to write the values to
+	 * @return number of rows read
+	 * @throws IndexOutOfBoundsException if the first row is no longer available
+	 */
+	public int read(int column, long fromRow, double[] dst) {
+		checkRow(fromRow);
+		int count = (int) Math.min(dst.length, rows - fromRow);
+		copy(values[column], fromRow, dst, count);
+		checkRow(fromRow);
+		return count;
+	}
+
+	/**
+	 * Copies consecutive rows (if they are still available)
+	 *
+	 * @return true if the rows were copied, false if they have been overwritten
+	 */
+	boolean copy(long fromRow, int count, long[] times, double[][] values) {
+		if (fromRow < getFirstRow())
+			return false;
+		int pos = (int) (fromRow % capacity), first = Math.min(count, capacity - pos);
+		System.arraycopy(this.times, pos, times, 0, first);
+		System.arraycopy(this.times, 0, times, first, count - first);
+		for (int i = 0; i < values.length; i++)
+			copy(this.values[i], fromRow, values[i], count);
+		return fromRow >= getFirstRow();
+	}
+
+	private void copy(double[] src, long fromRow, double[] dst, int count) {
+		int pos = (int) (fromRow % capacity), first = Math.min(count, capacity - pos);
+		System.arraycopy(src, pos, dst, 0, first);
+		System.arraycopy(src, 0, dst, first, count - first);
+	}
+
+	private void checkRow(long row) {
+		if (row < getFirstRow() || row >= rows)
+			throw new IndexOutOfBoundsException("Row " + row + " is not available");
+	}
+
+	/**
+	 * Continuously writes all rows recorded from now on to a telemetry file.
+	 *
+	 * @param file file to write
+	 * @throws IOException if the file cannot be created
+	 */
+	public synchronized void spillTo(File file) throws IOException {
+		if (spill != null)
+			throw new IllegalStateException("Telemetry is already written to a file");
+		spill = new TelemetrySpill(this, file);
+		spill.start();
+	}
+
+	/**
+	 * Retrieves the number of rows that could not be written to the telemetry
+	 * file because they were overwritten before
+	 *
+	 * @return number of lost rows
+	 */
+	public synchronized long getDroppedRows() {
+		return spill == null ? 0 : spill.getDroppedRows();
+	}
+
+	/**
+	 * Writes the remaining rows to the telemetry file (if any) and closes it.
+	 * Rows recorded afterwards are only kept in memory.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (spill != null)
+			spill.finish();
+	}
+
+}
@@ -0,0 +1,149 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.javarcc.telemetry;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.roboticsapi.core.util.RAPILogger;
+
+/**
+ * Background thread writing the rows of a {@link TelemetryRecorder} to a
+ * memory-mapped telemetry file, one block at a time. The file is mapped in
+ * segments of multiple blocks.
+ */
+class TelemetrySpill extends Thread {
+
+	private static final int SEGMENT_BLOCKS = 64;
+	private static final long POLL_INTERVAL = TimeUnit.MILLISECONDS.toNanos(20);
+
+	private final TelemetryRecorder recorder;
+	private final TelemetryFormat format;
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+	private final MappedByteBuffer header;
+	private final long[] times = new long[TelemetryRecorder.BLOCK_SIZE];
+	private final double[][] values;
+	private MappedByteBuffer segment = null;
+	private long segmentIndex = -1;
+	private long nextRow, fileRows = 0;
+	private volatile long droppedRows = 0;
+	private volatile boolean finishing = false;
+
+	TelemetrySpill(TelemetryRecorder recorder, File file) throws IOException {
+		super("Telemetry writer " + file.getName());
+		setDaemon(true);
+		this.recorder = recorder;
+		byte[] header = TelemetryFormat.writeHeader(recorder.getColumnNames(), TelemetryRecorder.BLOCK_SIZE);
+		this.format = new TelemetryFormat(recorder.getColumnNames(), TelemetryRecorder.BLOCK_SIZE, header.length);
+		this.values = new double[format.columns][TelemetryRecorder.BLOCK_SIZE];
+		this.file = new RandomAccessFile(file, "rw");
+		this.file.setLength(0);
+		this.channel = this.file.getChannel();
+		this.header = channel.map(MapMode.READ_WRITE, 0, header.length);
+		this.header.put(header);
+		this.nextRow = recorder.getRowCount();
+	}
+
+	long getDroppedRows() {
+		return droppedRows;
+	}
+
+	/**
+	 * Writes the remaining rows and waits until the file is closed
+	 */
+	void finish() {
+		finishing = true;
+		LockSupport.unpark(this);
+		try {
+			join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public void run() {
+		try {
+			while (!finishing) {
+				writeBlocks(false);
+				LockSupport.parkNanos(this, POLL_INTERVAL);
+			}
+			writeBlocks(true);
+			header.force();
+			if (segment != null)
+				segment.force();
+		} catch (IOException e) {
+			RAPILogger.logException(this, e);
+		} finally {
+			try {
+				file.close();
+			} catch (IOException e) {
+				RAPILogger.logException(this, e);
+			}
+		}
+	}
+
+	private void writeBlocks(boolean partial) throws IOException {
+		while (true) {
+			long first = recorder.getFirstRow();
+			if (nextRow < first) {
+				droppedRows += first - nextRow;
+				nextRow = first;
+			}
+			int count = (int) Math.min(TelemetryRecorder.BLOCK_SIZE, recorder.getRowCount() - nextRow);
+			if (count == 0 || count < TelemetryRecorder.BLOCK_SIZE && !partial)
+				return;
+			if (!recorder.copy(nextRow, count, times, values))
+				continue;
+			writeBlock(count);
+			nextRow += count;
+			fileRows += count;
+			header.putLong(TelemetryFormat.ROWS_OFFSET, fileRows);
+			if (count < TelemetryRecorder.BLOCK_SIZE)
+				return;
+		}
+	}
+
+	private void writeBlock(int count) throws IOException {
+		long block = fileRows / TelemetryRecorder.BLOCK_SIZE;
+		if (block / SEGMENT_BLOCKS != segmentIndex) {
+			segmentIndex = block / SEGMENT_BLOCKS;
+			segment = channel.map(MapMode.READ_WRITE, format.blockPosition(segmentIndex * SEGMENT_BLOCKS),
+					(long) SEGMENT_BLOCKS * format.blockBytes);
+		}
+		ByteBuffer buffer = segment.duplicate();
+		buffer.position((int) (block % SEGMENT_BLOCKS) * format.blockBytes);
+		buffer = buffer.slice();
+
+		for (int row = 0; row < count; row++)
+			buffer.putLong(format.timeOffset(row), times[row]);
+		for (int column = 0; column < format.columns; column++) {
+			double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+			for (int row = 0; row < count; row++) {
+				double value = values[column][row];
+				buffer.putDouble(format.valueOffset(column, row), value);
+				if (value < min)
+					min = value;
+				if (value > max)
+					max = value;
+			}
+			buffer.putDouble(format.minOffset(column), min > max ? Double.NaN : min);
+			buffer.putDouble(format.maxOffset(column), min > max ? Double.NaN : max);
+		}
+		buffer.putInt(0, count);
+	}
+
+}
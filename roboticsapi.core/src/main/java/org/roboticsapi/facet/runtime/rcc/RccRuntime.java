@@ -8,9 +8,11 @@
 package org.roboticsapi.facet.runtime.rcc;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -24,6 +26,7 @@ import org.roboticsapi.core.CommandException;
 import org.roboticsapi.core.Dependency;
 import org.roboticsapi.core.DeviceParameterBag;
 import org.roboticsapi.core.NotPresentException;
+import org.roboticsapi.core.Observer;
 import org.roboticsapi.core.RealtimeValue;
 import org.roboticsapi.core.RealtimeValueListener;
 import org.roboticsapi.core.RuntimeCommand;
@@ -39,6 +42,7 @@ import org.roboticsapi.facet.runtime.rpi.DeviceListener;
 import org.roboticsapi.facet.runtime.rpi.DeviceStatus;
 import org.roboticsapi.facet.runtime.rpi.Fragment;
 import org.roboticsapi.facet.runtime.rpi.NetHandle;
+import org.roboticsapi.facet.runtime.rpi.NetcommValue;
 import org.roboticsapi.facet.runtime.rpi.RpiException;
 import org.roboticsapi.facet.runtime.rpi.RpiParameters;
 import org.roboticsapi.facet.runtime.rpi.mapping.CommandFragment;
@@ -56,6 +60,18 @@ public class RccRuntime extends RpiRuntime implements DeviceListener {
 
 	private final WritableRealtimeDouble override = RealtimeDouble.createWritable(1);
 
+	private final Dependency<Integer> readNetCacheSize;
+
+	private final Map<List<RealtimeValue<?>>, ReadNet> readNets = new LinkedHashMap<List<RealtimeValue<?>>, ReadNet>(
+			16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<List<RealtimeValue<?>>, ReadNet> eldest) {
+			return size() > readNetCacheSize.get();
+		}
+	};
+
 	private final Logger logger = Logger.getLogger("org.roboticsapi.runtime.softrobot");
 
 	private final Dependency<ConfiguredRcc> rcc;
@@ -67,6 +83,7 @@ public class RccRuntime extends RpiRuntime implements DeviceListener {
 	 */
 	public RccRuntime() {
 		rcc = createDependency("Rcc");
+		readNetCacheSize = createDependency("readNetCacheSize", 256);
 	}
 
 	public RccRuntime(ConfiguredRcc rcc) {
@@ -83,6 +100,23 @@ public class RccRuntime extends RpiRuntime implements DeviceListener {
 		return this.rcc.get();
 	}
 
+	/**
+	 * Sets the number of mapped nets kept for reading the current value of
+	 * realtime values
+	 *
+	 * @param readNetCacheSize number of cached read nets (0 to disable caching)
+	 */
+	@ConfigurationProperty(Optional = true)
+	public void setReadNetCacheSize(int readNetCacheSize) {
+		if (readNetCacheSize < 0)
+			throw new IllegalArgumentException("readNetCacheSize must not be negative");
+		this.readNetCacheSize.set(readNetCacheSize);
+	}
+
+	public int getReadNetCacheSize() {
+		return readNetCacheSize.get();
+	}
+
 	private Thread t;
 	private boolean shutdown = false;
 
@@ -120,6 +154,9 @@ public class RccRuntime extends RpiRuntime implements DeviceListener {
 			}
 		}
 		rcc.get().getControlCore().removeDeviceListener(this);
+		synchronized (readNets) {
+			readNets.clear();
+		}
 		super.beforeUninitialization();
 	}
 
@@ -360,25 +397,42 @@ public class RccRuntime extends RpiRuntime implements DeviceListener {
 	}
 
 	@Override
+	@SuppressWarnings("unchecked")
 	public <T> T getRealtimeValue(RealtimeValue<T> value) throws RealtimeValueReadException {
-		try {
-			final List<T> retList = new ArrayList<T>();
-			CommandFragment fragment = new CommandFragment(createWaitCommand());
-			fragment.addRealtimeValueSource(getMapperRegistry());
-			fragment.addObserver(value.createObserver(new RealtimeValueListener<T>() {
-				@Override
-				public void onValueChanged(T newValue) {
-					retList.add(newValue);
-				}
-			}, null, false));
+		return (T) readValues(Collections.singletonList(value)).get(0);
+	}
 
-			rcc.get().getControlCore().eval(fragment);
+	@Override
+	public List<Object> getRealtimeValues(List<? extends RealtimeValue<?>> values)
+			throws RealtimeValueReadException {
+		if (values.isEmpty())
+			return new ArrayList<Object>();
+		return readValues(new ArrayList<RealtimeValue<?>>(values));
+	}
 
-			if (retList.isEmpty()) {
-				return null;
-			} else {
-				return retList.get(0);
+	private List<Object> readValues(List<RealtimeValue<?>> values) throws RealtimeValueReadException {
+		ReadNet readNet;
+		synchronized (readNets) {
+			readNet = readNets.remove(values);
+		}
+		boolean cached = readNet != null;
+		try {
+			if (readNet == null || !readNet.isCurrent())
+				readNet = new ReadNet(values);
+			List<Object> ret;
+			try {
+				ret = readNet.eval();
+			} catch (RpiException e) {
+				if (!cached)
+					throw e;
+				// the cached mapping may have become stale, so map the values again
+				readNet = new ReadNet(values);
+				ret = readNet.eval();
+			}
+			synchronized (readNets) {
+				readNets.put(values, readNet);
 			}
+			return ret;
 		} catch (RoboticsException e) {
 			throw new RealtimeValueReadException(e);
 		} catch (RpiException e) {
@@ -386,6 +440,58 @@ public class RccRuntime extends RpiRuntime implements DeviceListener {
 		}
 	}
 
+	/**
+	 * Mapped net reading a list of realtime values, which is kept to speed up
+	 * repeated reads of the same values. Values written from Java are part of the
+	 * net's parameters, so the net is only valid as long as they do not change.
+	 */
+	private class ReadNet {
+		private final CommandFragment fragment;
+		private final List<NetcommValue> netcomm;
+		private final List<NetcommValue> inputs;
+		private final List<String> inputValues = new ArrayList<String>();
+		private final Object[] results;
+
+		public ReadNet(List<RealtimeValue<?>> values) throws RoboticsException {
+			fragment = new CommandFragment(createWaitCommand());
+			fragment.addRealtimeValueSource(getMapperRegistry());
+			results = new Object[values.size()];
+			for (int i = 0; i < results.length; i++)
+				fragment.addObserver(createObserver(values.get(i), i));
+			netcomm = fragment.getNetcommFromRPI();
+			inputs = fragment.getNetcommToRPI();
+			for (NetcommValue input : inputs)
+				inputValues.add(input.getString());
+		}
+
+		public boolean isCurrent() {
+			for (int i = 0; i < inputs.size(); i++) {
+				String value = inputs.get(i).getString();
+				if (value == null ? inputValues.get(i) != null : !value.equals(inputValues.get(i)))
+					return false;
+			}
+			return true;
+		}
+
+		private <T> Observer<?> createObserver(RealtimeValue<T> value, final int index) {
+			return value.createObserver(new RealtimeValueListener<T>() {
+				@Override
+				public void onValueChanged(T newValue) {
+					if (results[index] == null)
+						results[index] = newValue;
+				}
+			}, null, false);
+		}
+
+		public synchronized List<Object> eval() throws RpiException {
+			Arrays.fill(results, null);
+			for (NetcommValue value : netcomm)
+				value.reset();
+			rcc.get().getControlCore().eval(fragment);
+			return Arrays.asList(results.clone());
+		}
+	}
+
 	@Override
 	public RealtimeDouble getOverrideSensor() {
 		return override;
@@ -10,7 +10,14 @@ package org.roboticsapi.facet.runtime.rpi;
 import java.util.ArrayList;
 
 public abstract class ArrayType<T extends Type> extends Type {
-	private final ArrayList<T> data;
+	private ArrayList<T> data;
+
+	/**
+	 * Creates an array type that stores its elements itself and overrides all
+	 * element access methods.
+	 */
+	protected ArrayType() {
+	}
 
 	public ArrayType(int capacity) {
 		data = new ArrayList<T>(capacity);
@@ -90,4 +97,27 @@ public abstract class ArrayType<T extends Type> extends Type {
 		}
 		return value.substring(1);
 	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public ArrayType<T> copy() {
+		ArrayType<T> ret = (ArrayType<T>) clone();
+		ret.data = new ArrayList<T>(data.size());
+		for (T value : data)
+			ret.data.add((T) value.copy());
+		return ret;
+	}
+
+	@Override
+	public boolean isEqual(Type other) {
+		if (other == null || other.getClass() != getClass())
+			return false;
+		ArrayType<?> o = (ArrayType<?>) other;
+		if (o.data.size() != data.size())
+			return false;
+		for (int i = 0; i < data.size(); i++)
+			if (!data.get(i).isEqual(o.data.get(i)))
+				return false;
+		return true;
+	}
 }
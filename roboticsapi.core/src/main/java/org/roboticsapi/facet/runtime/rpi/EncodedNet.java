@@ -0,0 +1,186 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.runtime.rpi;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * A net in the compact binary encoding created by {@link NetEncoder}. The net
+ * is split into its structure (primitives, connections and parameter names,
+ * using a string table) and the list of parameter values. The structure is
+ * identified by a content hash, so that a receiver already holding a net with
+ * the same structure only needs the hash and the changed parameter values.
+ *
+ * Layout: the magic bytes "RPI", the format version, the kind ('F' for a full
+ * net, 'R' for a reference to a known structure) and the 16 byte structure
+ * hash, followed by the deflate compressed body. The body of a full net
+ * contains the structure and the parameter values (as indices into a value
+ * table), the body of a reference contains the list of changed parameter
+ * values (index and value). All numbers are written as unsigned variable
+ * length integers, strings as length and UTF-8 bytes.
+ */
+public class EncodedNet {
+
+	static final byte[] MAGIC = { 'R', 'P', 'I' };
+	static final byte FORMAT_VERSION = 1;
+	static final byte KIND_FULL = 'F';
+	static final byte KIND_REFERENCE = 'R';
+	static final int HASH_LENGTH = 16;
+
+	private final byte[] structure;
+	private final byte[] hash;
+	private final List<String> parameterValues;
+
+	EncodedNet(byte[] structure, byte[] hash, List<String> parameterValues) {
+		this.structure = structure;
+		this.hash = hash;
+		this.parameterValues = Collections.unmodifiableList(new ArrayList<String>(parameterValues));
+	}
+
+	/**
+	 * Retrieves the hash identifying the structure of the net
+	 *
+	 * @return structure hash as hex string
+	 */
+	public String getHash() {
+		return toHex(hash);
+	}
+
+	static String toHex(byte[] hash) {
+		StringBuilder ret = new StringBuilder();
+		for (byte b : hash) {
+			ret.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+		}
+		return ret.toString();
+	}
+
+	/**
+	 * Retrieves the values of all parameters, in the order they appear in the
+	 * structure
+	 *
+	 * @return parameter values
+	 */
+	public List<String> getParameterValues() {
+		return parameterValues;
+	}
+
+	byte[] getStructure() {
+		return structure;
+	}
+
+	/**
+	 * Encodes the complete net
+	 *
+	 * @return binary representation containing structure and parameters
+	 */
+	public byte[] toBytes() {
+		try {
+			ByteArrayOutputStream ret = new ByteArrayOutputStream(structure.length / 2 + 64);
+			writeHeader(ret, KIND_FULL);
+			Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+			DataOutputStream body = new DataOutputStream(new DeflaterOutputStream(ret, deflater));
+			body.write(structure);
+
+			Map<String, Integer> valueTable = new HashMap<String, Integer>();
+			List<String> values = new ArrayList<String>();
+			int[] indices = new int[parameterValues.size()];
+			for (int i = 0; i < indices.length; i++) {
+				Integer index = valueTable.get(parameterValues.get(i));
+				if (index == null) {
+					index = values.size();
+					valueTable.put(parameterValues.get(i), index);
+					values.add(parameterValues.get(i));
+				}
+				indices[i] = index;
+			}
+			writeVarInt(body, values.size());
+			for (String value : values) {
+				writeString(body, value);
+			}
+			writeVarInt(body, indices.length);
+			for (int index : indices) {
+				writeVarInt(body, index);
+			}
+			body.close();
+			deflater.end();
+			return ret.toByteArray();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Encodes the net as a reference to a net with the same structure the
+	 * receiver already holds. Only parameters differing from the known net are
+	 * included.
+	 *
+	 * @param knownValues parameter values of the net known to the receiver
+	 * @return binary representation containing the hash and changed parameters
+	 */
+	public byte[] toBytes(List<String> knownValues) {
+		if (knownValues.size() != parameterValues.size()) {
+			throw new IllegalArgumentException("Known net has a different number of parameters");
+		}
+		try {
+			ByteArrayOutputStream ret = new ByteArrayOutputStream(64);
+			writeHeader(ret, KIND_REFERENCE);
+			Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+			DataOutputStream body = new DataOutputStream(new DeflaterOutputStream(ret, deflater));
+			int changed = 0;
+			for (int i = 0; i < parameterValues.size(); i++) {
+				if (!parameterValues.get(i).equals(knownValues.get(i))) {
+					changed++;
+				}
+			}
+			writeVarInt(body, changed);
+			for (int i = 0; i < parameterValues.size(); i++) {
+				if (!parameterValues.get(i).equals(knownValues.get(i))) {
+					writeVarInt(body, i);
+					writeString(body, parameterValues.get(i));
+				}
+			}
+			body.close();
+			deflater.end();
+			return ret.toByteArray();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private void writeHeader(ByteArrayOutputStream out, byte kind) throws IOException {
+		out.write(MAGIC);
+		out.write(FORMAT_VERSION);
+		out.write(kind);
+		out.write(hash);
+	}
+
+	static void writeVarInt(DataOutputStream out, int value) throws IOException {
+		while ((value & ~0x7f) != 0) {
+			out.writeByte((value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarInt(out, bytes.length);
+		out.write(bytes);
+	}
+
+}
@@ -0,0 +1,123 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.runtime.rpi;
+
+import org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble;
+import org.roboticsapi.facet.runtime.rpi.core.types.RPIdoubleElement;
+
+/**
+ * A complex type consisting of named double components, which are stored in a
+ * flat double array instead of separate {@link RPIdouble} objects. The array
+ * may be shared with an enclosing type (e.g. the position of a frame), so that
+ * the enclosing type is flat as well.
+ *
+ * The component objects returned by {@link #getComponent(int)} are views
+ * writing through to the array. They are only created when needed, primitives
+ * should prefer {@link #get(int)} and {@link #set(int, double)}.
+ */
+public abstract class FlatComplexType extends ComplexType {
+
+	private final double[] values;
+	private final int offset;
+	private RPIdouble[] components;
+
+	/**
+	 * Creates a flat type storing its components in the given array
+	 *
+	 * @param values array storing the components
+	 * @param offset index of the first component in the array
+	 */
+	protected FlatComplexType(double[] values, int offset) {
+		this.values = values;
+		this.offset = offset;
+	}
+
+	/**
+	 * Retrieves the names of the components, in the order they are stored
+	 *
+	 * @return component names
+	 */
+	protected abstract String[] getComponentNames();
+
+	/**
+	 * Retrieves the value of a component
+	 *
+	 * @param index index of the component
+	 * @return the current value
+	 */
+	public final double get(int index) {
+		return values[offset + index];
+	}
+
+	/**
+	 * Sets the value of a component
+	 *
+	 * @param index index of the component
+	 * @param value the new value
+	 */
+	public final void set(int index, double value) {
+		values[offset + index] = value;
+	}
+
+	/**
+	 * Copies all components from another value of the same type
+	 *
+	 * @param other value to copy from
+	 */
+	public final void setFrom(FlatComplexType other) {
+		System.arraycopy(other.values, other.offset, values, offset, getComponentNames().length);
+	}
+
+	/**
+	 * Retrieves a view of a component
+	 *
+	 * @param index index of the component
+	 * @return an RPIdouble reading and writing the component
+	 */
+	protected final RPIdouble getComponent(int index) {
+		if (components == null)
+			components = new RPIdouble[getComponentNames().length];
+		if (components[index] == null)
+			components[index] = new RPIdoubleElement(values, offset + index);
+		return components[index];
+	}
+
+	@Override
+	protected void appendComponents(StringBuilder buf) {
+		String[] names = getComponentNames();
+		for (int i = 0; i < names.length; i++) {
+			if (i > 0)
+				buf.append(",");
+			buf.append(names[i]).append(":");
+			RPIdouble.appendValue(buf, get(i));
+		}
+	}
+
+	@Override
+	protected String consumeComponent(String key, String value) {
+		String[] names = getComponentNames();
+		for (int i = 0; i < names.length; i++) {
+			if (names[i].equals(key))
+				return getComponent(i).consumeString(value);
+		}
+		throw new IllegalArgumentException("key");
+	}
+
+	@Override
+	public boolean isEqual(Type other) {
+		if (other == null || other.getClass() != getClass())
+			return false;
+		FlatComplexType o = (FlatComplexType) other;
+		for (int i = 0; i < getComponentNames().length; i++) {
+			if (Double.compare(get(i), o.get(i)) != 0)
+				return false;
+		}
+		return true;
+	}
+
+}
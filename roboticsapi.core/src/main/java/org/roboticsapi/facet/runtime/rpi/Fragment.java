@@ -8,7 +8,11 @@
 package org.roboticsapi.facet.runtime.rpi;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Fragment extends Primitive {
 
@@ -18,12 +22,12 @@ public class Fragment extends Primitive {
 		super("Fragment");
 	}
 
-	private static int nr = 0;
+	private static final AtomicInteger nr = new AtomicInteger();
 
 	public <T extends Primitive> T add(T primitive) {
 		if (primitive.getName() == null) {
 //			primitive.setName(primitive.getType() + (nr++));
-			primitive.setName("p" + (nr++));
+			primitive.setName("p" + nr.getAndIncrement());
 		}
 		primitives.add(primitive);
 		return primitive;
@@ -33,6 +37,20 @@ public class Fragment extends Primitive {
 		primitives.remove(primitive);
 	}
 
+	/**
+	 * Removes several primitives at once, in time linear to the size of the
+	 * fragment
+	 *
+	 * @param toRemove primitives to remove
+	 */
+	public void removeAll(Collection<? extends Primitive> toRemove) {
+		if (toRemove.isEmpty()) {
+			return;
+		}
+		final Set<Primitive> set = new HashSet<Primitive>(toRemove);
+		primitives.removeIf(set::contains);
+	}
+
 	public List<Primitive> getPrimitives() {
 		return primitives;
 	}
@@ -0,0 +1,267 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.runtime.rpi;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.roboticsapi.facet.runtime.rpi.core.types.RPIstring;
+
+/**
+ * Decodes nets in the binary format created by {@link NetEncoder}. Like
+ * {@link NetParser}, the result consists of generic primitives with string
+ * parameters.
+ */
+public class NetDecoder {
+
+	private final String[] strings;
+	private final List<String> values;
+	private int nextValue = 0;
+
+	private NetDecoder(String[] strings, List<String> values) {
+		this.strings = strings;
+		this.values = values;
+	}
+
+	/**
+	 * Decode binary net. Full nets are added to the known nets, references are
+	 * resolved using the known nets.
+	 *
+	 * @param data  binary representation of the net
+	 * @param known nets with known structure, by structure hash
+	 * @return fragment
+	 * @throws RpiException if decoding fails or the referenced structure is
+	 *                      unknown
+	 */
+	public static Fragment decode(byte[] data, Map<String, EncodedNet> known) throws RpiException {
+		int header = EncodedNet.MAGIC.length + 2;
+		if (data.length < header + EncodedNet.HASH_LENGTH
+				|| !Arrays.equals(EncodedNet.MAGIC, Arrays.copyOf(data, EncodedNet.MAGIC.length))) {
+			throw new RpiException("Invalid binary net");
+		}
+		if (data[EncodedNet.MAGIC.length] != EncodedNet.FORMAT_VERSION) {
+			throw new RpiException("Unsupported binary net version " + data[EncodedNet.MAGIC.length]);
+		}
+		byte kind = data[EncodedNet.MAGIC.length + 1];
+		byte[] hash = Arrays.copyOfRange(data, header, header + EncodedNet.HASH_LENGTH);
+		byte[] body = inflate(data, header + EncodedNet.HASH_LENGTH);
+
+		try {
+			if (kind == EncodedNet.KIND_FULL) {
+				ByteArrayInputStream bytes = new ByteArrayInputStream(body);
+				DataInputStream in = new DataInputStream(bytes);
+				readStrings(in);
+				skipFragment(in);
+				byte[] structure = Arrays.copyOf(body, body.length - bytes.available());
+				if (!Arrays.equals(hash, NetEncoder.hash(structure))) {
+					throw new RpiException("Binary net does not match its structure hash");
+				}
+
+				String[] table = new String[readVarInt(in)];
+				for (int i = 0; i < table.length; i++) {
+					table[i] = readString(in);
+				}
+				List<String> values = new ArrayList<String>();
+				for (int i = readVarInt(in); i > 0; i--) {
+					values.add(table[readVarInt(in)]);
+				}
+
+				EncodedNet net = new EncodedNet(structure, hash, values);
+				known.put(net.getHash(), net);
+				return decode(structure, values);
+			} else if (kind == EncodedNet.KIND_REFERENCE) {
+				EncodedNet net = known.get(EncodedNet.toHex(hash));
+				if (net == null) {
+					throw new RpiException("Unknown net structure");
+				}
+				DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+				List<String> values = new ArrayList<String>(net.getParameterValues());
+				for (int i = readVarInt(in); i > 0; i--) {
+					values.set(readVarInt(in), readString(in));
+				}
+				return decode(net.getStructure(), values);
+			} else {
+				throw new RpiException("Unknown binary net kind " + kind);
+			}
+		} catch (IOException | IndexOutOfBoundsException e) {
+			throw new RpiException(e);
+		}
+	}
+
+	private static Fragment decode(byte[] structure, List<String> values)
+			throws IOException, RpiException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(structure));
+		NetDecoder decoder = new NetDecoder(readStrings(in), values);
+		Fragment ret = new Fragment();
+		decoder.readFragment(in, ret);
+		if (decoder.nextValue != values.size()) {
+			throw new RpiException("Binary net has a wrong number of parameters");
+		}
+		return ret;
+	}
+
+	private void readFragment(DataInputStream in, Fragment fragment) throws IOException, RpiException {
+		Primitive[] primitives = new Primitive[readVarInt(in)];
+		List<Runnable> todos = new ArrayList<Runnable>();
+		for (int i = 0; i < primitives.length; i++) {
+			Primitive primitive;
+			if (in.readByte() == 1) {
+				Fragment child = new Fragment();
+				readFragment(in, child);
+				primitive = child;
+			} else {
+				primitive = new Primitive(strings[readVarInt(in)]);
+			}
+			fragment.add(primitive);
+			primitives[i] = primitive;
+
+			for (int ins = readVarInt(in); ins > 0; ins--) {
+				String name = strings[readVarInt(in)];
+				double debug = in.readByte() == 1 ? in.readDouble() : 0;
+				int source = readVarInt(in);
+				String port = strings[readVarInt(in)];
+				todos.add(() -> {
+					InPort inPort;
+					if (primitive instanceof Fragment) {
+						inPort = getInPort((Fragment) primitive, name);
+					} else {
+						primitive.add(inPort = new InPort(name));
+					}
+					inPort.setDebug(debug);
+					connect(inPort, resolve(fragment, primitives, source, port));
+				});
+			}
+			for (int params = readVarInt(in); params > 0; params--) {
+				primitive.add(new Parameter<RPIstring>(strings[readVarInt(in)], new RPIstring(values.get(nextValue++))));
+			}
+		}
+		for (Runnable todo : todos) {
+			todo.run();
+		}
+
+		for (int outs = readVarInt(in); outs > 0; outs--) {
+			String name = strings[readVarInt(in)];
+			int source = readVarInt(in);
+			fragment.provideOutPort(resolve(fragment, primitives, source, strings[readVarInt(in)]), name);
+		}
+	}
+
+	private static OutPort resolve(Fragment fragment, Primitive[] primitives, int source, String port) {
+		if (source == 0) {
+			return getInPort(fragment, port).getInternalOutPort();
+		}
+		Primitive primitive = primitives[source - 1];
+		for (OutPort out : primitive.getOutPorts()) {
+			if (out.getName().equals(port)) {
+				return out;
+			}
+		}
+		OutPort ret = new OutPort(port);
+		primitive.add(ret);
+		return ret;
+	}
+
+	private static FragmentInPort getInPort(Fragment fragment, String name) {
+		for (InPort in : fragment.getInPorts()) {
+			if (in instanceof FragmentInPort && in.getName().equals(name)) {
+				return (FragmentInPort) in;
+			}
+		}
+		return fragment.addInPort(name);
+	}
+
+	private static void connect(InPort in, OutPort out) {
+		try {
+			in.connectTo(out);
+		} catch (RpiException e) {
+		}
+	}
+
+	private static String[] readStrings(DataInputStream in) throws IOException {
+		String[] ret = new String[readVarInt(in)];
+		for (int i = 0; i < ret.length; i++) {
+			ret[i] = readString(in);
+		}
+		return ret;
+	}
+
+	private static void skipFragment(DataInputStream in) throws IOException {
+		for (int primitives = readVarInt(in); primitives > 0; primitives--) {
+			if (in.readByte() == 1) {
+				skipFragment(in);
+			} else {
+				readVarInt(in);
+			}
+			for (int ins = readVarInt(in); ins > 0; ins--) {
+				readVarInt(in);
+				if (in.readByte() == 1) {
+					in.readDouble();
+				}
+				readVarInt(in);
+				readVarInt(in);
+			}
+			for (int params = readVarInt(in); params > 0; params--) {
+				readVarInt(in);
+			}
+		}
+		for (int outs = readVarInt(in); outs > 0; outs--) {
+			readVarInt(in);
+			readVarInt(in);
+			readVarInt(in);
+		}
+	}
+
+	private static byte[] inflate(byte[] data, int offset) throws RpiException {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(data, offset, data.length - offset);
+			ByteArrayOutputStream ret = new ByteArrayOutputStream(data.length * 4);
+			byte[] buffer = new byte[4096];
+			while (!inflater.finished()) {
+				int read = inflater.inflate(buffer);
+				if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new RpiException("Truncated binary net");
+				}
+				ret.write(buffer, 0, read);
+			}
+			return ret.toByteArray();
+		} catch (DataFormatException e) {
+			throw new RpiException(e);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	private static int readVarInt(DataInputStream in) throws IOException {
+		int ret = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.readUnsignedByte();
+			ret |= (b & 0x7f) << shift;
+			if ((b & 0x80) == 0) {
+				return ret;
+			}
+		}
+		throw new IOException("Malformed number in binary net");
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[readVarInt(in)];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,175 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.runtime.rpi;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes nets into the compact binary format described in {@link EncodedNet}.
+ *
+ * The structure consists of a string table (primitive types, port and
+ * parameter names) followed by the top level fragment:
+ *
+ * <pre>
+ * fragment  := count primitive* count (name source)*
+ * primitive := (0 type | 1 fragment) count (name debug source)* count name*
+ * source    := (0 for parent | index of primitive + 1) port
+ * </pre>
+ *
+ * Primitives are referenced by their index, so their (generated) names are not
+ * part of the encoding. The values of all parameters are kept separately in
+ * the order they appear in the structure, so nets only differing in their
+ * parameters share the same structure hash.
+ */
+public class NetEncoder {
+
+	private final Map<String, Integer> strings = new HashMap<String, Integer>();
+	private final List<String> stringTable = new ArrayList<String>();
+	private final List<String> values = new ArrayList<String>();
+	private final DataOutputStream out;
+
+	private NetEncoder(ByteArrayOutputStream buffer) {
+		out = new DataOutputStream(buffer);
+	}
+
+	/**
+	 * Encode net into binary format
+	 *
+	 * @param net Net to encode
+	 * @return encoded net, consisting of structure and parameter values
+	 */
+	public static EncodedNet encode(Fragment net) {
+		try {
+			ByteArrayOutputStream body = new ByteArrayOutputStream();
+			NetEncoder encoder = new NetEncoder(body);
+			encoder.writeFragment(net);
+			encoder.out.flush();
+
+			ByteArrayOutputStream structure = new ByteArrayOutputStream(body.size() + encoder.stringTable.size() * 8);
+			DataOutputStream data = new DataOutputStream(structure);
+			EncodedNet.writeVarInt(data, encoder.stringTable.size());
+			for (String string : encoder.stringTable) {
+				EncodedNet.writeString(data, string);
+			}
+			body.writeTo(data);
+			data.flush();
+
+			byte[] bytes = structure.toByteArray();
+			return new EncodedNet(bytes, hash(bytes), encoder.values);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	static byte[] hash(byte[] structure) {
+		try {
+			return Arrays.copyOf(MessageDigest.getInstance("SHA-256").digest(structure), EncodedNet.HASH_LENGTH);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private void writeFragment(Fragment fragment) throws IOException {
+		List<Primitive> primitives = fragment.getPrimitives();
+		Map<Primitive, Integer> indices = new IdentityHashMap<Primitive, Integer>(primitives.size() * 2);
+		for (Primitive primitive : primitives) {
+			indices.put(primitive, indices.size() + 1);
+		}
+
+		EncodedNet.writeVarInt(out, primitives.size());
+		for (Primitive primitive : primitives) {
+			writePrimitive(primitive, indices);
+		}
+
+		int outs = 0;
+		for (OutPort port : fragment.getOutPorts()) {
+			if (port instanceof FragmentOutPort) {
+				outs++;
+			}
+		}
+		EncodedNet.writeVarInt(out, outs);
+		for (OutPort port : fragment.getOutPorts()) {
+			if (port instanceof FragmentOutPort) {
+				writeStringIndex(port.getName());
+				writeSource(((FragmentOutPort) port).getInnerPort(), indices);
+			}
+		}
+	}
+
+	private void writePrimitive(Primitive primitive, Map<Primitive, Integer> indices) throws IOException {
+		if (primitive instanceof Fragment) {
+			out.writeByte(1);
+			writeFragment((Fragment) primitive);
+		} else {
+			out.writeByte(0);
+			writeStringIndex(primitive.getType());
+		}
+
+		int ins = 0;
+		for (InPort in : primitive.getInPorts()) {
+			if (in.getConnectedPort() != null) {
+				ins++;
+			}
+		}
+		EncodedNet.writeVarInt(out, ins);
+		for (InPort in : primitive.getInPorts()) {
+			OutPort source = in.getConnectedPort();
+			if (source != null) {
+				writeStringIndex(in.getName());
+				if (in.getDebug() > 0) {
+					out.writeByte(1);
+					out.writeDouble(in.getDebug());
+				} else {
+					out.writeByte(0);
+				}
+				writeSource(source, indices);
+			}
+		}
+
+		int params = 0;
+		for (Parameter<?> param : primitive.getParameters()) {
+			if (param.getValue() != null) {
+				params++;
+			}
+		}
+		EncodedNet.writeVarInt(out, params);
+		for (Parameter<?> param : primitive.getParameters()) {
+			if (param.getValue() != null) {
+				writeStringIndex(param.getName());
+				values.add(param.getValue().toString());
+			}
+		}
+	}
+
+	private void writeSource(OutPort source, Map<Primitive, Integer> indices) throws IOException {
+		Integer index = indices.get(source.getPrimitive());
+		EncodedNet.writeVarInt(out, index == null ? 0 : index);
+		writeStringIndex(source.getName());
+	}
+
+	private void writeStringIndex(String string) throws IOException {
+		Integer index = strings.get(string);
+		if (index == null) {
+			index = stringTable.size();
+			strings.put(string, index);
+			stringTable.add(string);
+		}
+		EncodedNet.writeVarInt(out, index);
+	}
+
+}
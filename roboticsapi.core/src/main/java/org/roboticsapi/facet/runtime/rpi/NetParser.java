@@ -1,22 +1,71 @@
 /* This Source Code Form is subject to the terms of the Mozilla Public
  * License, v. 2.0. If a copy of the MPL was not distributed with this
- * file, You can obtain one at https://mozilla.org/MPL/2.0/. 
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
  *
- * Copyright 2013-2019 ISSE, University of Augsburg 
+ * Copyright 2013-2019 ISSE, University of Augsburg
  */
 
 package org.roboticsapi.facet.runtime.rpi;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.roboticsapi.facet.runtime.rpi.core.types.RPIstring;
 
+/**
+ * Parser for the compact text format created by {@link NetSerializer}. The
+ * parser works on the characters of the net using a cursor, and shares the
+ * strings of primitive types and port names occurring several times.
+ */
 public class NetParser {
 
+	/** connection to be established after all primitives of a fragment exist */
+	private static class Connection {
+		private final Primitive primitive;
+		private final String inPort;
+		private final double debug;
+		private final Primitive source;
+		private final String sourceName;
+		private final String outPort;
+
+		private Connection(Primitive primitive, String inPort, double debug, Primitive source, String sourceName,
+				String outPort) {
+			this.primitive = primitive;
+			this.inPort = inPort;
+			this.debug = debug;
+			this.source = source;
+			this.sourceName = sourceName;
+			this.outPort = outPort;
+		}
+	}
+
+	/** primitives and pending connections of the fragment being parsed */
+	private static class Scope {
+		private final Fragment fragment = new Fragment();
+		private final Map<String, Primitive> primitives = new HashMap<String, Primitive>();
+		private final List<Connection> connections = new ArrayList<Connection>();
+
+		private void add(Primitive primitive) {
+			fragment.add(primitive);
+			primitives.put(primitive.getName(), primitive);
+		}
+	}
+
+	private final CharSequence net;
+	private final int length;
+	private int pos = 0;
+	private String[] symbols = new String[256];
+	private int symbolCount = 0;
+
+	private NetParser(CharSequence net) {
+		this.net = net;
+		this.length = net.length();
+	}
+
 	/**
 	 * Parse compact text format into fragment
 	 *
@@ -25,140 +74,163 @@ public class NetParser {
 	 * @throws RpiException if parsing fails.
 	 */
 	public static Fragment parse(String net) throws RpiException {
-		PushbackInputStream reader = new PushbackInputStream(new ByteArrayInputStream(net.getBytes()));
-		Fragment ret = parseFragment(reader, null);
-		return ret;
+		return parse((CharSequence) net);
+	}
+
+	/**
+	 * Parse compact text format into fragment
+	 *
+	 * @param net fragment text representation
+	 * @return fragment
+	 * @throws RpiException if parsing fails.
+	 */
+	public static Fragment parse(CharSequence net) throws RpiException {
+		return new NetParser(net).parseFragment();
+	}
+
+	/**
+	 * Parse compact text format (UTF-8 encoded) into fragment
+	 *
+	 * @param net fragment text representation, read from its position to its
+	 *            limit
+	 * @return fragment
+	 * @throws RpiException if parsing fails.
+	 */
+	public static Fragment parse(ByteBuffer net) throws RpiException {
+		return parse(StandardCharsets.UTF_8.decode(net));
 	}
 
-	private static List<Runnable> configurePrimitive(PushbackInputStream bytes, Primitive primitive, Fragment context)
-			throws RpiException {
-		List<Runnable> ret = new ArrayList<>();
-		expect(bytes, '(');
+	private void configurePrimitive(Primitive primitive, Scope scope) throws RpiException {
+		expect('(');
 		while (true) {
-			String name = readUntil(bytes, '=', '[', ')');
+			int nameStart = pos;
+			String name = symbol(nameStart, scan('=', '[', ')'));
 			double debug = 0;
-			if (next(bytes) == '[') {
-				expect(bytes, '[');
-				debug = Double.parseDouble(readUntil(bytes, ']'));
-				expect(bytes, ']');
+			if (next() == '[') {
+				pos++;
+				int start = pos;
+				debug = Double.parseDouble(string(start, scan(']')));
+				expect(']');
 			}
-			double fdebug = debug;
-			if (next(bytes) == '=') {
-				expect(bytes, '=');
-				String type = readUntil(bytes, '\'', '.', '(', '{');
+			if (next() == '=') {
+				pos++;
+				int start = pos;
+				int end = scan('\'', '.', '(', '{');
+				char next = next();
 				Primitive prim = null;
-				if (next(bytes) == '.') {
-					if (type.equals("parent")) {
-						prim = context;
+				String sourceName = null;
+				if (next == '.') {
+					if (matches("parent", start, end)) {
+						prim = scope.fragment;
+					} else {
+						sourceName = string(start, end);
 					}
-				} else if (next(bytes) == '(') {
-					prim = new Primitive(type);
-					ret.addAll(configurePrimitive(bytes, prim, context));
-					context.add(prim);
-				} else if (next(bytes) == '{') {
-					prim = parseFragment(bytes, context);
-					context.add(prim);
-					if (next(bytes) == '(') {
-						ret.addAll(configurePrimitive(bytes, prim, context));
+				} else if (next == '(') {
+					prim = new Primitive(symbol(start, end));
+					configurePrimitive(prim, scope);
+					scope.add(prim);
+				} else if (next == '{') {
+					prim = parseFragment();
+					scope.add(prim);
+					if (next() == '(') {
+						configurePrimitive(prim, scope);
 					}
 				}
-				Primitive fprim = prim;
-				if (next(bytes) == '.') {
-					expect(bytes, '.');
-					String outPort = readUntil(bytes, ',', ')');
-					ret.add(() -> {
-						try {
-							Primitive lprim = fprim;
-							if (lprim == null) {
-								for (Primitive p : context.getPrimitives()) {
-									if (p.getName().equals(type)) {
-										lprim = p;
-									}
-								}
-							}
-							OutPort out = getOrCreateOutPort(lprim, outPort);
-							InPort in = null;
-							if (primitive instanceof Fragment) {
-								in = ((Fragment) primitive).addInPort(name);
-							} else {
-								primitive.add(in = new InPort(name));
-							}
-							in.setDebug(fdebug);
-							in.connectTo(out);
-						} catch (RpiException e) {
-						}
-					});
-				} else if (next(bytes) == '\'') {
-					expect(bytes, '\'');
-					String value = readUntil(bytes, '\'');
+				if (next() == '.') {
+					pos++;
+					int portStart = pos;
+					String outPort = symbol(portStart, scan(',', ')'));
+					scope.connections.add(new Connection(primitive, name, debug, prim, sourceName, outPort));
+				} else if (next() == '\'') {
+					pos++;
+					int valueStart = pos;
+					String value = string(valueStart, scan('\''));
 					primitive.add(new Parameter<RPIstring>(name, new RPIstring(value)));
-					expect(bytes, '\'');
+					expect('\'');
 				}
 			}
-			if (next(bytes) == ')') {
-				expect(bytes, ')');
-				return ret;
+			if (next() == ')') {
+				pos++;
+				return;
 			} else {
-				expect(bytes, ',');
+				expect(',');
 			}
 		}
 	}
 
-	private static Fragment parseFragment(PushbackInputStream bytes, Fragment context) throws RpiException {
-		expect(bytes, '{');
-		List<Runnable> todos = new ArrayList<>();
-		Fragment ret = new Fragment();
+	private Fragment parseFragment() throws RpiException {
+		expect('{');
+		Scope scope = new Scope();
+		Fragment ret = scope.fragment;
 		while (true) {
-			if (next(bytes) == '}') {
-				expect(bytes, '}');
-
-				for (Runnable todo : todos) {
-					todo.run();
+			if (next() == '}') {
+				pos++;
+				for (Connection connection : scope.connections) {
+					connect(connection, scope);
 				}
-
 				return ret;
 			}
-			String name = readUntil(bytes, '=');
-			expect(bytes, '=');
-			String type = readUntil(bytes, '.', '(', '{');
+			int nameStart = pos;
+			String name = string(nameStart, scan('='));
+			expect('=');
+			int start = pos;
+			int end = scan('.', '(', '{');
 			Primitive prim = null;
-			if (next(bytes) == '.') {
-				for (Primitive p : ret.getPrimitives()) {
-					if (p.getName().equals(type)) {
-						prim = p;
-					}
-				}
-				if (type.equals("parent"))
+			if (next() == '.') {
+				if (matches("parent", start, end)) {
 					prim = ret;
-			} else if (next(bytes) == '(') {
-				prim = new Primitive(type);
+				} else {
+					prim = scope.primitives.get(string(start, end));
+				}
+			} else if (next() == '(') {
+				prim = new Primitive(symbol(start, end));
 				prim.setName(name);
-				todos.addAll(configurePrimitive(bytes, prim, ret));
-				ret.add(prim);
-			} else if (next(bytes) == '{') {
-				prim = parseFragment(bytes, ret);
+				configurePrimitive(prim, scope);
+				scope.add(prim);
+			} else if (next() == '{') {
+				prim = parseFragment();
 				prim.setName(name);
-				ret.add(prim);
-				if (next(bytes) == '(') {
-					todos.addAll(configurePrimitive(bytes, prim, ret));
+				scope.add(prim);
+				if (next() == '(') {
+					configurePrimitive(prim, scope);
 				}
 			}
-			if (next(bytes) == '.') {
-				expect(bytes, '.');
-				String portName = readUntil(bytes, ',', '}');
-				OutPort out;
-				if (prim == ret) {
-					out = ret.addInPort(portName).getInternalOutPort();
-				} else {
-					out = getOrCreateOutPort(prim, portName);
+			if (next() == '.') {
+				pos++;
+				int portStart = pos;
+				String portName = symbol(portStart, scan(',', '}'));
+				if (prim == null) {
+					throw new RpiException("Unknown primitive '" + string(start, end) + "'");
 				}
-				ret.provideOutPort(out, name);
+				ret.provideOutPort(getOrCreateOutPort(prim, portName), name);
+			}
+
+			if (next() == ',') {
+				pos++;
 			}
+		}
+	}
 
-			if (next(bytes) == ',') {
-				expect(bytes, ',');
+	private static void connect(Connection connection, Scope scope) throws RpiException {
+		Primitive source = connection.source;
+		if (source == null) {
+			source = scope.primitives.get(connection.sourceName);
+			if (source == null) {
+				throw new RpiException("Unknown primitive '" + connection.sourceName + "'");
 			}
 		}
+		OutPort out = getOrCreateOutPort(source, connection.outPort);
+		InPort in = null;
+		if (connection.primitive instanceof Fragment) {
+			in = getInPort((Fragment) connection.primitive, connection.inPort);
+		} else {
+			connection.primitive.add(in = new InPort(connection.inPort));
+		}
+		in.setDebug(connection.debug);
+		try {
+			in.connectTo(out);
+		} catch (RpiException e) {
+		}
 	}
 
 	private static OutPort getOrCreateOutPort(Primitive prim, String outPort) {
@@ -169,49 +241,120 @@ public class NetParser {
 		}
 		OutPort port;
 		if (prim instanceof Fragment) {
-			port = ((Fragment) prim).addInPort(outPort).getInternalOutPort();
+			port = getInPort((Fragment) prim, outPort).getInternalOutPort();
 		} else {
 			prim.add(port = new OutPort(outPort));
 		}
 		return port;
 	}
 
-	private static int next(PushbackInputStream bytes) throws RpiException {
-		try {
-			int read = bytes.read();
-			bytes.unread(read);
-			return read;
-		} catch (IOException e) {
-			throw new RpiException(e);
+	private static FragmentInPort getInPort(Fragment fragment, String name) {
+		for (InPort in : fragment.getInPorts()) {
+			if (in instanceof FragmentInPort && in.getName().equals(name)) {
+				return (FragmentInPort) in;
+			}
 		}
+		return fragment.addInPort(name);
 	}
 
-	private static String readUntil(PushbackInputStream bytes, char... chars) throws RpiException {
-		try {
-			StringBuffer ret = new StringBuffer();
-			while (true) {
-				int read = bytes.read();
-				for (char c : chars) {
-					if (c == read) {
-						bytes.unread(read);
-						return ret.toString();
-					}
+	private char next() throws RpiException {
+		if (pos >= length) {
+			throw new RpiException("Unexpected end of net");
+		}
+		return net.charAt(pos);
+	}
+
+	private int scan(char c) throws RpiException {
+		return scan(c, c, c, c);
+	}
+
+	private int scan(char c1, char c2) throws RpiException {
+		return scan(c1, c2, c2, c2);
+	}
+
+	private int scan(char c1, char c2, char c3) throws RpiException {
+		return scan(c1, c2, c3, c3);
+	}
+
+	/**
+	 * Advances the cursor to the next occurrence of one of the given characters
+	 *
+	 * @return position of the character found
+	 */
+	private int scan(char c1, char c2, char c3, char c4) throws RpiException {
+		while (pos < length) {
+			char c = net.charAt(pos);
+			if (c == c1 || c == c2 || c == c3 || c == c4) {
+				return pos;
+			}
+			pos++;
+		}
+		throw new RpiException("Unexpected end of net");
+	}
+
+	private void expect(char expect) throws RpiException {
+		char read = next();
+		if (read != expect) {
+			throw new RpiException("Expected '" + expect + "' at position " + pos + ", received '" + read + "'");
+		}
+		pos++;
+	}
+
+	private boolean matches(String string, int start, int end) {
+		if (end - start != string.length()) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			if (net.charAt(i) != string.charAt(i - start)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private String string(int start, int end) {
+		return net.subSequence(start, end).toString();
+	}
+
+	/**
+	 * Retrieves the string for the given range, returning the same instance for
+	 * equal ranges
+	 */
+	private String symbol(int start, int end) {
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + net.charAt(i);
+		}
+		int mask = symbols.length - 1;
+		for (int i = (hash ^ (hash >>> 16)) & mask;; i = (i + 1) & mask) {
+			String symbol = symbols[i];
+			if (symbol == null) {
+				symbol = string(start, end);
+				symbols[i] = symbol;
+				if (++symbolCount * 2 > symbols.length) {
+					rehash();
 				}
-				ret.append((char) read);
+				return symbol;
+			}
+			if (symbol.hashCode() == hash && matches(symbol, start, end)) {
+				return symbol;
 			}
-		} catch (IOException e) {
-			throw new RpiException(e);
 		}
 	}
 
-	private static void expect(PushbackInputStream bytes, char expect) throws RpiException {
-		try {
-			int read = bytes.read();
-			if (read != expect) {
-				throw new IOException("Expected '" + expect + "', received '" + (char) read + "'");
+	private void rehash() {
+		String[] old = symbols;
+		symbols = new String[old.length * 2];
+		int mask = symbols.length - 1;
+		for (String symbol : old) {
+			if (symbol != null) {
+				int hash = symbol.hashCode();
+				int i = (hash ^ (hash >>> 16)) & mask;
+				while (symbols[i] != null) {
+					i = (i + 1) & mask;
+				}
+				symbols[i] = symbol;
 			}
-		} catch (IOException e) {
-			throw new RpiException(e);
 		}
 	}
 
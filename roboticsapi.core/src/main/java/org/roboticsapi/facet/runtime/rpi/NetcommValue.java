@@ -9,12 +9,39 @@ package org.roboticsapi.facet.runtime.rpi;
 
 import java.util.List;
 import java.util.Vector;
+import java.util.function.Function;
 
 /**
  * A variable used to communicate between RPI net and Robotics API
  */
 public class NetcommValue {
-	private String value;
+	/**
+	 * Value provided either as string or as typed value. The string
+	 * representation of a typed value is created once when needed.
+	 */
+	private static final class Content {
+		private final Type typedValue;
+		private volatile String value;
+
+		private Content(String value, Type typedValue) {
+			this.value = value;
+			this.typedValue = typedValue;
+		}
+
+		private String getString() {
+			String ret = value;
+			if (ret == null && typedValue != null) {
+				ret = typedValue.toString();
+				value = ret;
+			}
+			return ret;
+		}
+	}
+
+	private static final Content EMPTY = new Content(null, null);
+
+	/** current value, replaced as a whole when the value changes */
+	private volatile Content content = EMPTY;
 	private final List<NetcommListener> listeners = new Vector<NetcommListener>();
 	private final NetcommPrimitive primitive;
 
@@ -26,7 +53,6 @@ public class NetcommValue {
 	 */
 	public NetcommValue(final NetcommPrimitive primitive) {
 		this.primitive = primitive;
-		this.value = null;
 	}
 
 	/**
@@ -44,7 +70,23 @@ public class NetcommValue {
 	 * @return current value
 	 */
 	public String getString() {
-		return value;
+		return content.getString();
+	}
+
+	/**
+	 * Retrieves the current value as RPI type. If the value has been provided as
+	 * typed value by an in-process control core, it is returned directly,
+	 * otherwise the string value is parsed.
+	 *
+	 * @param type   expected type of the value
+	 * @param parser parser creating the value from its string representation
+	 * @return current value
+	 */
+	public <T extends Type> T getValue(Class<T> type, Function<String, T> parser) {
+		Content current = content;
+		if (type.isInstance(current.typedValue))
+			return type.cast(current.typedValue);
+		return parser.apply(current.getString());
 	}
 
 	/**
@@ -53,14 +95,39 @@ public class NetcommValue {
 	 * @param newValue new value
 	 */
 	public void setString(final String newValue) {
-		if (value == null || !value.equals(newValue)) {
-			value = newValue;
+		String current = getString();
+		if (current == null || !current.equals(newValue)) {
+			content = new Content(newValue, null);
+			for (final NetcommListener listener : listeners) {
+				listener.valueChanged(this);
+			}
+		}
+	}
+
+	/**
+	 * Sets the value of the variable without converting it to a string. The value
+	 * must not be modified afterwards.
+	 *
+	 * @param newValue new value
+	 */
+	public void setValue(final Type newValue) {
+		Type current = content.typedValue;
+		if (current == null || !current.isEqual(newValue)) {
+			content = new Content(null, newValue);
 			for (final NetcommListener listener : listeners) {
 				listener.valueChanged(this);
 			}
 		}
 	}
 
+	/**
+	 * Clears the value of the variable without notifying listeners, so that the
+	 * next value set is reported even if it equals the previous one.
+	 */
+	public void reset() {
+		content = EMPTY;
+	}
+
 	public void notifyUpdatePerformed() {
 		for (final NetcommListener listener : listeners) {
 			listener.updatePerformed();
@@ -74,7 +141,8 @@ public class NetcommValue {
 	 */
 	public void addNetcommListener(final NetcommListener listener) {
 		listeners.add(listener);
-		if (value != null) {
+		Content current = content;
+		if (current.value != null || current.typedValue != null) {
 			listener.valueChanged(this);
 		}
 	}
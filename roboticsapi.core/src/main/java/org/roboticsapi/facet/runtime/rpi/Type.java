@@ -19,6 +19,27 @@ public abstract class Type implements Cloneable {
 		return ret.toString();
 	}
 
+	/**
+	 * Creates an independent copy of this value, so that later modifications of
+	 * this value do not affect the copy.
+	 *
+	 * @return a deep copy of this value
+	 */
+	public Type copy() {
+		return clone();
+	}
+
+	/**
+	 * Checks whether the given value is equal to this value, i.e. whether both
+	 * have the same type and string representation.
+	 *
+	 * @param other value to compare to
+	 * @return true if both values are equal
+	 */
+	public boolean isEqual(Type other) {
+		return other != null && other.getClass() == getClass() && toString().equals(other.toString());
+	}
+
 	@Override
 	public Type clone() {
 		try {
@@ -10,6 +10,7 @@ package org.roboticsapi.facet.runtime.rpi.core.types;
 import java.util.regex.Pattern;
 
 import org.roboticsapi.facet.runtime.rpi.PrimitiveType;
+import org.roboticsapi.facet.runtime.rpi.Type;
 
 public class RPIbool extends PrimitiveType {
 	static Pattern boolPattern = Pattern.compile("\\s*(true|false)\\s*(.*)");
@@ -48,4 +49,13 @@ public class RPIbool extends PrimitiveType {
 		this.value = string.equals("true");
 	}
 
+	@Override
+	public RPIbool copy() {
+		return new RPIbool(value);
+	}
+
+	@Override
+	public boolean isEqual(Type other) {
+		return other instanceof RPIbool && value == ((RPIbool) other).value;
+	}
 }
@@ -10,6 +10,7 @@ package org.roboticsapi.facet.runtime.rpi.core.types;
 import java.util.regex.Pattern;
 
 import org.roboticsapi.facet.runtime.rpi.PrimitiveType;
+import org.roboticsapi.facet.runtime.rpi.Type;
 
 public class RPIdouble extends PrimitiveType {
 	static Pattern doublePattern = Pattern.compile("\\s*(nan|\\+inf|\\-inf|[\\-\\+0-9\\.eE]+)\\s*(.*)");
@@ -40,6 +41,16 @@ public class RPIdouble extends PrimitiveType {
 
 	@Override
 	public void appendString(StringBuilder ret) {
+		appendValue(ret, get());
+	}
+
+	/**
+	 * Appends the given value in RPI syntax.
+	 *
+	 * @param ret   buffer to append to
+	 * @param value value to append
+	 */
+	public static void appendValue(StringBuilder ret, double value) {
 		if (Double.isNaN(value)) {
 			ret.append("nan");
 		} else if (Double.isInfinite(value) && value > 0) {
@@ -54,14 +65,23 @@ public class RPIdouble extends PrimitiveType {
 	@Override
 	protected void consumeValue(String string) {
 		if ("nan".equals(string)) {
-			this.value = Double.NaN;
+			set(Double.NaN);
 		} else if ("+inf".equals(string)) {
-			this.value = Double.POSITIVE_INFINITY;
+			set(Double.POSITIVE_INFINITY);
 		} else if ("-inf".equals(string)) {
-			this.value = Double.NEGATIVE_INFINITY;
+			set(Double.NEGATIVE_INFINITY);
 		} else {
-			this.value = java.lang.Double.valueOf(string);
+			set(java.lang.Double.valueOf(string));
 		}
 	}
 
+	@Override
+	public RPIdouble copy() {
+		return new RPIdouble(get());
+	}
+
+	@Override
+	public boolean isEqual(Type other) {
+		return other instanceof RPIdouble && Double.compare(get(), ((RPIdouble) other).get()) == 0;
+	}
 }
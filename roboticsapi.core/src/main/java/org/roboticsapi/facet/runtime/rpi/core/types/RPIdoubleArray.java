@@ -1,12 +1,22 @@
 package org.roboticsapi.facet.runtime.rpi.core.types;
 
+import java.util.Arrays;
+
 import org.roboticsapi.facet.runtime.rpi.ArrayType;
+import org.roboticsapi.facet.runtime.rpi.Type;
 
 /**
  * Array of RPICore::double a.k.a Core::double[]
+ *
+ * The elements are stored in a flat double array; {@link #get(int)} returns
+ * views of the array elements, while {@link #getValue(int)} and
+ * {@link #setValue(int, double)} access the array directly.
  */
 public class RPIdoubleArray extends ArrayType<org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble> {
 
+	private double[] values;
+	private RPIdouble[] elements;
+
 	/**
 	 * Creates an array of the given size and initializes it with the given contents
 	 *
@@ -24,7 +34,25 @@ public class RPIdoubleArray extends ArrayType<org.roboticsapi.facet.runtime.rpi.
 	 * @param value initial value (in RPI syntax)
 	 */
 	public RPIdoubleArray(String value) {
-		super(value);
+		if (!value.startsWith("[")) {
+			throw new IllegalArgumentException("value");
+		}
+		values = new double[8];
+		int size = 0;
+		RPIdouble element = new RPIdouble();
+		value = value.substring(1);
+		while (!value.startsWith("]")) {
+			value = element.consumeString(value);
+			if (size == values.length)
+				values = Arrays.copyOf(values, size * 2);
+			values[size++] = element.get();
+			if (value.startsWith(",")) {
+				value = value.substring(1);
+			} else if (!value.startsWith("]")) {
+				throw new IllegalArgumentException("value");
+			}
+		}
+		values = Arrays.copyOf(values, size);
 	}
 
 	/**
@@ -33,11 +61,124 @@ public class RPIdoubleArray extends ArrayType<org.roboticsapi.facet.runtime.rpi.
 	 * @param capacity size of the array
 	 */
 	public RPIdoubleArray(int capacity) {
-		super(capacity);
+		values = new double[capacity];
+	}
+
+	/**
+	 * Creates an array with the given contents
+	 *
+	 * @param values initial values (copied)
+	 */
+	public RPIdoubleArray(double[] values) {
+		this.values = values.clone();
 	}
 
 	@Override
 	protected org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble getInitialValue() {
 		return new org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble();
 	}
+
+	@Override
+	public int getSize() {
+		return values.length;
+	}
+
+	@Override
+	public RPIdouble get(int index) {
+		if (elements == null)
+			elements = new RPIdouble[values.length];
+		if (elements[index] == null)
+			elements[index] = new RPIdoubleElement(values, index);
+		return elements[index];
+	}
+
+	@Override
+	public void set(int index, RPIdouble value) {
+		values[index] = value.get();
+	}
+
+	/**
+	 * Retrieves the value of an element
+	 *
+	 * @param index index of the element
+	 * @return the current value
+	 */
+	public double getValue(int index) {
+		return values[index];
+	}
+
+	/**
+	 * Sets the value of an element
+	 *
+	 * @param index index of the element
+	 * @param value the new value
+	 */
+	public void setValue(int index, double value) {
+		values[index] = value;
+	}
+
+	/**
+	 * Copies the elements into the given array
+	 *
+	 * @param ret array to copy into, at least as long as this array
+	 */
+	public void copyTo(double[] ret) {
+		System.arraycopy(values, 0, ret, 0, values.length);
+	}
+
+	/**
+	 * Copies the elements from the given array
+	 *
+	 * @param source array to copy from, at least as long as this array
+	 */
+	public void copyFrom(double[] source) {
+		System.arraycopy(source, 0, values, 0, values.length);
+	}
+
+	@Override
+	public void appendString(StringBuilder ret) {
+		ret.append("[");
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0)
+				ret.append(",");
+			RPIdouble.appendValue(ret, values[i]);
+		}
+		ret.append("]");
+	}
+
+	@Override
+	public String consumeString(String value) {
+		if (!value.startsWith("[")) {
+			throw new IllegalArgumentException("value");
+		}
+		RPIdouble element = new RPIdouble();
+		value = value.substring(1);
+		for (int i = 0; i < values.length; i++) {
+			value = element.consumeString(value);
+			values[i] = element.get();
+			if (value.startsWith("]")) {
+				break;
+			} else if (value.startsWith(",")) {
+				value = value.substring(1);
+			} else {
+				throw new IllegalArgumentException("value");
+			}
+		}
+		if (!value.startsWith("]")) {
+			throw new IllegalArgumentException("value");
+		}
+		return value.substring(1);
+	}
+
+	@Override
+	public RPIdoubleArray copy() {
+		return new RPIdoubleArray(values);
+	}
+
+	@Override
+	public boolean isEqual(Type other) {
+		if (other == null || other.getClass() != getClass())
+			return false;
+		return Arrays.equals(values, ((RPIdoubleArray) other).values);
+	}
 }
@@ -0,0 +1,42 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.runtime.rpi.core.types;
+
+/**
+ * An {@link RPIdouble} stored in an element of a double array. Flat types such
+ * as {@link RPIdoubleArray} or the world types keep their values in a single
+ * double array and hand out elements as views, so that reading and writing
+ * through the view accesses the array directly.
+ */
+public final class RPIdoubleElement extends RPIdouble {
+
+	private final double[] values;
+	private final int index;
+
+	/**
+	 * Creates a view of an array element
+	 *
+	 * @param values array storing the value
+	 * @param index  index of the value in the array
+	 */
+	public RPIdoubleElement(double[] values, int index) {
+		this.values = values;
+		this.index = index;
+	}
+
+	@Override
+	public double get() {
+		return values[index];
+	}
+
+	@Override
+	public void set(double value) {
+		values[index] = value;
+	}
+
+}
@@ -10,6 +10,7 @@ package org.roboticsapi.facet.runtime.rpi.core.types;
 import java.util.regex.Pattern;
 
 import org.roboticsapi.facet.runtime.rpi.PrimitiveType;
+import org.roboticsapi.facet.runtime.rpi.Type;
 
 public class RPIint extends PrimitiveType {
 	static Pattern doublePattern = Pattern.compile("\\s*([-0-9]+)\\s*(.*)");
@@ -48,4 +49,13 @@ public class RPIint extends PrimitiveType {
 		this.value = java.lang.Integer.valueOf(string);
 	}
 
+	@Override
+	public RPIint copy() {
+		return new RPIint(value);
+	}
+
+	@Override
+	public boolean isEqual(Type other) {
+		return other instanceof RPIint && value == ((RPIint) other).value;
+	}
 }
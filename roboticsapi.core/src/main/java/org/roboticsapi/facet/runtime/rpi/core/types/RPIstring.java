@@ -10,6 +10,7 @@ package org.roboticsapi.facet.runtime.rpi.core.types;
 import java.util.regex.Pattern;
 
 import org.roboticsapi.facet.runtime.rpi.PrimitiveType;
+import org.roboticsapi.facet.runtime.rpi.Type;
 
 public class RPIstring extends PrimitiveType {
 
@@ -36,4 +37,13 @@ public class RPIstring extends PrimitiveType {
 		ret.append(value.replaceAll("\"", "\\\""));
 	}
 
+	@Override
+	public RPIstring copy() {
+		return new RPIstring(value);
+	}
+
+	@Override
+	public boolean isEqual(Type other) {
+		return other instanceof RPIstring && java.util.Objects.equals(value, ((RPIstring) other).value);
+	}
 }
@@ -18,6 +18,7 @@ import org.roboticsapi.core.EventHandler;
 import org.roboticsapi.core.Observer;
 import org.roboticsapi.core.PersistContext.PersistedRealtimeValueFactory;
 import org.roboticsapi.core.RealtimeValue;
+import org.roboticsapi.core.RealtimeValueInterner;
 import org.roboticsapi.core.RealtimeValueListener;
 import org.roboticsapi.core.exception.RoboticsException;
 import org.roboticsapi.core.realtimevalue.Assignment;
@@ -46,6 +47,7 @@ public class CommandFragment extends RuntimeFragment {
 	private RealtimeDouble time;
 	private RealtimeBoolean cancel;
 	private Map<RealtimeValue<?>, RealtimeValueFragment<?>> realtimeValues = new HashMap<RealtimeValue<?>, RealtimeValueFragment<?>>();
+	private RealtimeValueInterner interner = new RealtimeValueInterner();
 	private List<RealtimeValueAliasFactory> realtimeValueAliasFactories = new ArrayList<RealtimeValueAliasFactory>();
 	private List<RealtimeValueFragmentFactory> realtimeValueFragmentFactories = new ArrayList<RealtimeValueFragmentFactory>();
 
@@ -144,11 +146,14 @@ public class CommandFragment extends RuntimeFragment {
 		value = value.getForScope(command);
 		if (value.getRuntime() != null && value.getRuntime() != command.getRuntime())
 			throw new MappingException("Realtime value cannot be used in this context.");
+		// share equal sub-expressions, so later lookups find the interned value by identity
+		value = interner.intern(value);
+		RealtimeValueFragment<T> existing = (RealtimeValueFragment<T>) realtimeValues.get(value);
+		if (existing != null) {
+			return existing;
+		}
 		if (realtimeValues.containsKey(value)) {
-			if (realtimeValues.get(value) == null) {
-				throw new MappingException("Cycle in realtime value dependencies");
-			}
-			return (RealtimeValueFragment<T>) realtimeValues.get(value);
+			throw new MappingException("Cycle in realtime value dependencies");
 		}
 
 		for (RealtimeValueAliasFactory factory : realtimeValueAliasFactories) {
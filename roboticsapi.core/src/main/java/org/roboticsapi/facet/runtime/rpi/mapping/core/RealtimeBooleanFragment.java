@@ -7,6 +7,8 @@
 
 package org.roboticsapi.facet.runtime.rpi.mapping.core;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.roboticsapi.core.Command;
 import org.roboticsapi.core.RealtimeValue;
 import org.roboticsapi.core.RealtimeValueListener;
@@ -38,17 +40,17 @@ public class RealtimeBooleanFragment extends RealtimeValueFragment<Boolean> {
 		super(value);
 	}
 
-	private static int nr = 0;
+	private static final AtomicInteger nr = new AtomicInteger();
 
 	@Override
 	public RealtimeValueConsumerFragment createObserverFragment(RealtimeBoolean condition,
 			final RealtimeValueListener<Boolean> observer) throws MappingException {
-		ReadBoolFromNet netcomm = new ReadBoolFromNet("b" + (nr++));
+		ReadBoolFromNet netcomm = new ReadBoolFromNet("b" + nr.getAndIncrement());
 		RealtimeValueConsumerFragment ret = new ObserverFragment(netcomm);
 		netcomm.getNetcomm().addNetcommListener(new NetcommListener() {
 			@Override
 			public void valueChanged(NetcommValue value) {
-				observer.onValueChanged(new RPIbool(value.getString()).get());
+				observer.onValueChanged(value.getValue(RPIbool.class, RPIbool::new).get());
 			}
 
 			@Override
@@ -7,6 +7,8 @@
 
 package org.roboticsapi.facet.runtime.rpi.mapping.core;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.roboticsapi.core.Command;
 import org.roboticsapi.core.RealtimeValue;
 import org.roboticsapi.core.RealtimeValueListener;
@@ -46,17 +48,17 @@ public class RealtimeDoubleArrayFragment extends RealtimeArrayFragment<Double[]>
 		realtimeValue = value;
 	}
 
-	private static int nr = 0;
+	private static final AtomicInteger nr = new AtomicInteger();
 
 	@Override
 	public RealtimeValueConsumerFragment createObserverFragment(RealtimeBoolean condition,
 			final RealtimeValueListener<Double[]> observer) throws MappingException {
-		ReadDoubleArrayFromNet netcomm = new ReadDoubleArrayFromNet("dd" + (nr++), realtimeValue.getSize());
+		ReadDoubleArrayFromNet netcomm = new ReadDoubleArrayFromNet("dd" + nr.getAndIncrement(), realtimeValue.getSize());
 		RealtimeValueConsumerFragment ret = new ObserverFragment(netcomm);
 		netcomm.getNetcomm().addNetcommListener(new NetcommListener() {
 			@Override
 			public void valueChanged(NetcommValue value) {
-				RPIdoubleArray array = new RPIdoubleArray(value.getString());
+				RPIdoubleArray array = value.getValue(RPIdoubleArray.class, RPIdoubleArray::new);
 				Double[] ret = new Double[realtimeValue.getSize()];
 				for (int i = 0; i < ret.length; i++)
 					ret[i] = array.get(i).get();
@@ -7,6 +7,8 @@
 
 package org.roboticsapi.facet.runtime.rpi.mapping.world;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.roboticsapi.core.Command;
 import org.roboticsapi.core.RealtimeValue;
 import org.roboticsapi.core.RealtimeValueListener;
@@ -40,17 +42,17 @@ public class RealtimeRotationFragment extends RealtimeValueFragment<Rotation> {
 		super(value);
 	}
 
-	private static int nr = 0;
+	private static final AtomicInteger nr = new AtomicInteger();
 
 	@Override
 	public RealtimeValueConsumerFragment createObserverFragment(RealtimeBoolean condition,
 			final RealtimeValueListener<Rotation> observer) throws MappingException {
-		ReadRotationFromNet netcomm = new ReadRotationFromNet("r" + (nr++));
+		ReadRotationFromNet netcomm = new ReadRotationFromNet("r" + nr.getAndIncrement());
 		RealtimeValueConsumerFragment ret = new ObserverFragment(netcomm);
 		netcomm.getNetcomm().addNetcommListener(new NetcommListener() {
 			@Override
 			public void valueChanged(NetcommValue value) {
-				RPIRotation rpi = new RPIRotation(value.getString());
+				RPIRotation rpi = value.getValue(RPIRotation.class, RPIRotation::new);
 				observer.onValueChanged(new Rotation(rpi.getA().get(), rpi.getB().get(), rpi.getC().get()));
 			}
 
@@ -7,6 +7,8 @@
 
 package org.roboticsapi.facet.runtime.rpi.mapping.world;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.roboticsapi.core.Command;
 import org.roboticsapi.core.RealtimeValue;
 import org.roboticsapi.core.RealtimeValueListener;
@@ -50,17 +52,17 @@ public class RealtimeTransformationArrayFragment extends RealtimeArrayFragment<T
 		realtimeValue = value;
 	}
 
-	private static int nr = 0;
+	private static final AtomicInteger nr = new AtomicInteger();
 
 	@Override
 	public RealtimeValueConsumerFragment createObserverFragment(RealtimeBoolean condition,
 			final RealtimeValueListener<Transformation[]> observer) throws MappingException {
-		ReadFrameArrayFromNet netcomm = new ReadFrameArrayFromNet("r" + (nr++));
+		ReadFrameArrayFromNet netcomm = new ReadFrameArrayFromNet("r" + nr.getAndIncrement());
 		RealtimeValueConsumerFragment ret = new ObserverFragment(netcomm);
 		netcomm.getNetcomm().addNetcommListener(new NetcommListener() {
 			@Override
 			public void valueChanged(NetcommValue value) {
-				RPIFrameArray rpi = new RPIFrameArray(value.getString());
+				RPIFrameArray rpi = value.getValue(RPIFrameArray.class, RPIFrameArray::new);
 				Transformation[] ret = new Transformation[realtimeValue.getSize()];
 				for (int i = 0; i < ret.length; i++) {
 					RPIFrame f = rpi.get(i);
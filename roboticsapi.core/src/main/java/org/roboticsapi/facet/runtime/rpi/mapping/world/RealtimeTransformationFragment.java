@@ -7,6 +7,8 @@
 
 package org.roboticsapi.facet.runtime.rpi.mapping.world;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.roboticsapi.core.Command;
 import org.roboticsapi.core.RealtimeValue;
 import org.roboticsapi.core.RealtimeValueListener;
@@ -43,17 +45,17 @@ public class RealtimeTransformationFragment extends RealtimeValueFragment<Transf
 		super(value);
 	}
 
-	private static int nr = 0;
+	private static final AtomicInteger nr = new AtomicInteger();
 
 	@Override
 	public RealtimeValueConsumerFragment createObserverFragment(RealtimeBoolean condition,
 			final RealtimeValueListener<Transformation> observer) throws MappingException {
-		ReadFrameFromNet netcomm = new ReadFrameFromNet("r" + (nr++));
+		ReadFrameFromNet netcomm = new ReadFrameFromNet("r" + nr.getAndIncrement());
 		RealtimeValueConsumerFragment ret = new ObserverFragment(netcomm);
 		netcomm.getNetcomm().addNetcommListener(new NetcommListener() {
 			@Override
 			public void valueChanged(NetcommValue value) {
-				RPIFrame rpi = new RPIFrame(value.getString());
+				RPIFrame rpi = value.getValue(RPIFrame.class, RPIFrame::new);
 				observer.onValueChanged(new Transformation(rpi.getPos().getX().get(), rpi.getPos().getY().get(),
 						rpi.getPos().getZ().get(), rpi.getRot().getA().get(), rpi.getRot().getB().get(),
 						rpi.getRot().getC().get()));
@@ -78,7 +80,7 @@ public class RealtimeTransformationFragment extends RealtimeValueFragment<Transf
 	@Override
 	public InterNetcommFragment createInterNetcommFragment(RealtimeBoolean condition) {
 		ActiveFragment active = new ActiveFragment();
-		String key = "itr" + (nr++);
+		String key = "itr" + nr.getAndIncrement();
 		FrameNetcommOut netcomm = active.add(new FrameNetcommOut(key, false));
 		FragmentInPort inPort = active.addInPort("inValue", netcomm.getInValue());
 		InterNetcommFragment ret = new InterNetcommFragment(key);
@@ -7,6 +7,8 @@
 
 package org.roboticsapi.facet.runtime.rpi.mapping.world;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.roboticsapi.core.Command;
 import org.roboticsapi.core.RealtimeValue;
 import org.roboticsapi.core.RealtimeValueListener;
@@ -42,17 +44,17 @@ public class RealtimeTwistFragment extends RealtimeValueFragment<Twist> {
 		super(value);
 	}
 
-	private static int nr = 0;
+	private static final AtomicInteger nr = new AtomicInteger();
 
 	@Override
 	public RealtimeValueConsumerFragment createObserverFragment(RealtimeBoolean condition,
 			final RealtimeValueListener<Twist> observer) throws MappingException {
-		ReadTwistFromNet netcomm = new ReadTwistFromNet("t" + (nr++));
+		ReadTwistFromNet netcomm = new ReadTwistFromNet("t" + nr.getAndIncrement());
 		RealtimeValueConsumerFragment ret = new ObserverFragment(netcomm);
 		netcomm.getNetcomm().addNetcommListener(new NetcommListener() {
 			@Override
 			public void valueChanged(NetcommValue value) {
-				RPITwist rpi = new RPITwist(value.getString());
+				RPITwist rpi = value.getValue(RPITwist.class, RPITwist::new);
 				observer.onValueChanged(
 						new Twist(rpi.getVel().getX().get(), rpi.getVel().getY().get(), rpi.getVel().getZ().get(),
 								rpi.getRot().getX().get(), rpi.getRot().getY().get(), rpi.getRot().getZ().get()));
@@ -77,7 +79,7 @@ public class RealtimeTwistFragment extends RealtimeValueFragment<Twist> {
 	@Override
 	public InterNetcommFragment createInterNetcommFragment(RealtimeBoolean condition) {
 		ActiveFragment active = new ActiveFragment();
-		String key = "itw" + (nr++);
+		String key = "itw" + nr.getAndIncrement();
 		TwistNetcommOut netcomm = active.add(new TwistNetcommOut(key, false));
 		FragmentInPort inPort = active.addInPort("inValue", netcomm.getInValue());
 		InterNetcommFragment ret = new InterNetcommFragment(key);
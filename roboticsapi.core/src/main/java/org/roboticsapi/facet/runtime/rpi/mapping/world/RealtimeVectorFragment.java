@@ -7,6 +7,8 @@
 
 package org.roboticsapi.facet.runtime.rpi.mapping.world;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.roboticsapi.core.Command;
 import org.roboticsapi.core.RealtimeValue;
 import org.roboticsapi.core.RealtimeValueListener;
@@ -39,17 +41,17 @@ public class RealtimeVectorFragment extends RealtimeValueFragment<Vector> {
 		super(value);
 	}
 
-	private static int nr = 0;
+	private static final AtomicInteger nr = new AtomicInteger();
 
 	@Override
 	public RealtimeValueConsumerFragment createObserverFragment(RealtimeBoolean condition,
 			final RealtimeValueListener<Vector> observer) throws MappingException {
-		ReadVectorFromNet netcomm = new ReadVectorFromNet("v" + (nr++));
+		ReadVectorFromNet netcomm = new ReadVectorFromNet("v" + nr.getAndIncrement());
 		RealtimeValueConsumerFragment ret = new ObserverFragment(netcomm);
 		netcomm.getNetcomm().addNetcommListener(new NetcommListener() {
 			@Override
 			public void valueChanged(NetcommValue value) {
-				RPIVector rpi = new RPIVector(value.getString());
+				RPIVector rpi = value.getValue(RPIVector.class, RPIVector::new);
 				observer.onValueChanged(new Vector(rpi.getX().get(), rpi.getY().get(), rpi.getZ().get()));
 			}
 
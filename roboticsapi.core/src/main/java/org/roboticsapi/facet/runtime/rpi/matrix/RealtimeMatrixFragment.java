@@ -7,6 +7,8 @@
 
 package org.roboticsapi.facet.runtime.rpi.matrix;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.roboticsapi.core.Command;
 import org.roboticsapi.core.RealtimeValue;
 import org.roboticsapi.core.RealtimeValueListener;
@@ -45,7 +47,7 @@ public class RealtimeMatrixFragment extends RealtimeValueFragment<Matrix> {
 		realtimeValue = value;
 	}
 
-	private static int nr = 0;
+	private static final AtomicInteger nr = new AtomicInteger();
 
 	@Override
 	public RealtimeValueConsumerFragment createObserverFragment(RealtimeBoolean condition,
@@ -57,14 +59,14 @@ public class RealtimeMatrixFragment extends RealtimeValueFragment<Matrix> {
 		int cols = realtimeValue.getColumnDimension();
 		int size = rows * cols;
 
-		final ReadDoubleArrayFromNet netcomm = ret.add(new ReadDoubleArrayFromNet("m" + ++nr, size));
+		final ReadDoubleArrayFromNet netcomm = ret.add(new ReadDoubleArrayFromNet("m" + nr.incrementAndGet(), size));
 		final MatrixArrayGet convert = ret.add(new MatrixArrayGet(0, 0, cols, size));
 		ret.connect(convert.getOutArray(), netcomm.getInValue());
 
 		netcomm.getNetcomm().addNetcommListener(new NetcommListener() {
 			@Override
 			public void valueChanged(NetcommValue value) {
-				RPIdoubleArray array = new RPIdoubleArray(value.getString());
+				RPIdoubleArray array = value.getValue(RPIdoubleArray.class, RPIdoubleArray::new);
 				Double[] ret = new Double[realtimeValue.getSize()];
 				for (int i = 0; i < ret.length; i++)
 					ret[i] = array.get(i).get();
@@ -1,14 +1,19 @@
 package org.roboticsapi.facet.runtime.rpi.world.types;
 
 import org.roboticsapi.facet.runtime.rpi.ComplexType;
+import org.roboticsapi.facet.runtime.rpi.Type;
 
 /**
  * Composed type RPIFrame a.k.a World::Frame
+ *
+ * Position and rotation are stored in one flat double array (x, y, z, a, b,
+ * c); {@link #getPos()} and {@link #getRot()} return views of that array.
  */
 public class RPIFrame extends ComplexType {
 
-	private org.roboticsapi.facet.runtime.rpi.world.types.RPIVector pos = new org.roboticsapi.facet.runtime.rpi.world.types.RPIVector();
-	private org.roboticsapi.facet.runtime.rpi.world.types.RPIRotation rot = new org.roboticsapi.facet.runtime.rpi.world.types.RPIRotation();
+	private final double[] values = new double[6];
+	private org.roboticsapi.facet.runtime.rpi.world.types.RPIVector pos;
+	private org.roboticsapi.facet.runtime.rpi.world.types.RPIRotation rot;
 
 	/**
 	 * Creates an empty RPIFrame
@@ -24,8 +29,24 @@ public class RPIFrame extends ComplexType {
 	 */
 	public RPIFrame(org.roboticsapi.facet.runtime.rpi.world.types.RPIVector pos,
 			org.roboticsapi.facet.runtime.rpi.world.types.RPIRotation rot) {
-		this.pos = pos;
-		this.rot = rot;
+		for (int i = 0; i < 3; i++) {
+			values[i] = pos.get(i);
+			values[i + 3] = rot.get(i);
+		}
+	}
+
+	/**
+	 * Creates an RPIFrame
+	 * 
+	 * @param x X position [m]
+	 * @param y Y position [m]
+	 * @param z Z position [m]
+	 * @param a A rotation (rad, around Z)
+	 * @param b B rotation (rad, around Y)
+	 * @param c C rotation (rad, around X)
+	 */
+	public RPIFrame(double x, double y, double z, double a, double b, double c) {
+		set(x, y, z, a, b, c);
 	}
 
 	public RPIFrame(String value) {
@@ -39,7 +60,7 @@ public class RPIFrame extends ComplexType {
 	 * @param value The new value
 	 */
 	public void setPos(org.roboticsapi.facet.runtime.rpi.world.types.RPIVector value) {
-		this.pos = value;
+		getPos().setFrom(value);
 	}
 
 	/**
@@ -48,6 +69,8 @@ public class RPIFrame extends ComplexType {
 	 * @return The current value
 	 */
 	public org.roboticsapi.facet.runtime.rpi.world.types.RPIVector getPos() {
+		if (pos == null)
+			pos = new org.roboticsapi.facet.runtime.rpi.world.types.RPIVector(values, 0);
 		return pos;
 	}
 
@@ -57,7 +80,7 @@ public class RPIFrame extends ComplexType {
 	 * @param value The new value
 	 */
 	public void setRot(org.roboticsapi.facet.runtime.rpi.world.types.RPIRotation value) {
-		this.rot = value;
+		getRot().setFrom(value);
 	}
 
 	/**
@@ -66,24 +89,93 @@ public class RPIFrame extends ComplexType {
 	 * @return The current value
 	 */
 	public org.roboticsapi.facet.runtime.rpi.world.types.RPIRotation getRot() {
+		if (rot == null)
+			rot = new org.roboticsapi.facet.runtime.rpi.world.types.RPIRotation(values, 3);
 		return rot;
 	}
 
+	/**
+	 * Retrieves a component of the frame
+	 * 
+	 * @param index index of the component (x, y, z, a, b, c)
+	 * @return The current value
+	 */
+	public double get(int index) {
+		return values[index];
+	}
+
+	/**
+	 * Sets a component of the frame
+	 * 
+	 * @param index index of the component (x, y, z, a, b, c)
+	 * @param value The new value
+	 */
+	public void set(int index, double value) {
+		values[index] = value;
+	}
+
+	/**
+	 * Sets all components of the frame
+	 * 
+	 * @param x X position [m]
+	 * @param y Y position [m]
+	 * @param z Z position [m]
+	 * @param a A rotation (rad, around Z)
+	 * @param b B rotation (rad, around Y)
+	 * @param c C rotation (rad, around X)
+	 */
+	public void set(double x, double y, double z, double a, double b, double c) {
+		values[0] = x;
+		values[1] = y;
+		values[2] = z;
+		values[3] = a;
+		values[4] = b;
+		values[5] = c;
+	}
+
+	/**
+	 * Copies all components from another frame
+	 * 
+	 * @param other frame to copy from
+	 */
+	public void setFrom(RPIFrame other) {
+		System.arraycopy(other.values, 0, values, 0, 6);
+	}
+
 	@Override
 	protected void appendComponents(StringBuilder buf) {
-		appendComponent(buf, "pos", pos);
+		appendComponent(buf, "pos", getPos());
 		buf.append(",");
-		appendComponent(buf, "rot", rot);
+		appendComponent(buf, "rot", getRot());
 	}
 
 	@Override
 	protected String consumeComponent(String key, String value) {
 		if (key.equals("pos")) {
-			return pos.consumeString(value);
+			return getPos().consumeString(value);
 		}
 		if (key.equals("rot")) {
-			return rot.consumeString(value);
+			return getRot().consumeString(value);
 		}
 		throw new IllegalArgumentException("key");
 	}
+
+	@Override
+	public RPIFrame copy() {
+		RPIFrame ret = new RPIFrame();
+		ret.setFrom(this);
+		return ret;
+	}
+
+	@Override
+	public boolean isEqual(Type other) {
+		if (!(other instanceof RPIFrame))
+			return false;
+		RPIFrame o = (RPIFrame) other;
+		for (int i = 0; i < 6; i++) {
+			if (Double.compare(values[i], o.values[i]) != 0)
+				return false;
+		}
+		return true;
+	}
 }
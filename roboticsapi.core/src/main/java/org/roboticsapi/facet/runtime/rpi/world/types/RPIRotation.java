@@ -1,20 +1,32 @@
 package org.roboticsapi.facet.runtime.rpi.world.types;
 
-import org.roboticsapi.facet.runtime.rpi.ComplexType;
+import org.roboticsapi.facet.runtime.rpi.FlatComplexType;
 
 /**
  * Composed type RPIRotation a.k.a World::Rotation
+ *
+ * The components are stored in a flat double array, which may be shared with
+ * an enclosing type.
  */
-public class RPIRotation extends ComplexType {
+public class RPIRotation extends FlatComplexType {
 
-	private org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble a = new org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble();
-	private org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble b = new org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble();
-	private org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble c = new org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble();
+	private static final String[] COMPONENTS = { "a", "b", "c" };
 
 	/**
 	 * Creates an empty RPIRotation
 	 */
 	public RPIRotation() {
+		this(new double[3], 0);
+	}
+
+	/**
+	 * Creates an RPIRotation stored in the given array
+	 * 
+	 * @param values array storing the components
+	 * @param offset index of the first component in the array
+	 */
+	RPIRotation(double[] values, int offset) {
+		super(values, offset);
 	}
 
 	/**
@@ -27,9 +39,19 @@ public class RPIRotation extends ComplexType {
 	public RPIRotation(org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble a,
 			org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble b,
 			org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble c) {
-		this.a = a;
-		this.b = b;
-		this.c = c;
+		this(a.get(), b.get(), c.get());
+	}
+
+	/**
+	 * Creates an RPIRotation
+	 * 
+	 * @param a A rotation (rad, around Z)
+	 * @param b B rotation (rad, around Y)
+	 * @param c C rotation (rad, around X)
+	 */
+	public RPIRotation(double a, double b, double c) {
+		this();
+		set(a, b, c);
 	}
 
 	public RPIRotation(String value) {
@@ -37,13 +59,26 @@ public class RPIRotation extends ComplexType {
 		consumeString(value);
 	}
 
+	/**
+	 * Sets all components
+	 * 
+	 * @param a A rotation (rad, around Z)
+	 * @param b B rotation (rad, around Y)
+	 * @param c C rotation (rad, around X)
+	 */
+	public void set(double a, double b, double c) {
+		set(0, a);
+		set(1, b);
+		set(2, c);
+	}
+
 	/**
 	 * Sets the A rotation (rad, around Z)
 	 * 
 	 * @param value The new value
 	 */
 	public void setA(org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble value) {
-		this.a = value;
+		set(0, value.get());
 	}
 
 	/**
@@ -52,7 +87,7 @@ public class RPIRotation extends ComplexType {
 	 * @return The current value
 	 */
 	public org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble getA() {
-		return a;
+		return getComponent(0);
 	}
 
 	/**
@@ -61,7 +96,7 @@ public class RPIRotation extends ComplexType {
 	 * @param value The new value
 	 */
 	public void setB(org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble value) {
-		this.b = value;
+		set(1, value.get());
 	}
 
 	/**
@@ -70,7 +105,7 @@ public class RPIRotation extends ComplexType {
 	 * @return The current value
 	 */
 	public org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble getB() {
-		return b;
+		return getComponent(1);
 	}
 
 	/**
@@ -79,7 +114,7 @@ public class RPIRotation extends ComplexType {
 	 * @param value The new value
 	 */
 	public void setC(org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble value) {
-		this.c = value;
+		set(2, value.get());
 	}
 
 	/**
@@ -88,29 +123,16 @@ public class RPIRotation extends ComplexType {
 	 * @return The current value
 	 */
 	public org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble getC() {
-		return c;
+		return getComponent(2);
 	}
 
 	@Override
-	protected void appendComponents(StringBuilder buf) {
-		appendComponent(buf, "a", a);
-		buf.append(",");
-		appendComponent(buf, "b", b);
-		buf.append(",");
-		appendComponent(buf, "c", c);
+	protected String[] getComponentNames() {
+		return COMPONENTS;
 	}
 
 	@Override
-	protected String consumeComponent(String key, String value) {
-		if (key.equals("a")) {
-			return a.consumeString(value);
-		}
-		if (key.equals("b")) {
-			return b.consumeString(value);
-		}
-		if (key.equals("c")) {
-			return c.consumeString(value);
-		}
-		throw new IllegalArgumentException("key");
+	public RPIRotation copy() {
+		return new RPIRotation(get(0), get(1), get(2));
 	}
 }
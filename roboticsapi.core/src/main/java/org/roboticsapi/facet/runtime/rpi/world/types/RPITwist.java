@@ -1,6 +1,7 @@
 package org.roboticsapi.facet.runtime.rpi.world.types;
 
 import org.roboticsapi.facet.runtime.rpi.ComplexType;
+import org.roboticsapi.facet.runtime.rpi.Type;
 
 /**
  * Composed type RPITwist a.k.a World::Twist
@@ -89,4 +90,17 @@ public class RPITwist extends ComplexType {
 		}
 		throw new IllegalArgumentException("key");
 	}
+
+	@Override
+	public RPITwist copy() {
+		return new RPITwist(vel.copy(), rot.copy());
+	}
+
+	@Override
+	public boolean isEqual(Type other) {
+		if (!(other instanceof RPITwist))
+			return false;
+		RPITwist o = (RPITwist) other;
+		return vel.isEqual(o.vel) && rot.isEqual(o.rot);
+	}
 }
@@ -1,20 +1,32 @@
 package org.roboticsapi.facet.runtime.rpi.world.types;
 
-import org.roboticsapi.facet.runtime.rpi.ComplexType;
+import org.roboticsapi.facet.runtime.rpi.FlatComplexType;
 
 /**
  * Composed type RPIVector a.k.a World::Vector
+ *
+ * The components are stored in a flat double array, which may be shared with
+ * an enclosing type.
  */
-public class RPIVector extends ComplexType {
+public class RPIVector extends FlatComplexType {
 
-	private org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble x = new org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble();
-	private org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble y = new org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble();
-	private org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble z = new org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble();
+	private static final String[] COMPONENTS = { "x", "y", "z" };
 
 	/**
 	 * Creates an empty RPIVector
 	 */
 	public RPIVector() {
+		this(new double[3], 0);
+	}
+
+	/**
+	 * Creates an RPIVector stored in the given array
+	 * 
+	 * @param values array storing the components
+	 * @param offset index of the first component in the array
+	 */
+	RPIVector(double[] values, int offset) {
+		super(values, offset);
 	}
 
 	/**
@@ -27,9 +39,19 @@ public class RPIVector extends ComplexType {
 	public RPIVector(org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble x,
 			org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble y,
 			org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble z) {
-		this.x = x;
-		this.y = y;
-		this.z = z;
+		this(x.get(), y.get(), z.get());
+	}
+
+	/**
+	 * Creates an RPIVector
+	 * 
+	 * @param x X position [m]
+	 * @param y Y position [m]
+	 * @param z Z position [m]
+	 */
+	public RPIVector(double x, double y, double z) {
+		this();
+		set(x, y, z);
 	}
 
 	public RPIVector(String value) {
@@ -37,13 +59,26 @@ public class RPIVector extends ComplexType {
 		consumeString(value);
 	}
 
+	/**
+	 * Sets all components
+	 * 
+	 * @param x X position [m]
+	 * @param y Y position [m]
+	 * @param z Z position [m]
+	 */
+	public void set(double x, double y, double z) {
+		set(0, x);
+		set(1, y);
+		set(2, z);
+	}
+
 	/**
 	 * Sets the X position [m]
 	 * 
 	 * @param value The new value
 	 */
 	public void setX(org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble value) {
-		this.x = value;
+		set(0, value.get());
 	}
 
 	/**
@@ -52,7 +87,7 @@ public class RPIVector extends ComplexType {
 	 * @return The current value
 	 */
 	public org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble getX() {
-		return x;
+		return getComponent(0);
 	}
 
 	/**
@@ -61,7 +96,7 @@ public class RPIVector extends ComplexType {
 	 * @param value The new value
 	 */
 	public void setY(org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble value) {
-		this.y = value;
+		set(1, value.get());
 	}
 
 	/**
@@ -70,7 +105,7 @@ public class RPIVector extends ComplexType {
 	 * @return The current value
 	 */
 	public org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble getY() {
-		return y;
+		return getComponent(1);
 	}
 
 	/**
@@ -79,7 +114,7 @@ public class RPIVector extends ComplexType {
 	 * @param value The new value
 	 */
 	public void setZ(org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble value) {
-		this.z = value;
+		set(2, value.get());
 	}
 
 	/**
@@ -88,29 +123,16 @@ public class RPIVector extends ComplexType {
 	 * @return The current value
 	 */
 	public org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble getZ() {
-		return z;
+		return getComponent(2);
 	}
 
 	@Override
-	protected void appendComponents(StringBuilder buf) {
-		appendComponent(buf, "x", x);
-		buf.append(",");
-		appendComponent(buf, "y", y);
-		buf.append(",");
-		appendComponent(buf, "z", z);
+	protected String[] getComponentNames() {
+		return COMPONENTS;
 	}
 
 	@Override
-	protected String consumeComponent(String key, String value) {
-		if (key.equals("x")) {
-			return x.consumeString(value);
-		}
-		if (key.equals("y")) {
-			return y.consumeString(value);
-		}
-		if (key.equals("z")) {
-			return z.consumeString(value);
-		}
-		throw new IllegalArgumentException("key");
+	public RPIVector copy() {
+		return new RPIVector(get(0), get(1), get(2));
 	}
 }
@@ -1,6 +1,7 @@
 package org.roboticsapi.facet.runtime.rpi.world.types;
 
 import org.roboticsapi.facet.runtime.rpi.ComplexType;
+import org.roboticsapi.facet.runtime.rpi.Type;
 
 /**
  * Composed type RPIWrench a.k.a World::Wrench
@@ -86,4 +87,17 @@ public class RPIWrench extends ComplexType {
 		}
 		throw new IllegalArgumentException("key");
 	}
+
+	@Override
+	public RPIWrench copy() {
+		return new RPIWrench(force.copy(), torque.copy());
+	}
+
+	@Override
+	public boolean isEqual(Type other) {
+		if (!(other instanceof RPIWrench))
+			return false;
+		RPIWrench o = (RPIWrench) other;
+		return force.isEqual(o.force) && torque.isEqual(o.torque);
+	}
 }
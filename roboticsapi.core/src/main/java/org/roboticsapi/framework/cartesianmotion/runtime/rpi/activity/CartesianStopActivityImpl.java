@@ -14,6 +14,7 @@ import org.roboticsapi.core.activity.ActivityHandle;
 import org.roboticsapi.core.activity.ActivityResult;
 import org.roboticsapi.core.activity.ActivityResultContainer;
 import org.roboticsapi.core.activity.ActivitySchedule;
+import org.roboticsapi.core.exception.ErrorStack;
 import org.roboticsapi.core.exception.RoboticsException;
 import org.roboticsapi.core.util.RAPILogger;
 import org.roboticsapi.core.world.Frame;
@@ -50,7 +51,7 @@ public class CartesianStopActivityImpl extends AbstractActivity {
 		ActivityHandle stopHandle = stop.createHandle();
 		return new ActivityHandle(this) {
 			@Override
-			public ActivitySchedule prepare(ActivityResult result, StackTraceElement[] errorStack)
+			public ActivitySchedule prepare(ActivityResult result, ErrorStack errorStack)
 					throws RoboticsException {
 				ActivitySchedule schedule = stopHandle.prepare(result, errorStack);
 				ActivityResultContainer results = new ActivityResultContainer();
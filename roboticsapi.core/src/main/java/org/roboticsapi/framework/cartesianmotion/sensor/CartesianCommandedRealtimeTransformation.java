@@ -27,7 +27,8 @@ public final class CartesianCommandedRealtimeTransformation extends RealtimeTran
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && platformDriver.equals(((CartesianCommandedRealtimeTransformation) obj).platformDriver)
+		return sameAs(obj) || classEqual(obj)
+				&& platformDriver.equals(((CartesianCommandedRealtimeTransformation) obj).platformDriver)
 				&& deviceName.equals(((CartesianCommandedRealtimeTransformation) obj).deviceName);
 	}
 
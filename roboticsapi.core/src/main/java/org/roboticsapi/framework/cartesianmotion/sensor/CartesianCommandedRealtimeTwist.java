@@ -27,7 +27,8 @@ public class CartesianCommandedRealtimeTwist extends RealtimeTwist {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && platformDriver.equals(((CartesianCommandedRealtimeTwist) obj).platformDriver)
+		return sameAs(obj) || classEqual(obj)
+				&& platformDriver.equals(((CartesianCommandedRealtimeTwist) obj).platformDriver)
 				&& deviceName.equals(((CartesianCommandedRealtimeTwist) obj).deviceName);
 	}
 
@@ -27,7 +27,8 @@ public final class CartesianMeasuredRealtimeTransformation extends RealtimeTrans
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && platformDriver.equals(((CartesianMeasuredRealtimeTransformation) obj).platformDriver)
+		return sameAs(obj) || classEqual(obj)
+				&& platformDriver.equals(((CartesianMeasuredRealtimeTransformation) obj).platformDriver)
 				&& deviceName.equals(((CartesianMeasuredRealtimeTransformation) obj).deviceName);
 	}
 
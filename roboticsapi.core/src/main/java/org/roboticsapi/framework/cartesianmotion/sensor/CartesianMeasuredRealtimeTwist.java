@@ -27,7 +27,8 @@ public class CartesianMeasuredRealtimeTwist extends RealtimeTwist {
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && platformDriver.equals(((CartesianMeasuredRealtimeTwist) obj).platformDriver)
+		return sameAs(obj) || classEqual(obj)
+				&& platformDriver.equals(((CartesianMeasuredRealtimeTwist) obj).platformDriver)
 				&& deviceName.equals(((CartesianMeasuredRealtimeTwist) obj).deviceName);
 	}
 
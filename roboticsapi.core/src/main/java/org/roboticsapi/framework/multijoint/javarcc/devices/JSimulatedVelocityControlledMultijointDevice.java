@@ -7,6 +7,7 @@
 
 package org.roboticsapi.framework.multijoint.javarcc.devices;
 
+import org.roboticsapi.facet.javarcc.devices.DeviceDataBuffer;
 import org.roboticsapi.facet.javarcc.devices.PeriodicJDevice;
 import org.roboticsapi.facet.javarcc.simulation.SimulationHelper;
 import org.roboticsapi.facet.runtime.rpi.world.types.RPIVector;
@@ -14,6 +15,9 @@ import org.roboticsapi.framework.multijoint.javarcc.interfaces.JMultijointInterf
 
 public class JSimulatedVelocityControlledMultijointDevice extends PeriodicJDevice implements JMultijointInterface {
 
+	// layout of the device state (for each joint)
+	private static final int MSR_POS = 0, MSR_VEL = 1, CMD_POS = 2, CMD_VEL = 3, CMD_ACC = 4, CMD_TIME = 5, SIZE = 6;
+
 	private final CyclicPositionMultijointDevice cpra;
 	private final double[] minAngles, maxAngles;
 	private final int jointCount;
@@ -21,9 +25,29 @@ public class JSimulatedVelocityControlledMultijointDevice extends PeriodicJDevic
 	private SIVelocityControlledMultijoint sim;
 	private double[] P;
 
+	// data exchanged between the periodic task and the nets
+	private final DeviceDataBuffer<double[]> state, commands;
+	private final double[] published, received;
+	private final long[] applied;
+
+	// data of the nets
+	private final CyclicPositionMultijointDevice commanded;
+	private final double[] pending;
+	private volatile Thread writer = null;
+	private volatile double[] snapshot;
+	private volatile long snapshotVersion = -1;
+
 	@Override
 	public void doPeriodicTask() {
-		enterCriticalSection();
+		commands.read(received);
+		for (int i = 0; i < jointCount; i++) {
+			long time = (long) received[2 * i + 1];
+			if (time > applied[i]) {
+				applied[i] = time;
+				cpra.setJointPosition(i, received[2 * i], time);
+			}
+		}
+
 		cpra.requestData();
 		double[] cmdPos = cpra.getPositionToCommand(), cmdVel = cpra.getVelocityToCommand();
 		double cycleTime = cpra.getCycleTime();
@@ -43,7 +67,51 @@ public class JSimulatedVelocityControlledMultijointDevice extends PeriodicJDevic
 			double speed = vel - err * P[i];
 			SimulationHelper.callSimulationItem(sim, () -> sim.setJointVelocity(ii, speed));
 		}
-		leaveCriticalSection();
+		publishState();
+	}
+
+	private void publishState() {
+		for (int i = 0; i < jointCount; i++) {
+			published[SIZE * i + MSR_POS] = msrPos[i];
+			published[SIZE * i + MSR_VEL] = msrVel[i];
+			published[SIZE * i + CMD_POS] = cpra.getCommandedJointPosition(i);
+			published[SIZE * i + CMD_VEL] = cpra.getCommandedJointVelocity(i);
+			published[SIZE * i + CMD_ACC] = cpra.getCommandedJointAcceleration(i);
+			published[SIZE * i + CMD_TIME] = applied[i];
+		}
+		state.write(published);
+	}
+
+	/**
+	 * Takes a snapshot of the device state if the periodic task has published a
+	 * new one.
+	 */
+	@Override
+	public void lock() {
+		if (state.getVersion() != snapshotVersion) {
+			double[] data = new double[SIZE * jointCount];
+			snapshotVersion = state.read(data);
+			snapshot = data;
+		}
+	}
+
+	/**
+	 * Publishes the joint positions set by the net to the periodic task.
+	 */
+	@Override
+	public void unlock() {
+		if (writer == Thread.currentThread()) {
+			writer = null;
+			commands.write(pending);
+		}
+	}
+
+	/**
+	 * Checks whether the net has set a joint position not yet processed by the
+	 * periodic task
+	 */
+	private boolean isPending(int axis) {
+		return commanded.RPITicks[axis] > snapshot[SIZE * axis + CMD_TIME];
 	}
 
 	public JSimulatedVelocityControlledMultijointDevice(String name, int jointCount, double[] minAngles,
@@ -57,19 +125,31 @@ public class JSimulatedVelocityControlledMultijointDevice extends PeriodicJDevic
 
 		msrPos = new double[jointCount];
 		msrVel = new double[jointCount];
+		published = new double[SIZE * jointCount];
+		received = new double[2 * jointCount];
+		pending = new double[2 * jointCount];
+		applied = new long[jointCount];
+		state = DeviceDataBuffer.ofDoubles(SIZE * jointCount);
+		commands = DeviceDataBuffer.ofDoubles(2 * jointCount);
 		this.minAngles = minAngles;
 		this.maxAngles = maxAngles;
 		cpra = new CyclicPositionMultijointDevice(jointCount, smoothLength);
+		commanded = new CyclicPositionMultijointDevice(jointCount, smoothLength);
 
 		cpra.setMaximumVelocity(maxVelocities);
 		cpra.setMaximumAcceleration(maxAccelerations);
+		commanded.setMaximumVelocity(maxVelocities);
+		commanded.setMaximumAcceleration(maxAccelerations);
 
 		sim = SimulationHelper.getSimulationItem(SIVelocityControlledMultijoint.class, simulation);
 		for (int i = 0; i < jointCount; i++) {
 			final int ii = i;
-			SimulationHelper.callSimulationItem(sim,
-					() -> cpra.setJointPositionStatic(ii, sim.getMeasuredJointPosition(ii)));
+			SimulationHelper.callSimulationItem(sim, () -> msrPos[ii] = sim.getMeasuredJointPosition(ii));
+			cpra.setJointPositionStatic(i, msrPos[i]);
+			commanded.setJointPositionStatic(i, msrPos[i]);
 		}
+		publishState();
+		lock();
 	}
 
 	@Override
@@ -89,27 +169,33 @@ public class JSimulatedVelocityControlledMultijointDevice extends PeriodicJDevic
 
 	@Override
 	public final double getMeasuredJointVelocity(int axis) {
-		return msrVel[axis];
+		return snapshot[SIZE * axis + MSR_VEL];
 	}
 
 	@Override
 	public final double getMeasuredJointPosition(int axis) {
-		return msrPos[axis];
+		return snapshot[SIZE * axis + MSR_POS];
 	}
 
 	@Override
 	public final double getCommandedJointAcceleration(int axis) {
-		return cpra.getCommandedJointAcceleration(axis);
+		if (isPending(axis))
+			return commanded.getCommandedJointAcceleration(axis);
+		return snapshot[SIZE * axis + CMD_ACC];
 	}
 
 	@Override
 	public final double getCommandedJointVelocity(int axis) {
-		return cpra.getCommandedJointVelocity(axis);
+		if (isPending(axis))
+			return commanded.getCommandedJointVelocity(axis);
+		return snapshot[SIZE * axis + CMD_VEL];
 	}
 
 	@Override
 	public final double getCommandedJointPosition(int axis) {
-		return cpra.getCommandedJointPosition(axis);
+		if (isPending(axis))
+			return commanded.getCommandedJointPosition(axis);
+		return snapshot[SIZE * axis + CMD_POS];
 	}
 
 	@Override
@@ -130,7 +216,10 @@ public class JSimulatedVelocityControlledMultijointDevice extends PeriodicJDevic
 	public final void setJointPosition(int axis, double pos, Long time) {
 		if (checkJointPosition(axis, pos) != 0)
 			return;
-		cpra.setJointPosition(axis, pos, time);
+		commanded.setJointPosition(axis, pos, time);
+		pending[2 * axis] = pos;
+		pending[2 * axis + 1] = time;
+		writer = Thread.currentThread();
 	}
 
 	@Override
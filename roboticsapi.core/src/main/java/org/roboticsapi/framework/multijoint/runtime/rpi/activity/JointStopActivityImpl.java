@@ -15,6 +15,7 @@ import org.roboticsapi.core.activity.ActivityResult;
 import org.roboticsapi.core.activity.ActivityResultContainer;
 import org.roboticsapi.core.activity.ActivitySchedule;
 import org.roboticsapi.core.exception.CommunicationException;
+import org.roboticsapi.core.exception.ErrorStack;
 import org.roboticsapi.core.exception.RoboticsException;
 import org.roboticsapi.core.realtimevalue.realtimedouble.RealtimeDoubleArray;
 import org.roboticsapi.core.util.RAPILogger;
@@ -44,7 +45,7 @@ public class JointStopActivityImpl extends AbstractActivity {
 		ActivityHandle stopHandle = stop.createHandle();
 		return new ActivityHandle(this) {
 			@Override
-			public ActivitySchedule prepare(ActivityResult result, StackTraceElement[] errorStack)
+			public ActivitySchedule prepare(ActivityResult result, ErrorStack errorStack)
 					throws RoboticsException {
 				ActivitySchedule schedule = stopHandle.prepare(result, errorStack);
 				ActivityResultContainer results = new ActivityResultContainer();
@@ -0,0 +1,401 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.framework.robot.javarcc;
+
+import org.roboticsapi.core.world.Transformation;
+import org.roboticsapi.core.world.Vector;
+import org.roboticsapi.core.world.mutable.MutableRotation;
+import org.roboticsapi.core.world.mutable.MutableTransformation;
+import org.roboticsapi.core.world.mutable.MutableVector;
+import org.roboticsapi.facet.javarcc.primitives.world.RPICalc;
+import org.roboticsapi.facet.runtime.rpi.world.types.RPIFrame;
+
+/**
+ * Numeric inverse kinematics for arbitrary Denavit-Hartenberg chains.
+ *
+ * Uses damped least squares steps with Levenberg-Marquardt style adaption of
+ * the damping, based on the analytic (geometric) Jacobian of the chain. The
+ * iteration starts at the given hint joints, so that for consecutive targets
+ * the solution closest to the previous one is found.
+ *
+ * All work buffers are allocated on construction, so solving does not create
+ * garbage. Instances are therefore not thread safe.
+ */
+public class DHInverseKinematics {
+
+	private final double[] d, theta, a, alpha;
+	private final boolean zDown;
+	private final int n;
+
+	private double positionTolerance = 1e-6;
+	private double orientationTolerance = 1e-6;
+	private int maxIterations = 100;
+
+	// target pose (row-major rotation, translation)
+	private final double[] target = new double[12];
+	// current pose, joint axes and joint origins
+	private final double[] pose = new double[12];
+	private final double[] axes;
+	private final double[] origins;
+	// Jacobian (6 x n, row-major), error and step
+	private final double[] jacobian;
+	private final double[] error = new double[6];
+	private final double[] trialError = new double[6];
+	private final double[] system = new double[36];
+	private final double[] y = new double[6];
+	private final double[] joints;
+	private final double[] trial;
+
+	private final MutableTransformation frame = RPICalc.frameCreate();
+
+	DHInverseKinematics(double[] d, double[] theta, double[] a, double[] alpha, boolean zDown) {
+		this.d = d;
+		this.theta = theta;
+		this.a = a;
+		this.alpha = alpha;
+		this.zDown = zDown;
+		this.n = d.length;
+		this.axes = new double[3 * n];
+		this.origins = new double[3 * n];
+		this.jacobian = new double[6 * n];
+		this.joints = new double[n];
+		this.trial = new double[n];
+	}
+
+	/**
+	 * Retrieves the number of joints of the kinematic chain.
+	 *
+	 * @return number of joints
+	 */
+	public int getJointCount() {
+		return n;
+	}
+
+	/**
+	 * Sets the tolerances a solution has to satisfy.
+	 *
+	 * @param position    maximum position error [m]
+	 * @param orientation maximum orientation error [rad]
+	 */
+	public void setTolerance(double position, double orientation) {
+		if (position <= 0 || orientation <= 0) {
+			throw new IllegalArgumentException("Tolerances must be positive.");
+		}
+		this.positionTolerance = position;
+		this.orientationTolerance = orientation;
+	}
+
+	/**
+	 * Sets the maximum number of iterations per target.
+	 *
+	 * @param maxIterations maximum number of iterations
+	 */
+	public void setMaxIterations(int maxIterations) {
+		if (maxIterations <= 0) {
+			throw new IllegalArgumentException("Maximum number of iterations must be positive.");
+		}
+		this.maxIterations = maxIterations;
+	}
+
+	/**
+	 * Solves the inverse kinematics for a target frame.
+	 *
+	 * @param hintJoints joint values to start from
+	 * @param frame      target frame of the flange
+	 * @param ret        array receiving the joint values
+	 * @return true if a solution within the tolerances has been found
+	 */
+	public boolean solve(double[] hintJoints, RPIFrame frame, double[] ret) {
+		RPICalc.rpiToFrame(frame, this.frame);
+		return solve(hintJoints, this.frame, ret);
+	}
+
+	/**
+	 * Solves the inverse kinematics for a target frame.
+	 *
+	 * @param hintJoints joint values to start from
+	 * @param frame      target frame of the flange
+	 * @param ret        array receiving the joint values
+	 * @return true if a solution within the tolerances has been found
+	 */
+	public boolean solve(double[] hintJoints, MutableTransformation frame, double[] ret) {
+		MutableRotation rot = frame.getRotation();
+		MutableVector pos = frame.getTranslation();
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				target[3 * i + j] = rot.get(i, j);
+			}
+		}
+		target[9] = pos.getX();
+		target[10] = pos.getY();
+		target[11] = pos.getZ();
+		return solve(hintJoints, ret);
+	}
+
+	/**
+	 * Solves the inverse kinematics for a target frame.
+	 *
+	 * @param hintJoints joint values to start from
+	 * @param frame      target frame of the flange
+	 * @param ret        array receiving the joint values
+	 * @return true if a solution within the tolerances has been found
+	 */
+	public boolean solve(double[] hintJoints, Transformation frame, double[] ret) {
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				target[3 * i + j] = frame.getRotation().get(i, j);
+			}
+		}
+		Vector pos = frame.getTranslation();
+		target[9] = pos.getX();
+		target[10] = pos.getY();
+		target[11] = pos.getZ();
+		return solve(hintJoints, ret);
+	}
+
+	/**
+	 * Solves the inverse kinematics for a sequence of target frames, e.g. to check
+	 * whether a path is reachable. Each target is started from the solution of
+	 * the previous one.
+	 *
+	 * @param hintJoints joint values to start the first target from
+	 * @param frames     target frames of the flange
+	 * @param ret        arrays receiving the joint values for each target
+	 * @return index of the first target that could not be solved, or the number
+	 *         of targets if all targets were solved
+	 */
+	public int solve(double[] hintJoints, Transformation[] frames, double[][] ret) {
+		double[] hint = hintJoints;
+		for (int i = 0; i < frames.length; i++) {
+			if (!solve(hint, frames[i], ret[i])) {
+				return i;
+			}
+			hint = ret[i];
+		}
+		return frames.length;
+	}
+
+	private boolean solve(double[] hintJoints, double[] ret) {
+		if (hintJoints.length != n || ret.length != n) {
+			throw new IllegalArgumentException("Expected " + n + " joint values.");
+		}
+		System.arraycopy(hintJoints, 0, joints, 0, n);
+
+		double mu = 1e-4;
+		forward(joints, true);
+		double err = computeError(error);
+
+		for (int iteration = 0; iteration < maxIterations; iteration++) {
+			if (converged(error)) {
+				System.arraycopy(joints, 0, ret, 0, n);
+				return true;
+			}
+
+			// try steps with increasing damping until the error decreases
+			while (true) {
+				step(mu);
+				forward(trial, false);
+				double trialErr = computeError(trialError);
+				if (trialErr < err) {
+					System.arraycopy(trial, 0, joints, 0, n);
+					System.arraycopy(trialError, 0, error, 0, 6);
+					err = trialErr;
+					mu = Math.max(mu / 3, 1e-12);
+					break;
+				}
+				mu *= 4;
+				if (mu > 1e6) {
+					// local minimum, target not reachable
+					System.arraycopy(joints, 0, ret, 0, n);
+					return false;
+				}
+			}
+			forward(joints, true);
+		}
+		System.arraycopy(joints, 0, ret, 0, n);
+		return converged(error);
+	}
+
+	private boolean converged(double[] e) {
+		return e[0] * e[0] + e[1] * e[1] + e[2] * e[2] <= positionTolerance * positionTolerance
+				&& e[3] * e[3] + e[4] * e[4] + e[5] * e[5] <= orientationTolerance * orientationTolerance;
+	}
+
+	/**
+	 * Computes the damped least squares step dq = J^T (J J^T + mu I)^-1 e into
+	 * trial = joints + dq.
+	 */
+	private void step(double mu) {
+		double[] j = jacobian;
+		for (int r = 0; r < 6; r++) {
+			for (int c = 0; c <= r; c++) {
+				double sum = 0;
+				for (int k = 0; k < n; k++) {
+					sum += j[r * n + k] * j[c * n + k];
+				}
+				system[r * 6 + c] = sum;
+			}
+			system[r * 6 + r] += mu;
+		}
+
+		// Cholesky decomposition (lower triangle) and substitution
+		for (int r = 0; r < 6; r++) {
+			for (int c = 0; c <= r; c++) {
+				double sum = system[r * 6 + c];
+				for (int k = 0; k < c; k++) {
+					sum -= system[r * 6 + k] * system[c * 6 + k];
+				}
+				system[r * 6 + c] = r == c ? Math.sqrt(Math.max(sum, 1e-300)) : sum / system[c * 6 + c];
+			}
+		}
+		for (int r = 0; r < 6; r++) {
+			double sum = error[r];
+			for (int k = 0; k < r; k++) {
+				sum -= system[r * 6 + k] * y[k];
+			}
+			y[r] = sum / system[r * 6 + r];
+		}
+		for (int r = 5; r >= 0; r--) {
+			double sum = y[r];
+			for (int k = r + 1; k < 6; k++) {
+				sum -= system[k * 6 + r] * y[k];
+			}
+			y[r] = sum / system[r * 6 + r];
+		}
+
+		for (int k = 0; k < n; k++) {
+			double sum = 0;
+			for (int r = 0; r < 6; r++) {
+				sum += j[r * n + k] * y[r];
+			}
+			trial[k] = joints[k] + sum;
+		}
+	}
+
+	/**
+	 * Computes the flange pose for the given joints and, if requested, the
+	 * Jacobian.
+	 */
+	private void forward(double[] q, boolean withJacobian) {
+		double[] t = pose;
+		// base rotation (rotated by PI around x if z points downwards)
+		double s = zDown ? -1 : 1;
+		t[0] = 1;
+		t[1] = 0;
+		t[2] = 0;
+		t[3] = 0;
+		t[4] = s;
+		t[5] = 0;
+		t[6] = 0;
+		t[7] = 0;
+		t[8] = s;
+		t[9] = t[10] = t[11] = 0;
+
+		for (int i = 0; i < n; i++) {
+			// joint i rotates around the current z axis through the current origin
+			axes[3 * i] = t[2];
+			axes[3 * i + 1] = t[5];
+			axes[3 * i + 2] = t[8];
+			origins[3 * i] = t[9];
+			origins[3 * i + 1] = t[10];
+			origins[3 * i + 2] = t[11];
+
+			double ct = Math.cos(theta[i] + q[i]), st = Math.sin(theta[i] + q[i]);
+			double ca = Math.cos(alpha[i]), sa = Math.sin(alpha[i]);
+			// local transformation Rz(theta) Tz(d) Tx(a) Rx(alpha)
+			double l00 = ct, l01 = -st * ca, l02 = st * sa, l03 = a[i] * ct;
+			double l10 = st, l11 = ct * ca, l12 = -ct * sa, l13 = a[i] * st;
+			double l21 = sa, l22 = ca, l23 = d[i];
+			for (int r = 0; r < 3; r++) {
+				double r0 = t[3 * r], r1 = t[3 * r + 1], r2 = t[3 * r + 2];
+				t[3 * r] = r0 * l00 + r1 * l10;
+				t[3 * r + 1] = r0 * l01 + r1 * l11 + r2 * l21;
+				t[3 * r + 2] = r0 * l02 + r1 * l12 + r2 * l22;
+				t[9 + r] += r0 * l03 + r1 * l13 + r2 * l23;
+			}
+		}
+
+		if (!withJacobian) {
+			return;
+		}
+		for (int i = 0; i < n; i++) {
+			double zx = axes[3 * i], zy = axes[3 * i + 1], zz = axes[3 * i + 2];
+			double px = t[9] - origins[3 * i], py = t[10] - origins[3 * i + 1], pz = t[11] - origins[3 * i + 2];
+			jacobian[i] = zy * pz - zz * py;
+			jacobian[n + i] = zz * px - zx * pz;
+			jacobian[2 * n + i] = zx * py - zy * px;
+			jacobian[3 * n + i] = zx;
+			jacobian[4 * n + i] = zy;
+			jacobian[5 * n + i] = zz;
+		}
+	}
+
+	/**
+	 * Computes the position and orientation (rotation vector) error between the
+	 * target and the current pose.
+	 *
+	 * @return the squared norm of the error
+	 */
+	private double computeError(double[] e) {
+		double[] t = pose, g = target;
+		e[0] = g[9] - t[9];
+		e[1] = g[10] - t[10];
+		e[2] = g[11] - t[11];
+
+		// R = target * current^T
+		double r00 = g[0] * t[0] + g[1] * t[1] + g[2] * t[2];
+		double r01 = g[0] * t[3] + g[1] * t[4] + g[2] * t[5];
+		double r02 = g[0] * t[6] + g[1] * t[7] + g[2] * t[8];
+		double r10 = g[3] * t[0] + g[4] * t[1] + g[5] * t[2];
+		double r11 = g[3] * t[3] + g[4] * t[4] + g[5] * t[5];
+		double r12 = g[3] * t[6] + g[4] * t[7] + g[5] * t[8];
+		double r20 = g[6] * t[0] + g[7] * t[1] + g[8] * t[2];
+		double r21 = g[6] * t[3] + g[7] * t[4] + g[8] * t[5];
+		double r22 = g[6] * t[6] + g[7] * t[7] + g[8] * t[8];
+
+		double vx = r21 - r12, vy = r02 - r20, vz = r10 - r01;
+		double cos = Math.max(-1, Math.min(1, (r00 + r11 + r22 - 1) / 2));
+		double sin = Math.sqrt(vx * vx + vy * vy + vz * vz) / 2;
+		double angle = Math.atan2(sin, cos);
+		if (sin > 1e-6) {
+			double f = angle / (2 * sin);
+			e[3] = f * vx;
+			e[4] = f * vy;
+			e[5] = f * vz;
+		} else if (cos > 0) {
+			e[3] = vx / 2;
+			e[4] = vy / 2;
+			e[5] = vz / 2;
+		} else {
+			// rotation by (almost) PI, determine the axis from the diagonal
+			double kx = Math.sqrt(Math.max(0, (r00 + 1) / 2));
+			double ky = Math.sqrt(Math.max(0, (r11 + 1) / 2));
+			double kz = Math.sqrt(Math.max(0, (r22 + 1) / 2));
+			if (kx >= ky && kx >= kz) {
+				ky = (r01 + r10) / (4 * kx);
+				kz = (r02 + r20) / (4 * kx);
+			} else if (ky >= kz) {
+				kx = (r01 + r10) / (4 * ky);
+				kz = (r12 + r21) / (4 * ky);
+			} else {
+				kx = (r02 + r20) / (4 * kz);
+				ky = (r12 + r21) / (4 * kz);
+			}
+			if (kx * vx + ky * vy + kz * vz < 0) {
+				kx = -kx;
+				ky = -ky;
+				kz = -kz;
+			}
+			e[3] = angle * kx;
+			e[4] = angle * ky;
+			e[5] = angle * kz;
+		}
+		return e[0] * e[0] + e[1] * e[1] + e[2] * e[2] + e[3] * e[3] + e[4] * e[4] + e[5] * e[5];
+	}
+
+}
@@ -47,4 +47,31 @@ public class DHKinematics {
 		return ret;
 	}
 
+	private DHInverseKinematics inverse;
+
+	/**
+	 * Creates a new solver for the inverse kinematics of this kinematic chain.
+	 *
+	 * @return the inverse kinematics solver
+	 */
+	public DHInverseKinematics createInverseKinematics() {
+		return new DHInverseKinematics(d, theta, a, alpha, zDown);
+	}
+
+	/**
+	 * Computes the joint values for a given flange frame.
+	 *
+	 * @param hintJoints joint values to start the search from (e.g. the current
+	 *                   joint values)
+	 * @param frame      flange frame to reach
+	 * @param ret        array receiving the joint values
+	 * @return the joint values (ret), or null if the frame cannot be reached
+	 */
+	public double[] invKin(double[] hintJoints, RPIFrame frame, double[] ret) {
+		if (inverse == null) {
+			inverse = createInverseKinematics();
+		}
+		return inverse.solve(hintJoints, frame, ret) ? ret : null;
+	}
+
 }
@@ -16,4 +16,22 @@ public interface JArmKinematicsInterface extends JDevice {
 
 	double[] invKin(double[] hintJoints, RPIFrame frame);
 
+	/**
+	 * Computes the joint values for a given frame into a preallocated array.
+	 * Implementations should override this to avoid allocations in each cycle.
+	 *
+	 * @param hintJoints joint values to start the search from
+	 * @param frame      frame to reach
+	 * @param ret        array receiving the joint values
+	 * @return the joint values (ret), or null if the frame cannot be reached
+	 */
+	default double[] invKin(double[] hintJoints, RPIFrame frame, double[] ret) {
+		double[] joints = invKin(hintJoints, frame);
+		if (joints == null) {
+			return null;
+		}
+		System.arraycopy(joints, 0, ret, 0, ret.length);
+		return ret;
+	}
+
 }
@@ -11,7 +11,6 @@ import org.roboticsapi.facet.javarcc.JInPort;
 import org.roboticsapi.facet.javarcc.JOutPort;
 import org.roboticsapi.facet.javarcc.JParameter;
 import org.roboticsapi.facet.javarcc.JPrimitive;
-import org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble;
 import org.roboticsapi.facet.runtime.rpi.core.types.RPIdoubleArray;
 import org.roboticsapi.facet.runtime.rpi.core.types.RPIstring;
 import org.roboticsapi.facet.runtime.rpi.world.types.RPIFrame;
@@ -23,6 +22,7 @@ public class JInvKin extends JPrimitive {
 	private JOutPort<RPIdoubleArray> outJoints = add("outJoints", new JOutPort<RPIdoubleArray>());
 	private JParameter<RPIstring> propRobot = add("Robot", new JParameter<RPIstring>());
 	private JArmKinematicsInterface dev;
+	private double[] joints, solution;
 
 	@Override
 	public void checkParameters() throws IllegalArgumentException {
@@ -34,15 +34,19 @@ public class JInvKin extends JPrimitive {
 	public void updateData() {
 		if (anyNull(inHintJoints, inFrame))
 			return;
-		double[] joints = new double[inHintJoints.get().getSize()];
+		RPIdoubleArray hint = inHintJoints.get();
+		if (joints == null || joints.length != hint.getSize()) {
+			joints = new double[hint.getSize()];
+			solution = new double[hint.getSize()];
+		}
 		for (int i = 0; i < joints.length; i++)
-			joints[i] = inHintJoints.get().get(i).get();
-		double[] ret = dev.invKin(joints, inFrame.get());
-		RPIdoubleArray arr = new RPIdoubleArray(joints.length);
-		for (int i = 0; i < joints.length; i++) {
-			arr.set(i, new RPIdouble(ret[i]));
+			joints[i] = hint.get(i).get();
+		if (dev.invKin(joints, inFrame.get(), solution) == null) {
+			outJoints.set(null);
+			return;
 		}
-		outJoints.set(arr);
+		// new output each cycle, as readers may keep the previous one
+		outJoints.set(new RPIdoubleArray(solution));
 	}
 
 }
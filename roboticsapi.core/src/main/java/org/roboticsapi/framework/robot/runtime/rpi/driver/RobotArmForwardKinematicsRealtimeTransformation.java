@@ -34,7 +34,8 @@ public final class RobotArmForwardKinematicsRealtimeTransformation extends Realt
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && driver.equals(((RobotArmForwardKinematicsRealtimeTransformation) obj).driver)
+		return sameAs(obj) || classEqual(obj)
+				&& driver.equals(((RobotArmForwardKinematicsRealtimeTransformation) obj).driver)
 				&& jointValues.equals(((RobotArmForwardKinematicsRealtimeTransformation) obj).jointValues);
 	}
 
@@ -42,7 +42,8 @@ public class RobotArmInverseKinematicsRealtimeDoubleArray extends RealtimeDouble
 
 	@Override
 	public boolean equals(Object obj) {
-		return classEqual(obj) && driver.equals(((RobotArmInverseKinematicsRealtimeDoubleArray) obj).driver)
+		return sameAs(obj) || classEqual(obj)
+				&& driver.equals(((RobotArmInverseKinematicsRealtimeDoubleArray) obj).driver)
 				&& transformation.equals(((RobotArmInverseKinematicsRealtimeDoubleArray) obj).transformation)
 				&& hintJoints.equals(((RobotArmInverseKinematicsRealtimeDoubleArray) obj).hintJoints);
 	}
@@ -0,0 +1,83 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.roboticsapi.core.realtimevalue.realtimedouble.RealtimeDouble;
+
+public class RealtimeValueInternerTest {
+
+	private static final int DEPTH = 64;
+
+	/** creates an expression doubling the given value, sharing each intermediate result */
+	private RealtimeDouble createShared(RealtimeDouble leaf) {
+		RealtimeDouble ret = leaf;
+		for (int i = 0; i < DEPTH; i++) {
+			ret = ret.add(ret);
+		}
+		return ret;
+	}
+
+	@Test(timeout = 10000)
+	public void testHashOfSharedExpressionIsComputedOnce() {
+		RealtimeDouble leaf = RealtimeDouble.createWritable(1);
+		RealtimeDouble first = createShared(leaf), second = createShared(leaf);
+		assertEquals(first.hashCode(), second.hashCode());
+		assertEquals(first.getStructuralHash(), first.getStructuralHash());
+	}
+
+	@Test(timeout = 10000)
+	public void testContainsVisitsSharedExpressionOnce() {
+		RealtimeDouble leaf = RealtimeDouble.createWritable(1);
+		RealtimeDouble expression = createShared(leaf);
+		assertTrue(expression.contains(leaf));
+		assertFalse(expression.contains(RealtimeDouble.createWritable(1)));
+	}
+
+	@Test(timeout = 10000)
+	public void testInternMergesEqualExpressions() {
+		RealtimeDouble leaf = RealtimeDouble.createWritable(1);
+		RealtimeDouble first = createShared(leaf), second = createShared(leaf);
+		RealtimeValueInterner interner = new RealtimeValueInterner();
+		assertSame(first, interner.intern(first));
+		assertSame(first, interner.intern(second));
+		assertTrue(interner.equal(first, second));
+		assertTrue(interner.equal(second, first));
+	}
+
+	@Test(timeout = 10000)
+	public void testInternersDoNotShareMappings() {
+		RealtimeDouble leaf = RealtimeDouble.createWritable(1);
+		RealtimeDouble first = createShared(leaf), second = createShared(leaf), third = createShared(leaf);
+		RealtimeValueInterner interner = new RealtimeValueInterner();
+		assertSame(first, interner.intern(first));
+		assertSame(first, interner.intern(second));
+
+		// a new interner does not map values to those seen by an earlier one
+		RealtimeValueInterner other = new RealtimeValueInterner();
+		assertSame(third, other.intern(third));
+		assertSame(third, other.intern(first));
+		assertSame(first, interner.intern(third));
+	}
+
+	@Test
+	public void testInternKeepsDifferentExpressions() {
+		RealtimeDouble leaf = RealtimeDouble.createWritable(1);
+		RealtimeDouble first = leaf.add(1), second = leaf.add(2);
+		RealtimeValueInterner interner = new RealtimeValueInterner();
+		assertSame(first, interner.intern(first));
+		assertSame(second, interner.intern(second));
+		assertFalse(first.equals(second));
+	}
+
+}
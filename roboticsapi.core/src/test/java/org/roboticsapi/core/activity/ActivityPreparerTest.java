@@ -0,0 +1,222 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.core.activity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.roboticsapi.core.Device;
+import org.roboticsapi.core.RoboticsRuntime;
+import org.roboticsapi.core.TestRuntime;
+import org.roboticsapi.core.activity.simple.SimpleResult;
+import org.roboticsapi.core.exception.ErrorStack;
+import org.roboticsapi.core.exception.RoboticsException;
+
+public class ActivityPreparerTest {
+
+	private interface Preparation {
+		ActivitySchedule prepare() throws Exception;
+	}
+
+	private interface ResultPreparation {
+		ActivitySchedule prepare(ActivityHandle handle, ActivityResult result) throws Exception;
+	}
+
+	/** schedule recording its activation and running the given load */
+	private static class TestSchedule extends ActivitySchedule {
+		private final List<String> activated;
+		private final Runnable load;
+
+		public TestSchedule(ActivityResult result, ActivityHandle handle, List<String> activated, Runnable load) {
+			super(result, handle, new ActivityResultContainer());
+			this.activated = activated;
+			this.load = load;
+		}
+
+		@Override
+		public void cancel() {
+		}
+
+		@Override
+		protected void doLoad() {
+			load.run();
+		}
+
+		@Override
+		protected void doActivate() {
+			activated.add(getResult().getName());
+		}
+
+		@Override
+		public ActivitySchedule withParallel(ActivityHandle composite, ActivitySchedule otherSchedule) {
+			return null;
+		}
+
+		@Override
+		public ActivitySchedule withResults(ActivityHandle composite, ActivityResults results) {
+			return null;
+		}
+	}
+
+	private static ActivityHandle createHandle(Preparation preparation) throws RoboticsException {
+		return createHandle(null, (handle, result) -> preparation.prepare());
+	}
+
+	private static ActivityHandle createHandle(ActivityPreparer preparer, ResultPreparation preparation)
+			throws RoboticsException {
+		Activity activity = new AbstractActivity("test", new Device[0]) {
+			@Override
+			public ActivityHandle createHandle() throws RoboticsException {
+				return null;
+			}
+		};
+		return new ActivityHandle(activity) {
+			@Override
+			public ActivitySchedule prepare(ActivityResult result, ErrorStack errorStack)
+					throws RoboticsException {
+				try {
+					return preparation.prepare(this, result);
+				} catch (RoboticsException e) {
+					throw e;
+				} catch (Exception e) {
+					throw new RoboticsException(e);
+				}
+			}
+
+			@Override
+			ActivityPreparer getPreparer() {
+				return preparer == null ? super.getPreparer() : preparer;
+			}
+		};
+	}
+
+	private static ActivityResult createResult(String name) {
+		return new SimpleResult(name, Collections.<Device>emptySet(), false, null, false, new ArrayList<>(),
+				new HashMap<>());
+	}
+
+	@Test(timeout = 10000)
+	public void testSchedulesArePreparedInParallel() throws Exception {
+		ActivityPreparer preparer = new ActivityPreparer(2, 1);
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		ActivityHandle handle = createHandle(() -> {
+			barrier.await(5, TimeUnit.SECONDS);
+			return null;
+		});
+
+		CompletableFuture<ActivitySchedule> first = preparer.prepare(handle, null, null);
+		CompletableFuture<ActivitySchedule> second = preparer.prepare(handle, null, null);
+		assertNull(first.get());
+		assertNull(second.get());
+	}
+
+	@Test
+	public void testSingleThreadPreparesOnCaller() throws Exception {
+		ActivityPreparer preparer = new ActivityPreparer(1, 1);
+		Thread caller = Thread.currentThread();
+		Thread[] preparing = new Thread[1];
+		ActivityHandle handle = createHandle(() -> {
+			preparing[0] = Thread.currentThread();
+			return null;
+		});
+
+		CompletableFuture<ActivitySchedule> prepared = preparer.prepare(handle, null, null);
+		assertTrue(prepared.isDone());
+		assertSame(caller, preparing[0]);
+	}
+
+	@Test
+	public void testFailureCompletesExceptionally() throws Exception {
+		ActivityPreparer preparer = new ActivityPreparer(2, 1);
+		RoboticsException failure = new RoboticsException("failed");
+		ActivityHandle handle = createHandle(() -> {
+			throw failure;
+		});
+
+		try {
+			preparer.prepare(handle, null, null).get();
+			fail();
+		} catch (ExecutionException e) {
+			assertEquals(failure, e.getCause());
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void testActivationsFollowBindOrder() throws Exception {
+		ActivityPreparer preparer = new ActivityPreparer(2, 1);
+		ActivityResult first = createResult("first"), second = createResult("second");
+		CountDownLatch secondPrepared = new CountDownLatch(1);
+		List<String> prepared = Collections.synchronizedList(new ArrayList<String>());
+		List<String> activated = Collections.synchronizedList(new ArrayList<String>());
+		ActivityHandle handle = createHandle(preparer, (h, result) -> {
+			// the schedule for the first result is prepared last
+			if (result == first)
+				secondPrepared.await(5, TimeUnit.SECONDS);
+			prepared.add(result.getName());
+			if (result == second)
+				secondPrepared.countDown();
+			return new TestSchedule(result, h, activated, () -> {
+			});
+		});
+
+		handle.bind(new ActivityResultContainer(first, second), null);
+		while (activated.size() < 2)
+			Thread.sleep(10);
+
+		assertEquals(Arrays.asList("second", "first"), prepared);
+		assertEquals(Arrays.asList("first", "second"), activated);
+		assertNull(handle.getException());
+	}
+
+	@Test(timeout = 10000)
+	public void testLoadsPerRuntimeAreLimited() throws Exception {
+		ActivityPreparer preparer = new ActivityPreparer(4, 2);
+		RoboticsRuntime runtime = new TestRuntime();
+		AtomicInteger loading = new AtomicInteger(), maxLoading = new AtomicInteger();
+		Runnable load = () -> {
+			preparer.beginLoad(runtime);
+			try {
+				maxLoading.accumulateAndGet(loading.incrementAndGet(), Math::max);
+				// give other loads the chance to run at the same time
+				long end = System.currentTimeMillis() + 200;
+				while (System.currentTimeMillis() < end)
+					Thread.yield();
+				loading.decrementAndGet();
+			} finally {
+				preparer.endLoad(runtime);
+			}
+		};
+		ActivityHandle handle = createHandle(preparer,
+				(h, result) -> new TestSchedule(result, h, new ArrayList<String>(), load));
+
+		List<CompletableFuture<ActivitySchedule>> prepared = new ArrayList<>();
+		for (int i = 0; i < 4; i++)
+			prepared.add(preparer.prepare(handle, createResult("result " + i), null));
+		for (CompletableFuture<ActivitySchedule> schedule : prepared)
+			assertEquals(ActivitySchedule.Status.PREPARED, schedule.get().getStatus());
+
+		assertEquals(2, maxLoading.get());
+	}
+
+}
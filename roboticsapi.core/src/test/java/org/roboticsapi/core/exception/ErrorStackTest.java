@@ -0,0 +1,67 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.core.exception;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.roboticsapi.core.exception.ErrorStack.Mode;
+
+public class ErrorStackTest {
+
+	private static ErrorStack callSite(Mode mode, int depth, int sampling) {
+		return ErrorStack.capture(mode, depth, sampling, 1);
+	}
+
+	@Test
+	public void testCaptureStartsAtCallSite() {
+		StackTraceElement[] stack = callSite(Mode.LAZY, 2, 1).getStackTrace();
+		assertEquals(2, stack.length);
+		assertEquals("testCaptureStartsAtCallSite", stack[0].getMethodName());
+		assertEquals(getClass().getName(), stack[0].getClassName());
+	}
+
+	@Test
+	public void testFullCaptureIsNotLimited() {
+		StackTraceElement[] stack = callSite(Mode.FULL, 2, 1).getStackTrace();
+		assertEquals("testFullCaptureIsNotLimited", stack[0].getMethodName());
+		assertTrue(stack.length > 2);
+	}
+
+	@Test
+	public void testOffAndSampledCapture() {
+		assertSame(ErrorStack.NONE, callSite(Mode.OFF, 32, 1));
+		assertNull(ErrorStack.NONE.getStackTrace());
+
+		int captured = 0;
+		for (int i = 0; i < 10; i++) {
+			if (callSite(Mode.SAMPLED, 32, 5) != ErrorStack.NONE) {
+				captured++;
+			}
+		}
+		assertEquals(2, captured);
+	}
+
+	@Test
+	public void testExceptionReportsCallSite() {
+		ErrorStack stack = callSite(Mode.LAZY, 32, 1);
+		RoboticsException inner = new RoboticsException("inner");
+		RoboticsException outer = new RoboticsException("outer", inner);
+		inner.setErrorStack(stack);
+		outer.setErrorStack(ErrorStack.NONE);
+
+		outer.getStackTrace();
+		assertEquals(stack.getStackTrace()[0], inner.getStackTrace()[0]);
+		assertEquals(stack.getStackTrace().length, inner.getStackTrace().length);
+		assertEquals("testExceptionReportsCallSite", outer.getStackTrace()[0].getMethodName());
+	}
+
+}
@@ -0,0 +1,71 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.core.realtimevalue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.roboticsapi.core.exception.RoboticsException;
+import org.roboticsapi.core.realtimevalue.realtimedouble.RealtimeDouble;
+import org.roboticsapi.core.realtimevalue.realtimedouble.WritableRealtimeDouble;
+import org.roboticsapi.core.util.ReferenceCleaner;
+
+public class RealtimeValueDependentsTest {
+
+	@Test
+	public void testChangesArePropagatedToDependentValues() throws RoboticsException {
+		WritableRealtimeDouble writable = RealtimeDouble.createWritable(1);
+		RealtimeDouble value = writable.add(1).multiply(2);
+		List<Double> notified = new ArrayList<Double>();
+		value.addListener(notified::add);
+
+		writable.setValue(2d);
+		assertEquals(4, notified.get(0), 0);
+		assertEquals(6, notified.get(1), 0);
+		assertEquals(6, value.getCurrentValue(), 0);
+	}
+
+	@Test(timeout = 10000)
+	public void testWritableValueDoesNotKeepDependentValuesAlive() throws InterruptedException {
+		WritableRealtimeDouble writable = RealtimeDouble.createWritable(1);
+		WeakReference<RealtimeDouble> dependent = new WeakReference<RealtimeDouble>(writable.add(1));
+		while (dependent.get() != null) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertNull(dependent.get());
+		writable.setValue(2d);
+	}
+
+	@Test(timeout = 10000)
+	public void testCleanupActionRunsForUnreachableObject() throws InterruptedException {
+		CountDownLatch cleaned = new CountDownLatch(1);
+		ReferenceCleaner.register(new Object(), cleaned::countDown);
+		while (!cleaned.await(10, TimeUnit.MILLISECONDS)) {
+			System.gc();
+		}
+	}
+
+	@Test
+	public void testCleanupActionRunsOnlyOnce() {
+		Object object = new Object();
+		List<Object> runs = new ArrayList<Object>();
+		ReferenceCleaner.Cleanable cleanable = ReferenceCleaner.register(object, () -> runs.add(object.getClass()));
+		cleanable.clean();
+		cleanable.clean();
+		assertEquals(1, runs.size());
+	}
+
+}
@@ -0,0 +1,155 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.core.world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.roboticsapi.core.RoboticsContext;
+import org.roboticsapi.core.RoboticsContextImpl;
+import org.roboticsapi.core.exception.InitializationException;
+import org.roboticsapi.core.world.relation.ConfiguredStaticConnection;
+import org.roboticsapi.core.world.util.FrameGraph;
+import org.roboticsapi.core.world.util.FrameGraphSnapshot;
+
+public class FrameGraphSnapshotTest {
+
+	private final RoboticsContext context = new RoboticsContextImpl("dummy");
+	private final Frame[] frames = new Frame[4];
+	private Frame root;
+
+	@Before
+	public void init() throws InitializationException {
+		root = new Frame("root");
+		context.initialize(root);
+		for (int i = 0; i < frames.length; i++) {
+			frames[i] = new Frame("Frame " + i);
+			context.initialize(frames[i]);
+		}
+		connect(root, frames[0], new Transformation(1, 0, 0, 0, 0, 0));
+		connect(frames[0], frames[1], new Transformation(0, 2, 0, 0, 0, 0));
+		connect(frames[2], frames[0], new Transformation(0, 0, -3, 0, 0, 0));
+	}
+
+	private ConfiguredStaticConnection connect(Frame from, Frame to, Transformation transformation)
+			throws InitializationException {
+		ConfiguredStaticConnection ret = new ConfiguredStaticConnection(from, to, transformation);
+		context.initialize(ret);
+		return ret;
+	}
+
+	private void assertPose(double[] poses, int slot, double x, double y, double z) {
+		Transformation pose = FrameGraphSnapshot.getTransformation(poses, slot);
+		assertEquals(x, pose.getX(), 1e-9);
+		assertEquals(y, pose.getY(), 1e-9);
+		assertEquals(z, pose.getZ(), 1e-9);
+	}
+
+	@Test
+	public void testSnapshotContainsPosesOfSubscribedFrames() {
+		FrameGraphSnapshot snapshot = new FrameGraphSnapshot(new FrameGraph(root));
+		List<Integer> slots = snapshot.subscribe(Arrays.asList(frames[1], frames[2], root));
+
+		double[] poses = snapshot.getSnapshot();
+		assertEquals(3 * FrameGraphSnapshot.STRIDE, poses.length);
+		assertPose(poses, slots.get(0), 1, 2, 0);
+		assertPose(poses, slots.get(1), 1, 0, 3);
+		assertPose(poses, slots.get(2), 0, 0, 0);
+	}
+
+	@Test
+	public void testUnsubscribedSlotsAreReused() {
+		FrameGraphSnapshot snapshot = new FrameGraphSnapshot(new FrameGraph(root));
+		int first = snapshot.subscribe(frames[1]);
+		assertEquals(first, snapshot.subscribe(frames[1]));
+		int second = snapshot.subscribe(frames[2]);
+
+		snapshot.unsubscribe(frames[1]);
+		assertPose(snapshot.getSnapshot(), first, 1, 2, 0);
+		snapshot.unsubscribe(frames[1]);
+		assertNull(FrameGraphSnapshot.getTransformation(snapshot.getSnapshot(), first));
+		assertEquals(-1, snapshot.getSlot(frames[1]));
+
+		assertEquals(first, snapshot.subscribe(frames[0]));
+		assertPose(snapshot.getSnapshot(), first, 1, 0, 0);
+		assertPose(snapshot.getSnapshot(), second, 1, 0, 3);
+	}
+
+	@Test
+	public void testSnapshotFollowsFrameGraphChanges() throws InitializationException {
+		FrameGraphSnapshot snapshot = new FrameGraphSnapshot(new FrameGraph(root));
+		List<double[]> published = new ArrayList<double[]>();
+		snapshot.addSnapshotListener(published::add);
+		int slot = snapshot.subscribe(frames[3]);
+		assertNull(FrameGraphSnapshot.getTransformation(snapshot.getSnapshot(), slot));
+
+		ConfiguredStaticConnection relation = connect(frames[1], frames[3], new Transformation(0, 0, 1, 0, 0, 0));
+		assertPose(snapshot.getSnapshot(), slot, 1, 2, 1);
+		assertPose(published.get(published.size() - 1), slot, 1, 2, 1);
+
+		context.uninitialize(relation);
+		assertNull(FrameGraphSnapshot.getTransformation(snapshot.getSnapshot(), slot));
+		assertTrue(published.size() > 2);
+	}
+
+	@Test
+	public void testListenersAreCalledWithoutHoldingLocks() {
+		FrameGraphSnapshot snapshot = new FrameGraphSnapshot(new FrameGraph(root));
+		List<Boolean> accessible = Collections.synchronizedList(new ArrayList<Boolean>());
+		snapshot.addSnapshotListener(poses -> {
+			// another thread accessing the snapshot must not be blocked
+			Thread other = new Thread(() -> snapshot.subscribe(frames[0]));
+			other.start();
+			try {
+				other.join(5000);
+			} catch (InterruptedException e) {
+			}
+			accessible.add(!other.isAlive());
+		});
+		snapshot.subscribe(frames[1]);
+		assertTrue(accessible.size() > 1);
+		assertFalse(accessible.contains(false));
+	}
+
+	@Test
+	public void testSnapshotsPublishedDuringDeliveryAreDeliveredInOrder() {
+		FrameGraphSnapshot snapshot = new FrameGraphSnapshot(new FrameGraph(root));
+		List<double[]> published = Collections.synchronizedList(new ArrayList<double[]>());
+		List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+		snapshot.addSnapshotListener(poses -> {
+			published.add(poses);
+			threads.add(Thread.currentThread());
+			if (published.size() == 2) {
+				// publish a newer snapshot from another thread while delivering
+				Thread other = new Thread(() -> snapshot.subscribe(frames[0]));
+				other.start();
+				try {
+					other.join(5000);
+				} catch (InterruptedException e) {
+				}
+			}
+		});
+		snapshot.subscribe(frames[1]);
+
+		// the delivering thread delivered the newer snapshot after the older one
+		assertEquals(Collections.nCopies(threads.size(), Thread.currentThread()), threads);
+		assertTrue(published.size() > 2);
+		assertTrue(published.get(published.size() - 1) == snapshot.getSnapshot());
+		assertPose(published.get(published.size() - 1), snapshot.getSlot(frames[0]), 1, 0, 0);
+	}
+
+}
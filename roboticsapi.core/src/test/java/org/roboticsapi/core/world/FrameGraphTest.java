@@ -7,8 +7,11 @@
 
 package org.roboticsapi.core.world;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.After;
@@ -271,4 +274,44 @@ public class FrameGraphTest {
 		graph.removeFrameGraphListener(checkingListener);
 	}
 
+	private List<Frame> walk(Frame from, Frame to) {
+		List<Relation> path = graph.getRelations(from, to);
+		if (path == null) {
+			return null;
+		}
+		List<Frame> ret = new ArrayList<Frame>();
+		ret.add(from);
+		for (Relation r : path) {
+			from = r.getOther(from);
+			ret.add(from);
+		}
+		return ret;
+	}
+
+	@Test
+	public void testRelationPathsFollowGraphChanges() throws InitializationException {
+		graph = new FrameGraph(root);
+		addFrames();
+
+		Assert.assertEquals(Arrays.asList(frames[4], frames[2], frames[1], frames[3], frames[5]),
+				walk(frames[4], frames[5]));
+		Assert.assertEquals(Arrays.asList(frames[6], frames[0], root), walk(frames[6], root));
+		Assert.assertEquals(Arrays.asList(frames[2]), walk(frames[2], frames[2]));
+
+		// closing a cycle provides a shorter path
+		ConfiguredStaticConnection shortcut = new ConfiguredStaticConnection();
+		addRelation(frames[4], frames[5], shortcut);
+		Assert.assertEquals(Arrays.asList(frames[4], frames[5]), walk(frames[4], frames[5]));
+		Assert.assertEquals(Arrays.asList(frames[1], frames[3], frames[5]), walk(frames[1], frames[5]));
+
+		// removing a tree relation reroutes over the remaining relations
+		context.uninitialize(relations[3]);
+		Assert.assertEquals(Arrays.asList(frames[1], frames[2], frames[4], frames[5]), walk(frames[1], frames[5]));
+
+		// removing the cycle detaches the frames from the graph
+		context.uninitialize(shortcut);
+		Assert.assertNull(walk(frames[4], frames[5]));
+		Assert.assertEquals(Arrays.asList(frames[4], frames[2], frames[1]), walk(frames[4], frames[1]));
+	}
+
 }
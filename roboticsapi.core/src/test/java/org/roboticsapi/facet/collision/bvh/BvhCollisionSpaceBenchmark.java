@@ -0,0 +1,119 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.collision.bvh;
+
+import java.util.Random;
+
+import org.roboticsapi.core.world.Transformation;
+import org.roboticsapi.core.world.Vector;
+import org.roboticsapi.facet.collision.shapes.BoxShape;
+import org.roboticsapi.facet.collision.shapes.CapsuleShape;
+import org.roboticsapi.facet.collision.shapes.CylinderShape;
+import org.roboticsapi.facet.collision.shapes.Shape;
+import org.roboticsapi.facet.collision.shapes.SphereShape;
+
+/**
+ * Benchmark for {@link BvhCollisionSpace}: a few thousand static objects and a
+ * few hundred kinematic objects moving along random paths, checked for
+ * collisions in every cycle.
+ *
+ * Usage: <code>BvhCollisionSpaceBenchmark [static objects] [kinematic objects]
+ * [cycles]</code>
+ */
+public class BvhCollisionSpaceBenchmark {
+
+	public static void main(String[] args) {
+		int staticCount = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+		int kinematicCount = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+		int cycles = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+		double size = Math.cbrt(staticCount + kinematicCount) * 1.5;
+
+		Random random = new Random(42);
+		Shape[][] shapes = new Shape[staticCount + kinematicCount][];
+		for (int i = 0; i < shapes.length; i++) {
+			shapes[i] = new Shape[] { createShape(random) };
+		}
+		BvhCollisionSpace<Integer> space = new BvhCollisionSpace<Integer>(i -> shapes[i]);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < staticCount; i++) {
+			space.addStaticObject(i, randomPose(random, size));
+		}
+		double[][] positions = new double[kinematicCount][3];
+		double[][] velocities = new double[kinematicCount][3];
+		for (int i = 0; i < kinematicCount; i++) {
+			for (int j = 0; j < 3; j++) {
+				positions[i][j] = random.nextDouble() * size;
+				velocities[i][j] = (random.nextDouble() - 0.5) * 0.01;
+			}
+			space.addKinematicObject(staticCount + i, at(positions[i]));
+		}
+		System.out.printf("Added %d static and %d kinematic objects in %.1f ms%n", staticCount, kinematicCount,
+				(System.nanoTime() - start) / 1e6);
+
+		// warm up
+		run(space, staticCount, positions, velocities, size, cycles / 2);
+
+		start = System.nanoTime();
+		int collisions = run(space, staticCount, positions, velocities, size, cycles);
+		long duration = System.nanoTime() - start;
+		System.out.printf("%d cycles: %.1f us per cycle (update + check), %.1f collisions per cycle%n", cycles,
+				duration / 1e3 / cycles, (double) collisions / cycles);
+
+		start = System.nanoTime();
+		int hits = 0;
+		for (int i = 0; i < cycles; i++) {
+			hits += space.rayTest(at(new double[] { 0, random.nextDouble() * size, random.nextDouble() * size }),
+					new Vector(size, 0, 0)).size();
+		}
+		System.out.printf("%d ray tests: %.1f us per ray, %.1f hits per ray%n", cycles,
+				(System.nanoTime() - start) / 1e3 / cycles, (double) hits / cycles);
+	}
+
+	private static int run(BvhCollisionSpace<Integer> space, int offset, double[][] positions, double[][] velocities,
+			double size, int cycles) {
+		int collisions = 0;
+		for (int cycle = 0; cycle < cycles; cycle++) {
+			for (int i = 0; i < positions.length; i++) {
+				for (int j = 0; j < 3; j++) {
+					positions[i][j] += velocities[i][j];
+					if (positions[i][j] < 0 || positions[i][j] > size) {
+						velocities[i][j] = -velocities[i][j];
+					}
+				}
+				space.updateTransformation(offset + i, at(positions[i]));
+			}
+			collisions += space.checkCollisions().size();
+		}
+		return collisions;
+	}
+
+	private static Shape createShape(Random random) {
+		double a = 0.1 + random.nextDouble() * 0.3, b = 0.1 + random.nextDouble() * 0.3;
+		switch (random.nextInt(4)) {
+		case 0:
+			return new BoxShape(Transformation.IDENTITY, a, b, a);
+		case 1:
+			return new SphereShape(Transformation.IDENTITY, a);
+		case 2:
+			return new CapsuleShape(Transformation.IDENTITY, a / 2, b);
+		default:
+			return new CylinderShape(Transformation.IDENTITY, a, b);
+		}
+	}
+
+	private static Transformation randomPose(Random random, double size) {
+		return new Transformation(random.nextDouble() * size, random.nextDouble() * size, random.nextDouble() * size,
+				random.nextDouble() * Math.PI, random.nextDouble() * Math.PI, random.nextDouble() * Math.PI);
+	}
+
+	private static Transformation at(double[] position) {
+		return new Transformation(position[0], position[1], position[2], 0, 0, 0);
+	}
+
+}
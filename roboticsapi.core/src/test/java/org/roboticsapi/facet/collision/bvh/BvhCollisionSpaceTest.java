@@ -0,0 +1,167 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.collision.bvh;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.roboticsapi.core.world.Rotation;
+import org.roboticsapi.core.world.Transformation;
+import org.roboticsapi.core.world.Vector;
+import org.roboticsapi.facet.collision.Collision;
+import org.roboticsapi.facet.collision.RayTestResult;
+import org.roboticsapi.facet.collision.shapes.BoxShape;
+import org.roboticsapi.facet.collision.shapes.CapsuleShape;
+import org.roboticsapi.facet.collision.shapes.CylinderShape;
+import org.roboticsapi.facet.collision.shapes.Shape;
+import org.roboticsapi.facet.collision.shapes.SphereShape;
+
+public class BvhCollisionSpaceTest {
+
+	private final Map<String, Shape[]> shapes = new HashMap<String, Shape[]>();
+	private BvhCollisionSpace<String> space;
+
+	@Before
+	public void setup() {
+		shapes.put("box", new Shape[] { new BoxShape(Transformation.IDENTITY, 0.5, 0.5, 0.5) });
+		shapes.put("sphere", new Shape[] { new SphereShape(Transformation.IDENTITY, 0.5) });
+		shapes.put("capsule", new Shape[] { new CapsuleShape(Transformation.IDENTITY, 0.25, 1) });
+		shapes.put("cylinder", new Shape[] { new CylinderShape(Transformation.IDENTITY, 0.5, 0.5) });
+		shapes.put("floor", new Shape[] { new BoxShape(new Transformation(0, 0, -0.05, 0, 0, 0), 10, 10, 0.05) });
+		space = new BvhCollisionSpace<String>(shapes::get);
+	}
+
+	private static Transformation at(double x, double y, double z) {
+		return new Transformation(x, y, z, 0, 0, 0);
+	}
+
+	@Test
+	public void testSpheresCollideWhenTouching() {
+		space.addKinematicObject("sphere", at(0, 0, 0));
+		space.addStaticObject("box", at(1.1, 0, 0));
+		assertTrue(space.checkCollisions().isEmpty());
+
+		space.updateTransformation("sphere", at(0.15, 0, 0));
+		Set<Collision<String>> collisions = space.checkCollisions();
+		assertEquals(1, collisions.size());
+
+		Collision<String> collision = collisions.iterator().next();
+		Vector pointOnSphere = "sphere".equals(collision.getObjectA()) ? collision.getLocalPointA()
+				: collision.getLocalPointB();
+		assertEquals(0.5, pointOnSphere.getLength(), 0.05);
+	}
+
+	@Test
+	public void testRotatedBoxes() {
+		shapes.put("other", shapes.get("box"));
+		space.addStaticObject("box", at(0, 0, 0));
+		// rotated by 45 degrees, the corner reaches 0.5 * sqrt(2) = 0.707
+		space.addKinematicObject("other", new Transformation(1.25, 0, 0, Math.PI / 4, 0, 0));
+		assertTrue(space.checkCollisions().isEmpty());
+
+		space.updateTransformation("other", new Transformation(1.15, 0, 0, Math.PI / 4, 0, 0));
+		assertFalse(space.checkCollisions().isEmpty());
+	}
+
+	@Test
+	public void testCapsuleAndCylinderAgainstFloor() {
+		space.addStaticObject("floor", Transformation.IDENTITY);
+		space.addKinematicObject("capsule", at(0, 0, 0.8));
+		space.addKinematicObject("cylinder", at(3, 0, 0.55));
+		assertTrue(space.checkCollisions().isEmpty());
+
+		// capsule tip is at 0.5 + 0.25 above its origin
+		space.updateTransformation("capsule", at(0, 0, 0.7));
+		space.updateTransformation("cylinder", at(3, 0, 0.45));
+		assertEquals(2, space.checkCollisions().size());
+
+		// a lying capsule only reaches down by its radius
+		space.updateTransformation("capsule", new Transformation(new Rotation(0, Math.PI / 2, 0), new Vector(0, 0, 0.3)));
+		space.updateTransformation("cylinder", at(3, 0, 0.55));
+		assertTrue(space.checkCollisions().isEmpty());
+	}
+
+	@Test
+	public void testIgnoredAndRemovedObjects() {
+		space.addStaticObject("box", at(0, 0, 0));
+		space.addKinematicObject("sphere", at(0.5, 0, 0));
+		assertEquals(1, space.checkCollisions().size());
+
+		assertTrue(space.ignoreCollisions("box", "sphere"));
+		assertTrue(space.getIgnoredObjects("box").contains("sphere"));
+		assertTrue(space.checkCollisions().isEmpty());
+
+		assertTrue(space.unignoreCollisions("box", "sphere"));
+		assertEquals(1, space.checkCollisions().size());
+
+		assertTrue(space.removeCollisionObject("sphere"));
+		assertFalse(space.removeCollisionObject("sphere"));
+		assertTrue(space.checkCollisions().isEmpty());
+		assertTrue(space.getKinematicObjects().isEmpty());
+		assertEquals(1, space.getStaticObjects().size());
+	}
+
+	@Test
+	public void testKinematicPairsFollowMovements() {
+		shapes.put("a", shapes.get("sphere"));
+		shapes.put("b", shapes.get("sphere"));
+		space.addKinematicObject("a", at(0, 0, 0));
+		space.addKinematicObject("b", at(5, 0, 0));
+		assertTrue(space.checkCollisions().isEmpty());
+
+		// move b towards a in small steps, which mostly stay within the enlarged box
+		for (int i = 0; i <= 450; i++) {
+			double x = 5 - i * 0.01;
+			space.updateTransformation("b", at(x, 0, 0));
+			assertEquals("at x = " + x, x <= 1 + 1e-9, !space.checkCollisions().isEmpty());
+		}
+	}
+
+	@Test
+	public void testCheckShapes() {
+		space.addStaticObject("box", at(0, 0, 0));
+		space.addKinematicObject("sphere", at(2, 0, 0));
+		Shape probe = new SphereShape(Transformation.IDENTITY, 0.2);
+
+		Map<Shape, Set<String>> result = space.checkShapes(at(0.6, 0, 0), null, probe);
+		assertEquals(1, result.get(probe).size());
+		assertTrue(result.get(probe).contains("box"));
+
+		result = space.checkShapes(at(1.0, 0, 0), null, probe);
+		assertTrue(result.isEmpty());
+
+		result = space.checkShapesWithStaticObjects(at(1.6, 0, 0), probe);
+		assertTrue(result.isEmpty());
+	}
+
+	@Test
+	public void testRayTest() {
+		space.addStaticObject("box", at(2, 0, 0));
+		space.addKinematicObject("sphere", at(5, 0, 0));
+
+		List<RayTestResult<String>> results = space.rayTest(new Vector(0, 0, 0), new Vector(10, 0, 0));
+		assertEquals(2, results.size());
+		assertEquals("box", results.get(0).getObject());
+		assertEquals(1.5, results.get(0).getDistance(), 1e-4);
+		assertEquals(-1, results.get(0).getHitNormalWorld().getX(), 1e-3);
+		assertEquals("sphere", results.get(1).getObject());
+		assertEquals(4.5, results.get(1).getDistance(), 1e-4);
+
+		assertTrue(space.rayTest(new Vector(0, 1, 0), new Vector(10, 1, 0)).isEmpty());
+		assertTrue(space.rayTest(new Vector(0, 0, 0), new Vector(1, 0, 0)).isEmpty());
+	}
+
+}
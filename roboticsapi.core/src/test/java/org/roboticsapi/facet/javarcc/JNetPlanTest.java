@@ -0,0 +1,134 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.javarcc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.roboticsapi.facet.runtime.rpi.core.types.RPIbool;
+import org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble;
+
+public class JNetPlanTest {
+
+	private static final int CYCLES = 10;
+
+	/** counts the cycles */
+	private static class Counter extends JPrimitive {
+		private final JOutPort<RPIdouble> outValue = add("outValue", new JOutPort<RPIdouble>());
+		private int count = 0;
+
+		@Override
+		public void checkParameters() {
+		}
+
+		@Override
+		public void updateData() {
+			outValue.set(new RPIdouble(++count));
+		}
+	}
+
+	/** checks if the value is even */
+	private static class Even extends JPrimitive {
+		private final JInPort<RPIdouble> inValue = add("inValue", new JInPort<RPIdouble>());
+		private final JOutPort<RPIbool> outEven = add("outEven", new JOutPort<RPIbool>());
+
+		@Override
+		public void checkParameters() {
+		}
+
+		@Override
+		public void updateData() {
+			outEven.set(new RPIbool(inValue.get() != null && inValue.get().get() % 2 == 0));
+		}
+	}
+
+	/** increments the value, counting its updates */
+	private static class Increment extends JPrimitive {
+		private final JInPort<RPIdouble> inValue = add("inValue", new JInPort<RPIdouble>());
+		private final JOutPort<RPIdouble> outValue = add("outValue", new JOutPort<RPIdouble>());
+		private int updates = 0;
+
+		@Override
+		public void checkParameters() {
+		}
+
+		@Override
+		public void updateData() {
+			updates++;
+			if (inValue.get() != null)
+				outValue.set(new RPIdouble(inValue.get().get() + 1));
+		}
+	}
+
+	private Increment increment;
+
+	/**
+	 * Creates a net incrementing the cycle count in a nested fragment that is
+	 * only active in even cycles
+	 */
+	private JNet createNet(boolean compile) {
+		JFragment root = new JFragment();
+		Counter counter = new Counter();
+		Even even = new Even();
+		even.inValue.connectTo(counter.outValue);
+		root.add(counter);
+		root.add(even);
+
+		JFragment inner = new JFragment();
+		increment = new Increment();
+		inner.add(increment);
+		inner.requirePort("inValue", increment.inValue).connectTo(counter.outValue);
+		inner.inActive.connectTo(even.outEven);
+		root.add(inner);
+		root.providePort("outResult", inner.providePort("outValue", increment.outValue));
+
+		JNet ret = new JNet("net", "net", root, null, null);
+		if (compile)
+			ret.compile();
+		return ret;
+	}
+
+	private List<Object> run(JNet net) {
+		List<Object> ret = new ArrayList<Object>();
+		for (int i = 0; i < CYCLES; i++) {
+			net.readSensor();
+			net.updateData();
+			net.writeActuator();
+			Object result = ((JFragmentOutPort<?>) net.getFragment().getOutPort("outResult")).getInnerPort().get();
+			ret.add(result == null ? null : ((RPIdouble) result).get());
+		}
+		return ret;
+	}
+
+	@Test
+	public void testPlanProducesSameOutputsAsFragments() {
+		JNet plain = createNet(false);
+		List<Object> expected = run(plain);
+		assertNull(plain.getPlan());
+
+		JNet compiled = createNet(true);
+		assertNotNull(compiled.getPlan());
+		assertEquals(expected, run(compiled));
+		assertEquals(Arrays.asList(null, 3d, null, 5d, null, 7d, null, 9d, null, 11d), expected);
+	}
+
+	@Test
+	public void testInactiveFragmentsAreSkipped() {
+		JNet compiled = createNet(true);
+		assertEquals(3, compiled.getPlan().getPrimitiveCount());
+		run(compiled);
+		assertEquals(CYCLES / 2, increment.updates);
+	}
+
+}
@@ -0,0 +1,30 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.javarcc;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class JNetTest {
+
+	@Test
+	public void testSkippedCyclesAdvanceNetTime() {
+		JNet net = new JNet("net", "net", new JFragment(), null, null);
+		net.skipCycles(2);
+		net.updateData();
+		assertEquals(1, net.getCycle());
+		long start = net.getTime();
+
+		net.skipCycles(3);
+		net.updateData();
+		assertEquals(5, net.getCycle());
+		assertEquals(start + Math.round(4 * net.getCycleTime() * 1000), (long) net.getTime());
+	}
+
+}
@@ -0,0 +1,58 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.javarcc.devices;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class DeviceDataBufferTest {
+
+	@Test
+	public void testReadReturnsLatestWrite() {
+		DeviceDataBuffer<double[]> buffer = DeviceDataBuffer.ofDoubles(2);
+		double[] data = new double[2];
+		assertEquals(0, buffer.read(data));
+		assertArrayEquals(new double[] { 0, 0 }, data, 0);
+
+		buffer.write(new double[] { 1, 2 });
+		buffer.write(new double[] { 3, 4 });
+		assertEquals(2, buffer.getVersion());
+		assertEquals(2, buffer.read(data));
+		assertArrayEquals(new double[] { 3, 4 }, data, 0);
+	}
+
+	@Test(timeout = 10000)
+	public void testConcurrentReadsAreConsistent() throws InterruptedException {
+		DeviceDataBuffer<double[]> buffer = DeviceDataBuffer.ofDoubles(64);
+		Thread writer = new Thread(() -> {
+			double[] data = new double[64];
+			for (int i = 1; i <= 100000; i++) {
+				Arrays.fill(data, i);
+				buffer.write(data);
+			}
+		});
+		writer.start();
+
+		double[] data = new double[64];
+		long last = 0;
+		while (writer.isAlive() || last < 100000) {
+			long version = buffer.read(data);
+			assertTrue(version >= last);
+			for (double value : data)
+				assertEquals(version, value, 0);
+			last = version;
+		}
+		writer.join();
+	}
+
+}
@@ -0,0 +1,76 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.javarcc.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.roboticsapi.facet.javarcc.executor.CycleTimer.OverrunPolicy;
+
+public class CycleTimerTest {
+
+	private static final long PERIOD = 2000000;
+
+	/** simulated clock, waiting advances it to the deadline (plus an offset) */
+	private long now = 0;
+	private long wakeup = 0;
+
+	private CycleTimer createTimer(OverrunPolicy overrun) {
+		return new CycleTimer(deadline -> now = Math.max(now, deadline + wakeup), overrun, () -> now);
+	}
+
+	@Test
+	public void testDeadlinesDoNotDrift() throws InterruptedException {
+		CycleTimer timer = createTimer(OverrunPolicy.CATCH_UP);
+		wakeup = 30000;
+		for (int i = 1; i <= 100; i++) {
+			now += 500000;
+			assertTrue(timer.awaitNextCycle(PERIOD) < 0);
+			assertEquals(i * PERIOD + wakeup, now);
+		}
+		assertEquals(0, timer.getOverruns());
+		assertEquals(100, timer.getJitter().getCount(5));
+	}
+
+	@Test
+	public void testCatchUpStartsLateCyclesImmediately() throws InterruptedException {
+		CycleTimer timer = createTimer(OverrunPolicy.CATCH_UP);
+		now = 5 * PERIOD;
+		assertEquals(4 * PERIOD, timer.awaitNextCycle(PERIOD));
+		assertEquals(3 * PERIOD, timer.awaitNextCycle(PERIOD));
+		assertEquals(5 * PERIOD, now);
+		assertEquals(2, timer.getOverruns());
+		assertEquals(0, timer.getSkippedCycles());
+	}
+
+	@Test
+	public void testSkipWaitsForNextDeadline() throws InterruptedException {
+		CycleTimer timer = createTimer(OverrunPolicy.SKIP);
+		now = 5 * PERIOD + 1;
+		assertEquals(4 * PERIOD + 1, timer.awaitNextCycle(PERIOD));
+		assertEquals(6 * PERIOD, now);
+		assertEquals(1, timer.getOverruns());
+		assertEquals(5, timer.getSkippedCycles());
+	}
+
+	@Test
+	public void testJitterHistogramBuckets() {
+		JitterHistogram histogram = new JitterHistogram();
+		histogram.record(500);
+		histogram.record(-1500);
+		histogram.record(3000000);
+		assertEquals(1, histogram.getCount(0));
+		assertEquals(1, histogram.getCount(1));
+		assertEquals(1, histogram.getCount(12));
+		assertEquals(3000000, histogram.getMax());
+		assertEquals(2, histogram.getQuantile(0.5));
+		assertEquals(4096, histogram.getQuantile(1));
+	}
+
+}
@@ -0,0 +1,118 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.javarcc.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.Test;
+import org.roboticsapi.facet.javarcc.JFragment;
+import org.roboticsapi.facet.javarcc.JNet;
+import org.roboticsapi.facet.javarcc.JPrimitive;
+import org.roboticsapi.facet.javarcc.devices.JDevice;
+
+public class SimpleExecutorTest {
+
+	private static class TestDevice implements JDevice {
+		@Override
+		public void lock() {
+		}
+
+		@Override
+		public void unlock() {
+		}
+
+		@Override
+		public void start() {
+		}
+
+		@Override
+		public void destroy() {
+		}
+	}
+
+	private static JNet createNet(String name, JDevice... actuators) {
+		JFragment root = new JFragment();
+		root.add(new JPrimitive() {
+			@Override
+			public void checkParameters() {
+			}
+
+			@Override
+			public Set<JDevice> getActuators() {
+				return new HashSet<JDevice>(Arrays.asList(actuators));
+			}
+		});
+		return new JNet(name, name, root, null, null);
+	}
+
+	private static int groupOf(List<List<JNet>> groups, JNet net) {
+		for (int i = 0; i < groups.size(); i++)
+			if (groups.get(i).contains(net))
+				return i;
+		throw new AssertionError(net + " is not in any group");
+	}
+
+	@Test
+	public void testNetsSharingAnActuatorAreGroupedTogether() {
+		JDevice robot = new TestDevice(), gripper = new TestDevice(), other = new TestDevice();
+		JNet motion = createNet("motion", robot), grip = createNet("grip", gripper);
+		JNet both = createNet("both", robot, gripper), independent = createNet("independent", other);
+
+		List<List<JNet>> groups = new SimpleExecutor(null, null, 4)
+				.getNetGroups(new ArrayList<JNet>(Arrays.asList(motion, grip, independent, both)));
+
+		assertEquals(2, groups.size());
+		assertEquals(groupOf(groups, motion), groupOf(groups, grip));
+		assertEquals(groupOf(groups, motion), groupOf(groups, both));
+		assertNotEquals(groupOf(groups, motion), groupOf(groups, independent));
+		assertEquals(4, groups.get(0).size() + groups.get(1).size());
+	}
+
+	@Test
+	public void testNetsWithDisjointActuatorsAreDistributed() {
+		List<JNet> nets = new ArrayList<JNet>();
+		for (int i = 0; i < 6; i++)
+			nets.add(createNet("net" + i, new TestDevice()));
+		nets.add(createNet("sensing"));
+
+		SimpleExecutor executor = new SimpleExecutor(null, null, 3);
+		List<List<JNet>> groups = executor.getNetGroups(nets);
+
+		assertEquals(3, groups.size());
+		for (List<JNet> group : groups)
+			assertEquals(nets.size() / 3 + (group == groups.get(0) ? 1 : 0), group.size());
+		assertNotEquals(groupOf(groups, nets.get(0)), groupOf(groups, nets.get(1)));
+		assertSame(groups, executor.getNetGroups(nets));
+	}
+
+	@Test
+	public void testWorkerPoolIsRecreatedAfterShutdown() {
+		SimpleExecutor executor = new SimpleExecutor(null, null, 4);
+		ExecutorService pool = executor.getWorkerPool();
+		executor.shutdown();
+		assertTrue(pool.isShutdown());
+
+		ExecutorService next = executor.getWorkerPool();
+		assertNotSame(pool, next);
+		assertFalse(next.isShutdown());
+		executor.shutdown();
+	}
+
+}
@@ -0,0 +1,119 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.javarcc.telemetry;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.DoubleSupplier;
+
+import org.junit.Test;
+import org.roboticsapi.facet.javarcc.telemetry.TelemetryReader.Decimation;
+
+public class TelemetryRecorderTest {
+
+	private int cycle = 0;
+
+	private TelemetryRecorder createRecorder(int capacity) {
+		return new TelemetryRecorder(new String[] { "cycle", "sine" },
+				new DoubleSupplier[] { () -> cycle, () -> Math.sin(cycle / 100.0) }, capacity);
+	}
+
+	private void record(TelemetryRecorder recorder, int cycles) {
+		for (int i = 0; i < cycles; i++) {
+			recorder.record(cycle * 1000000L);
+			cycle++;
+		}
+	}
+
+	@Test
+	public void testRingBufferKeepsLatestRows() {
+		TelemetryRecorder recorder = createRecorder(10);
+		assertEquals(4 * TelemetryRecorder.BLOCK_SIZE, recorder.getCapacity());
+		record(recorder, 5000);
+
+		assertEquals(5000, recorder.getRowCount());
+		long first = recorder.getFirstRow();
+		assertEquals(5000 - 3 * TelemetryRecorder.BLOCK_SIZE, first);
+		double[] values = new double[100];
+		assertEquals(100, recorder.read(0, first, values));
+		for (int i = 0; i < values.length; i++)
+			assertEquals(first + i, values[i], 0);
+		assertEquals(4999000000L, recorder.getTime(4999));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testOverwrittenRowsCannotBeRead() {
+		TelemetryRecorder recorder = createRecorder(10);
+		record(recorder, 5000);
+		recorder.getTime(0);
+	}
+
+	@Test
+	public void testSpilledRowsCanBeReadFromFile() throws IOException {
+		File file = File.createTempFile("telemetry", ".rtlm");
+		file.deleteOnExit();
+		TelemetryRecorder recorder = createRecorder(100000);
+		record(recorder, 10);
+		recorder.spillTo(file);
+		record(recorder, 10000);
+		recorder.close();
+		assertEquals(0, recorder.getDroppedRows());
+
+		try (TelemetryReader reader = new TelemetryReader(file)) {
+			assertEquals(Arrays.asList("cycle", "sine"), reader.getColumnNames());
+			assertEquals(10000, reader.getRowCount());
+			assertEquals(10, reader.getValue(0, 0), 0);
+			assertEquals(10009, reader.getValue(0, 9999), 0);
+			assertEquals(Math.sin(5000 / 100.0), reader.getValue(1, 4990), 0);
+
+			long[] times = new long[300];
+			double[] values = new double[300];
+			assertEquals(300, reader.readTimes(200, times));
+			assertEquals(300, reader.read(0, 200, values));
+			for (int i = 0; i < 300; i++) {
+				assertEquals((210 + i) * 1000000L, times[i]);
+				assertEquals(210 + i, values[i], 0);
+			}
+			assertEquals(200, reader.read(0, 9800, values));
+			assertEquals(1990, reader.findRow(1999500000L));
+		}
+	}
+
+	@Test
+	public void testDecimationMatchesRecordedValues() throws IOException {
+		File file = File.createTempFile("telemetry", ".rtlm");
+		file.deleteOnExit();
+		TelemetryRecorder recorder = createRecorder(100000);
+		recorder.spillTo(file);
+		record(recorder, 20000);
+		recorder.close();
+
+		try (TelemetryReader reader = new TelemetryReader(file)) {
+			Decimation decimation = reader.decimate(1, 123, 19900, 37);
+			assertEquals(37, decimation.getSize());
+			long rows = 19900 - 123;
+			for (int i = 0; i < decimation.getSize(); i++) {
+				long start = 123 + rows * i / 37, end = 123 + rows * (i + 1) / 37;
+				double min = Double.MAX_VALUE, max = -Double.MAX_VALUE;
+				for (long row = start; row < end; row++) {
+					min = Math.min(min, Math.sin(row / 100.0));
+					max = Math.max(max, Math.sin(row / 100.0));
+				}
+				assertEquals(start * 1000000L, decimation.getTime(i));
+				assertEquals(min, decimation.getMin(i), 0);
+				assertEquals(max, decimation.getMax(i), 0);
+			}
+			assertEquals(10, reader.decimate(0, 0, 10, 100).getSize());
+			assertEquals(19999, reader.decimate(0, 0, 20000, 1).getMax(0), 0);
+		}
+	}
+
+}
@@ -0,0 +1,73 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.runtime.rpi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble;
+import org.roboticsapi.facet.runtime.rpi.core.types.RPIdoubleArray;
+import org.roboticsapi.facet.runtime.rpi.world.types.RPIFrame;
+import org.roboticsapi.facet.runtime.rpi.world.types.RPIVector;
+
+public class FlatTypesTest {
+
+	@Test
+	public void testFrameStringRoundTrip() {
+		String value = "{pos:{x:1.0,y:-2.5,z:nan},rot:{a:0.1,b:+inf,c:-0.0}}";
+		RPIFrame frame = new RPIFrame(value);
+		assertEquals(value, frame.toString());
+		assertEquals(1.0, frame.get(0), 0);
+		assertEquals(0.1, frame.getRot().getA().get(), 0);
+		assertTrue(frame.isEqual(new RPIFrame(value)));
+	}
+
+	@Test
+	public void testComponentViewsWriteThrough() {
+		RPIFrame frame = new RPIFrame();
+		RPIdouble y = frame.getPos().getY();
+		y.set(3);
+		assertEquals(3, frame.get(1), 0);
+
+		frame.set(1, 4);
+		assertEquals(4, y.get(), 0);
+
+		// setting a component copies the value, later changes are not reflected
+		RPIVector pos = new RPIVector(1, 2, 3);
+		frame.setPos(pos);
+		pos.getX().set(10);
+		assertEquals(1, frame.get(0), 0);
+	}
+
+	@Test
+	public void testCopiesAreIndependent() {
+		RPIFrame frame = new RPIFrame(1, 2, 3, 0.1, 0.2, 0.3);
+		RPIFrame copy = frame.copy();
+		assertTrue(frame.isEqual(copy));
+		copy.getRot().getC().set(0);
+		assertFalse(frame.isEqual(copy));
+		assertEquals(0.3, frame.get(5), 0);
+	}
+
+	@Test
+	public void testDoubleArray() {
+		RPIdoubleArray array = new RPIdoubleArray("[1.0,2.0,3.0]");
+		assertEquals(3, array.getSize());
+		array.get(1).set(5);
+		assertEquals(5, array.getValue(1), 0);
+		assertEquals("[1.0,5.0,3.0]", array.toString());
+
+		RPIdoubleArray fixed = new RPIdoubleArray(4, "[1,2]");
+		assertEquals("[1.0,2.0,0.0,0.0]", fixed.toString());
+		assertTrue(array.copy().isEqual(array));
+		assertFalse(fixed.isEqual(array));
+	}
+
+}
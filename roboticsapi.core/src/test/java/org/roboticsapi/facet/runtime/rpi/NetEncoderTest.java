@@ -0,0 +1,95 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.runtime.rpi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.Clock;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleAdd;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleMultiply;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleNetcommOut;
+
+public class NetEncoderTest {
+
+	private static Fragment createNet(double factor) throws RpiException {
+		Fragment net = new Fragment();
+		Clock clock = net.add(new Clock(0.001));
+		Fragment fragment = net.add(new Fragment());
+		FragmentInPort time = fragment.addInPort("inTime");
+		time.connectTo(clock.getOutValue());
+		time.setDebug(2);
+		for (int i = 0; i < 20; i++) {
+			DoubleMultiply multiply = fragment.add(new DoubleMultiply(0d, factor));
+			multiply.getInFirst().connectTo(time.getInternalOutPort());
+			DoubleAdd add = fragment.add(new DoubleAdd(0d, (double) i));
+			add.getInFirst().connectTo(multiply.getOutValue());
+			DoubleNetcommOut out = net.add(new DoubleNetcommOut("value" + i));
+			out.getInValue().connectTo(fragment.provideOutPort(add.getOutValue(), "outValue" + i));
+		}
+		net.provideOutPort(clock.getOutValue(), "outTime");
+		return net;
+	}
+
+	@Test
+	public void testDecodedNetHasSameStructure() throws RpiException {
+		EncodedNet encoded = NetEncoder.encode(createNet(2));
+		Fragment decoded = NetDecoder.decode(encoded.toBytes(), new HashMap<String, EncodedNet>());
+
+		EncodedNet reencoded = NetEncoder.encode(decoded);
+		assertEquals(encoded.getHash(), reencoded.getHash());
+		assertEquals(encoded.getParameterValues(), reencoded.getParameterValues());
+
+		Fragment fragment = (Fragment) decoded.getPrimitives().get(1);
+		assertEquals(1, fragment.getInPorts().size());
+		assertEquals(2, fragment.getInPorts().get(0).getDebug(), 0);
+		assertEquals(20, fragment.getOutPorts().size());
+	}
+
+	@Test
+	public void testParametersDoNotChangeHash() throws RpiException {
+		EncodedNet first = NetEncoder.encode(createNet(2));
+		EncodedNet second = NetEncoder.encode(createNet(3));
+		assertEquals(first.getHash(), second.getHash());
+		assertNotEquals(first.getParameterValues(), second.getParameterValues());
+		assertNotEquals(first.getHash(), NetEncoder.encode(new Fragment()).getHash());
+	}
+
+	@Test
+	public void testReferenceUsesKnownStructure() throws RpiException {
+		EncodedNet first = NetEncoder.encode(createNet(2));
+		EncodedNet second = NetEncoder.encode(createNet(3));
+		byte[] reference = second.toBytes(first.getParameterValues());
+		assertTrue(reference.length < first.toBytes().length / 4);
+
+		Map<String, EncodedNet> known = new HashMap<String, EncodedNet>();
+		try {
+			NetDecoder.decode(reference, known);
+			fail();
+		} catch (RpiException e) {
+		}
+		NetDecoder.decode(first.toBytes(), known);
+		assertEquals(second.getParameterValues(),
+				NetEncoder.encode(NetDecoder.decode(reference, known)).getParameterValues());
+	}
+
+	@Test
+	public void testBinaryIsSmallerThanText() throws RpiException {
+		Fragment net = createNet(2);
+		int text = NetSerializer.serialize(net).getBytes(StandardCharsets.UTF_8).length;
+		assertTrue(NetEncoder.encode(net).toBytes().length < text / 2);
+	}
+
+}
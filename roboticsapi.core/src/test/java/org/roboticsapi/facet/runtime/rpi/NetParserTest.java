@@ -0,0 +1,81 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.runtime.rpi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.Clock;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleAdd;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleNetcommOut;
+
+public class NetParserTest {
+
+	private static Fragment createNet() throws RpiException {
+		Fragment net = new Fragment();
+		Clock clock = net.add(new Clock(0.001));
+		Fragment fragment = net.add(new Fragment());
+		FragmentInPort time = fragment.addInPort("inTime");
+		time.connectTo(clock.getOutValue());
+		DoubleAdd first = fragment.add(new DoubleAdd(0d, 1d));
+		first.getInFirst().connectTo(time.getInternalOutPort());
+		DoubleAdd second = fragment.add(new DoubleAdd(0d, 2d));
+		second.getInFirst().connectTo(time.getInternalOutPort());
+		second.getInSecond().connectTo(first.getOutValue());
+		second.getInSecond().setDebug(3);
+		DoubleNetcommOut out = net.add(new DoubleNetcommOut("résult"));
+		out.getInValue().connectTo(fragment.provideOutPort(second.getOutValue(), "outValue"));
+		return net;
+	}
+
+	@Test
+	public void testRoundTrip() throws RpiException {
+		String text = NetSerializer.serialize(createNet());
+		assertEquals(text, NetSerializer.serialize(NetParser.parse(text)));
+		assertEquals(text, NetSerializer.serialize(NetParser.parse(new StringBuilder(text))));
+		assertEquals(text,
+				NetSerializer.serialize(NetParser.parse(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)))));
+	}
+
+	@Test
+	public void testFragmentInPortsAreShared() throws RpiException {
+		Fragment net = NetParser.parse(NetSerializer.serialize(createNet()));
+		Fragment fragment = (Fragment) net.getPrimitives().get(1);
+		assertEquals(1, fragment.getInPorts().size());
+		FragmentInPort time = (FragmentInPort) fragment.getInPorts().get(0);
+		assertEquals("Core::Clock", time.getConnectedPort().getPrimitive().getType());
+		for (Primitive primitive : fragment.getPrimitives()) {
+			assertSame(time.getInternalOutPort(), primitive.getInPorts().get(0).getConnectedPort());
+		}
+	}
+
+	@Test
+	public void testTypesAndPortNamesAreShared() throws RpiException {
+		Fragment fragment = (Fragment) NetParser.parse(NetSerializer.serialize(createNet())).getPrimitives().get(1);
+		Primitive first = fragment.getPrimitives().get(0);
+		Primitive second = fragment.getPrimitives().get(1);
+		assertSame(first.getType(), second.getType());
+		assertSame(first.getInPorts().get(0).getName(), second.getInPorts().get(0).getName());
+	}
+
+	@Test
+	public void testTruncatedNet() throws RpiException {
+		String text = NetSerializer.serialize(createNet());
+		try {
+			NetParser.parse(text.substring(0, text.length() / 2));
+			fail();
+		} catch (RpiException e) {
+		}
+	}
+
+}
@@ -0,0 +1,103 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.facet.runtime.rpi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.roboticsapi.facet.runtime.rpi.core.netcomm.ReadDoubleFromNet;
+import org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble;
+
+public class NetcommValueTest {
+
+	private NetcommValue value;
+	private final List<String> changes = new ArrayList<String>();
+
+	@Before
+	public void setup() {
+		value = new ReadDoubleFromNet("value").getNetcomm();
+		value.addNetcommListener(new NetcommListener() {
+			@Override
+			public void valueChanged(NetcommValue value) {
+				changes.add(value.getString());
+			}
+
+			@Override
+			public void updatePerformed() {
+			}
+		});
+	}
+
+	@Test
+	public void testTypedValueIsPassedWithoutConversion() {
+		RPIdouble typed = new RPIdouble(2.5);
+		value.setValue(typed);
+		assertSame(typed, value.getValue(RPIdouble.class, RPIdouble::new));
+		assertEquals(typed.toString(), value.getString());
+
+		value.setValue(new RPIdouble(2.5));
+		assertSame(typed, value.getValue(RPIdouble.class, RPIdouble::new));
+		assertEquals(1, changes.size());
+	}
+
+	@Test
+	public void testStringValueIsParsed() {
+		value.setString("1.5");
+		assertEquals(1.5, value.getValue(RPIdouble.class, RPIdouble::new).get(), 0);
+		assertEquals("1.5", value.getString());
+
+		value.setString("1.5");
+		assertEquals(1, changes.size());
+	}
+
+	@Test
+	public void testStringOfReplacedTypedValueIsNotCached() {
+		value.setValue(new RPIdouble(1));
+		assertEquals(new RPIdouble(1).toString(), value.getString());
+		value.setValue(new RPIdouble(2));
+		assertEquals(new RPIdouble(2).toString(), value.getString());
+
+		value.setString("3.0");
+		assertEquals(3, value.getValue(RPIdouble.class, RPIdouble::new).get(), 0);
+		value.setValue(new RPIdouble(4));
+		assertEquals(new RPIdouble(4).toString(), value.getString());
+		assertEquals(4, changes.size());
+	}
+
+	@Test
+	public void testResetReportsEqualValueAgain() {
+		value.setValue(new RPIdouble(1));
+		value.reset();
+		assertNull(value.getString());
+		value.setValue(new RPIdouble(1));
+		assertEquals(2, changes.size());
+	}
+
+	@Test(timeout = 10000)
+	public void testConcurrentReadersSeeLastTypedValue() throws InterruptedException {
+		Thread reader = new Thread(() -> {
+			while (!Thread.currentThread().isInterrupted()) {
+				value.getString();
+			}
+		});
+		reader.start();
+		for (int i = 0; i < 10000; i++) {
+			value.setValue(new RPIdouble(i));
+		}
+		reader.interrupt();
+		reader.join();
+		assertEquals(new RPIdouble(9999).toString(), value.getString());
+	}
+
+}
@@ -0,0 +1,99 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.framework.robot.javarcc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.roboticsapi.core.world.Transformation;
+import org.roboticsapi.core.world.Vector;
+import org.roboticsapi.facet.javarcc.primitives.world.RPICalc;
+import org.roboticsapi.facet.runtime.rpi.world.types.RPIFrame;
+
+public class DHInverseKinematicsTest {
+
+	private static final double PI2 = Math.PI / 2;
+
+	private final DHKinematics sixAxis = new DHKinematics(new double[] { 0.675, 0, 0, -0.67, 0, -0.115 },
+			new double[] { 0, -PI2, 0, 0, 0, 0 }, new double[] { 0.26, 0.68, -0.035, 0, 0, 0 },
+			new double[] { -PI2, 0, PI2, -PI2, PI2, Math.PI }, true);
+
+	private final DHKinematics sevenAxis = new DHKinematics(new double[] { 0.31, 0, 0.4, 0, 0.39, 0, 0.078 },
+			new double[7], new double[7], new double[] { PI2, -PI2, -PI2, PI2, PI2, -PI2, 0 }, false);
+
+	private void assertFrameEquals(RPIFrame expected, RPIFrame actual) {
+		Transformation e = RPICalc.rpiToFrame(expected), a = RPICalc.rpiToFrame(actual);
+		assertEquals(0, e.getTranslation().sub(a.getTranslation()).getLength(), 1e-5);
+		assertEquals(0, e.getRotation().invert().multiply(a.getRotation()).getAngle(), 1e-5);
+	}
+
+	private void checkRandomTargets(DHKinematics kinematics, int joints) {
+		Random random = new Random(4711);
+		double[] goal = new double[joints], hint = new double[joints], ret = new double[joints];
+		RPIFrame target = RPICalc.rpiFrameCreate(), reached = RPICalc.rpiFrameCreate();
+
+		for (int test = 0; test < 100; test++) {
+			for (int i = 0; i < joints; i++) {
+				goal[i] = (random.nextDouble() - 0.5) * 3;
+				hint[i] = goal[i] + (random.nextDouble() - 0.5) * 0.4;
+			}
+			kinematics.kin(goal, target);
+			assertNotNull(kinematics.invKin(hint, target, ret));
+			kinematics.kin(ret, reached);
+			assertFrameEquals(target, reached);
+		}
+	}
+
+	@Test
+	public void testSixAxisArm() {
+		checkRandomTargets(sixAxis, 6);
+	}
+
+	@Test
+	public void testSevenAxisArm() {
+		checkRandomTargets(sevenAxis, 7);
+	}
+
+	@Test
+	public void testUnreachableTarget() {
+		RPIFrame target = RPICalc.rpiFrameCreate();
+		RPICalc.frameToRpi(new Transformation(5, 0, 0, 0, 0, 0), target);
+		assertNull(sevenAxis.invKin(new double[7], target, new double[7]));
+	}
+
+	@Test
+	public void testPath() {
+		DHInverseKinematics inverse = sixAxis.createInverseKinematics();
+		double[] start = { 0, -1.2, 1.5, 0.1, 0.8, 0 };
+		RPIFrame frame = RPICalc.rpiFrameCreate();
+		sixAxis.kin(start, frame);
+		Transformation startFrame = RPICalc.rpiToFrame(frame);
+
+		Transformation[] path = new Transformation[50];
+		double[][] ret = new double[path.length][6];
+		for (int i = 0; i < path.length; i++) {
+			path[i] = new Transformation(startFrame.getRotation(),
+					startFrame.getTranslation().add(new Vector(0, i * 0.004, 0)));
+		}
+		assertEquals(path.length, inverse.solve(start, path, ret));
+
+		for (int i = 0; i < path.length; i++) {
+			sixAxis.kin(ret[i], frame);
+			assertEquals(0, RPICalc.rpiToFrame(frame).getTranslation().sub(path[i].getTranslation()).getLength(), 1e-5);
+		}
+
+		// a path leaving the workspace fails at the first unreachable frame
+		path[30] = new Transformation(0, 0, 10, 0, 0, 0);
+		assertEquals(30, inverse.solve(start, path, ret));
+	}
+
+}
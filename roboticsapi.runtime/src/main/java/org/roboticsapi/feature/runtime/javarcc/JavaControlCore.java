@@ -9,6 +9,7 @@ package org.roboticsapi.feature.runtime.javarcc;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -28,6 +29,7 @@ import org.roboticsapi.facet.javarcc.JSchedulingRule;
 import org.roboticsapi.facet.javarcc.devices.DeviceRegistry;
 import org.roboticsapi.facet.javarcc.devices.DeviceRegistry.DeviceRegistryListener;
 import org.roboticsapi.facet.javarcc.devices.JDevice;
+import org.roboticsapi.facet.javarcc.executor.CycleTimer;
 import org.roboticsapi.facet.javarcc.executor.SimpleExecutor;
 import org.roboticsapi.facet.javarcc.extension.JavaRccExtensionPoint;
 import org.roboticsapi.facet.runtime.rpi.ControlCore;
@@ -64,7 +66,7 @@ public class JavaControlCore implements ControlCore, JavaRccExtensionPoint, Devi
 		}
 	};
 
-	private SimpleExecutor executor = new SimpleExecutor(this, nonRejectingExecutor);
+	private final SimpleExecutor executor;
 	private DeviceRegistry devices = new DeviceRegistry(this);
 	private JNetCreator netCreator = new JNetCreator();
 
@@ -73,11 +75,32 @@ public class JavaControlCore implements ControlCore, JavaRccExtensionPoint, Devi
 	private Map<String, JNetHandle> netHandles = new HashMap<>();
 	private Map<String, JNet> nets = new HashMap<>();
 	private Map<String, Fragment> fragments = new HashMap<>();
+	/** number of nets kept for fragments evaluated repeatedly */
+	private static final int EVAL_NET_CACHE_SIZE = 256;
+	private final Map<Fragment, JNet> evalNets = new LinkedHashMap<Fragment, JNet>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Fragment, JNet> eldest) {
+			if (size() <= EVAL_NET_CACHE_SIZE)
+				return false;
+			// detach the net from the netcomm values of its fragment
+			synchronized (eldest.getValue()) {
+				eldest.getValue().unload();
+			}
+			return true;
+		}
+	};
 	int netNr = 0;
 	String name;
 
 	public JavaControlCore(String name) {
+		this(name, 1);
+	}
+
+	public JavaControlCore(String name, int executorThreads) {
 		this.name = name;
+		this.executor = new SimpleExecutor(this, nonRejectingExecutor, executorThreads);
 	}
 
 	@Override
@@ -106,6 +129,21 @@ public class JavaControlCore implements ControlCore, JavaRccExtensionPoint, Devi
 	public void shutdown() {
 		executor.shutdown();
 		netcommExecutor.shutdown();
+		synchronized (evalNets) {
+			for (JNet net : evalNets.values())
+				net.unload();
+			evalNets.clear();
+		}
+	}
+
+	/**
+	 * Retrieves the timer of the net executor, providing the jitter and overruns
+	 * of its cycles.
+	 *
+	 * @return the cycle timer
+	 */
+	public CycleTimer getCycleTimer() {
+		return executor.getTimer();
 	}
 
 	@Override
@@ -120,7 +158,38 @@ public class JavaControlCore implements ControlCore, JavaRccExtensionPoint, Devi
 	@Override
 	public Map<String, String> eval(Fragment fragment) throws RpiException {
 		Map<String, String> ret = new HashMap<String, String>();
-		JNet net = netCreator.createNet("eval", "eval", fragment, devices, task -> task.run(), nets);
+		while (true) {
+			JNet net;
+			synchronized (evalNets) {
+				net = evalNets.get(fragment);
+				if (net == null) {
+					net = netCreator.createNet("eval", "eval", fragment, devices, task -> task.run(), nets);
+					evalNets.put(fragment, net);
+				}
+			}
+			synchronized (net) {
+				// evicted from the cache meanwhile
+				if (net.isUnloaded())
+					continue;
+				evaluate(net, fragment, ret);
+				break;
+			}
+		}
+
+		for (NetcommValue v : fragment.getNetcommFromRPI()) {
+			v.notifyUpdatePerformed();
+		}
+		return ret;
+	}
+
+	int getEvalNetCount() {
+		synchronized (evalNets) {
+			return evalNets.size();
+		}
+	}
+
+	private void evaluate(JNet net, Fragment fragment, Map<String, String> ret) {
+		net.restart();
 		net.readSensor();
 		net.updateData();
 		net.sendNetcomm();
@@ -129,11 +198,6 @@ public class JavaControlCore implements ControlCore, JavaRccExtensionPoint, Devi
 			ret.put(o.getName(),
 					((JFragmentOutPort<?>) net.getFragment().getOutPort(o.getName())).getInnerPort().get().toString());
 		}
-
-		for (NetcommValue v : fragment.getNetcommFromRPI()) {
-			v.notifyUpdatePerformed();
-		}
-		return ret;
 	}
 
 	@Override
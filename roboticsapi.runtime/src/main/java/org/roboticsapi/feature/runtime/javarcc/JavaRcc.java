@@ -7,6 +7,7 @@
 
 package org.roboticsapi.feature.runtime.javarcc;
 
+import org.roboticsapi.configuration.ConfigurationProperty;
 import org.roboticsapi.core.AbstractRoboticsObject;
 import org.roboticsapi.core.Dependency;
 import org.roboticsapi.facet.javarcc.JPrimitive;
@@ -15,9 +16,29 @@ import org.roboticsapi.facet.runtime.rpi.ConfiguredRcc;
 
 public class JavaRcc extends AbstractRoboticsObject implements ConfiguredRcc, JavaRccExtensionPoint {
 	private final Dependency<JavaControlCore> controlCore;
+	private final Dependency<Integer> executorThreads;
 
 	public JavaRcc() {
-		controlCore = createDependency("controlCore", () -> new JavaControlCore(getName()));
+		controlCore = createDependency("controlCore", () -> new JavaControlCore(getName(), getExecutorThreads()));
+		executorThreads = createDependency("executorThreads", 1);
+	}
+
+	public int getExecutorThreads() {
+		return executorThreads.get();
+	}
+
+	/**
+	 * Sets the number of threads used to execute nets. Nets controlling disjoint
+	 * sets of actuators are executed in parallel if more than one thread is
+	 * configured.
+	 *
+	 * @param executorThreads number of executor threads (default 1)
+	 */
+	@ConfigurationProperty(Optional = true)
+	public void setExecutorThreads(int executorThreads) {
+		if (executorThreads < 1)
+			throw new IllegalArgumentException("executorThreads must be at least 1");
+		this.executorThreads.set(executorThreads);
 	}
 
 	@Override
@@ -0,0 +1,453 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.feature.runtime.netoptimizer;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.roboticsapi.core.world.mutable.MutableTransformation;
+import org.roboticsapi.core.world.mutable.MutableVector;
+import org.roboticsapi.facet.javarcc.primitives.world.RPICalc;
+import org.roboticsapi.facet.runtime.rpi.Fragment;
+import org.roboticsapi.facet.runtime.rpi.InPort;
+import org.roboticsapi.facet.runtime.rpi.OutPort;
+import org.roboticsapi.facet.runtime.rpi.Parameter;
+import org.roboticsapi.facet.runtime.rpi.Primitive;
+import org.roboticsapi.facet.runtime.rpi.RpiException;
+import org.roboticsapi.facet.runtime.rpi.Type;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.BooleanAnd;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.BooleanConditional;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.BooleanNot;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.BooleanOr;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.BooleanValue;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleAdd;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleConditional;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleDivide;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleEquals;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleFromInt;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleGreater;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleMultiply;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoublePower;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleSquareRoot;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleValue;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.IntAdd;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.IntConditional;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.IntDivide;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.IntEquals;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.IntFromDouble;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.IntGreater;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.IntMultiply;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.IntValue;
+import org.roboticsapi.facet.runtime.rpi.core.types.RPIbool;
+import org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble;
+import org.roboticsapi.facet.runtime.rpi.core.types.RPIint;
+import org.roboticsapi.facet.runtime.rpi.world.primitives.FrameConditional;
+import org.roboticsapi.facet.runtime.rpi.world.primitives.FrameFromPosRot;
+import org.roboticsapi.facet.runtime.rpi.world.primitives.FrameInvert;
+import org.roboticsapi.facet.runtime.rpi.world.primitives.FrameTransform;
+import org.roboticsapi.facet.runtime.rpi.world.primitives.FrameValue;
+import org.roboticsapi.facet.runtime.rpi.world.primitives.RotationConditional;
+import org.roboticsapi.facet.runtime.rpi.world.primitives.RotationFromABC;
+import org.roboticsapi.facet.runtime.rpi.world.primitives.RotationValue;
+import org.roboticsapi.facet.runtime.rpi.world.primitives.VectorAdd;
+import org.roboticsapi.facet.runtime.rpi.world.primitives.VectorConditional;
+import org.roboticsapi.facet.runtime.rpi.world.primitives.VectorFromXYZ;
+import org.roboticsapi.facet.runtime.rpi.world.primitives.VectorScale;
+import org.roboticsapi.facet.runtime.rpi.world.primitives.VectorValue;
+import org.roboticsapi.facet.runtime.rpi.world.types.RPIFrame;
+import org.roboticsapi.facet.runtime.rpi.world.types.RPIRotation;
+import org.roboticsapi.facet.runtime.rpi.world.types.RPIVector;
+
+/**
+ * Constant folding for core and world math primitives. A primitive whose
+ * inputs are all constant (i.e. connected to a value primitive or given as a
+ * parameter) is replaced by a value primitive providing the result, as
+ * computed by the JavaRcc implementation of the primitive. Conditionals with a
+ * constant condition are replaced by the selected input.
+ *
+ * Primitives whose results depend on the runtime (e.g. division by zero for
+ * integers) or whose active port is connected are left unchanged.
+ */
+class ConstantFolder {
+
+	private interface Fold {
+		Type fold(Inputs in);
+	}
+
+	/** Constant inputs of a primitive, null if an input is not constant */
+	private static class Inputs {
+		private final Primitive primitive;
+
+		Inputs(Primitive primitive) {
+			this.primitive = primitive;
+		}
+
+		<T extends Type> T get(String port, String param, T value) {
+			for (InPort in : primitive.getInPorts()) {
+				if (in.getName().equals(port) && in.getConnectedPort() != null) {
+					return parse(getConstant(in.getConnectedPort()), value);
+				}
+			}
+			return param == null ? null : parse(getParameter(primitive, param), value);
+		}
+
+		boolean isConnected(String port) {
+			for (InPort in : primitive.getInPorts()) {
+				if (in.getName().equals(port) && in.getConnectedPort() != null) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		RPIdouble getDouble(String port, String param) {
+			return get(port, param, new RPIdouble());
+		}
+
+		RPIint getInt(String port, String param) {
+			return get(port, param, new RPIint());
+		}
+
+		RPIbool getBool(String port, String param) {
+			return get(port, param, new RPIbool());
+		}
+
+		RPIVector getVector(String port, String param) {
+			return get(port, param, new RPIVector());
+		}
+
+		RPIRotation getRotation(String port, String param) {
+			return get(port, param, new RPIRotation());
+		}
+
+		RPIFrame getFrame(String port, String param) {
+			return get(port, param, new RPIFrame());
+		}
+	}
+
+	private static final Map<String, Fold> FOLDS = new HashMap<String, Fold>();
+	private static final Map<String, Supplier<Type>> CONDITIONALS = new HashMap<String, Supplier<Type>>();
+	private static final Set<String> VALUES = new HashSet<String>();
+
+	static {
+		VALUES.add(DoubleValue.PRIMITIVE_TYPE);
+		VALUES.add(IntValue.PRIMITIVE_TYPE);
+		VALUES.add(BooleanValue.PRIMITIVE_TYPE);
+		VALUES.add(VectorValue.PRIMITIVE_TYPE);
+		VALUES.add(RotationValue.PRIMITIVE_TYPE);
+		VALUES.add(FrameValue.PRIMITIVE_TYPE);
+
+		CONDITIONALS.put(DoubleConditional.PRIMITIVE_TYPE, RPIdouble::new);
+		CONDITIONALS.put(IntConditional.PRIMITIVE_TYPE, RPIint::new);
+		CONDITIONALS.put(BooleanConditional.PRIMITIVE_TYPE, RPIbool::new);
+		CONDITIONALS.put(VectorConditional.PRIMITIVE_TYPE, RPIVector::new);
+		CONDITIONALS.put(RotationConditional.PRIMITIVE_TYPE, RPIRotation::new);
+		CONDITIONALS.put(FrameConditional.PRIMITIVE_TYPE, RPIFrame::new);
+
+		FOLDS.put(DoubleAdd.PRIMITIVE_TYPE, in -> {
+			RPIdouble first = in.getDouble("inFirst", "First"), second = in.getDouble("inSecond", "Second");
+			return first == null || second == null ? null : new RPIdouble(first.get() + second.get());
+		});
+		FOLDS.put(DoubleMultiply.PRIMITIVE_TYPE, in -> {
+			RPIdouble first = in.getDouble("inFirst", "First"), second = in.getDouble("inSecond", "Second");
+			return first == null || second == null ? null : new RPIdouble(first.get() * second.get());
+		});
+		FOLDS.put(DoubleDivide.PRIMITIVE_TYPE, in -> {
+			RPIdouble first = in.getDouble("inFirst", "First"), second = in.getDouble("inSecond", "Second");
+			return first == null || second == null ? null : new RPIdouble(first.get() / second.get());
+		});
+		FOLDS.put(DoublePower.PRIMITIVE_TYPE, in -> {
+			RPIdouble first = in.getDouble("inFirst", "First"), second = in.getDouble("inSecond", "Second");
+			return first == null || second == null ? null : new RPIdouble(Math.pow(first.get(), second.get()));
+		});
+		FOLDS.put(DoubleSquareRoot.PRIMITIVE_TYPE, in -> {
+			RPIdouble value = in.getDouble("inValue", "Value");
+			return value == null ? null : new RPIdouble(Math.sqrt(value.get()));
+		});
+		FOLDS.put(DoubleGreater.PRIMITIVE_TYPE, in -> {
+			RPIdouble first = in.getDouble("inFirst", "First"), second = in.getDouble("inSecond", "Second");
+			return first == null || second == null ? null : new RPIbool(first.get() > second.get());
+		});
+		FOLDS.put(DoubleEquals.PRIMITIVE_TYPE, in -> {
+			RPIdouble first = in.getDouble("inFirst", "First"), second = in.getDouble("inSecond", "Second");
+			RPIdouble epsilon = in.getDouble(null, "Epsilon");
+			return first == null || second == null || epsilon == null ? null
+					: new RPIbool(Math.abs(first.get() - second.get()) <= epsilon.get());
+		});
+		FOLDS.put(DoubleFromInt.PRIMITIVE_TYPE, in -> {
+			RPIint value = in.getInt("inValue", "Value");
+			return value == null ? null : new RPIdouble((double) value.get());
+		});
+
+		FOLDS.put(IntAdd.PRIMITIVE_TYPE, in -> {
+			RPIint first = in.getInt("inFirst", "First"), second = in.getInt("inSecond", "Second");
+			return first == null || second == null ? null : new RPIint(first.get() + second.get());
+		});
+		FOLDS.put(IntMultiply.PRIMITIVE_TYPE, in -> {
+			RPIint first = in.getInt("inFirst", "First"), second = in.getInt("inSecond", "Second");
+			return first == null || second == null ? null : new RPIint(first.get() * second.get());
+		});
+		FOLDS.put(IntDivide.PRIMITIVE_TYPE, in -> {
+			RPIint first = in.getInt("inFirst", "First"), second = in.getInt("inSecond", "Second");
+			return first == null || second == null || second.get() == 0 ? null
+					: new RPIint(first.get() / second.get());
+		});
+		FOLDS.put(IntGreater.PRIMITIVE_TYPE, in -> {
+			RPIint first = in.getInt("inFirst", "First"), second = in.getInt("inSecond", "Second");
+			return first == null || second == null ? null : new RPIbool(first.get() > second.get());
+		});
+		FOLDS.put(IntEquals.PRIMITIVE_TYPE, in -> {
+			RPIint first = in.getInt("inFirst", "First"), second = in.getInt("inSecond", "Second");
+			RPIint epsilon = in.getInt(null, "Epsilon");
+			return first == null || second == null || epsilon == null ? null
+					: new RPIbool(Math.abs(first.get() - second.get()) <= epsilon.get());
+		});
+		FOLDS.put(IntFromDouble.PRIMITIVE_TYPE, in -> {
+			RPIdouble value = in.getDouble("inValue", "Value");
+			return value == null ? null : new RPIint((int) value.get());
+		});
+
+		FOLDS.put(BooleanAnd.PRIMITIVE_TYPE, in -> {
+			RPIbool first = in.getBool("inFirst", "First"), second = in.getBool("inSecond", "Second");
+			return first == null || second == null ? null : new RPIbool(first.get() && second.get());
+		});
+		FOLDS.put(BooleanOr.PRIMITIVE_TYPE, in -> {
+			RPIbool first = in.getBool("inFirst", "First"), second = in.getBool("inSecond", "Second");
+			return first == null || second == null ? null : new RPIbool(first.get() || second.get());
+		});
+		FOLDS.put(BooleanNot.PRIMITIVE_TYPE, in -> {
+			RPIbool value = in.getBool("inValue", "Value");
+			return value == null ? null : new RPIbool(!value.get());
+		});
+
+		FOLDS.put(VectorFromXYZ.PRIMITIVE_TYPE, in -> {
+			RPIdouble x = in.getDouble("inX", "X"), y = in.getDouble("inY", "Y"), z = in.getDouble("inZ", "Z");
+			return x == null || y == null || z == null ? null : new RPIVector(x.get(), y.get(), z.get());
+		});
+		FOLDS.put(VectorAdd.PRIMITIVE_TYPE, in -> {
+			RPIVector first = in.getVector("inFirst", null), second = in.getVector("inSecond", null);
+			if (first == null || second == null) {
+				return null;
+			}
+			MutableVector value = RPICalc.vectorCreate(), other = RPICalc.vectorCreate();
+			RPICalc.rpiToVector(first, value);
+			RPICalc.rpiToVector(second, other);
+			value.add(other);
+			RPICalc.vectorToRpi(value, first);
+			return first;
+		});
+		FOLDS.put(VectorScale.PRIMITIVE_TYPE, in -> {
+			RPIVector vector = in.getVector("inValue", null);
+			RPIdouble factor = in.getDouble("inFactor", "Factor");
+			if (vector == null || factor == null) {
+				return null;
+			}
+			MutableVector value = RPICalc.vectorCreate();
+			RPICalc.rpiToVector(vector, value);
+			value.scale(factor.get());
+			RPICalc.vectorToRpi(value, vector);
+			return vector;
+		});
+		FOLDS.put(RotationFromABC.PRIMITIVE_TYPE, in -> {
+			RPIdouble a = in.getDouble("inA", "A"), b = in.getDouble("inB", "B"), c = in.getDouble("inC", "C");
+			return a == null || b == null || c == null ? null : new RPIRotation(a.get(), b.get(), c.get());
+		});
+		FOLDS.put(FrameFromPosRot.PRIMITIVE_TYPE, in -> {
+			RPIVector pos = in.getVector("inPos", null);
+			if (!in.isConnected("inPos")) {
+				RPIdouble x = in.getDouble(null, "X"), y = in.getDouble(null, "Y"), z = in.getDouble(null, "Z");
+				pos = x == null || y == null || z == null ? null : new RPIVector(x.get(), y.get(), z.get());
+			}
+			RPIRotation rot = in.getRotation("inRot", null);
+			if (!in.isConnected("inRot")) {
+				RPIdouble a = in.getDouble(null, "A"), b = in.getDouble(null, "B"), c = in.getDouble(null, "C");
+				rot = a == null || b == null || c == null ? null : new RPIRotation(a.get(), b.get(), c.get());
+			}
+			return pos == null || rot == null ? null : new RPIFrame(pos, rot);
+		});
+		FOLDS.put(FrameTransform.PRIMITIVE_TYPE, in -> {
+			RPIFrame first = in.getFrame("inFirst", null), second = in.getFrame("inSecond", null);
+			if (first == null || second == null) {
+				return null;
+			}
+			MutableTransformation value = RPICalc.frameCreate(), other = RPICalc.frameCreate();
+			RPICalc.rpiToFrame(first, value);
+			RPICalc.rpiToFrame(second, other);
+			value.multiply(other);
+			RPICalc.frameToRpi(value, first);
+			return first;
+		});
+		FOLDS.put(FrameInvert.PRIMITIVE_TYPE, in -> {
+			RPIFrame frame = in.getFrame("inValue", null);
+			if (frame == null) {
+				return null;
+			}
+			MutableTransformation value = RPICalc.frameCreate();
+			RPICalc.rpiToFrame(frame, value);
+			value.invert();
+			RPICalc.frameToRpi(value, frame);
+			return frame;
+		});
+	}
+
+	/**
+	 * Folds all constant primitives in a net. Primitives depending on folded
+	 * primitives are reconsidered, so chains of constant computations collapse
+	 * into a single value primitive.
+	 *
+	 * @param connections connections of the net to fold
+	 * @return number of folded primitives
+	 * @throws RpiException if the net cannot be rewired
+	 */
+	static int fold(NetConnections connections) throws RpiException {
+		Fragment net = connections.getNet();
+		Queue<Primitive> todo = new LinkedList<Primitive>();
+		Set<Primitive> todoSet = new HashSet<Primitive>();
+		for (Primitive primitive : net.getPrimitives()) {
+			if (isFoldable(primitive)) {
+				todo.add(primitive);
+				todoSet.add(primitive);
+			}
+		}
+
+		int folded = 0;
+		while (!todo.isEmpty()) {
+			Primitive primitive = todo.poll();
+			todoSet.remove(primitive);
+			if (connections.isRemoved(primitive) || !isFoldable(primitive)) {
+				continue;
+			}
+
+			OutPort replacement = foldPrimitive(primitive, connections);
+			if (replacement == null) {
+				continue;
+			}
+
+			OutPort outValue = getOutPort(primitive, "outValue");
+			for (Primitive changed : connections.redirect(outValue, replacement)) {
+				if (!todoSet.contains(changed) && isFoldable(changed)) {
+					todo.add(changed);
+					todoSet.add(changed);
+				}
+			}
+			connections.remove(primitive);
+			folded++;
+		}
+		return folded;
+	}
+
+	private static boolean isFoldable(Primitive primitive) {
+		if (!FOLDS.containsKey(primitive.getType()) && !CONDITIONALS.containsKey(primitive.getType())) {
+			return false;
+		}
+		// the primitive only computes if active, this cannot be expressed by a value
+		for (InPort in : primitive.getInPorts()) {
+			if (in.getName().equals("inActive") && in.getConnectedPort() != null) {
+				return false;
+			}
+		}
+		return getOutPort(primitive, "outValue") != null;
+	}
+
+	private static OutPort foldPrimitive(Primitive primitive, NetConnections connections) {
+		Inputs in = new Inputs(primitive);
+		Type value;
+		Supplier<Type> conditionalType = CONDITIONALS.get(primitive.getType());
+		if (conditionalType != null) {
+			RPIbool condition = in.getBool("inCondition", null);
+			if (condition == null) {
+				return null;
+			}
+			String port = condition.get() ? "inTrue" : "inFalse";
+			for (InPort selected : primitive.getInPorts()) {
+				if (selected.getName().equals(port) && selected.getConnectedPort() != null) {
+					return selected.getConnectedPort();
+				}
+			}
+			value = parse(getParameter(primitive, condition.get() ? "True" : "False"), conditionalType.get());
+		} else {
+			value = FOLDS.get(primitive.getType()).fold(in);
+		}
+		if (value == null) {
+			return null;
+		}
+		Primitive constant = createValue(value);
+		if (constant == null) {
+			return null;
+		}
+		connections.add(constant);
+		return getOutPort(constant, "outValue");
+	}
+
+	private static Primitive createValue(Type value) {
+		if (value instanceof RPIdouble) {
+			return new DoubleValue((RPIdouble) value);
+		} else if (value instanceof RPIint) {
+			return new IntValue((RPIint) value);
+		} else if (value instanceof RPIbool) {
+			return new BooleanValue((RPIbool) value);
+		} else if (value instanceof RPIVector) {
+			return new VectorValue((RPIVector) value);
+		} else if (value instanceof RPIRotation) {
+			return new RotationValue((RPIRotation) value);
+		} else if (value instanceof RPIFrame) {
+			return new FrameValue((RPIFrame) value);
+		}
+		return null;
+	}
+
+	/**
+	 * Retrieves the constant value provided by a port
+	 *
+	 * @param port port to check
+	 * @return the value in RPI syntax, or null if the port is not provided by a
+	 *         value primitive
+	 */
+	private static String getConstant(OutPort port) {
+		Primitive source = port.getPrimitive();
+		if (source == null || !VALUES.contains(source.getType()) || !port.getName().equals("outValue")) {
+			return null;
+		}
+		return getParameter(source, "Value");
+	}
+
+	private static String getParameter(Primitive primitive, String name) {
+		for (Parameter<?> param : primitive.getParameters()) {
+			if (param.getName().equals(name)) {
+				return param.getValue() == null ? null : param.getValue().toString();
+			}
+		}
+		return null;
+	}
+
+	private static <T extends Type> T parse(String string, T value) {
+		if (string == null) {
+			return null;
+		}
+		try {
+			return value.consumeString(string).trim().isEmpty() ? value : null;
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+
+	private static OutPort getOutPort(Primitive primitive, String name) {
+		for (OutPort out : primitive.getOutPorts()) {
+			if (out.getName().equals(name)) {
+				return out;
+			}
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,180 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.feature.runtime.netoptimizer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.roboticsapi.facet.runtime.rpi.Fragment;
+import org.roboticsapi.facet.runtime.rpi.FragmentOutPort;
+import org.roboticsapi.facet.runtime.rpi.InPort;
+import org.roboticsapi.facet.runtime.rpi.OutPort;
+import org.roboticsapi.facet.runtime.rpi.Primitive;
+import org.roboticsapi.facet.runtime.rpi.RpiException;
+
+/**
+ * Connections inside a fragment, indexed by the port providing the value. Used
+ * by the optimization passes to find and rewire the consumers of a port.
+ */
+class NetConnections {
+
+	private final Fragment net;
+	private final Map<OutPort, List<InPort>> connectionsTo = new HashMap<OutPort, List<InPort>>();
+	private final Map<OutPort, List<FragmentOutPort>> fragmentOuts = new HashMap<OutPort, List<FragmentOutPort>>();
+	private final Set<Primitive> removed = new HashSet<Primitive>();
+	private final List<Primitive> pending = new ArrayList<Primitive>();
+
+	/**
+	 * Collects the connections of all primitives in a fragment
+	 *
+	 * @param net fragment to index
+	 */
+	NetConnections(Fragment net) {
+		this.net = net;
+		for (Primitive primitive : net.getPrimitives()) {
+			addConnections(primitive);
+		}
+		for (OutPort out : net.getOutPorts()) {
+			if (out instanceof FragmentOutPort) {
+				FragmentOutPort fout = (FragmentOutPort) out;
+				if (!fragmentOuts.containsKey(fout.getInnerPort())) {
+					fragmentOuts.put(fout.getInnerPort(), new ArrayList<FragmentOutPort>());
+				}
+				fragmentOuts.get(fout.getInnerPort()).add(fout);
+			}
+		}
+	}
+
+	private void addConnections(Primitive primitive) {
+		for (InPort in : primitive.getInPorts()) {
+			OutPort from = in.getConnectedPort();
+			if (from != null) {
+				if (!connectionsTo.containsKey(from)) {
+					connectionsTo.put(from, new ArrayList<InPort>());
+				}
+				connectionsTo.get(from).add(in);
+			}
+		}
+	}
+
+	/**
+	 * Retrieves the fragment the connections belong to
+	 *
+	 * @return the indexed fragment
+	 */
+	Fragment getNet() {
+		return net;
+	}
+
+	/**
+	 * Retrieves all in ports of primitives in the net reading from the given port
+	 *
+	 * @param port port providing a value
+	 * @return in ports connected to the port
+	 */
+	List<InPort> getConsumers(OutPort port) {
+		List<InPort> ins = connectionsTo.get(port);
+		if (ins == null) {
+			return Collections.emptyList();
+		}
+		List<InPort> ret = new ArrayList<InPort>(ins.size());
+		for (InPort in : ins) {
+			if (!removed.contains(in.getPrimitive())) {
+				ret.add(in);
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Connects all consumers of a port (including out ports of the fragment) to
+	 * another port
+	 *
+	 * @param from port currently providing the value
+	 * @param to   port providing the value in the future
+	 * @return primitives whose inputs have been changed
+	 * @throws RpiException if a consumer cannot be connected
+	 */
+	Set<Primitive> redirect(OutPort from, OutPort to) throws RpiException {
+		Set<Primitive> changed = new LinkedHashSet<Primitive>();
+		if (from == to) {
+			return changed;
+		}
+		for (InPort in : getConsumers(from)) {
+			in.disconnect();
+			in.connectTo(to);
+			if (!connectionsTo.containsKey(to)) {
+				connectionsTo.put(to, new ArrayList<InPort>());
+			}
+			connectionsTo.get(to).add(in);
+			changed.add(in.getPrimitive());
+		}
+		connectionsTo.remove(from);
+
+		List<FragmentOutPort> fouts = fragmentOuts.remove(from);
+		if (fouts != null) {
+			for (FragmentOutPort fout : fouts) {
+				fout.setInnerPort(to);
+			}
+			if (!fragmentOuts.containsKey(to)) {
+				fragmentOuts.put(to, new ArrayList<FragmentOutPort>());
+			}
+			fragmentOuts.get(to).addAll(fouts);
+		}
+		return changed;
+	}
+
+	/**
+	 * Adds a primitive to the net
+	 *
+	 * @param primitive primitive to add
+	 * @return the added primitive
+	 */
+	<T extends Primitive> T add(T primitive) {
+		net.add(primitive);
+		addConnections(primitive);
+		return primitive;
+	}
+
+	/**
+	 * Marks a primitive as removed. Its in ports are no longer reported as
+	 * consumers, it is removed from the net by {@link #flush()}.
+	 *
+	 * @param primitive primitive to remove
+	 */
+	void remove(Primitive primitive) {
+		if (removed.add(primitive)) {
+			pending.add(primitive);
+		}
+	}
+
+	/**
+	 * Removes all primitives marked as removed from the net
+	 */
+	void flush() {
+		net.removeAll(pending);
+		pending.clear();
+	}
+
+	/**
+	 * Checks whether a primitive has been removed
+	 *
+	 * @param primitive primitive to check
+	 * @return true if the primitive has been removed from the net
+	 */
+	boolean isRemoved(Primitive primitive) {
+		return removed.contains(primitive);
+	}
+
+}
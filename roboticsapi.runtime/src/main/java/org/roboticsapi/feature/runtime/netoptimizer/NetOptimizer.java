@@ -7,13 +7,17 @@
 
 package org.roboticsapi.feature.runtime.netoptimizer;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 
 import org.roboticsapi.core.util.RAPILogger;
 import org.roboticsapi.facet.runtime.rpi.Fragment;
@@ -26,6 +30,9 @@ import org.roboticsapi.facet.runtime.rpi.Parameter;
 import org.roboticsapi.facet.runtime.rpi.Primitive;
 import org.roboticsapi.facet.runtime.rpi.RpiException;
 import org.roboticsapi.facet.runtime.rpi.UnknownPrimitive;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.Cancel;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.EStop;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.Takeover;
 
 public class NetOptimizer {
 
@@ -37,9 +44,17 @@ public class NetOptimizer {
 	private static final boolean RENAME_FRAGMENTPORTS = true;
 
 	private static final boolean REMOVE_FRAGMENTS = true;
+	private static final boolean FOLD_CONSTANTS = true;
+	private static final boolean MERGE_PRIMITIVES = true;
+	private static final boolean REMOVE_UNUSED = true;
+
+	/** core primitives influencing the net execution, even if unused */
+	private static final Set<String> SIDE_EFFECT_TYPES = new HashSet<String>(
+			Arrays.asList(Cancel.PRIMITIVE_TYPE, EStop.PRIMITIVE_TYPE, Takeover.PRIMITIVE_TYPE));
 
 	/**
-	 * Optimizes the net (removes redundant primitives)
+	 * Optimizes the net (folds constant computations, merges redundant
+	 * primitives and removes unused ones)
 	 *
 	 * @throws RpiException
 	 */
@@ -48,23 +63,16 @@ public class NetOptimizer {
 	}
 
 	private static int optimize(int startNr, Fragment net, String namePrefix) throws RpiException {
-		final HashMap<String, Primitive> primitiveMap = new HashMap<String, Primitive>();
-		final HashMap<OutPort, List<InPort>> connectionsTo = new HashMap<OutPort, List<InPort>>();
-		final HashMap<OutPort, List<FragmentOutPort>> fragmentOuts = new HashMap<OutPort, List<FragmentOutPort>>();
-
-		final Queue<Primitive> todo = new LinkedList<Primitive>();
-		final HashSet<Primitive> todoSet = new HashSet<Primitive>();
-		final HashSet<Primitive> deleted = new HashSet<Primitive>();
-
 		if (REMOVE_FRAGMENTS) {
 			defrag(net);
 		}
 
+		Set<Primitive> primitives = new HashSet<Primitive>(net.getPrimitives());
 		for (Primitive prim : net.getPrimitives()) {
 			for (InPort in : prim.getInPorts()) {
 				if (in.getConnectedPort() != null) {
 					if (net != in.getConnectedPort().getPrimitive()
-							&& !net.getPrimitives().contains(in.getConnectedPort().getPrimitive())) {
+							&& !primitives.contains(in.getConnectedPort().getPrimitive())) {
 						throw new RpiException(
 								"Primitive " + in.getConnectedPort().getPrimitiveName() + " does not exist.");
 					}
@@ -72,101 +80,21 @@ public class NetOptimizer {
 			}
 		}
 
-		for (final Primitive primitive : net.getPrimitives()) {
-			for (InPort in : primitive.getInPorts()) {
-				OutPort from = in.getConnectedPort();
-				if (from != null) {
-					if (!connectionsTo.containsKey(from)) {
-						connectionsTo.put(from, new ArrayList<InPort>());
-					}
-					connectionsTo.get(from).add(in);
-				}
-			}
-			if (!(primitive instanceof Fragment)) {
-				todo.add(primitive);
-				todoSet.add(primitive);
-			}
+		NetConnections connections = new NetConnections(net);
+		if (FOLD_CONSTANTS) {
+			ConstantFolder.fold(connections);
+			connections.flush();
 		}
-
-		for (OutPort out : net.getOutPorts()) {
-			FragmentOutPort fout = (FragmentOutPort) out;
-			if (!fragmentOuts.containsKey(fout.getInnerPort())) {
-				fragmentOuts.put(fout.getInnerPort(), new ArrayList<FragmentOutPort>());
-			}
-			fragmentOuts.get(fout.getInnerPort()).add(fout);
+		if (MERGE_PRIMITIVES) {
+			mergePrimitives(connections);
+			connections.flush();
 		}
-
-		while (!todo.isEmpty()) {
-			Primitive primitive = todo.poll();
-			todoSet.remove(primitive);
-			if (deleted.contains(primitive)) {
-				continue;
-			}
-
-			StringBuffer props = new StringBuffer(primitive.getType() + ":");
-			for (final Parameter<?> p : primitive.getParameters()) {
-				if (p.getValue() == null) {
-					props.append(",");
-				} else {
-					props.append(p.getValue().toString()).append(",");
-				}
-			}
-			for (final InPort i : primitive.getInPorts()) {
-				props.append(i.getConnectedPort() != null
-						? i.getConnectedPort().getPrimitiveName() + "." + i.getConnectedPort().getName()
-						: "").append(",");
-			}
-			String key = props.toString();
-			if (primitiveMap.containsKey(key)) {
-				Primitive otherPrimitive = primitiveMap.get(key);
-				if (otherPrimitive == primitive) {
-					continue;
-				}
-				for (OutPort out : primitive.getOutPorts()) {
-					OutPort newOut = null;
-					for (OutPort o : otherPrimitive.getOutPorts()) {
-						if (o.getName().equals(out.getName())) {
-							newOut = o;
-						}
-					}
-					if (newOut == null && otherPrimitive instanceof UnknownPrimitive) {
-						newOut = new OutPort(out.getName());
-						((UnknownPrimitive) otherPrimitive).add(newOut);
-					}
-					if (connectionsTo.containsKey(out)) {
-						for (InPort in : new ArrayList<InPort>(connectionsTo.get(out))) {
-							if (deleted.contains(in.getPrimitive())) {
-								continue;
-							}
-							in.disconnect();
-							in.connectTo(newOut);
-							if (!connectionsTo.containsKey(newOut)) {
-								connectionsTo.put(newOut, new ArrayList<InPort>());
-							}
-
-							connectionsTo.get(newOut).add(in);
-							if (!todoSet.contains(in.getPrimitive())) {
-								todo.add(in.getPrimitive());
-								todoSet.add(in.getPrimitive());
-							}
-						}
-					}
-					if (fragmentOuts.containsKey(out)) {
-						for (FragmentOutPort fout : new ArrayList<FragmentOutPort>(fragmentOuts.get(out))) {
-							fout.setInnerPort(newOut);
-							if (!fragmentOuts.containsKey(newOut)) {
-								fragmentOuts.put(newOut, new ArrayList<FragmentOutPort>());
-							}
-							fragmentOuts.get(newOut).add(fout);
-						}
-					}
-				}
-				net.remove(primitive);
-				deleted.add(primitive);
-			} else {
-				primitiveMap.put(props.toString(), primitive);
-			}
+		if (REMOVE_UNUSED) {
+			removeUnused(connections);
+			connections.flush();
 		}
+		primitives = new HashSet<Primitive>(net.getPrimitives());
+
 		int i = 0;
 		for (Primitive prim : net.getPrimitives()) {
 			String newName;
@@ -218,7 +146,7 @@ public class NetOptimizer {
 			for (InPort in : prim.getInPorts()) {
 				if (in.getConnectedPort() != null) {
 					if (net != in.getConnectedPort().getPrimitive()
-							&& !net.getPrimitives().contains(in.getConnectedPort().getPrimitive())) {
+							&& !primitives.contains(in.getConnectedPort().getPrimitive())) {
 						throw new RpiException("NetOptimizer bug: Primitive " + in.getConnectedPort().getPrimitiveName()
 								+ " is not in net.");
 					}
@@ -228,63 +156,266 @@ public class NetOptimizer {
 		return startNr;
 	}
 
+	/**
+	 * Structural key of a primitive: two primitives with equal keys have the same
+	 * type and parameters and read from the same ports, so they compute the same
+	 * values.
+	 */
+	private static final class PrimitiveKey {
+		private final String type;
+		private final String[] parameters;
+		private final String[] inNames;
+		private final OutPort[] inSources;
+		private final int hash;
+
+		PrimitiveKey(Primitive primitive) {
+			type = primitive.getType();
+			List<Parameter<?>> params = primitive.getParameters();
+			parameters = new String[params.size() * 2];
+			for (int i = 0; i < params.size(); i++) {
+				Parameter<?> p = params.get(i);
+				parameters[2 * i] = p.getName();
+				parameters[2 * i + 1] = p.getValue() == null ? null : p.getValue().toString();
+			}
+			List<InPort> ins = primitive.getInPorts();
+			inNames = new String[ins.size()];
+			inSources = new OutPort[ins.size()];
+			for (int i = 0; i < ins.size(); i++) {
+				inNames[i] = ins.get(i).getName();
+				inSources[i] = ins.get(i).getConnectedPort();
+			}
+
+			int h = type.hashCode();
+			h = 31 * h + Arrays.hashCode(parameters);
+			h = 31 * h + Arrays.hashCode(inNames);
+			for (OutPort source : inSources) {
+				h = 31 * h + System.identityHashCode(source);
+			}
+			hash = h;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof PrimitiveKey)) {
+				return false;
+			}
+			PrimitiveKey other = (PrimitiveKey) obj;
+			if (hash != other.hash || !type.equals(other.type) || inSources.length != other.inSources.length) {
+				return false;
+			}
+			for (int i = 0; i < inSources.length; i++) {
+				if (inSources[i] != other.inSources[i]) {
+					return false;
+				}
+			}
+			return Arrays.equals(inNames, other.inNames) && Arrays.equals(parameters, other.parameters);
+		}
+	}
+
+	/**
+	 * Merges primitives computing the same values (common subexpression
+	 * elimination). Consumers of merged primitives are checked again, as they may
+	 * have become equal as well.
+	 *
+	 * @param connections connections of the net
+	 * @throws RpiException
+	 */
+	private static void mergePrimitives(NetConnections connections) throws RpiException {
+		final Fragment net = connections.getNet();
+		final HashMap<PrimitiveKey, Primitive> primitiveMap = new HashMap<PrimitiveKey, Primitive>();
+		final Queue<Primitive> todo = new LinkedList<Primitive>();
+		final HashSet<Primitive> todoSet = new HashSet<Primitive>();
+
+		for (final Primitive primitive : net.getPrimitives()) {
+			if (!(primitive instanceof Fragment)) {
+				todo.add(primitive);
+				todoSet.add(primitive);
+			}
+		}
+
+		while (!todo.isEmpty()) {
+			Primitive primitive = todo.poll();
+			todoSet.remove(primitive);
+			if (connections.isRemoved(primitive)) {
+				continue;
+			}
+
+			PrimitiveKey key = new PrimitiveKey(primitive);
+			Primitive otherPrimitive = primitiveMap.get(key);
+			if (otherPrimitive == null) {
+				primitiveMap.put(key, primitive);
+				continue;
+			}
+			if (otherPrimitive == primitive) {
+				continue;
+			}
+			for (OutPort out : primitive.getOutPorts()) {
+				OutPort newOut = null;
+				for (OutPort o : otherPrimitive.getOutPorts()) {
+					if (o.getName().equals(out.getName())) {
+						newOut = o;
+					}
+				}
+				if (newOut == null && otherPrimitive instanceof UnknownPrimitive) {
+					newOut = new OutPort(out.getName());
+					((UnknownPrimitive) otherPrimitive).add(newOut);
+				}
+				for (Primitive changed : connections.redirect(out, newOut)) {
+					if (!todoSet.contains(changed) && !(changed instanceof Fragment)) {
+						todo.add(changed);
+						todoSet.add(changed);
+					}
+				}
+			}
+			connections.remove(primitive);
+		}
+	}
+
+	/**
+	 * Removes primitives whose results are not used. Primitives with side effects
+	 * (netcomm, devices, sub fragments) and the sources of the fragment's out
+	 * ports are kept, as well as all primitives they depend on.
+	 *
+	 * @param connections connections of the net
+	 */
+	private static void removeUnused(NetConnections connections) {
+		final Fragment net = connections.getNet();
+		final Set<Primitive> live = new HashSet<Primitive>();
+		final Deque<Primitive> todo = new ArrayDeque<Primitive>();
+
+		for (Primitive primitive : net.getPrimitives()) {
+			if (!isPure(primitive) && live.add(primitive)) {
+				todo.push(primitive);
+			}
+		}
+		for (OutPort out : net.getOutPorts()) {
+			if (out instanceof FragmentOutPort) {
+				OutPort inner = ((FragmentOutPort) out).getInnerPort();
+				if (inner != null && inner.getPrimitive() != net && live.add(inner.getPrimitive())) {
+					todo.push(inner.getPrimitive());
+				}
+			}
+		}
+
+		while (!todo.isEmpty()) {
+			Primitive primitive = todo.pop();
+			for (InPort in : primitive.getInPorts()) {
+				OutPort from = in.getConnectedPort();
+				if (from != null && from.getPrimitive() != net && live.add(from.getPrimitive())) {
+					todo.push(from.getPrimitive());
+				}
+			}
+		}
+
+		for (Primitive primitive : new ArrayList<Primitive>(net.getPrimitives())) {
+			if (!live.contains(primitive)) {
+				connections.remove(primitive);
+			}
+		}
+	}
+
+	/**
+	 * Checks whether a primitive only computes values for other primitives, so
+	 * that it can be removed if nobody reads its results
+	 *
+	 * @param primitive primitive to check
+	 * @return true if the primitive has no side effects
+	 */
+	private static boolean isPure(Primitive primitive) {
+		if (primitive instanceof Fragment || primitive instanceof NetcommPrimitive) {
+			return false;
+		}
+		String type = primitive.getType();
+		if (!type.startsWith("Core::") && !type.startsWith("World::") && !type.startsWith("Matrix::")) {
+			return false;
+		}
+		if (type.contains("Netcomm") || SIDE_EFFECT_TYPES.contains(type)) {
+			return false;
+		}
+		return !primitive.getOutPorts().isEmpty();
+	}
+
+	/**
+	 * Moves the primitives of all sub fragments without an active port into the
+	 * net. The connections through fragment ports are collected for all
+	 * fragments first and resolved in a single pass over the net.
+	 */
 	private static void defrag(Fragment net) throws RpiException {
-		for (int i = 0; i < net.getPrimitives().size(); i++) {
-			Primitive prim = net.getPrimitives().get(i);
+		Map<OutPort, OutPort> portMap = new HashMap<OutPort, OutPort>();
+		List<Primitive> removedFragments = new ArrayList<Primitive>();
+		List<Primitive> innerPrimitives = new ArrayList<Primitive>();
+
+		for (Primitive prim : net.getPrimitives()) {
 			if (prim instanceof Fragment) {
 				Fragment frag = (Fragment) prim;
 				defrag(frag);
 
 				boolean mayDefrag = true;
-				Map<OutPort, OutPort> portMap = new HashMap<OutPort, OutPort>();
 				for (InPort port : frag.getInPorts()) {
 					if (port.getName().equals("inActive")) {
 						mayDefrag = false;
-					} else if (port instanceof FragmentInPort) {
-						portMap.put(((FragmentInPort) port).getInternalOutPort(), port.getConnectedPort());
-					}
-				}
-				for (OutPort port : frag.getOutPorts()) {
-					if (port instanceof FragmentOutPort) {
-						portMap.put(port, ((FragmentOutPort) port).getInnerPort());
 					}
 				}
 				if (!mayDefrag) {
 					continue;
 				}
 
-				for (Primitive innerprim : new ArrayList<Primitive>(frag.getPrimitives())) {
-					frag.remove(innerprim);
-					net.add(innerprim);
-				}
-				for (Primitive outerprim : net.getPrimitives()) {
-					for (InPort port : outerprim.getInPorts()) {
-						OutPort from = port.getConnectedPort();
-						while (portMap.containsKey(from)) {
-							from = portMap.get(from);
-						}
-						if (from != port.getConnectedPort()) {
-							port.disconnect();
-							port.connectTo(from);
-						}
+				for (InPort port : frag.getInPorts()) {
+					if (port instanceof FragmentInPort) {
+						portMap.put(((FragmentInPort) port).getInternalOutPort(), port.getConnectedPort());
 					}
 				}
-				for (OutPort port : net.getOutPorts()) {
+				for (OutPort port : frag.getOutPorts()) {
 					if (port instanceof FragmentOutPort) {
-						FragmentOutPort fPort = (FragmentOutPort) port;
-						OutPort innerPort = fPort.getInnerPort();
-						while (portMap.containsKey(innerPort)) {
-							innerPort = portMap.get(innerPort);
-						}
-						if (innerPort != fPort.getInnerPort()) {
-							fPort.setInnerPort(innerPort);
-						}
+						portMap.put(port, ((FragmentOutPort) port).getInnerPort());
 					}
 				}
-				net.remove(frag);
-				i--;
+				innerPrimitives.addAll(frag.getPrimitives());
+				frag.getPrimitives().clear();
+				removedFragments.add(frag);
 			}
 		}
+		if (removedFragments.isEmpty()) {
+			return;
+		}
+
+		net.removeAll(removedFragments);
+		for (Primitive innerprim : innerPrimitives) {
+			net.add(innerprim);
+		}
+		for (Primitive outerprim : net.getPrimitives()) {
+			for (InPort port : outerprim.getInPorts()) {
+				OutPort from = resolve(portMap, port.getConnectedPort());
+				if (from != port.getConnectedPort()) {
+					port.disconnect();
+					port.connectTo(from);
+				}
+			}
+		}
+		for (OutPort port : net.getOutPorts()) {
+			if (port instanceof FragmentOutPort) {
+				FragmentOutPort fPort = (FragmentOutPort) port;
+				OutPort innerPort = resolve(portMap, fPort.getInnerPort());
+				if (innerPort != fPort.getInnerPort()) {
+					fPort.setInnerPort(innerPort);
+				}
+			}
+		}
+	}
+
+	private static OutPort resolve(Map<OutPort, OutPort> portMap, OutPort port) {
+		while (portMap.containsKey(port)) {
+			port = portMap.get(port);
+		}
+		return port;
 	}
 
 	private static String createName(int nr) {
@@ -9,18 +9,26 @@ package org.roboticsapi.feature.runtime.realtimercc.dioprotocol;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.roboticsapi.core.util.RAPILogger;
 import org.roboticsapi.facet.runtime.rpi.DeviceListener;
 import org.roboticsapi.facet.runtime.rpi.DeviceStatus;
+import org.roboticsapi.facet.runtime.rpi.EncodedNet;
 import org.roboticsapi.facet.runtime.rpi.Fragment;
+import org.roboticsapi.facet.runtime.rpi.NetEncoder;
 import org.roboticsapi.facet.runtime.rpi.NetSerializer;
 import org.roboticsapi.facet.runtime.rpi.NetStatus;
 import org.roboticsapi.facet.runtime.rpi.NetSynchronizationRule.SynchronizationRuleStatus;
@@ -31,19 +39,18 @@ import org.roboticsapi.feature.runtime.realtimercc.dioprotocol.parser.DIOProtoco
 
 public abstract class DIOProtocol {
 	protected static final String DIO_VERSION = "2.0";
-	protected final int DEBUG_PING_DELAY = 0;
 	protected final String name;
 	protected final ProtocolCallback callback;
 	protected boolean ready = false;
 	protected boolean netcommsChanged = false;
 
-	private final Map<String, Semaphore> waitList = new Hashtable<String, Semaphore>();
-	private final Map<String, String> resultList = new Hashtable<String, String>();
+	private final ConcurrentMap<String, CompletableFuture<String>> tagResults = new ConcurrentHashMap<String, CompletableFuture<String>>();
 	private final Map<String, String> netMap = new Hashtable<String, String>();
 	private final Map<String, String> ruleMap = new Hashtable<String, String>();
-	private final Map<String, ResultListener> resultListeners = new Hashtable<String, DIOProtocol.ResultListener>();
+	private final ConcurrentMap<String, List<String>> uploadedNets = new ConcurrentHashMap<String, List<String>>();
+	private volatile boolean binaryNets = Boolean.getBoolean("org.roboticsapi.rcc.binarynets");
+	private volatile boolean binaryNetsSupported = false;
 	private String devicetag;
-	private long lastResponseTime = System.currentTimeMillis();
 
 	public interface ResultListener {
 		void onSuccess(String message);
@@ -67,95 +74,173 @@ public abstract class DIOProtocol {
 		this.callback = callback;
 	}
 
-	protected String getTagStatus(String string) throws RpiException {
-		if (isReaderThread()) {
-			return "";
-		}
+	/**
+	 * Registers for the reply to the command with the given tag. This has to
+	 * happen before the command is written, as the reply may arrive at any time
+	 * afterwards. The future completes with the message of the reply, or
+	 * exceptionally with an {@link RpiException} if the command failed, so many
+	 * commands can be in flight at the same time.
+	 *
+	 * @param tag tag of the command
+	 * @return future for the result of the command
+	 */
+	protected CompletableFuture<String> expectReply(String tag) {
+		CompletableFuture<String> ret = new CompletableFuture<String>();
+		tagResults.put(tag, ret);
+		return ret;
+	}
+
+	/**
+	 * Writes a command with a new tag, registering for its reply first.
+	 *
+	 * @param command command to write
+	 * @return future for the result of the command
+	 * @throws IOException if the command could not be written
+	 */
+	protected CompletableFuture<String> writeCommand(DIOCommand command) throws IOException {
+		return writeCommand(nextTag(), command);
+	}
+
+	/**
+	 * Writes a command with the given tag, registering for its reply first.
+	 *
+	 * @param tag     tag of the command (see {@link #nextTag()})
+	 * @param command command to write
+	 * @return future for the result of the command
+	 * @throws IOException if the command could not be written
+	 */
+	protected CompletableFuture<String> writeCommand(String tag, DIOCommand command) throws IOException {
+		CompletableFuture<String> ret = expectReply(tag);
 		try {
-			synchronized (waitList) {
-				if (!resultList.containsKey(string)) {
-					waitList.put(string, new Semaphore(1));
-					waitList.get(string).acquire();
-				}
-			}
+			write(tag, command);
+		} catch (IOException e) {
+			tagResults.remove(tag, ret);
+			throw e;
+		}
+		return ret;
+	}
 
-			if (!resultList.containsKey(string)) {
-				waitList.get(string).acquire();
-			}
-			Thread.sleep(DEBUG_PING_DELAY);
-			synchronized (waitList) {
-				String result = resultList.get(string);
-				waitList.remove(string);
-				resultList.remove(string);
-				if (result.startsWith("-")) {
-					throw new RpiException(result.substring(1));
-				}
-				return result.substring(1);
-			}
-		} catch (InterruptedException ex) {
-			throw new RpiException(ex);
+	protected String getTagStatus(CompletableFuture<String> result) throws RpiException {
+		if (isReaderThread()) {
+			return "";
 		}
+		return await(result);
 	}
 
-	protected boolean checkTagStatus(String string) {
+	protected boolean checkTagStatus(CompletableFuture<String> result) {
 		if (isReaderThread()) {
 			return true;
 		}
 		try {
-			synchronized (waitList) {
-				if (!resultList.containsKey(string)) {
-					waitList.put(string, new Semaphore(1));
-					waitList.get(string).acquire();
-				}
-			}
-
-			if (!resultList.containsKey(string)) {
-				waitList.get(string).acquire();
-			}
-			Thread.sleep(DEBUG_PING_DELAY);
-			synchronized (waitList) {
-				String result = resultList.get(string);
-				waitList.remove(string);
-				resultList.remove(string);
-				return result.startsWith("+");
-			}
-		} catch (InterruptedException ex) {
+			await(result);
+			return true;
+		} catch (RpiException e) {
 			return false;
 		}
 	}
 
-	protected boolean checkTagStatus(String string, double timeout) {
+	protected boolean checkTagStatus(CompletableFuture<String> result, double timeout) {
 		if (isReaderThread()) {
 			return true;
 		}
-		long startTime = System.currentTimeMillis();
 		try {
-			synchronized (waitList) {
-				if (!resultList.containsKey(string)) {
-					waitList.put(string, new Semaphore(1));
-					waitList.get(string).acquire();
-				}
+			result.get((long) (timeout * 1000), TimeUnit.MILLISECONDS);
+			return true;
+		} catch (TimeoutException e) {
+			tagResults.values().remove(result);
+			return false;
+		} catch (InterruptedException e) {
+			return false;
+		} catch (ExecutionException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Waits for the result of a command.
+	 *
+	 * @param result future result of the command
+	 * @return message returned by the command
+	 * @throws RpiException if the command failed or waiting was interrupted
+	 */
+	public static <T> T await(CompletableFuture<T> result) throws RpiException {
+		try {
+			return result.get();
+		} catch (InterruptedException e) {
+			throw new RpiException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RpiException) {
+				throw (RpiException) e.getCause();
 			}
-			while (System.currentTimeMillis() < lastResponseTime + timeout * 1000
-					|| System.currentTimeMillis() < startTime + timeout * 100) {
-				try {
-					if (!resultList.containsKey(string)) {
-						waitList.get(string).tryAcquire((long) (timeout * 1000), TimeUnit.MILLISECONDS);
-					}
-					break;
-				} catch (InterruptedException ex) {
-					return false;
-				}
+			throw new RpiException(e.getCause());
+		}
+	}
+
+	/**
+	 * Fails the results of all commands still waiting for a reply, e.g. because
+	 * the connection was lost. Net structures uploaded before are no longer
+	 * referred to.
+	 *
+	 * @param message reason for the failure
+	 */
+	protected void failPendingCommands(String message) {
+		uploadedNets.clear();
+		for (String tag : tagResults.keySet()) {
+			CompletableFuture<String> result = tagResults.remove(tag);
+			if (result != null) {
+				result.completeExceptionally(new RpiException(message));
 			}
-			Thread.sleep(DEBUG_PING_DELAY);
-			synchronized (waitList) {
-				String result = resultList.containsKey(string) ? resultList.get(string) : "";
-				waitList.remove(string);
-				resultList.remove(string);
-				return result.startsWith("+");
+		}
+	}
+
+	/**
+	 * Sends a command and returns its future result.
+	 *
+	 * @param command command to send
+	 * @return future for the result of the command; fails with an
+	 *         {@link RpiException} if the command could not be sent
+	 */
+	protected CompletableFuture<String> send(DIOCommand command) {
+		if (!ready) {
+			return failed(new RpiException("Connection to RCC failed."));
+		}
+		try {
+			return writeCommand(command);
+		} catch (IOException e) {
+			return failed(new RpiException(e));
+		}
+	}
+
+	private static <T> CompletableFuture<T> failed(Throwable error) {
+		CompletableFuture<T> ret = new CompletableFuture<T>();
+		ret.completeExceptionally(error);
+		return ret;
+	}
+
+	private static void notify(CompletableFuture<String> result, final ResultListener listener) {
+		result.whenComplete((message, error) -> {
+			if (error == null) {
+				listener.onSuccess(message);
+			} else {
+				listener.onError(unwrap(error).getMessage());
 			}
-		} catch (InterruptedException ex) {
-			return false;
+		});
+	}
+
+	private static Throwable unwrap(Throwable error) {
+		if (error instanceof CompletionException && error.getCause() != null) {
+			return error.getCause();
+		}
+		return error;
+	}
+
+	private static CompletableFuture<Boolean> succeeded(CompletableFuture<String> result) {
+		return result.handle((message, error) -> error == null);
+	}
+
+	private void checkReady() throws RpiException {
+		if (!ready) {
+			throw new RpiException("Connection to RCC failed.");
 		}
 	}
 
@@ -170,10 +255,18 @@ public abstract class DIOProtocol {
 		}
 	}
 
+	public CompletableFuture<Boolean> startNetAsync(String net) {
+		return succeeded(send(new DIOCommand("nest", new DIOString(net))));
+	}
+
 	public String startNets(List<String> startNets) throws RpiException {
 		return scheduleNets("t", new ArrayList<String>(), new ArrayList<String>(), startNets);
 	}
 
+	public CompletableFuture<String> startNetsAsync(List<String> startNets) {
+		return scheduleNetsAsync("t", new ArrayList<String>(), new ArrayList<String>(), startNets);
+	}
+
 	public boolean cancelNet(String net) throws RpiException {
 		if (!ready) {
 			throw new RpiException("Connection to RCC failed.");
@@ -185,15 +278,20 @@ public abstract class DIOProtocol {
 		}
 	}
 
+	public CompletableFuture<Boolean> cancelNetAsync(String net) {
+		return succeeded(send(new DIOCommand("neca", new DIOString(net))));
+	}
+
 	public String createNet(Fragment fragment, String session, String description, boolean realtime)
 			throws RpiException {
 		if (!ready) {
 			throw new RpiException("Connection to RCC failed.");
 		}
+		if (!isReaderThread()) {
+			return await(createNetAsync(fragment, session, description, realtime));
+		}
 		try {
-			return getTagStatus(writeCommand(new DIOCommand("nene", new DIOString(NetSerializer.serialize(fragment)),
-					new DIOString(session), new DIOString(description), new DIOFloat(realtime ? 0 : 0.05),
-					new DIOInteger(realtime ? 1 : 0))));
+			return getTagStatus(writeCommand(createNetCommand(fragment, session, description, realtime)));
 		} catch (IOException e) {
 			throw new RpiException(e);
 		}
@@ -201,19 +299,90 @@ public abstract class DIOProtocol {
 
 	public void createNetAsync(Fragment fragment, String session, String description, boolean realtime,
 			ResultListener listener) throws RpiException {
-		if (!ready) {
-			throw new RpiException("Connection to RCC failed.");
-		}
+		checkReady();
+		notify(createNetAsync(fragment, session, description, realtime), listener);
+	}
+
+	/**
+	 * Creates a net without waiting for the RCC's reply. If enabled (see
+	 * {@link #setBinaryNets(boolean)}), the net is uploaded in the binary
+	 * encoding, referring to the structure of a previously uploaded net where
+	 * possible. If the RCC rejects the binary upload, the net is sent again in
+	 * the text format.
+	 *
+	 * @param fragment    net to create
+	 * @param session     session to create the net in
+	 * @param description description of the net
+	 * @param realtime    true if the net is run in realtime
+	 * @return future for the name of the created net
+	 */
+	public CompletableFuture<String> createNetAsync(Fragment fragment, String session, String description,
+			boolean realtime) {
+		if (!binaryNets) {
+			return createTextNetAsync(fragment, session, description, realtime);
+		}
+		final EncodedNet net = NetEncoder.encode(fragment);
+		final List<String> known = uploadedNets.get(net.getHash());
+		byte[] data = known == null ? net.toBytes() : net.toBytes(known);
+
+		final CompletableFuture<String> ret = new CompletableFuture<String>();
+		send(new DIOCommand("nenb", new DIOString(Base64.getEncoder().encodeToString(data)), new DIOString(session),
+				new DIOString(description), new DIOFloat(realtime ? 0 : 0.05), new DIOInteger(realtime ? 1 : 0)))
+						.whenComplete((message, error) -> {
+							if (error == null) {
+								binaryNetsSupported = true;
+								if (known == null) {
+									uploadedNets.putIfAbsent(net.getHash(), net.getParameterValues());
+								}
+								ret.complete(message);
+							} else if (!ready) {
+								ret.completeExceptionally(unwrap(error));
+							} else {
+								// structure unknown to the RCC, or binary nets not supported at all
+								uploadedNets.remove(net.getHash());
+								if (!binaryNetsSupported) {
+									binaryNets = false;
+								}
+								createTextNetAsync(fragment, session, description, realtime).whenComplete((m, e) -> {
+									if (e == null) {
+										ret.complete(m);
+									} else {
+										ret.completeExceptionally(unwrap(e));
+									}
+								});
+							}
+						});
+		return ret;
+	}
+
+	private CompletableFuture<String> createTextNetAsync(Fragment fragment, String session, String description,
+			boolean realtime) {
 		try {
-			String net = NetSerializer.serialize(fragment);
-			String tag = writeCommand(new DIOCommand("nene", new DIOString(net), new DIOString(session),
-					new DIOString(description), new DIOFloat(realtime ? 0 : 0.05), new DIOInteger(realtime ? 1 : 0)));
-			registerResultListener(tag, listener);
-		} catch (IOException e) {
-			throw new RpiException(e);
+			return send(createNetCommand(fragment, session, description, realtime));
+		} catch (RpiException e) {
+			return failed(e);
 		}
 	}
 
+	/**
+	 * Enables or disables uploading nets in the binary encoding. Binary upload
+	 * is disabled by default, as only RCCs implementing the "nenb" command
+	 * accept it (enable it with the system property
+	 * org.roboticsapi.rcc.binarynets=true). It is disabled automatically if the
+	 * RCC does not support it.
+	 *
+	 * @param binaryNets true to upload nets in the binary encoding
+	 */
+	public void setBinaryNets(boolean binaryNets) {
+		this.binaryNets = binaryNets;
+	}
+
+	private DIOCommand createNetCommand(Fragment fragment, String session, String description, boolean realtime)
+			throws RpiException {
+		return new DIOCommand("nene", new DIOString(NetSerializer.serialize(fragment)), new DIOString(session),
+				new DIOString(description), new DIOFloat(realtime ? 0 : 0.05), new DIOInteger(realtime ? 1 : 0));
+	}
+
 	public String createSession(String name) throws RpiException {
 		if (!ready) {
 			throw new RpiException("Connection to RCC failed.");
@@ -236,6 +405,10 @@ public abstract class DIOProtocol {
 		}
 	}
 
+	public CompletableFuture<Boolean> abortNetAsync(String net) {
+		return succeeded(send(new DIOCommand("neab", new DIOString(net))));
+	}
+
 	public String scheduleNets(String condition, List<String> stopNets, List<String> cancelNets, List<String> startNets)
 			throws RpiException {
 		if (!ready) {
@@ -243,20 +416,7 @@ public abstract class DIOProtocol {
 		}
 
 		try {
-			DIOString cond = new DIOString(condition);
-			DIOParameterList stop = new DIOParameterList();
-			for (String s : stopNets) {
-				stop.addParameter(new DIOString(s));
-			}
-			DIOParameterList cancel = new DIOParameterList();
-			for (String s : cancelNets) {
-				cancel.addParameter(new DIOString(s));
-			}
-			DIOParameterList start = new DIOParameterList();
-			for (String s : startNets) {
-				start.addParameter(new DIOString(s));
-			}
-			return getTagStatus(writeCommand(new DIOCommand("nesc", cond, stop, cancel, start)));
+			return getTagStatus(writeCommand(scheduleNetsCommand(condition, stopNets, cancelNets, startNets)));
 		} catch (IOException e) {
 			throw new RpiException(e);
 		}
@@ -264,42 +424,40 @@ public abstract class DIOProtocol {
 
 	public void scheduleNetsAsync(String condition, List<String> stopNets, List<String> cancelNets,
 			List<String> startNets, ResultListener listener) throws RpiException {
-		if (!ready) {
-			throw new RpiException("Connection to RCC failed.");
-		}
+		checkReady();
+		notify(scheduleNetsAsync(condition, stopNets, cancelNets, startNets), listener);
+	}
 
-		try {
-			DIOString cond = new DIOString(condition);
-			DIOParameterList stop = new DIOParameterList();
-			for (String s : stopNets) {
-				stop.addParameter(new DIOString(s));
-			}
-			DIOParameterList cancel = new DIOParameterList();
-			for (String s : cancelNets) {
-				cancel.addParameter(new DIOString(s));
-			}
-			DIOParameterList start = new DIOParameterList();
-			for (String s : startNets) {
-				start.addParameter(new DIOString(s));
-			}
-			String tag = writeCommand(new DIOCommand("nesc", cond, stop, cancel, start));
-			registerResultListener(tag, listener);
-		} catch (IOException e) {
-			throw new RpiException(e);
-		}
+	/**
+	 * Schedules nets without waiting for the RCC's reply.
+	 *
+	 * @param condition  start condition (in DIO syntax)
+	 * @param stopNets   nets to stop
+	 * @param cancelNets nets to cancel
+	 * @param startNets  nets to start
+	 * @return future for the name of the created synchronization rule
+	 */
+	public CompletableFuture<String> scheduleNetsAsync(String condition, List<String> stopNets,
+			List<String> cancelNets, List<String> startNets) {
+		return send(scheduleNetsCommand(condition, stopNets, cancelNets, startNets));
 	}
 
-	private void registerResultListener(String tag, ResultListener listener) {
-		resultListeners.put(tag, listener);
-		if (resultList.containsKey(tag)) {
-			String result = resultList.remove(tag);
-			if (result.startsWith("+")) {
-				listener.onSuccess(result.substring(1));
-			} else {
-				listener.onError(result.substring(1));
-			}
-			resultListeners.remove(tag);
+	private DIOCommand scheduleNetsCommand(String condition, List<String> stopNets, List<String> cancelNets,
+			List<String> startNets) {
+		DIOString cond = new DIOString(condition);
+		DIOParameterList stop = new DIOParameterList();
+		for (String s : stopNets) {
+			stop.addParameter(new DIOString(s));
+		}
+		DIOParameterList cancel = new DIOParameterList();
+		for (String s : cancelNets) {
+			cancel.addParameter(new DIOString(s));
 		}
+		DIOParameterList start = new DIOParameterList();
+		for (String s : startNets) {
+			start.addParameter(new DIOString(s));
+		}
+		return new DIOCommand("nesc", cond, stop, cancel, start);
 	}
 
 	public boolean unloadNet(String net) throws RpiException {
@@ -314,14 +472,12 @@ public abstract class DIOProtocol {
 	}
 
 	public void unloadNetAsync(String net, ResultListener listener) throws RpiException {
-		if (!ready) {
-			throw new RpiException("Connection to RCC failed.");
-		}
-		try {
-			registerResultListener(writeCommand(new DIOCommand("neun", new DIOString(net))), listener);
-		} catch (IOException e) {
-			throw new RpiException(e);
-		}
+		checkReady();
+		notify(unloadNetAsync(net), listener);
+	}
+
+	public CompletableFuture<String> unloadNetAsync(String net) {
+		return send(new DIOCommand("neun", new DIOString(net)));
 	}
 
 	public boolean observeDevices() throws RpiException {
@@ -329,8 +485,8 @@ public abstract class DIOProtocol {
 			throw new RpiException("Connection to RCC failed.");
 		}
 		try {
-			devicetag = writeCommand(new DIOCommand("gde"));
-			return checkTagStatus(devicetag);
+			devicetag = nextTag();
+			return checkTagStatus(writeCommand(devicetag, new DIOCommand("gde")));
 		} catch (IOException e) {
 			throw new RpiException(e);
 		}
@@ -341,15 +497,16 @@ public abstract class DIOProtocol {
 			throw new RpiException("Connection to RCC failed.");
 		}
 		try {
-			String tag;
+			String tag = nextTag();
+			CompletableFuture<String> result;
 			synchronized (netMap) {
 				if (netMap.containsValue(net)) {
 					return true;
 				}
-				tag = writeCommand(new DIOCommand("gne", new DIOString(net), new DIOFloat(frequency)));
+				result = writeCommand(tag, new DIOCommand("gne", new DIOString(net), new DIOFloat(frequency)));
 				netMap.put(tag, net);
 			}
-			boolean tagStatus = checkTagStatus(tag);
+			boolean tagStatus = checkTagStatus(result);
 			if (!tagStatus) {
 				netMap.remove(tag);
 			}
@@ -360,41 +517,43 @@ public abstract class DIOProtocol {
 	}
 
 	public void observeNetAsync(String net, double frequency, final ResultListener listener) throws RpiException {
+		checkReady();
+		CompletableFuture<String> result = observeNetAsync(net, frequency);
+		if (listener != null) {
+			notify(result, listener);
+		}
+	}
+
+	/**
+	 * Starts observing the status and netcomm values of a net without waiting
+	 * for the RCC's reply.
+	 *
+	 * @param net       net to observe
+	 * @param frequency frequency of netcomm updates
+	 * @return future completing when the net is observed
+	 */
+	public CompletableFuture<String> observeNetAsync(String net, double frequency) {
 		if (!ready) {
-			throw new RpiException("Connection to RCC failed.");
+			return failed(new RpiException("Connection to RCC failed."));
 		}
 		try {
-			String tag;
+			final String tag = nextTag();
+			CompletableFuture<String> ret;
 			synchronized (netMap) {
 				if (netMap.containsValue(net)) {
-					if (listener != null) {
-						listener.onSuccess("");
-					}
-					return;
+					return CompletableFuture.completedFuture("");
 				}
-				tag = writeCommand(new DIOCommand("gne", new DIOString(net), new DIOFloat(frequency)));
+				ret = writeCommand(tag, new DIOCommand("gne", new DIOString(net), new DIOFloat(frequency)));
 				netMap.put(tag, net);
 			}
-			final String mtag = tag;
-			ResultListener resultListener = new ResultListener() {
-				@Override
-				public void onSuccess(String result) {
-					if (listener != null) {
-						listener.onSuccess(result);
-					}
-				}
-
-				@Override
-				public void onError(String message) {
-					if (listener != null) {
-						listener.onError(message);
-					}
-					netMap.remove(mtag);
+			ret.whenComplete((result, error) -> {
+				if (error != null) {
+					netMap.remove(tag);
 				}
-			};
-			registerResultListener(tag, resultListener);
+			});
+			return ret;
 		} catch (IOException e) {
-			throw new RpiException(e);
+			return failed(new RpiException(e));
 		}
 	}
 
@@ -403,15 +562,16 @@ public abstract class DIOProtocol {
 			throw new RpiException("Connection to RCC failed.");
 		}
 		try {
-			String tag;
+			String tag = nextTag();
+			CompletableFuture<String> result;
 			synchronized (ruleMap) {
 				if (ruleMap.containsValue(rule)) {
 					return true;
 				}
-				tag = writeCommand(new DIOCommand("gsy", new DIOString(rule)));
+				result = writeCommand(tag, new DIOCommand("gsy", new DIOString(rule)));
 				ruleMap.put(tag, rule);
 			}
-			boolean tagStatus = checkTagStatus(tag);
+			boolean tagStatus = checkTagStatus(result);
 			if (!tagStatus) {
 				ruleMap.remove(tag);
 			}
@@ -422,47 +582,62 @@ public abstract class DIOProtocol {
 	}
 
 	public void observeRuleAsync(String rule, final ResultListener listener) throws RpiException {
+		checkReady();
+		CompletableFuture<String> result = observeRuleAsync(rule);
+		if (listener != null) {
+			notify(result, listener);
+		}
+	}
+
+	/**
+	 * Starts observing the status of a synchronization rule without waiting for
+	 * the RCC's reply.
+	 *
+	 * @param rule rule to observe
+	 * @return future completing when the rule is observed
+	 */
+	public CompletableFuture<String> observeRuleAsync(String rule) {
 		if (!ready) {
-			throw new RpiException("Connection to RCC failed.");
+			return failed(new RpiException("Connection to RCC failed."));
 		}
 		try {
-			String tag;
+			final String tag = nextTag();
+			CompletableFuture<String> ret;
 			synchronized (ruleMap) {
 				if (ruleMap.containsValue(rule)) {
-					if (listener != null) {
-						listener.onSuccess("");
-					}
-					return;
+					return CompletableFuture.completedFuture("");
 				}
-				tag = writeCommand(new DIOCommand("gsy", new DIOString(rule)));
+				ret = writeCommand(tag, new DIOCommand("gsy", new DIOString(rule)));
 				ruleMap.put(tag, rule);
 			}
-			final String mtag = tag;
-			ResultListener resultListener = new ResultListener() {
-				@Override
-				public void onSuccess(String result) {
-					if (listener != null) {
-						listener.onSuccess(result);
-					}
-				}
-
-				@Override
-				public void onError(String message) {
-					if (listener != null) {
-						listener.onError(message);
-					}
+			ret.whenComplete((result, error) -> {
+				if (error != null) {
 					synchronized (ruleMap) {
-						ruleMap.remove(mtag);
+						ruleMap.remove(tag);
 					}
 				}
-			};
-			registerResultListener(tag, resultListener);
+			});
+			return ret;
 		} catch (IOException e) {
-			throw new RpiException(e);
+			return failed(new RpiException(e));
 		}
 	}
 
-	protected abstract String writeCommand(DIOCommand command) throws IOException;
+	/**
+	 * Creates a new tag for a command.
+	 *
+	 * @return tag not used by any other command
+	 */
+	protected abstract String nextTag();
+
+	/**
+	 * Writes a command to the RCC.
+	 *
+	 * @param tag     tag of the command
+	 * @param command command to write
+	 * @throws IOException if the command could not be written
+	 */
+	protected abstract void write(String tag, DIOCommand command) throws IOException;
 
 	public boolean writeNetcomm(Map<String, Map<String, NetcommValue>> netcommToRPI) throws RpiException {
 
@@ -490,8 +665,7 @@ public abstract class DIOProtocol {
 			cmd.addParameter(netmap);
 
 			try {
-				String tag = writeCommand(cmd);
-				return checkTagStatus(tag);
+				return checkTagStatus(writeCommand(cmd));
 			} catch (IOException e) {
 				return false;
 			}
@@ -640,21 +814,15 @@ public abstract class DIOProtocol {
 	}
 
 	protected void setTagStatus(String token, boolean status, String message) {
-		synchronized (waitList) {
-			lastResponseTime = System.currentTimeMillis();
-			resultList.put(token, (status ? "+" : "-") + message);
-			if (waitList.containsKey(token)) {
-				waitList.get(token).release();
-			}
-			if (resultListeners.containsKey(token)) {
-				if (status) {
-					resultListeners.get(token).onSuccess(message);
-				} else {
-					resultListeners.get(token).onError(message);
-				}
-				resultListeners.remove(token);
-				resultList.remove(token);
-			}
+		// replies to unknown tags (e.g. after a timeout) are ignored
+		CompletableFuture<String> result = tagResults.remove(token);
+		if (result == null) {
+			return;
+		}
+		if (status) {
+			result.complete(message);
+		} else {
+			result.completeExceptionally(new RpiException(message));
 		}
 	}
 
@@ -29,7 +29,10 @@ import javax.swing.JPanel;
 import javax.swing.JScrollBar;
 import javax.swing.SwingUtilities;
 
+import org.roboticsapi.facet.javarcc.telemetry.TelemetryReader;
+import org.roboticsapi.facet.javarcc.telemetry.TelemetryReader.Decimation;
 import org.roboticsapi.feature.runtime.realtimercc.logviewer.LogViewerFrame.Entry;
+import org.roboticsapi.feature.runtime.realtimercc.logviewer.LogViewerFrame.TelemetryEntries;
 
 public class LogPanel extends JPanel {
 	private static final long serialVersionUID = -3273772172554930156L;
@@ -96,6 +99,10 @@ public class LogPanel extends JPanel {
 		minValue = Double.MAX_VALUE;
 		maxValue = -Double.MAX_VALUE;
 		for (List<Entry> graph : graphs) {
+			if (graph instanceof TelemetryEntries) {
+				calculateMinMax((TelemetryEntries) graph);
+				continue;
+			}
 			for (Entry e : graph) {
 				if (e.getTime() > maxTime) {
 					maxTime = e.getTime();
@@ -114,6 +121,21 @@ public class LogPanel extends JPanel {
 
 	}
 
+	private void calculateMinMax(TelemetryEntries graph) {
+		if (graph.isEmpty()) {
+			return;
+		}
+		minTime = Math.min(minTime, graph.get(0).getTime());
+		maxTime = Math.max(maxTime, graph.get(graph.size() - 1).getTime());
+		Decimation all = graph.reader.decimate(graph.column, 0, graph.reader.getRowCount(), 1);
+		if (all.getMin(0) < minValue) {
+			minValue = all.getMin(0);
+		}
+		if (all.getMax(0) > maxValue) {
+			maxValue = all.getMax(0);
+		}
+	}
+
 	public void clearGraphs() {
 		graphs.clear();
 		graphNames.clear();
@@ -142,18 +164,23 @@ public class LogPanel extends JPanel {
 		for (List<Entry> graph : graphs) {
 			vals[col] = "";
 			g.setColor(cols[col % cols.length]);
-			for (int i = 1; i < graph.size(); i++) {
-				Entry last = graph.get(i - 1);
-				Entry cur = graph.get(i);
-				double sx = scaleTime(last.getTime());
-				double sy = scaleValue(last.getValue());
-				double ex = scaleTime(cur.getTime());
-				double ey = scaleValue(cur.getValue());
-				ig.draw(new Line2D.Double(sx, sy, ex, ey));
-
-				if (sx < selX && ex >= selX) {
-					vals[col] = String.format("%+1.5f", cur.getValue());
-					ig.draw(new Ellipse2D.Double(scaleTime(cur.getTime()) - 2, scaleValue(cur.getValue()) - 2, 4, 4));
+			if (graph instanceof TelemetryEntries) {
+				vals[col] = paintTelemetry(ig, (TelemetryEntries) graph);
+			} else {
+				for (int i = 1; i < graph.size(); i++) {
+					Entry last = graph.get(i - 1);
+					Entry cur = graph.get(i);
+					double sx = scaleTime(last.getTime());
+					double sy = scaleValue(last.getValue());
+					double ex = scaleTime(cur.getTime());
+					double ey = scaleValue(cur.getValue());
+					ig.draw(new Line2D.Double(sx, sy, ex, ey));
+
+					if (sx < selX && ex >= selX) {
+						vals[col] = String.format("%+1.5f", cur.getValue());
+						ig.draw(new Ellipse2D.Double(scaleTime(cur.getTime()) - 2, scaleValue(cur.getValue()) - 2, 4,
+								4));
+					}
 				}
 			}
 			Rectangle2D.union(textBounds, ig.getFontMetrics().getStringBounds(graphNames.get(col), ig), textBounds);
@@ -181,6 +208,39 @@ public class LogPanel extends JPanel {
 
 	}
 
+	/**
+	 * Paints a telemetry column, reading only the visible rows and drawing the
+	 * minimum and maximum value for each pixel column.
+	 */
+	private String paintTelemetry(Graphics2D ig, TelemetryEntries graph) {
+		TelemetryReader reader = graph.reader;
+		long from = reader.findRow(timeAt(0)), to = reader.findRow(timeAt(getWidth())) + 1;
+		Decimation decimation = reader.decimate(graph.column, from - 1, to, getWidth());
+		for (int i = 0; i < decimation.getSize(); i++) {
+			double x = scaleTime(decimation.getTime(i));
+			double min = scaleValue(decimation.getMin(i)), max = scaleValue(decimation.getMax(i));
+			ig.draw(new Line2D.Double(x, min, x, max));
+			if (i > 0) {
+				double lastX = scaleTime(decimation.getTime(i - 1));
+				ig.draw(new Line2D.Double(lastX, scaleValue(decimation.getMin(i - 1)), x, min));
+				ig.draw(new Line2D.Double(lastX, scaleValue(decimation.getMax(i - 1)), x, max));
+			}
+		}
+
+		long sel = reader.findRow(timeAt(selX));
+		if (selX < 0 || sel >= reader.getRowCount()) {
+			return "";
+		}
+		long time = reader.getTime(sel);
+		double value = reader.getValue(graph.column, sel);
+		ig.draw(new Ellipse2D.Double(scaleTime(time) - 2, scaleValue(value) - 2, 4, 4));
+		return String.format("%+1.5f", value);
+	}
+
+	private long timeAt(double x) {
+		return minTime + (long) ((x + scroll.getValue()) / (getWidth() * scale) * (maxTime - minTime));
+	}
+
 	private double scaleValue(double value) {
 		return getHeight() - scroll.getHeight()
 				- ((value - minValue) / (maxValue - minValue) * (getHeight() - 20 - scroll.getHeight())) - 10;
@@ -23,6 +23,7 @@ import java.io.InputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.text.NumberFormat;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -43,6 +44,8 @@ import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
+import org.roboticsapi.facet.javarcc.telemetry.TelemetryReader;
+
 public class LogViewerFrame extends JFrame {
 	private static final long serialVersionUID = -7326171854209402261L;
 
@@ -64,6 +67,29 @@ public class LogViewerFrame extends JFrame {
 		}
 	}
 
+	/**
+	 * Column of a telemetry file, read on demand
+	 */
+	class TelemetryEntries extends AbstractList<Entry> {
+		final TelemetryReader reader;
+		final int column;
+
+		public TelemetryEntries(TelemetryReader reader, int column) {
+			this.reader = reader;
+			this.column = column;
+		}
+
+		@Override
+		public Entry get(int index) {
+			return new Entry(reader.getTime(index), reader.getValue(column, index));
+		}
+
+		@Override
+		public int size() {
+			return (int) Math.min(Integer.MAX_VALUE, reader.getRowCount());
+		}
+	}
+
 	Map<String, List<Entry>> data = new LinkedHashMap<String, List<Entry>>();
 	private final JList<Object> list;
 	private final LogPanel logPanel;
@@ -240,6 +266,13 @@ public class LogViewerFrame extends JFrame {
 	}
 
 	private void loadFile(File log) throws IOException {
+		if (TelemetryReader.isTelemetryFile(log)) {
+			TelemetryReader reader = new TelemetryReader(log);
+			for (int i = 0; i < reader.getColumnCount(); i++) {
+				data.put(reader.getColumnNames().get(i), new TelemetryEntries(reader, i));
+			}
+			return;
+		}
 		BufferedReader br = new BufferedReader(new FileReader(log));
 		String firstLine = br.readLine();
 		br.close();
@@ -44,12 +44,13 @@ public class RealtimeRccLogViewer {
 
 				@Override
 				public String getDescription() {
-					return "Log files (*.log)";
+					return "Log files (*.log, *.rtlm)";
 				}
 
 				@Override
 				public boolean accept(File f) {
-					return f.isDirectory() || f.getName().toLowerCase().endsWith(".log");
+					return f.isDirectory() || f.getName().toLowerCase().endsWith(".log")
+							|| f.getName().toLowerCase().endsWith(".rtlm");
 				}
 			});
 			if (fc.showOpenDialog(null) != JFileChooser.APPROVE_OPTION) {
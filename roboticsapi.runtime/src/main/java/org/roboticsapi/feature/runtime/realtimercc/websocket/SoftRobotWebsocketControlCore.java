@@ -393,7 +393,14 @@ public class SoftRobotWebsocketControlCore implements ControlCore, ProtocolCallb
 
 		SoftRobotSynchronizationRule ret = new SoftRobotSynchronizationRule();
 		rules.put(rule, ret);
-		dataProtocol.observeRule(rule);
+		// status updates are reported once the rule is observed, so there is no
+		// need to wait for another round trip here
+		final String ruleName = rule;
+		dataProtocol.observeRuleAsync(rule).whenComplete((result, error) -> {
+			if (error != null) {
+				setRuleStatus(ruleName, SynchronizationRuleStatus.INVALID);
+			}
+		});
 		return ret;
 	}
 
@@ -19,6 +19,7 @@ import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.concurrent.CompletableFuture;
 
 import org.roboticsapi.core.util.RAPILogger;
 import org.roboticsapi.facet.runtime.rpi.RpiException;
@@ -77,9 +78,9 @@ public class WebsocketProtocol extends DIOProtocol {
 		try {
 			DIOCommand ver = new DIOCommand("ver");
 			ver.addParameter(new DIOString(DIO_VERSION));
-			String tag = writeCommand(ver);
+			CompletableFuture<String> result = writeCommand(ver);
 			readOne();
-			if (!checkTagStatus(tag)) {
+			if (!checkTagStatus(result)) {
 				return false;
 			}
 
@@ -113,6 +114,7 @@ public class WebsocketProtocol extends DIOProtocol {
 		} catch (IOException e) {
 		} catch (InterruptedException e) {
 		}
+		failPendingCommands("Connection to " + url + " closed.");
 	}
 
 	private int cmdNr = 0;
@@ -123,11 +125,13 @@ public class WebsocketProtocol extends DIOProtocol {
 	}
 
 	@Override
-	protected String writeCommand(DIOCommand command) throws IOException {
-		String tag = "c" + nextCmdNr();
+	protected String nextTag() {
+		return "c" + nextCmdNr();
+	}
 
+	@Override
+	protected void write(String tag, DIOCommand command) throws IOException {
 		writeWebsocket(1, tag + "=" + command.toString());
-		return tag;
 	}
 
 	private synchronized void writeWebsocket(int opcode, String data) throws IOException {
@@ -229,6 +233,7 @@ public class WebsocketProtocol extends DIOProtocol {
 				case 8: // CLOSE
 					writeWebsocket(8, new String(data));
 					ready = false;
+					failPendingCommands("Connection to " + url + " closed.");
 					return;
 				case 9: // PING
 					writeWebsocket(10, new String(data));
@@ -247,14 +252,16 @@ public class WebsocketProtocol extends DIOProtocol {
 			if (ready) {
 				RAPILogger.getLogger(this).warning("Connection to " + url + " lost.");
 				ready = false;
+				failPendingCommands("Connection to " + url + " lost.");
 			}
 		}
 	}
 
 	public void ping() throws IOException {
 		String tag = "p" + cmdNr++;
+		CompletableFuture<String> result = expectReply(tag);
 		writeWebsocket(9, tag);
-		if (!checkTagStatus(tag, 10)) {
+		if (!checkTagStatus(result, 10)) {
 			throw new IOException("Connection lost.");
 		}
 	}
@@ -0,0 +1,85 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.feature.runtime.javarcc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.roboticsapi.core.CommandHandle;
+import org.roboticsapi.core.CommandResult;
+import org.roboticsapi.core.WaitCommand;
+import org.roboticsapi.core.exception.RoboticsException;
+import org.roboticsapi.facet.runtime.rcc.RccRuntime;
+import org.roboticsapi.feature.startup.launcher.DefaultRapi;
+import org.roboticsapi.feature.startup.launcher.Rapi;
+
+public class JavaRccParallelExecutorTest {
+
+	private Rapi rapi;
+	private RccRuntime runtime;
+
+	@Before
+	public void setup() throws RoboticsException {
+		rapi = DefaultRapi.createNewEmpty();
+		JavaRcc rcc = new JavaRcc();
+		rcc.setExecutorThreads(4);
+		runtime = new RccRuntime();
+		runtime.setRcc(rcc);
+		rapi.add(runtime);
+	}
+
+	@After
+	public void teardown() {
+		rapi.destroy();
+	}
+
+	@Test
+	public void testParallelExecutorCompletesConcurrentCommands() throws RoboticsException {
+		List<CommandHandle> handles = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			WaitCommand command = runtime.createWaitCommand(0.3);
+			handles.add(command.start());
+		}
+		for (CommandHandle handle : handles)
+			handle.waitComplete();
+	}
+
+	@Test
+	public void testSchedulingRulesFireWithParallelWorkers() throws RoboticsException {
+		List<CommandHandle> handles = new ArrayList<>();
+		for (int i = 0; i < 4; i++)
+			handles.add(runtime.createWaitCommand(0.5).start());
+
+		WaitCommand first = runtime.createWaitCommand(10);
+		CommandResult takeover = first.addTakeoverResult("Takeover",
+				first.getCommandExecutionTime().greater(0.2), false);
+		WaitCommand second = runtime.createWaitCommand(0.1);
+		long start = System.currentTimeMillis();
+		CommandHandle firstHandle = first.start();
+		CommandHandle secondHandle = second.scheduleAfter(takeover);
+		secondHandle.waitComplete();
+
+		Assert.assertTrue("The scheduled command should start after the first one",
+				System.currentTimeMillis() - start >= 250);
+		firstHandle.waitComplete();
+		Assert.assertTrue("The first command should have been taken over",
+				System.currentTimeMillis() - start < 5000);
+		for (CommandHandle handle : handles)
+			handle.waitComplete();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testExecutorThreadsMustBePositive() {
+		new JavaRcc().setExecutorThreads(0);
+	}
+
+}
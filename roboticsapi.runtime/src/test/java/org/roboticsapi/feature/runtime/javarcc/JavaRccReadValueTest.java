@@ -0,0 +1,75 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.feature.runtime.javarcc;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.roboticsapi.core.exception.RoboticsException;
+import org.roboticsapi.core.realtimevalue.RealtimeValueReadException;
+import org.roboticsapi.core.realtimevalue.realtimedouble.RealtimeDouble;
+import org.roboticsapi.core.realtimevalue.realtimedouble.WritableRealtimeDouble;
+import org.roboticsapi.facet.runtime.rcc.RccRuntime;
+import org.roboticsapi.feature.startup.launcher.DefaultRapi;
+import org.roboticsapi.feature.startup.launcher.Rapi;
+
+public class JavaRccReadValueTest {
+
+	private Rapi rapi;
+	private JavaRcc rcc;
+	private RccRuntime runtime;
+
+	@Before
+	public void setup() throws RoboticsException {
+		rapi = DefaultRapi.createNewEmpty();
+		rcc = new JavaRcc();
+		runtime = new RccRuntime();
+		runtime.setRcc(rcc);
+		rapi.add(runtime);
+	}
+
+	@After
+	public void teardown() {
+		rapi.destroy();
+	}
+
+	@Test
+	public void testRepeatedReadsFollowWrittenValue() throws RealtimeValueReadException {
+		WritableRealtimeDouble input = RealtimeDouble.createWritable(1);
+		RealtimeDouble value = input.multiply(2);
+
+		Assert.assertEquals(2, runtime.getRealtimeValue(value), 1e-9);
+		Assert.assertEquals(2, runtime.getRealtimeValue(value), 1e-9);
+		input.setValue(3d);
+		Assert.assertEquals(6, runtime.getRealtimeValue(value), 1e-9);
+	}
+
+	@Test
+	public void testReadMultipleValues() throws RealtimeValueReadException {
+		WritableRealtimeDouble input = RealtimeDouble.createWritable(2);
+		List<Object> values = runtime.getRealtimeValues(Arrays.asList(input.add(1), input.multiply(3), input));
+
+		Assert.assertEquals(Arrays.asList(3d, 6d, 2d), values);
+	}
+
+	@Test
+	public void testRepeatedReadsReuseTheNet() throws RealtimeValueReadException {
+		WritableRealtimeDouble input = RealtimeDouble.createWritable(1);
+		RealtimeDouble value = input.add(1);
+
+		for (int i = 0; i < 10; i++) {
+			Assert.assertEquals(2, runtime.getRealtimeValue(value), 1e-9);
+		}
+		Assert.assertEquals(1, rcc.getControlCore().getEvalNetCount());
+	}
+
+}
@@ -0,0 +1,156 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.feature.runtime.javarcc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.roboticsapi.core.RealtimeValue;
+import org.roboticsapi.core.RealtimeValueListener;
+import org.roboticsapi.core.RealtimeValueListenerRegistration;
+import org.roboticsapi.core.RoboticsRuntime;
+import org.roboticsapi.core.exception.RoboticsException;
+import org.roboticsapi.core.realtimevalue.realtimedouble.RealtimeDouble;
+import org.roboticsapi.core.realtimevalue.realtimedouble.WritableRealtimeDouble;
+import org.roboticsapi.facet.runtime.rcc.RccRuntime;
+import org.roboticsapi.facet.runtime.rpi.mapping.TypedRealtimeValueAliasFactory;
+import org.roboticsapi.feature.startup.launcher.DefaultRapi;
+import org.roboticsapi.feature.startup.launcher.Rapi;
+
+public class JavaRccSensorListenerShardTest {
+
+	/**
+	 * Runtime-less value bound to a runtime, as only values of the runtime can be
+	 * observed and removed again
+	 */
+	private static class RuntimeRealtimeDouble extends RealtimeDouble {
+		private final RealtimeDouble value;
+
+		public RuntimeRealtimeDouble(RealtimeDouble value, RoboticsRuntime runtime) {
+			super(runtime);
+			this.value = value;
+		}
+
+		@Override
+		public boolean isAvailable() {
+			return true;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj == this;
+		}
+	}
+
+	private Rapi rapi;
+	private RccRuntime runtime;
+	private WritableRealtimeDouble writable;
+	private RealtimeDouble input;
+
+	@Before
+	public void setup() throws RoboticsException {
+		rapi = DefaultRapi.createNewEmpty();
+		runtime = new RccRuntime();
+		runtime.setRcc(new JavaRcc());
+		runtime.setSensorListenerShardSize(2);
+		rapi.add(runtime);
+		writable = RealtimeDouble.createWritable(1);
+		input = new RuntimeRealtimeDouble(writable, runtime);
+		runtime.getMapperRegistry().registerRealtimeValueMapper(
+				new TypedRealtimeValueAliasFactory<Double, RuntimeRealtimeDouble>(RuntimeRealtimeDouble.class) {
+					@Override
+					protected RealtimeValue<Double> createAlias(RuntimeRealtimeDouble value) {
+						return value.value;
+					}
+				});
+	}
+
+	@After
+	public void teardown() {
+		rapi.destroy();
+	}
+
+	private List<RealtimeValueListenerRegistration<?>> register(RealtimeValueListener<Double> listener,
+			RealtimeDouble... values) {
+		List<RealtimeValueListenerRegistration<?>> ret = new ArrayList<RealtimeValueListenerRegistration<?>>();
+		for (RealtimeDouble value : values) {
+			ret.add(new RealtimeValueListenerRegistration<Double>(value, listener));
+		}
+		return ret;
+	}
+
+	private static void awaitValue(List<Double> values, double value) throws InterruptedException {
+		for (int i = 0; i < 500 && !values.contains(value); i++) {
+			Thread.sleep(10);
+		}
+		Assert.assertTrue("Expected value " + value + " in " + values, values.contains(value));
+	}
+
+	@Test
+	public void testValuesAddedTogetherAreSplitIntoShards() throws RoboticsException {
+		RealtimeValueListener<Double> listener = value -> {
+		};
+		runtime.addRelatimeValueListeners(
+				register(listener, input.add(1), input.add(2), input.add(3), input.add(4), input.add(5)));
+		Assert.assertEquals(3, runtime.getObserverCommandCount());
+
+		runtime.addRelatimeValueListeners(register(listener, input.add(6)));
+		Assert.assertEquals(4, runtime.getObserverCommandCount());
+
+		runtime.addRelatimeValueListeners(register(value -> {
+		}, input.add(6)));
+		Assert.assertEquals(4, runtime.getObserverCommandCount());
+	}
+
+	@Test
+	public void testEmptyShardsAreCancelled() throws RoboticsException {
+		RealtimeValueListener<Double> listener = value -> {
+		};
+		List<RealtimeValueListenerRegistration<?>> first = register(listener, input.add(1));
+		runtime.addRelatimeValueListeners(first);
+		runtime.addRelatimeValueListeners(register(listener, input.add(2)));
+		Assert.assertEquals(2, runtime.getObserverCommandCount());
+
+		runtime.removeRealtimeValueListeners(first);
+		Assert.assertEquals(1, runtime.getObserverCommandCount());
+	}
+
+	@Test
+	public void testReaddedValueIsObservedOnlyOnce() throws RoboticsException, InterruptedException {
+		runtime.setSensorListenerShardSize(3);
+		RealtimeDouble value = input.multiply(10);
+		List<Double> firstValues = Collections.synchronizedList(new ArrayList<Double>());
+		List<RealtimeValueListenerRegistration<?>> first = register(firstValues::add, value, input.add(1),
+				input.add(2));
+		runtime.addRelatimeValueListeners(first);
+		first = first.subList(0, 1);
+		runtime.addRelatimeValueListeners(register(v -> {
+		}, input.add(3), input.add(4), input.add(5)));
+		Assert.assertEquals(2, runtime.getObserverCommandCount());
+		awaitValue(firstValues, 10);
+
+		// the shard still observes the value, as it is not compacted yet
+		runtime.removeRealtimeValueListeners(first);
+		Assert.assertEquals(2, runtime.getObserverCommandCount());
+
+		List<Double> values = Collections.synchronizedList(new ArrayList<Double>());
+		runtime.addRelatimeValueListeners(register(values::add, value));
+		Assert.assertEquals(2, runtime.getObserverCommandCount());
+
+		// the new listener gets the last value without the value changing
+		Assert.assertEquals(Collections.singletonList(10d), values);
+		Thread.sleep(200);
+		Assert.assertEquals(Collections.singletonList(10d), values);
+	}
+
+}
@@ -0,0 +1,193 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.feature.runtime.netoptimizer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.roboticsapi.facet.runtime.rpi.Fragment;
+import org.roboticsapi.facet.runtime.rpi.FragmentInPort;
+import org.roboticsapi.facet.runtime.rpi.FragmentOutPort;
+import org.roboticsapi.facet.runtime.rpi.OutPort;
+import org.roboticsapi.facet.runtime.rpi.Primitive;
+import org.roboticsapi.facet.runtime.rpi.RpiException;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.BooleanValue;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.Clock;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleAdd;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleConditional;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleMultiply;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleNetcommOut;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleValue;
+import org.roboticsapi.facet.runtime.rpi.world.primitives.FrameFromPosRot;
+import org.roboticsapi.facet.runtime.rpi.world.primitives.FrameTransform;
+import org.roboticsapi.facet.runtime.rpi.world.primitives.FrameValue;
+import org.roboticsapi.facet.runtime.rpi.world.types.RPIFrame;
+
+public class NetOptimizerTest {
+
+	private static <T extends Primitive> T find(Fragment net, Class<T> type) {
+		T ret = null;
+		for (Primitive p : net.getPrimitives()) {
+			if (type.isInstance(p)) {
+				assertEquals(null, ret);
+				ret = type.cast(p);
+			}
+		}
+		return ret;
+	}
+
+	@Test
+	public void testConstantChainIsFolded() throws RpiException {
+		Fragment net = new Fragment();
+		DoubleValue value = net.add(new DoubleValue(2d));
+		DoubleAdd add = net.add(new DoubleAdd(0d, 3d));
+		add.getInFirst().connectTo(value.getOutValue());
+		DoubleMultiply mul = net.add(new DoubleMultiply(0d, 4d));
+		mul.getInFirst().connectTo(add.getOutValue());
+		DoubleNetcommOut out = net.add(new DoubleNetcommOut("result"));
+		out.getInValue().connectTo(mul.getOutValue());
+
+		NetOptimizer.optimize(net);
+
+		assertEquals(2, net.getPrimitives().size());
+		DoubleValue result = find(net, DoubleValue.class);
+		assertEquals(20, result.getValue().getValue().get(), 0);
+		assertSame(result.getOutValue(), out.getInValue().getConnectedPort());
+	}
+
+	@Test
+	public void testUnusedPrimitivesAreRemoved() throws RpiException {
+		Fragment net = new Fragment();
+		Clock clock = net.add(new Clock(1d));
+		DoubleAdd unused = net.add(new DoubleAdd(0d, 3d));
+		unused.getInFirst().connectTo(clock.getOutValue());
+		net.add(new DoubleValue(5d));
+		DoubleNetcommOut out = net.add(new DoubleNetcommOut("unconnected"));
+
+		NetOptimizer.optimize(net);
+
+		assertEquals(1, net.getPrimitives().size());
+		assertSame(out, net.getPrimitives().get(0));
+	}
+
+	@Test
+	public void testFragmentOutPortsKeepPrimitivesAlive() throws RpiException {
+		Fragment net = new Fragment();
+		Clock clock = net.add(new Clock(1d));
+		DoubleAdd add = net.add(new DoubleAdd(0d, 3d));
+		add.getInFirst().connectTo(clock.getOutValue());
+		FragmentOutPort port = net.provideOutPort(add.getOutValue(), "outValue");
+
+		NetOptimizer.optimize(net);
+
+		assertEquals(2, net.getPrimitives().size());
+		assertSame(add.getOutValue(), port.getInnerPort());
+	}
+
+	@Test
+	public void testEqualPrimitivesAreMerged() throws RpiException {
+		Fragment net = new Fragment();
+		Clock clock = net.add(new Clock(1d));
+		DoubleAdd first = net.add(new DoubleAdd(0d, 3d));
+		first.getInFirst().connectTo(clock.getOutValue());
+		DoubleAdd second = net.add(new DoubleAdd(0d, 3d));
+		second.getInFirst().connectTo(clock.getOutValue());
+		DoubleAdd other = net.add(new DoubleAdd(0d, 3d));
+		other.getInSecond().connectTo(clock.getOutValue());
+		DoubleNetcommOut out1 = net.add(new DoubleNetcommOut("first"));
+		out1.getInValue().connectTo(first.getOutValue());
+		DoubleNetcommOut out2 = net.add(new DoubleNetcommOut("second"));
+		out2.getInValue().connectTo(second.getOutValue());
+		DoubleNetcommOut out3 = net.add(new DoubleNetcommOut("other"));
+		out3.getInValue().connectTo(other.getOutValue());
+
+		NetOptimizer.optimize(net);
+
+		assertSame(out1.getInValue().getConnectedPort(), out2.getInValue().getConnectedPort());
+		assertTrue(out1.getInValue().getConnectedPort() != out3.getInValue().getConnectedPort());
+		assertEquals(6, net.getPrimitives().size());
+	}
+
+	@Test
+	public void testConditionalWithConstantCondition() throws RpiException {
+		Fragment net = new Fragment();
+		Clock clock = net.add(new Clock(1d));
+		BooleanValue condition = net.add(new BooleanValue(true));
+		DoubleConditional conditional = net.add(new DoubleConditional(1d, 2d));
+		conditional.getInCondition().connectTo(condition.getOutValue());
+		conditional.getInTrue().connectTo(clock.getOutValue());
+		DoubleNetcommOut out = net.add(new DoubleNetcommOut("result"));
+		out.getInValue().connectTo(conditional.getOutValue());
+
+		NetOptimizer.optimize(net);
+
+		assertEquals(2, net.getPrimitives().size());
+		assertSame(clock.getOutValue(), out.getInValue().getConnectedPort());
+	}
+
+	@Test
+	public void testFrameTransformIsFolded() throws RpiException {
+		Fragment net = new Fragment();
+		FrameFromPosRot first = net.add(new FrameFromPosRot(1d, 0d, 0d, Math.PI / 2, 0d, 0d));
+		FrameValue second = net.add(new FrameValue(new RPIFrame(1, 0, 0, 0, 0, 0)));
+		FrameTransform transform = net.add(new FrameTransform());
+		transform.getInFirst().connectTo(first.getOutValue());
+		transform.getInSecond().connectTo(second.getOutValue());
+		OutPort result = transform.getOutValue();
+		net.provideOutPort(result, "outFrame");
+
+		NetOptimizer.optimize(net);
+
+		assertEquals(1, net.getPrimitives().size());
+		RPIFrame frame = find(net, FrameValue.class).getValue().getValue();
+		assertEquals(1, frame.get(0), 1e-9);
+		assertEquals(1, frame.get(1), 1e-9);
+		assertEquals(Math.PI / 2, frame.get(3), 1e-9);
+	}
+
+	@Test
+	public void testNestedFragmentsAreFlattened() throws RpiException {
+		Fragment net = new Fragment();
+		Clock clock = net.add(new Clock(1d));
+		DoubleNetcommOut out = net.add(new DoubleNetcommOut("result"));
+		Fragment outer = net.add(new Fragment());
+		FragmentInPort outerTime = outer.addInPort("inTime");
+		outerTime.connectTo(clock.getOutValue());
+		Fragment inner = outer.add(new Fragment());
+		FragmentInPort innerTime = inner.addInPort("inTime");
+		innerTime.connectTo(outerTime.getInternalOutPort());
+		DoubleAdd add = inner.add(new DoubleAdd(0d, 3d));
+		add.getInFirst().connectTo(innerTime.getInternalOutPort());
+		out.getInValue().connectTo(
+				outer.provideOutPort(inner.provideOutPort(add.getOutValue(), "outValue"), "outValue"));
+
+		NetOptimizer.optimize(net);
+
+		assertEquals(3, net.getPrimitives().size());
+		assertSame(add.getOutValue(), out.getInValue().getConnectedPort());
+		assertSame(clock.getOutValue(), add.getInFirst().getConnectedPort());
+	}
+
+	@Test
+	public void testActivePrimitivesAreNotFolded() throws RpiException {
+		Fragment net = new Fragment();
+		Clock clock = net.add(new Clock(1d));
+		FrameFromPosRot frame = net.add(new FrameFromPosRot(1d, 0d, 0d, 0d, 0d, 0d));
+		BooleanValue active = net.add(new BooleanValue(true));
+		frame.getInActive().connectTo(active.getOutValue());
+		net.provideOutPort(frame.getOutValue(), "outFrame");
+		net.provideOutPort(clock.getOutValue(), "outTime");
+
+		NetOptimizer.optimize(net);
+
+		assertEquals(3, net.getPrimitives().size());
+	}
+
+}
@@ -0,0 +1,231 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.feature.runtime.realtimercc.dioprotocol;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.roboticsapi.facet.runtime.rpi.DeviceStatus;
+import org.roboticsapi.facet.runtime.rpi.EncodedNet;
+import org.roboticsapi.facet.runtime.rpi.Fragment;
+import org.roboticsapi.facet.runtime.rpi.NetDecoder;
+import org.roboticsapi.facet.runtime.rpi.NetStatus;
+import org.roboticsapi.facet.runtime.rpi.NetSynchronizationRule.SynchronizationRuleStatus;
+import org.roboticsapi.facet.runtime.rpi.RpiException;
+import org.roboticsapi.facet.runtime.rpi.RpiParameters;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleAdd;
+import org.roboticsapi.facet.runtime.rpi.core.primitives.DoubleNetcommOut;
+import org.roboticsapi.facet.runtime.rpi.core.types.RPIdouble;
+
+public class DIOProtocolTest {
+
+	private static class RecordingProtocol extends DIOProtocol {
+		private final List<String> commands = new ArrayList<String>();
+		private int nr = 0;
+		/** message to reply with while the command is written, or null */
+		private String immediateReply = null;
+
+		public RecordingProtocol() throws RpiException {
+			super(new NullCallback(), "test");
+			ready = true;
+		}
+
+		@Override
+		protected synchronized String nextTag() {
+			return "c" + nr++;
+		}
+
+		@Override
+		protected synchronized void write(String tag, DIOCommand command) throws IOException {
+			commands.add(tag + "=" + command);
+			if (immediateReply != null) {
+				reply(tag, true, immediateReply);
+			}
+		}
+
+		public byte[] binaryNet(int nr) {
+			String command = commands.get(nr);
+			assertTrue(command.startsWith("c" + nr + "=nenb(\""));
+			int start = command.indexOf('"') + 1;
+			return Base64.getDecoder().decode(command.substring(start, command.indexOf('"', start)));
+		}
+
+		public void reply(String tag, boolean ok, String message) {
+			parseDirectIO(tag + "=" + (ok ? "ok" : "err") + "(\"" + message + "\")");
+		}
+
+		@Override
+		public boolean isReaderThread() {
+			return false;
+		}
+	}
+
+	private static class NullCallback implements DIOProtocol.ProtocolCallback {
+		@Override
+		public void deviceAdded(String name, String type, Map<String, RpiParameters> interfaces) {
+		}
+
+		@Override
+		public void deviceRemoved(String name) {
+		}
+
+		@Override
+		public void deviceStatusChanged(String name, DeviceStatus status) {
+		}
+
+		@Override
+		public void setNetStatus(String net, NetStatus status) {
+		}
+
+		@Override
+		public void setRuleStatus(String rule, SynchronizationRuleStatus status) {
+		}
+
+		@Override
+		public void setNetcommValue(String net, String netcomm, String value) {
+		}
+
+		@Override
+		public void notifyNetcommUpdated() {
+		}
+	}
+
+	private RecordingProtocol protocol;
+
+	@Before
+	public void setup() throws RpiException {
+		protocol = new RecordingProtocol();
+	}
+
+	@Test
+	public void testCommandsArePipelined() throws Exception {
+		CompletableFuture<String> first = protocol.unloadNetAsync("a");
+		CompletableFuture<Boolean> second = protocol.startNetAsync("b");
+		CompletableFuture<String> third = protocol.scheduleNetsAsync("t", Arrays.asList("a"),
+				new ArrayList<String>(), Arrays.asList("b"));
+
+		// all commands are sent before any reply arrives
+		assertEquals(3, protocol.commands.size());
+		assertEquals("c2=nesc(\"t\",[\"a\"],[],[\"b\"])", protocol.commands.get(2));
+
+		// replies arrive out of order
+		protocol.reply("c2", true, "rule");
+		protocol.reply("c1", false, "unknown net");
+		assertFalse(first.isDone());
+		protocol.reply("c0", true, "unloaded");
+
+		assertEquals("unloaded", first.get());
+		assertFalse(second.get());
+		assertEquals("rule", third.get());
+	}
+
+	@Test
+	public void testReplyBeforeWaiting() throws Exception {
+		protocol.immediateReply = "session";
+		assertEquals("session", protocol.createSession("app"));
+	}
+
+	@Test
+	public void testRepliesToUnknownTagsAreIgnored() throws Exception {
+		protocol.reply("c0", true, "stale");
+		CompletableFuture<String> result = protocol.unloadNetAsync("a");
+		assertFalse(result.isDone());
+
+		protocol.failPendingCommands("lost");
+		protocol.reply("c0", true, "late");
+		assertTrue(result.isCompletedExceptionally());
+	}
+
+	@Test
+	public void testErrorsAreReportedAsRpiException() throws Exception {
+		CompletableFuture<String> result = protocol.unloadNetAsync("a");
+		protocol.reply("c0", false, "no such net");
+		try {
+			result.get();
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof RpiException);
+			assertEquals("no such net", e.getCause().getMessage());
+		}
+	}
+
+	@Test
+	public void testPendingCommandsFailWhenConnectionIsLost() throws Exception {
+		CompletableFuture<String> result = protocol.unloadNetAsync("a");
+		protocol.failPendingCommands("lost");
+		assertTrue(result.isCompletedExceptionally());
+
+		protocol.ready = false;
+		assertTrue(protocol.unloadNetAsync("a").isCompletedExceptionally());
+	}
+
+	private static Fragment createNet(double value) throws RpiException {
+		Fragment net = new Fragment();
+		DoubleAdd add = net.add(new DoubleAdd(value, 1d));
+		DoubleNetcommOut out = net.add(new DoubleNetcommOut("result"));
+		out.getInValue().connectTo(add.getOutValue());
+		return net;
+	}
+
+	@Test
+	public void testNetsAreSentAsTextByDefault() throws Exception {
+		protocol.createNetAsync(createNet(1), "s", "net", true);
+		assertEquals(1, protocol.commands.size());
+		assertTrue(protocol.commands.get(0).startsWith("c0=nene("));
+	}
+
+	@Test
+	public void testBinaryNetsReferToKnownStructure() throws Exception {
+		protocol.setBinaryNets(true);
+		CompletableFuture<String> first = protocol.createNetAsync(createNet(1), "s", "first", true);
+		protocol.reply("c0", true, "net1");
+		assertEquals("net1", first.get());
+		CompletableFuture<String> second = protocol.createNetAsync(createNet(2), "s", "second", true);
+		protocol.reply("c1", true, "net2");
+		assertEquals("net2", second.get());
+
+		Map<String, EncodedNet> known = new HashMap<String, EncodedNet>();
+		Fragment firstNet = NetDecoder.decode(protocol.binaryNet(0), known);
+		Fragment secondNet = NetDecoder.decode(protocol.binaryNet(1), known);
+		assertTrue(protocol.binaryNet(1).length < protocol.binaryNet(0).length);
+		assertEquals(2, secondNet.getPrimitives().size());
+		assertEquals(new RPIdouble(1).toString(),
+				firstNet.getPrimitives().get(0).getParameters().get(0).getValue().toString());
+		assertEquals(new RPIdouble(2).toString(),
+				secondNet.getPrimitives().get(0).getParameters().get(0).getValue().toString());
+	}
+
+	@Test
+	public void testBinaryNetsFallBackToText() throws Exception {
+		protocol.setBinaryNets(true);
+		CompletableFuture<String> result = protocol.createNetAsync(new Fragment(), "s", "first", true);
+		protocol.reply("c0", false, "unknown command");
+		assertEquals(2, protocol.commands.size());
+		assertTrue(protocol.commands.get(1).startsWith("c1=nene("));
+		protocol.reply("c1", true, "net1");
+		assertEquals("net1", result.get());
+
+		protocol.createNetAsync(new Fragment(), "s", "second", true);
+		assertTrue(protocol.commands.get(2).startsWith("c2=nene("));
+	}
+
+}
@@ -146,6 +146,23 @@ public interface VisualizationClientScene {
 	void updateTransformation(int from, int to, double x, double y, double z, double a, double b, double c)
 			throws Exception;
 
+	/**
+	 * Updates the transformations of multiple nodes at once (relative to their
+	 * parent nodes).
+	 * 
+	 * @param ids  the ids of the parent and child frame of each updated relation
+	 *             (two entries per relation)
+	 * @param data the translation in X, Y, Z and the rotation around Z, Y, X of
+	 *             each updated relation (six entries per relation)
+	 * @throws Exception if an exception occurs.
+	 */
+	default void updateTransformations(int[] ids, double[] data) throws Exception {
+		for (int i = 0; i < ids.length / 2; i++) {
+			updateTransformation(ids[2 * i], ids[2 * i + 1], data[6 * i], data[6 * i + 1], data[6 * i + 2],
+					data[6 * i + 3], data[6 * i + 4], data[6 * i + 5]);
+		}
+	}
+
 	public double getTransparency(int id) throws Exception;
 
 	public double[] getColor(int id) throws Exception;
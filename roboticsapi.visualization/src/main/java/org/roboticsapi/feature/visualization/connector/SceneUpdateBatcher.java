@@ -0,0 +1,203 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.feature.visualization.connector;
+
+import java.rmi.UnmarshalException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.roboticsapi.feature.visualization.VisualizationClientScene;
+
+/**
+ * Collects transformation updates for a {@link VisualizationClientScene} and
+ * sends the latest transformation of all changed relations in one
+ * {@link VisualizationClientScene#updateTransformations(int[], double[])}
+ * call when flushed. Changes below a threshold (compared to the transformation
+ * sent last) are not sent at all.
+ *
+ * Relations are added and removed through the batcher, so that no update is
+ * sent for a relation that has already been removed from the scene. If the
+ * scene does not support batched updates (an older remote client), updates
+ * are sent one by one.
+ */
+public class SceneUpdateBatcher {
+
+	private final VisualizationClientScene scene;
+	private final double threshold;
+
+	/** serializes all calls to the scene */
+	private final Object sceneLock = new Object();
+	/** latest transformation of each changed relation, not sent yet */
+	private Map<Long, double[]> pending = new LinkedHashMap<>();
+	/** transformation of each known relation sent last */
+	private final Map<Long, double[]> sent = new HashMap<>();
+	private boolean batchSupported = true;
+
+	/**
+	 * Creates a batcher
+	 *
+	 * @param scene     scene to update
+	 * @param threshold minimum change of translation (in m) or rotation (in rad)
+	 *                  to send an update
+	 */
+	public SceneUpdateBatcher(VisualizationClientScene scene, double threshold) {
+		this.scene = scene;
+		this.threshold = threshold;
+	}
+
+	private static long key(int from, int to) {
+		return ((long) from << 32) | (to & 0xffffffffL);
+	}
+
+	/**
+	 * Adds a relation to the scene
+	 *
+	 * @param from the id of the parent frame
+	 * @param to   the id of the child frame
+	 * @param data the translation in X, Y, Z and the rotation around Z, Y, X
+	 * @throws Exception if the scene could not be updated
+	 */
+	public void addRelation(int from, int to, double... data) throws Exception {
+		synchronized (sceneLock) {
+			scene.addRelation(from, to, data[0], data[1], data[2], data[3], data[4], data[5]);
+			synchronized (this) {
+				sent.put(key(from, to), data);
+			}
+		}
+	}
+
+	/**
+	 * Records a new transformation of a relation. Updates of unknown relations
+	 * are ignored.
+	 *
+	 * @param from the id of the parent frame
+	 * @param to   the id of the child frame
+	 * @param data the translation in X, Y, Z and the rotation around Z, Y, X
+	 */
+	public synchronized void update(int from, int to, double... data) {
+		long key = key(from, to);
+		double[] last = sent.get(key);
+		if (last == null) {
+			return;
+		}
+		if (!exceedsThreshold(last, data)) {
+			pending.remove(key);
+			return;
+		}
+		pending.put(key, data);
+	}
+
+	/**
+	 * Removes a relation from the scene, discarding its pending updates
+	 *
+	 * @param from the id of the parent frame
+	 * @param to   the id of the child frame
+	 * @throws Exception if the scene could not be updated
+	 */
+	public void removeRelation(int from, int to) throws Exception {
+		synchronized (sceneLock) {
+			synchronized (this) {
+				long key = key(from, to);
+				pending.remove(key);
+				sent.remove(key);
+			}
+			scene.removeRelation(from, to);
+		}
+	}
+
+	private boolean exceedsThreshold(double[] last, double[] data) {
+		for (int i = 0; i < data.length; i++) {
+			if (!(Math.abs(data[i] - last[i]) < threshold)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Sends all pending updates to the scene
+	 *
+	 * @return number of updated relations
+	 * @throws Exception if the scene could not be updated
+	 */
+	public int flush() throws Exception {
+		synchronized (sceneLock) {
+			Map<Long, double[]> updates;
+			synchronized (this) {
+				if (pending.isEmpty()) {
+					return 0;
+				}
+				updates = pending;
+				pending = new LinkedHashMap<>();
+			}
+
+			int[] ids = new int[updates.size() * 2];
+			double[] data = new double[updates.size() * 6];
+			int i = 0;
+			for (Entry<Long, double[]> update : updates.entrySet()) {
+				ids[2 * i] = (int) (update.getKey() >> 32);
+				ids[2 * i + 1] = (int) (long) update.getKey();
+				System.arraycopy(update.getValue(), 0, data, 6 * i, 6);
+				i++;
+			}
+
+			try {
+				send(ids, data);
+			} catch (Exception e) {
+				// keep the updates that have not been replaced meanwhile
+				synchronized (this) {
+					for (Entry<Long, double[]> update : updates.entrySet()) {
+						if (sent.containsKey(update.getKey())) {
+							pending.putIfAbsent(update.getKey(), update.getValue());
+						}
+					}
+				}
+				throw e;
+			}
+			synchronized (this) {
+				sent.putAll(updates);
+			}
+			return updates.size();
+		}
+	}
+
+	private void send(int[] ids, double[] data) throws Exception {
+		if (batchSupported) {
+			try {
+				scene.updateTransformations(ids, data);
+				return;
+			} catch (Exception e) {
+				if (!isUnsupportedMethod(e)) {
+					throw e;
+				}
+				batchSupported = false;
+			}
+		}
+		for (int i = 0; i < ids.length / 2; i++) {
+			scene.updateTransformation(ids[2 * i], ids[2 * i + 1], data[6 * i], data[6 * i + 1], data[6 * i + 2],
+					data[6 * i + 3], data[6 * i + 4], data[6 * i + 5]);
+		}
+	}
+
+	/**
+	 * Checks whether an exception was caused by calling a method the remote
+	 * object does not know
+	 */
+	private static boolean isUnsupportedMethod(Throwable e) {
+		for (; e != null; e = e.getCause()) {
+			if (e instanceof UnmarshalException && e.getMessage() != null
+					&& e.getMessage().contains("unrecognized method hash")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -37,11 +37,14 @@ import org.roboticsapi.feature.visualization.VisualizationClientScene;
 public class VisualizationGraph implements RoboticsObjectListener {
 
 	private VisualizationClientScene scene;
-	boolean failed = false;
+	volatile boolean failed = false;
 	private FrameTopology topology;
 	private Frame origin;
 	private Map<Frame, Integer> frameId = new HashMap<>();
 	private Map<Relation, Runnable> relationListenerRemover = new HashMap<>();
+	private final SceneUpdateBatcher updates;
+	private final Thread updateThread;
+	private volatile boolean shutdown = false;
 
 	private PropertyListener propertyListener = new PropertyListener() {
 		@Override
@@ -132,12 +135,11 @@ public class VisualizationGraph implements RoboticsObjectListener {
 				Transformation currentTrans = transformation.getCurrentValue();
 				if (currentTrans == null)
 					return;
-				scene.addRelation(frameId.get(addedRelation.getFrom()), frameId.get(addedRelation.getTo()),
-						currentTrans.getX(), currentTrans.getY(), currentTrans.getZ(), currentTrans.getA(),
-						currentTrans.getB(), currentTrans.getC());
-				RealtimeValueListener<Transformation> listener = value -> tryRun(() -> scene.updateTransformation(
-						frameId.get(addedRelation.getFrom()), frameId.get(addedRelation.getTo()), value.getX(),
-						value.getY(), value.getZ(), value.getA(), value.getB(), value.getC()));
+				int from = frameId.get(addedRelation.getFrom()), to = frameId.get(addedRelation.getTo());
+				updates.addRelation(from, to, currentTrans.getX(), currentTrans.getY(), currentTrans.getZ(),
+						currentTrans.getA(), currentTrans.getB(), currentTrans.getC());
+				RealtimeValueListener<Transformation> listener = value -> updates.update(from, to, value.getX(),
+						value.getY(), value.getZ(), value.getA(), value.getB(), value.getC());
 				transformation.addListener(listener);
 				relationListenerRemover.put(addedRelation, () -> tryRun(() -> transformation.removeListener(listener)));
 			});
@@ -147,10 +149,10 @@ public class VisualizationGraph implements RoboticsObjectListener {
 		public void relationRemoved(Relation removedRelation, Frame endpoint) {
 			if (frameId.get(removedRelation.getFrom()) == null || frameId.get(removedRelation.getTo()) == null)
 				return;
-			tryRun(() -> scene.removeRelation(frameId.get(removedRelation.getFrom()),
-					frameId.get(removedRelation.getTo())));
 			if (relationListenerRemover.containsKey(removedRelation))
 				relationListenerRemover.remove(removedRelation).run();
+			tryRun(() -> updates.removeRelation(frameId.get(removedRelation.getFrom()),
+					frameId.get(removedRelation.getTo())));
 		}
 	};
 
@@ -159,6 +161,23 @@ public class VisualizationGraph implements RoboticsObjectListener {
 		this.origin = origin;
 		this.topology = topology.specialized(GeometricRelation.class);
 		tryRun(() -> frameId.put(origin, scene.getRootFrame()));
+
+		// transformation changes are sent together, at most at the given rate
+		this.updates = new SceneUpdateBatcher(scene,
+				Double.parseDouble(System.getProperty("org.roboticsapi.remote.client.threshold", "1e-6")));
+		long period = Math.max(1, 1000 / Math.max(1, Integer.getInteger("org.roboticsapi.remote.client.rate", 50)));
+		updateThread = new Thread(() -> {
+			while (!shutdown && !failed) {
+				tryRun(updates::flush);
+				try {
+					Thread.sleep(period);
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+		}, "Visualization updates");
+		updateThread.setDaemon(true);
+		updateThread.start();
 	}
 
 	@Override
@@ -190,6 +209,8 @@ public class VisualizationGraph implements RoboticsObjectListener {
 	}
 
 	public void shutdown() {
+		shutdown = true;
+		updateThread.interrupt();
 		for (Frame f : frameId.keySet())
 			tryRun(() -> scene.removeFrame(frameId.get(f)));
 	}
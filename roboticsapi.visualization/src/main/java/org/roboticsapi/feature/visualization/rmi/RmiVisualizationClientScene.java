@@ -61,6 +61,9 @@ public interface RmiVisualizationClientScene extends VisualizationClientScene, R
 	void updateTransformation(int from, int to, double x, double y, double z, double a, double b, double c)
 			throws RemoteException;
 
+	@Override
+	void updateTransformations(int[] ids, double[] data) throws RemoteException;
+
 	@Override
 	boolean isValid() throws RemoteException;
 
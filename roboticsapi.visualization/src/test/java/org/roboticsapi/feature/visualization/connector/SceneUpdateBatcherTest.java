@@ -0,0 +1,124 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ *
+ * Copyright 2013-2019 ISSE, University of Augsburg
+ */
+
+package org.roboticsapi.feature.visualization.connector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Proxy;
+import java.rmi.RemoteException;
+import java.rmi.ServerException;
+import java.rmi.UnmarshalException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.roboticsapi.feature.visualization.VisualizationClientScene;
+
+public class SceneUpdateBatcherTest {
+
+	/** calls to the scene, as method name followed by the arguments */
+	private final List<String> calls = new ArrayList<String>();
+	/** exception thrown for batched updates, or null */
+	private Exception batchFailure = null;
+
+	private final VisualizationClientScene scene = (VisualizationClientScene) Proxy.newProxyInstance(
+			getClass().getClassLoader(), new Class<?>[] { VisualizationClientScene.class }, (proxy, method, args) -> {
+				if (method.getName().equals("updateTransformations") && batchFailure != null) {
+					throw batchFailure;
+				}
+				StringBuilder call = new StringBuilder(method.getName());
+				for (Object arg : args) {
+					call.append(' ').append(arg instanceof int[] ? Arrays.toString((int[]) arg)
+							: arg instanceof double[] ? Arrays.toString((double[]) arg) : arg);
+				}
+				calls.add(call.toString());
+				return null;
+			});
+
+	private final SceneUpdateBatcher batcher = new SceneUpdateBatcher(scene, 0.01);
+
+	private void addRelations() throws Exception {
+		batcher.addRelation(1, 2, 0, 0, 0, 0, 0, 0);
+		batcher.addRelation(1, 3, 0, 0, 0, 0, 0, 0);
+		calls.clear();
+	}
+
+	@Test
+	public void testUpdatesAreCoalescedIntoOneBatch() throws Exception {
+		addRelations();
+		batcher.update(1, 2, 1, 0, 0, 0, 0, 0);
+		batcher.update(1, 3, 2, 0, 0, 0, 0, 0);
+		batcher.update(1, 2, 3, 0, 0, 0, 0, 0);
+
+		assertEquals(2, batcher.flush());
+		assertEquals(Arrays.asList("updateTransformations [1, 2, 1, 3] "
+				+ "[3.0, 0.0, 0.0, 0.0, 0.0, 0.0, 2.0, 0.0, 0.0, 0.0, 0.0, 0.0]"), calls);
+		assertEquals(0, batcher.flush());
+	}
+
+	@Test
+	public void testSmallChangesAreNotSent() throws Exception {
+		addRelations();
+		batcher.update(1, 2, 0.005, 0, 0, 0, 0, 0);
+		assertEquals(0, batcher.flush());
+
+		batcher.update(1, 2, 0.5, 0, 0, 0, 0, 0);
+		batcher.update(1, 2, 0.005, 0, 0, 0, 0, 0);
+		assertEquals(0, batcher.flush());
+
+		batcher.update(1, 2, 0, 0, 0, 0, 0, 0.02);
+		assertEquals(1, batcher.flush());
+		batcher.update(1, 2, 0, 0, 0, 0, 0, 0.025);
+		assertEquals(0, batcher.flush());
+	}
+
+	@Test
+	public void testUpdatesOfRemovedRelationsAreDiscarded() throws Exception {
+		addRelations();
+		batcher.update(1, 2, 1, 0, 0, 0, 0, 0);
+		batcher.removeRelation(1, 2);
+		batcher.update(1, 2, 2, 0, 0, 0, 0, 0);
+
+		assertEquals(0, batcher.flush());
+		assertEquals(Arrays.asList("removeRelation 1 2"), calls);
+	}
+
+	@Test
+	public void testOldRemoteClientsGetSingleUpdates() throws Exception {
+		addRelations();
+		batchFailure = new ServerException("RemoteException occurred in server thread",
+				new UnmarshalException("unrecognized method hash: method not supported by remote object"));
+		batcher.update(1, 2, 1, 0, 0, 0, 0, 0);
+		batcher.update(1, 3, 2, 0, 0, 0, 0, 0);
+
+		assertEquals(2, batcher.flush());
+		assertEquals(Arrays.asList("updateTransformation 1 2 1.0 0.0 0.0 0.0 0.0 0.0",
+				"updateTransformation 1 3 2.0 0.0 0.0 0.0 0.0 0.0"), calls);
+	}
+
+	@Test
+	public void testFailedUpdatesAreSentAgain() throws Exception {
+		addRelations();
+		batchFailure = new RemoteException("Connection refused");
+		batcher.update(1, 2, 1, 0, 0, 0, 0, 0);
+		try {
+			batcher.flush();
+			fail("Expected exception");
+		} catch (RemoteException e) {
+		}
+
+		// the batch is still supported, and the update was not considered sent
+		batchFailure = null;
+		batcher.update(1, 2, 1.001, 0, 0, 0, 0, 0);
+		assertEquals(1, batcher.flush());
+		assertEquals(Arrays.asList("updateTransformations [1, 2] [1.001, 0.0, 0.0, 0.0, 0.0, 0.0]"), calls);
+	}
+
+}